@@ -0,0 +1,111 @@
+package io.github.douira.glsl_transformer.ast.data;
+
+import java.util.Set;
+
+/**
+ * The names of the built-in functions of GLSL. This includes the functions of
+ * all versions of the specification, the texture functions that were removed
+ * from the core profile and the functions of commonly used extensions. Shaders
+ * may declare their own overloads of built-in functions, which means that a
+ * call to a function with one of these names can't be assumed to call a
+ * function of the shader. Names starting with "gl_" are reserved as well but
+ * aren't listed here.
+ */
+public final class BuiltinFunctions {
+  private static final Set<String> names = Set.of(
+      // angle and trigonometry
+      "radians", "degrees", "sin", "cos", "tan", "asin", "acos", "atan", "sinh", "cosh", "tanh",
+      "asinh", "acosh", "atanh",
+      // exponential
+      "pow", "exp", "log", "exp2", "log2", "sqrt", "inversesqrt",
+      // common
+      "abs", "sign", "floor", "trunc", "round", "roundEven", "ceil", "fract", "mod", "modf", "min",
+      "max", "clamp", "mix", "step", "smoothstep", "isnan", "isinf", "floatBitsToInt",
+      "floatBitsToUint", "intBitsToFloat", "uintBitsToFloat", "fma", "frexp", "ldexp",
+      // packing
+      "packUnorm2x16", "packSnorm2x16", "packUnorm4x8", "packSnorm4x8", "unpackUnorm2x16",
+      "unpackSnorm2x16", "unpackUnorm4x8", "unpackSnorm4x8", "packHalf2x16", "unpackHalf2x16",
+      "packDouble2x32", "unpackDouble2x32",
+      // geometric
+      "length", "distance", "dot", "cross", "normalize", "ftransform", "faceforward", "reflect",
+      "refract",
+      // matrix
+      "matrixCompMult", "outerProduct", "transpose", "determinant", "inverse",
+      // vector relational
+      "lessThan", "lessThanEqual", "greaterThan", "greaterThanEqual", "equal", "notEqual", "any",
+      "all", "not",
+      // integer
+      "uaddCarry", "usubBorrow", "umulExtended", "imulExtended", "bitfieldExtract",
+      "bitfieldInsert", "bitfieldReverse", "bitCount", "findLSB", "findMSB",
+      // texture
+      "textureSize", "textureQueryLod", "textureQueryLevels", "textureSamples", "texture",
+      "textureProj", "textureLod", "textureOffset", "texelFetch", "texelFetchOffset",
+      "textureProjOffset", "textureLodOffset", "textureProjLod", "textureProjLodOffset",
+      "textureGrad", "textureGradOffset", "textureProjGrad", "textureProjGradOffset",
+      "textureGather", "textureGatherOffset", "textureGatherOffsets",
+      // removed and extension texture functions
+      "texture1D", "texture1DProj", "texture1DLod", "texture1DProjLod", "texture2D",
+      "texture2DProj", "texture2DLod", "texture2DProjLod", "texture3D", "texture3DProj",
+      "texture3DLod", "texture3DProjLod", "textureCube", "textureCubeLod", "shadow1D", "shadow2D",
+      "shadow1DProj", "shadow2DProj", "shadow1DLod", "shadow2DLod", "shadow1DProjLod",
+      "shadow2DProjLod", "texture2DRect", "texture2DRectProj", "shadow2DRect", "shadow2DRectProj",
+      "texture2DLodEXT", "texture2DProjLodEXT", "textureCubeLodEXT", "texture2DGradEXT",
+      "texture2DProjGradEXT", "textureCubeGradEXT", "texture2DGradARB", "texture2DProjGradARB",
+      "textureCubeGradARB", "shadow2DEXT", "shadow2DProjEXT",
+      // atomic counters and memory
+      "atomicCounterIncrement", "atomicCounterDecrement", "atomicCounter", "atomicCounterAdd",
+      "atomicCounterSubtract", "atomicCounterMin", "atomicCounterMax", "atomicCounterAnd",
+      "atomicCounterOr", "atomicCounterXor", "atomicCounterExchange", "atomicCounterCompSwap",
+      "atomicAdd", "atomicMin", "atomicMax", "atomicAnd", "atomicOr", "atomicXor",
+      "atomicExchange", "atomicCompSwap",
+      // images
+      "imageSize", "imageSamples", "imageLoad", "imageStore", "imageAtomicAdd", "imageAtomicMin",
+      "imageAtomicMax", "imageAtomicAnd", "imageAtomicOr", "imageAtomicXor",
+      "imageAtomicExchange", "imageAtomicCompSwap",
+      // geometry shader
+      "EmitStreamVertex", "EndStreamPrimitive", "EmitVertex", "EndPrimitive",
+      // fragment processing
+      "dFdx", "dFdy", "dFdxFine", "dFdyFine", "dFdxCoarse", "dFdyCoarse", "fwidth",
+      "fwidthFine", "fwidthCoarse", "interpolateAtCentroid", "interpolateAtSample",
+      "interpolateAtOffset",
+      // noise
+      "noise1", "noise2", "noise3", "noise4",
+      // invocation and memory control
+      "barrier", "memoryBarrier", "memoryBarrierAtomicCounter", "memoryBarrierBuffer",
+      "memoryBarrierShared", "memoryBarrierImage", "groupMemoryBarrier", "subpassLoad",
+      "anyInvocation", "allInvocations", "allInvocationsEqual",
+      // subgroups
+      "subgroupBarrier", "subgroupMemoryBarrier", "subgroupMemoryBarrierBuffer",
+      "subgroupMemoryBarrierShared", "subgroupMemoryBarrierImage", "subgroupElect",
+      "subgroupAll", "subgroupAny", "subgroupAllEqual", "subgroupBroadcast",
+      "subgroupBroadcastFirst", "subgroupBallot", "subgroupInverseBallot",
+      "subgroupBallotBitExtract", "subgroupBallotBitCount", "subgroupBallotInclusiveBitCount",
+      "subgroupBallotExclusiveBitCount", "subgroupBallotFindLSB", "subgroupBallotFindMSB",
+      "subgroupShuffle", "subgroupShuffleXor", "subgroupShuffleUp", "subgroupShuffleDown",
+      "subgroupAdd", "subgroupMul", "subgroupMin", "subgroupMax", "subgroupAnd", "subgroupOr",
+      "subgroupXor", "subgroupInclusiveAdd", "subgroupInclusiveMul", "subgroupInclusiveMin",
+      "subgroupInclusiveMax", "subgroupInclusiveAnd", "subgroupInclusiveOr",
+      "subgroupInclusiveXor", "subgroupExclusiveAdd", "subgroupExclusiveMul",
+      "subgroupExclusiveMin", "subgroupExclusiveMax", "subgroupExclusiveAnd",
+      "subgroupExclusiveOr", "subgroupExclusiveXor", "subgroupClusteredAdd",
+      "subgroupClusteredMul", "subgroupClusteredMin", "subgroupClusteredMax",
+      "subgroupClusteredAnd", "subgroupClusteredOr", "subgroupClusteredXor",
+      "subgroupQuadBroadcast", "subgroupQuadSwapHorizontal", "subgroupQuadSwapVertical",
+      "subgroupQuadSwapDiagonal",
+      // ARB shader group vote and ballot
+      "anyInvocationARB", "allInvocationsARB", "allInvocationsEqualARB", "ballotARB",
+      "readInvocationARB", "readFirstInvocationARB");
+
+  private BuiltinFunctions() {
+  }
+
+  /**
+   * Checks if the given name is the name of a built-in function.
+   *
+   * @param name the name to check
+   * @return true if the name is reserved for a built-in function
+   */
+  public static boolean isBuiltin(String name) {
+    return names.contains(name) || name.startsWith("gl_");
+  }
+}
@@ -1,7 +1,7 @@
 package io.github.douira.glsl_transformer.ast.data;
 
-import java.util.Collection;
-import java.util.function.Consumer;
+import java.util.*;
+import java.util.function.*;
 import java.util.stream.Stream;
 
 import io.github.douira.glsl_transformer.ast.node.abstract_node.*;
@@ -11,10 +11,38 @@ import io.github.douira.glsl_transformer.ast.node.abstract_node.*;
  * 
  * Implementation of the more complex RemovalProxyArray list isn't necessary
  * because each child notifies its previous parent of the parent change.
+ * 
+ * The replacer of each child remembers the slot of the child in the list so
+ * that replacing or removing a child through its replacer doesn't have to
+ * search the list. The slots are fixed up lazily: a structural change at some
+ * index only marks the slots after it as stale, and stale slots are corrected
+ * from there when a child with a stale slot is replaced.
+ * 
+ * A child that removes itself through its replacer is replaced by a tombstone
+ * instead of shifting the children after it. This doesn't move any children
+ * which keeps all slots valid. The tombstones are removed in a single pass
+ * before the list is accessed in any other way. Removing any number of
+ * children through their replacers therefore takes constant time per child
+ * and one pass over the list at the next access.
  */
 public class ChildNodeList<Child extends ASTNode> extends ProxyArrayList<Child> {
   private InnerASTNode parent;
 
+  // the slots of the children before this index are known to be correct
+  private int validSlots = 0;
+
+  // the mod count at which validSlots was last updated, other changes are
+  // detected by comparing it to the current mod count
+  private int slotsModCount = 0;
+
+  // marks the position of a child that was removed through its replacer
+  private static final Object TOMBSTONE = new Object();
+  private static final Predicate<Object> IS_TOMBSTONE = element -> element == TOMBSTONE;
+
+  // the number of tombstones and the index of the first one
+  private int tombstones = 0;
+  private int firstTombstone = Integer.MAX_VALUE;
+
   public ChildNodeList(InnerASTNode parent) {
     this.parent = parent;
   }
@@ -39,11 +67,343 @@ public class ChildNodeList<Child extends ASTNode> extends ProxyArrayList<Child>
     added.setParent(parent, makeChildReplacer(this, added));
   }
 
+  @Override
+  public Child set(int index, Child element) {
+    compact();
+    return setAt(index, element);
+  }
+
+  private Child setAt(int index, Child element) {
+    var prev = super.set(index, element);
+    setSlot(element, index);
+    return prev;
+  }
+
+  @Override
+  public boolean add(Child e) {
+    compact();
+    var modCountBefore = modCount;
+    var index = size();
+    var result = super.add(e);
+    invalidateSlots(modCountBefore, index);
+
+    // appending keeps the slots valid when building a list
+    setSlot(e, index);
+    if (validSlots == index) {
+      validSlots++;
+    }
+    return result;
+  }
+
+  @Override
+  public void add(int index, Child element) {
+    compact();
+    var modCountBefore = modCount;
+    super.add(index, element);
+    invalidateSlots(modCountBefore, index);
+  }
+
+  @Override
+  public boolean addAll(Collection<? extends Child> c) {
+    compact();
+    var modCountBefore = modCount;
+    var index = size();
+    var result = super.addAll(c);
+    invalidateSlots(modCountBefore, index);
+    return result;
+  }
+
+  @Override
+  public boolean addAll(int index, Collection<? extends Child> c) {
+    compact();
+    var modCountBefore = modCount;
+    var result = super.addAll(index, c);
+    invalidateSlots(modCountBefore, index);
+    return result;
+  }
+
+  @Override
+  public Child remove(int index) {
+    compact();
+    var modCountBefore = modCount;
+    var removed = super.remove(index);
+    invalidateSlots(modCountBefore, index);
+    return removed;
+  }
+
+  /**
+   * Replaces the child at the given index with a tombstone. The tombstone is
+   * removed by the next call to {@link #compact()}. The removal counts as a
+   * structural change for iterators but it doesn't make any slots stale.
+   * 
+   * @param index the index of the child to remove
+   */
+  private void removeLater(int index) {
+    var removed = setUnnotified(index, TOMBSTONE);
+    tombstones++;
+    firstTombstone = Math.min(firstTombstone, index);
+    var slotsValid = slotsModCount == modCount;
+    modCount++;
+    if (slotsValid) {
+      slotsModCount = modCount;
+    }
+    notifyRemovalSafe(removed);
+  }
+
+  /**
+   * Removes all tombstones from the list. The slots of the children after the
+   * first tombstone are stale afterwards.
+   */
+  private void compact() {
+    if (tombstones == 0) {
+      return;
+    }
+    var modCountBefore = modCount;
+    var index = firstTombstone;
+    tombstones = 0;
+    firstTombstone = Integer.MAX_VALUE;
+    removeIfUnnotified(IS_TOMBSTONE);
+    invalidateSlots(modCountBefore, index);
+  }
+
+  /**
+   * Marks the slots at and after the given index as stale after a structural
+   * change. If the list was changed in an untracked way since the last tracked
+   * change, all slots are marked as stale.
+   * 
+   * @param modCountBefore the mod count before the change
+   * @param index          the first index affected by the change
+   */
+  private void invalidateSlots(int modCountBefore, int index) {
+    validSlots = slotsModCount == modCountBefore ? Math.min(validSlots, index) : 0;
+    slotsModCount = modCount;
+  }
+
+  private void setSlot(Child child, int index) {
+    if (child != null
+        && child.getParentSetter() instanceof ChildReplacer<?> replacer
+        && replacer.list == this) {
+      replacer.slot = index;
+    }
+  }
+
+  /**
+   * Finds the index of the given child using the slot stored in its replacer.
+   * If the slot is stale, the stale slots are corrected up to the child.
+   * 
+   * @param replacer the replacer of the child
+   * @return the index of the child or -1 if it's not in this list
+   */
+  private int indexOfChild(ChildReplacer<Child> replacer) {
+    // this uses the list with the tombstones since they don't move any children
+    var child = replacer.child;
+    var slot = replacer.slot;
+    var size = super.size();
+    if (slot >= 0 && slot < size && getStored(slot) == child) {
+      return slot;
+    }
+    if (slotsModCount != modCount) {
+      validSlots = 0;
+      slotsModCount = modCount;
+    }
+
+    // the child is after the valid slots unless this replacer is outdated
+    for (var i = validSlots; i < size; i++) {
+      var stored = getStored(i);
+      validSlots = i + 1;
+      if (stored == TOMBSTONE) {
+        continue;
+      }
+      var element = super.get(i);
+      setSlot(element, i);
+      if (element == child) {
+        replacer.slot = i;
+        return i;
+      }
+    }
+
+    // an outdated replacer of a child that was moved within this list
+    return super.indexOf(child);
+  }
+
   @Override
   protected void notifyRemoval(Child removed) {
     removed.detachParent();
   }
 
+  @Override
+  public void sort(Comparator<? super Child> c) {
+    compact();
+    super.sort(c);
+    // reordering doesn't notify the children but it changes the parent's content
+    parent.markModified();
+  }
+
+  // all other access sees the list without tombstones
+
+  @Override
+  public Child get(int index) {
+    compact();
+    return super.get(index);
+  }
+
+  @Override
+  public int size() {
+    compact();
+    return super.size();
+  }
+
+  @Override
+  public boolean isEmpty() {
+    compact();
+    return super.isEmpty();
+  }
+
+  @Override
+  public Iterator<Child> iterator() {
+    compact();
+    return super.iterator();
+  }
+
+  @Override
+  public ListIterator<Child> listIterator() {
+    compact();
+    return super.listIterator();
+  }
+
+  @Override
+  public ListIterator<Child> listIterator(int index) {
+    compact();
+    return super.listIterator(index);
+  }
+
+  @Override
+  public Spliterator<Child> spliterator() {
+    compact();
+    return super.spliterator();
+  }
+
+  @Override
+  public void forEach(Consumer<? super Child> action) {
+    compact();
+    super.forEach(action);
+  }
+
+  @Override
+  public Object[] toArray() {
+    compact();
+    return super.toArray();
+  }
+
+  @Override
+  public <T> T[] toArray(T[] a) {
+    compact();
+    return super.toArray(a);
+  }
+
+  @Override
+  public int indexOf(Object o) {
+    compact();
+    return super.indexOf(o);
+  }
+
+  @Override
+  public int lastIndexOf(Object o) {
+    compact();
+    return super.lastIndexOf(o);
+  }
+
+  @Override
+  public boolean contains(Object o) {
+    compact();
+    return super.contains(o);
+  }
+
+  @Override
+  public List<Child> subList(int fromIndex, int toIndex) {
+    compact();
+    return super.subList(fromIndex, toIndex);
+  }
+
+  @Override
+  public Child getFirst() {
+    compact();
+    return super.getFirst();
+  }
+
+  @Override
+  public Child getLast() {
+    compact();
+    return super.getLast();
+  }
+
+  @Override
+  public Child removeFirst() {
+    compact();
+    return super.removeFirst();
+  }
+
+  @Override
+  public Child removeLast() {
+    compact();
+    return super.removeLast();
+  }
+
+  @Override
+  public boolean remove(Object o) {
+    compact();
+    return super.remove(o);
+  }
+
+  @Override
+  public boolean removeAll(Collection<?> c) {
+    compact();
+    return super.removeAll(c);
+  }
+
+  @Override
+  public boolean retainAll(Collection<?> c) {
+    compact();
+    return super.retainAll(c);
+  }
+
+  @Override
+  public boolean removeIf(Predicate<? super Child> filter) {
+    compact();
+    return super.removeIf(filter);
+  }
+
+  @Override
+  public void replaceAll(UnaryOperator<Child> operator) {
+    compact();
+    super.replaceAll(operator);
+  }
+
+  @Override
+  public void clear() {
+    compact();
+    super.clear();
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    compact();
+    return super.equals(o);
+  }
+
+  @Override
+  public int hashCode() {
+    compact();
+    return super.hashCode();
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public ChildNodeList<Child> clone() {
+    compact();
+    return (ChildNodeList<Child>) super.clone();
+  }
+
   /**
    * Returns true if the list is empty or contains only null elements.
    * 
@@ -62,17 +422,34 @@ public class ChildNodeList<Child extends ASTNode> extends ProxyArrayList<Child>
   }
 
   protected static <Child extends ASTNode> Consumer<Child> makeChildReplacer(ChildNodeList<Child> list, Child child) {
-    return newNode -> {
+    return new ChildReplacer<>(list, child);
+  }
+
+  private static class ChildReplacer<Child extends ASTNode> implements Consumer<Child> {
+    private final ChildNodeList<Child> list;
+    private final Child child;
+    private int slot = -1;
+
+    ChildReplacer(ChildNodeList<Child> list, Child child) {
+      this.list = list;
+      this.child = child;
+    }
+
+    @Override
+    public void accept(Child newNode) {
       if (newNode == child) {
         return;
       }
+      var index = list.indexOfChild(this);
       list.parent.updateParents(child, newNode, makeChildReplacer(list, newNode));
       if (newNode == null) {
-        list.remove(child);
+        if (index >= 0) {
+          list.removeLater(index);
+        }
       } else {
-        list.set(list.indexOf(child), newNode);
+        list.setAt(index, newNode);
       }
-    };
+    }
   }
 
   public static <Child extends ASTNode> ChildNodeList<Child> collect(
@@ -48,7 +48,7 @@ public abstract class ProxyArrayList<V> extends ArrayList<V> {
     }
   }
 
-  private void notifyRemovalSafe(V removed) {
+  void notifyRemovalSafe(V removed) {
     if (removed != null) {
       notifyRemoval(removed);
       if (elements != null) {
@@ -63,6 +63,32 @@ public abstract class ProxyArrayList<V> extends ArrayList<V> {
     }
   }
 
+  /**
+   * Stores the given object at the given index without notifying the removal of
+   * the previous element. This is used to store placeholders that aren't
+   * elements of the list and must not be read as one.
+   */
+  @SuppressWarnings("unchecked")
+  V setUnnotified(int index, Object stored) {
+    return super.set(index, (V) stored);
+  }
+
+  /**
+   * Returns the object stored at the given index, which may be a placeholder
+   * stored with {@link #setUnnotified(int, Object)}.
+   */
+  Object getStored(int index) {
+    return super.get(index);
+  }
+
+  /**
+   * Removes the elements matching the given filter without notifying their
+   * removal.
+   */
+  boolean removeIfUnnotified(Predicate<? super V> filter) {
+    return super.removeIf(filter);
+  }
+
   private Set<V> getElements() {
     if (elements == null) {
       elements = new HashSet<>(this);
@@ -0,0 +1,108 @@
+package io.github.douira.glsl_transformer.ast.data;
+
+import java.lang.ref.WeakReference;
+import java.util.WeakHashMap;
+
+/**
+ * Interns the names of identifiers so that each distinct name is only stored
+ * once across all roots, cached trees and indexes. All names stored in
+ * {@link io.github.douira.glsl_transformer.ast.node.Identifier} instances are
+ * interned which means two identifiers have the same name if and only if their
+ * name strings are the same object. Indexes can use this to key on names by
+ * identity.
+ *
+ * The table is global and thread-safe. Names are only held weakly so that a
+ * name is removed from the table once no identifier, index or other object
+ * references its canonical instance anymore. This keeps the table from growing
+ * without bound in a long-running process that parses many different shaders.
+ * The table is split into stripes by the hash of the name to reduce contention
+ * between threads.
+ */
+public final class SymbolTable {
+  private static final int STRIPE_COUNT = 16;
+
+  @SuppressWarnings("unchecked")
+  private static final WeakHashMap<String, WeakReference<String>>[] stripes = (WeakHashMap<String, WeakReference<String>>[]) new WeakHashMap<?, ?>[STRIPE_COUNT];
+
+  static {
+    for (var i = 0; i < STRIPE_COUNT; i++) {
+      stripes[i] = new WeakHashMap<>();
+    }
+  }
+
+  private SymbolTable() {
+  }
+
+  private static WeakHashMap<String, WeakReference<String>> getStripe(String name) {
+    var hash = name.hashCode();
+    return stripes[(hash ^ (hash >>> 16)) & (STRIPE_COUNT - 1)];
+  }
+
+  /**
+   * Returns the canonical instance of the given name and adds it to the table
+   * if it isn't present yet.
+   *
+   * @param name the name to intern
+   * @return the canonical instance of the name, null if the name is null
+   */
+  public static String intern(String name) {
+    if (name == null) {
+      return null;
+    }
+    var stripe = getStripe(name);
+    synchronized (stripe) {
+      var reference = stripe.get(name);
+      var existing = reference == null ? null : reference.get();
+      if (existing != null) {
+        return existing;
+      }
+      stripe.put(name, new WeakReference<>(name));
+      return name;
+    }
+  }
+
+  /**
+   * Returns the canonical instance of the given name without adding it to the
+   * table. This is useful for querying an index with a name that may never have
+   * been used by an identifier.
+   *
+   * @param name the name to look up
+   * @return the canonical instance of the name or null if it hasn't been
+   *         interned or isn't used anymore
+   */
+  public static String lookup(String name) {
+    if (name == null) {
+      return null;
+    }
+    var stripe = getStripe(name);
+    synchronized (stripe) {
+      var reference = stripe.get(name);
+      return reference == null ? null : reference.get();
+    }
+  }
+
+  /**
+   * Checks if the given string is the canonical instance of its name.
+   *
+   * @param name the name to check
+   * @return true if the name is interned and it is the canonical instance
+   */
+  public static boolean isInterned(String name) {
+    return name != null && lookup(name) == name;
+  }
+
+  /**
+   * Returns the number of interned names that haven't been removed yet.
+   *
+   * @return the number of names in the table
+   */
+  public static int size() {
+    var size = 0;
+    for (var stripe : stripes) {
+      synchronized (stripe) {
+        size += stripe.size();
+      }
+    }
+    return size;
+  }
+}
@@ -2,7 +2,9 @@ package io.github.douira.glsl_transformer.ast.node;
 
 import org.antlr.v4.runtime.Token;
 
+import io.github.douira.glsl_transformer.ast.data.SymbolTable;
 import io.github.douira.glsl_transformer.ast.node.abstract_node.ASTNode;
+import io.github.douira.glsl_transformer.ast.node.abstract_node.NodeKind;
 import io.github.douira.glsl_transformer.ast.query.Root;
 import io.github.douira.glsl_transformer.ast.traversal.ASTVisitor;
 
@@ -10,14 +12,26 @@ public class Identifier extends ASTNode {
   private String name;
 
   public Identifier(String name) {
-    this.name = name;
     validateContents(name);
+    this.name = SymbolTable.intern(name);
   }
 
   public Identifier(Token token) {
     this(token.getText());
   }
 
+  // the name of a cloned identifier is already validated and interned
+  private Identifier(Identifier identifier) {
+    this.name = identifier.name;
+  }
+
+  /**
+   * Returns the name of this identifier. The name is interned in the
+   * {@link SymbolTable} which means names of identifiers can be compared by
+   * identity.
+   * 
+   * @return the interned name
+   */
   public String getName() {
     return name;
   }
@@ -28,8 +42,9 @@ public class Identifier extends ASTNode {
     }
     validateContents(name);
     getRoot().unregisterIdentifierRename(this);
-    this.name = name;
+    this.name = SymbolTable.intern(name);
     getRoot().registerIdentifierRename(this);
+    markModified();
   }
 
   /**
@@ -41,8 +56,9 @@ public class Identifier extends ASTNode {
    */
   public void _setNameInternal(String name) {
     getRoot().unregisterFastRename(this);
-    this.name = name;
+    this.name = SymbolTable.intern(name);
     getRoot().registerFastRename(this);
+    markModified();
   }
 
   public static final void validateContents(String str) {
@@ -62,6 +78,11 @@ public class Identifier extends ASTNode {
     }
   }
 
+  @Override
+  public NodeKind getNodeKind() {
+    return NodeKind.IDENTIFIER;
+  }
+
   @Override
   public <R> R accept(ASTVisitor<R> visitor) {
     return visitor.visitIdentifier(this);
@@ -69,7 +90,7 @@ public class Identifier extends ASTNode {
 
   @Override
   public Identifier clone() {
-    return new Identifier(name);
+    return new Identifier(this);
   }
 
   @Override
@@ -1,6 +1,7 @@
 package io.github.douira.glsl_transformer.ast.node;
 
 import io.github.douira.glsl_transformer.ast.node.abstract_node.InnerASTNode;
+import io.github.douira.glsl_transformer.ast.node.abstract_node.NodeKind;
 import io.github.douira.glsl_transformer.ast.node.type.FullySpecifiedType;
 import io.github.douira.glsl_transformer.ast.node.type.initializer.Initializer;
 import io.github.douira.glsl_transformer.ast.query.Root;
@@ -44,6 +45,11 @@ public class IterationConditionInitializer extends InnerASTNode {
     this.initializer = initializer;
   }
 
+  @Override
+  public NodeKind getNodeKind() {
+    return NodeKind.ITERATION_CONDITION_INITIALIZER;
+  }
+
   @Override
   public <R> R accept(ASTVisitor<R> visitor) {
     return visitor.visitIterationConditionInitializer(this);
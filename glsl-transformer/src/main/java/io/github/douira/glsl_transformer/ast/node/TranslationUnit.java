@@ -3,7 +3,9 @@ package io.github.douira.glsl_transformer.ast.node;
 import java.util.*;
 import java.util.stream.Stream;
 
+import io.github.douira.glsl_transformer.ast.node.abstract_node.ASTNode;
 import io.github.douira.glsl_transformer.ast.node.abstract_node.ListASTNode;
+import io.github.douira.glsl_transformer.ast.node.abstract_node.NodeKind;
 import io.github.douira.glsl_transformer.ast.node.external_declaration.*;
 import io.github.douira.glsl_transformer.ast.node.statement.*;
 import io.github.douira.glsl_transformer.ast.print.OutputOptions;
@@ -65,6 +67,26 @@ public class TranslationUnit extends ListASTNode<ExternalDeclaration> {
     }, Integer::sum);
   }
 
+  /**
+   * Instantiates the given template once for each list of local replacements
+   * with {@link Template#instantiateAll(Root, List)} and injects all instances
+   * into the translation unit at the given injection point at once.
+   *
+   * @param <N>               The type of the instances
+   * @param injectionPoint    The injection point
+   * @param template          The template to instantiate
+   * @param localReplacements The local replacements of each instance
+   * @return The injected instances
+   */
+  public <N extends ExternalDeclaration> List<N> injectInstances(
+      ASTInjectionPoint injectionPoint,
+      Template<N> template,
+      List<List<ASTNode>> localReplacements) {
+    var instances = template.instantiateAll(getRoot(), localReplacements);
+    injectNodes(injectionPoint, instances);
+    return instances;
+  }
+
   public void parseAndInjectNodes(
       ASTParser t,
       ASTInjectionPoint injectionPoint,
@@ -177,6 +199,11 @@ public class TranslationUnit extends ListASTNode<ExternalDeclaration> {
     }
   }
 
+  @Override
+  public NodeKind getNodeKind() {
+    return NodeKind.TRANSLATION_UNIT;
+  }
+
   @Override
   public <R> R accept(ASTVisitor<R> visitor) {
     return visitor.visitTranslationUnit(this);
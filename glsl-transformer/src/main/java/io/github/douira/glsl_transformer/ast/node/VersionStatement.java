@@ -1,6 +1,7 @@
 package io.github.douira.glsl_transformer.ast.node;
 
 import io.github.douira.glsl_transformer.ast.node.abstract_node.ASTNode;
+import io.github.douira.glsl_transformer.ast.node.abstract_node.NodeKind;
 import io.github.douira.glsl_transformer.ast.query.Root;
 import io.github.douira.glsl_transformer.ast.traversal.ASTVisitor;
 
@@ -10,8 +11,8 @@ import io.github.douira.glsl_transformer.ast.traversal.ASTVisitor;
  * outside of this class for easier use in the lexer.
  */
 public class VersionStatement extends ASTNode {
-  public Version version;
-  public Profile profile; // TODO: nullable
+  private Version version;
+  private Profile profile; // TODO: nullable
 
   public VersionStatement(Version version, Profile profile) {
     this.version = version;
@@ -22,12 +23,35 @@ public class VersionStatement extends ASTNode {
     return new VersionStatement(Version.GLSL11, null);
   }
 
+  public Version getVersion() {
+    return version;
+  }
+
+  public void setVersion(Version version) {
+    this.version = version;
+    markModified();
+  }
+
+  public Profile getProfile() {
+    return profile;
+  }
+
+  public void setProfile(Profile profile) {
+    this.profile = profile;
+    markModified();
+  }
+
   public Profile getNormalizedProfile() {
     return profile == null
         ? version.number >= 150 ? Profile.CORE : Profile.COMPATIBILITY
         : profile;
   }
 
+  @Override
+  public NodeKind getNodeKind() {
+    return NodeKind.VERSION_STATEMENT;
+  }
+
   @Override
   public <R> R accept(ASTVisitor<R> visitor) {
     return visitor.visitVersionStatement(this);
@@ -1,6 +1,6 @@
 package io.github.douira.glsl_transformer.ast.node.abstract_node;
 
-import java.util.Objects;
+import java.util.*;
 import java.util.function.*;
 import java.util.stream.Stream;
 
@@ -46,6 +46,22 @@ public abstract class ASTNode {
   private Root root = Root.getActiveBuildRoot();
   protected Template<?> template = null;
   protected SourceLocation sourceLocation = null;
+  protected SourceRange sourceRange = null;
+
+  /**
+   * Whether this node or one of its descendants has been changed since the
+   * source range of this node was set. Nodes without a source range are not
+   * printed verbatim and their flag is not relevant.
+   */
+  private boolean modified = false;
+
+  /**
+   * The cached structural hash of this node. It's only valid if
+   * {@link #structuralHashValid} is set. If the hash of a node is invalid, the
+   * hashes of all its ancestors are invalid too.
+   */
+  private int structuralHash;
+  private boolean structuralHashValid = false;
 
   /**
    * Whether this node has been registered with the root. This is only used when
@@ -54,11 +70,25 @@ public abstract class ASTNode {
    */
   private boolean registered = false;
 
+  /**
+   * The position of this node in its bucket of a
+   * {@link io.github.douira.glsl_transformer.ast.query.index.CompactNodeIndex}.
+   * This allows removal from the index without searching for the node.
+   */
+  private int nodeIndexSlot = -1;
+
   public ASTNode() {
   }
 
   public abstract <R> R accept(ASTVisitor<R> visitor);
 
+  /**
+   * Returns the kind of this node. Each concrete node class has its own kind.
+   * 
+   * @return the kind of this node
+   */
+  public abstract NodeKind getNodeKind();
+
   public SourceLocation getSourceLocation() {
     return sourceLocation;
   }
@@ -67,6 +97,163 @@ public abstract class ASTNode {
     this.sourceLocation = sourceLocation;
   }
 
+  public SourceRange getSourceRange() {
+    return sourceRange;
+  }
+
+  /**
+   * Sets the range of the parsed source code this node was built from and marks
+   * this node as unmodified. This should only be called internally once all the
+   * children of this node have been attached.
+   * 
+   * @param sourceRange The source range
+   */
+  public void setSourceRange(SourceRange sourceRange) {
+    this.sourceRange = sourceRange;
+    this.modified = false;
+  }
+
+  public boolean isModified() {
+    return modified;
+  }
+
+  /**
+   * Checks if this node can be printed by copying the source code it was parsed
+   * from. This is the case if it has a source range and neither it nor any of
+   * its descendants have been changed since it was parsed.
+   * 
+   * @return {@code true} if the source text of this node is up to date
+   */
+  public boolean hasVerbatimSource() {
+    return sourceRange != null && !modified;
+  }
+
+  /**
+   * Marks this node and all its ancestors as modified. This is done
+   * automatically when children are added, removed or replaced and when the
+   * data of a node is changed through its setters.
+   * 
+   * The propagation stops at a modified node with a source range since its
+   * ancestors have already been marked. Each call also increments the
+   * modification count of the root and invalidates the structural hashes of
+   * this node and its ancestors.
+   */
+  public void markModified() {
+    if (root != null) {
+      root.notifyModification();
+    }
+    invalidateStructuralHash();
+    ASTNode node = this;
+    while (node != null) {
+      if (node.modified && node.sourceRange != null) {
+        return;
+      }
+      node.modified = true;
+      node = node.parent;
+    }
+  }
+
+  private void invalidateStructuralHash() {
+    ASTNode node = this;
+    while (node != null && node.structuralHashValid) {
+      node.structuralHashValid = false;
+      if (node.root != null) {
+        node.root.notifyStructuralHashInvalidation(node);
+      }
+      node = node.parent;
+    }
+  }
+
+  /**
+   * Returns the structural hash of this node. It's a hash over the kind of this
+   * node, its data and the structural hashes of its children. Nodes that are
+   * structurally equal have the same hash regardless of where they are in the
+   * tree or which root they belong to.
+   * 
+   * The hash is computed lazily and cached. Changing the tree through
+   * {@link #markModified()} invalidates the hashes of the changed node and its
+   * ancestors, so that only those are computed again on the next call while the
+   * cached hashes of unchanged subtrees are reused. The setters of the nodes
+   * call {@link #markModified()} for changes to their data.
+   * 
+   * @return The structural hash of this node
+   */
+  public int getStructuralHash() {
+    if (!structuralHashValid) {
+      var hasher = new NodeItemVisitor() {
+        int hash = getNodeKind().ordinal() + 1;
+
+        @Override
+        void visitItem(Object item) {
+          int itemHash;
+          if (item instanceof ASTNode child) {
+            itemHash = child.getStructuralHash();
+          } else if (item instanceof Enum<?> enumItem) {
+            // enum hash codes differ between runs while the ordinal is stable
+            itemHash = enumItem.ordinal() + 1;
+          } else {
+            itemHash = Objects.hashCode(item);
+          }
+          hash = 31 * hash + itemHash;
+        }
+      };
+      hasher.visitItems(this);
+      structuralHash = hasher.hash;
+      structuralHashValid = true;
+    }
+    return structuralHash;
+  }
+
+  /**
+   * Checks if this node and the given node have the same structure. This is the
+   * case if they are of the same class, have equal data and their children are
+   * structurally equal in the same order. The location of the nodes in the tree
+   * and their source positions are not compared. The structural hashes are
+   * compared first so that most unequal nodes are rejected without traversing
+   * them.
+   * 
+   * @param other The node to compare with
+   * @return Whether the nodes are structurally equal
+   */
+  public boolean equalsStructurally(ASTNode other) {
+    if (this == other) {
+      return true;
+    }
+    if (other == null
+        || getClass() != other.getClass()
+        || getStructuralHash() != other.getStructuralHash()) {
+      return false;
+    }
+    var items = getItems(this);
+    var otherItems = getItems(other);
+    if (items.size() != otherItems.size()) {
+      return false;
+    }
+    for (var i = 0; i < items.size(); i++) {
+      var item = items.get(i);
+      var otherItem = otherItems.get(i);
+      if (item instanceof ASTNode child) {
+        if (!(otherItem instanceof ASTNode otherChild) || !child.equalsStructurally(otherChild)) {
+          return false;
+        }
+      } else if (otherItem instanceof ASTNode || !Objects.equals(item, otherItem)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static List<Object> getItems(ASTNode node) {
+    var items = new ArrayList<Object>();
+    new NodeItemVisitor() {
+      @Override
+      void visitItem(Object item) {
+        items.add(item);
+      }
+    }.visitItems(node);
+    return items;
+  }
+
   public ASTNode getParent() {
     return parent;
   }
@@ -272,6 +459,27 @@ public abstract class ASTNode {
     register(isSubtreeRoot);
   }
 
+  /**
+   * Returns the slot of this node in the compact node index. This method should
+   * only be called internally by the index.
+   *
+   * @return The slot of this node or -1 if it's not in a compact node index
+   */
+  public int _getNodeIndexSlot() {
+    return nodeIndexSlot;
+  }
+
+  /**
+   * Sets the slot of this node in the compact node index. This method should
+   * only be called internally by the index. Using it otherwise will lead to
+   * inconsistencies.
+   *
+   * @param nodeIndexSlot The new slot of this node
+   */
+  public void _setNodeIndexSlot(int nodeIndexSlot) {
+    this.nodeIndexSlot = nodeIndexSlot;
+  }
+
   private void unregister(boolean isSubtreeRoot) {
     root.unregisterNode(this, isSubtreeRoot);
     registered = false;
@@ -296,6 +504,12 @@ public abstract class ASTNode {
     // always set the self replacer since the node might have moved inside its
     // parent without changing the parent
     this.selfReplacer = (Consumer<ASTNode>) setter;
+    parent.markModified();
+
+    // a registered node that gets a parent in the same root is being moved
+    if (registered && root == parent.root) {
+      root.notifyNodeMove(this, parent);
+    }
 
     // if the parent doesn't change, nothing has to be done
     if (this.parent == parent) {
@@ -326,7 +540,7 @@ public abstract class ASTNode {
     return true;
   }
 
-  private class ChangeRootVisitor extends ASTVoidVisitor {
+  private class ChangeRootVisitor extends ASTKindVoidVisitor {
     private Root rootToSet;
 
     ChangeRootVisitor(Root rootToSet) {
@@ -399,12 +613,28 @@ public abstract class ASTNode {
    * been (efficiently) removed from the parent.
    */
   public void detachParent() {
+    if (registered && parent != null) {
+      root.notifyNodeMove(this, null);
+    }
+    if (parent != null) {
+      parent.markModified();
+    }
     lastParent = parent;
     parent = null;
     selfReplacer = null;
   }
 
-  private class UnregisterVisitor extends ASTVoidVisitor {
+  private class UnregisterVisitor extends ASTKindVoidVisitor {
+    @Override
+    public Void visit(ASTNode node) {
+      // required children may have been detached to reuse them elsewhere before
+      // their parent is deleted
+      if (node != null) {
+        super.visit(node);
+      }
+      return null;
+    }
+
     @Override
     public void visitVoid(ASTNode node) {
       node.unregister(node == ASTNode.this);
@@ -509,11 +739,16 @@ public abstract class ASTNode {
       return null;
     }
     N clone;
-    if (node.template == null) {
+    N replacement = node.template == null ? null : node.template.getReplacement(node);
+    if (replacement == null) {
       clone = (N) node.clone();
+
+      // the clone has the same source text as long as the original is unmodified
+      ASTNode cloneNode = clone;
+      cloneNode.sourceRange = node.sourceRange;
+      cloneNode.modified = ((ASTNode) node).modified;
     } else {
-      N replacement = node.template.getReplacement(node);
-      clone = replacement == null ? (N) node.clone() : replacement;
+      clone = replacement;
     }
     clone.setSourceLocation(node.getSourceLocation());
     return clone;
@@ -0,0 +1,48 @@
+package io.github.douira.glsl_transformer.ast.node.abstract_node;
+
+import io.github.douira.glsl_transformer.ast.node.VersionStatement;
+import io.github.douira.glsl_transformer.ast.traversal.*;
+
+/**
+ * Visits the direct items of a single node in the order in which the
+ * {@link ASTVisitor} visits them: the child nodes, the data and a null item for
+ * each missing optional child. The children themselves are not visited, which
+ * makes this the basis for computations that combine the results of the
+ * children, like the structural hash.
+ */
+abstract class NodeItemVisitor extends ASTVoidVisitor {
+  /**
+   * Visits a single item of the node.
+   *
+   * @param item A child node, a data object or null for a missing child
+   */
+  abstract void visitItem(Object item);
+
+  void visitItems(ASTNode node) {
+    NodeKindDispatch.dispatch(this, node);
+  }
+
+  @Override
+  public Void visit(ASTNode node) {
+    visitItem(node);
+    return null;
+  }
+
+  @Override
+  public Void visitSafe(Void previousResult, ASTNode node) {
+    visitItem(node);
+    return null;
+  }
+
+  @Override
+  public void visitVoidData(Object data) {
+    visitItem(data);
+  }
+
+  // the version isn't visited as data by the visitor but it's part of the node
+  @Override
+  public Void visitVersionStatement(VersionStatement node) {
+    visitItem(node.getVersion());
+    return super.visitVersionStatement(node);
+  }
+}
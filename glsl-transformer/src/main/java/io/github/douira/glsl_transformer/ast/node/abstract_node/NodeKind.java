@@ -0,0 +1,194 @@
+package io.github.douira.glsl_transformer.ast.node.abstract_node;
+
+import io.github.douira.glsl_transformer.ast.node.*;
+import io.github.douira.glsl_transformer.ast.node.declaration.*;
+import io.github.douira.glsl_transformer.ast.node.expression.*;
+import io.github.douira.glsl_transformer.ast.node.expression.binary.*;
+import io.github.douira.glsl_transformer.ast.node.expression.unary.*;
+import io.github.douira.glsl_transformer.ast.node.external_declaration.*;
+import io.github.douira.glsl_transformer.ast.node.statement.*;
+import io.github.douira.glsl_transformer.ast.node.statement.loop.*;
+import io.github.douira.glsl_transformer.ast.node.statement.selection.*;
+import io.github.douira.glsl_transformer.ast.node.statement.terminal.*;
+import io.github.douira.glsl_transformer.ast.node.type.*;
+import io.github.douira.glsl_transformer.ast.node.type.initializer.*;
+import io.github.douira.glsl_transformer.ast.node.type.qualifier.*;
+import io.github.douira.glsl_transformer.ast.node.type.specifier.*;
+import io.github.douira.glsl_transformer.ast.node.type.struct.*;
+
+/**
+ * The kind of a concrete AST node class. Each concrete node class returns its
+ * kind from {@link ASTNode#getNodeKind()}. This allows dispatching on the
+ * type of a node with a switch or a table indexed by the ordinal of the kind
+ * instead of using double dispatch or instanceof chains.
+ * 
+ * The ordinals are small and dense. New kinds must only be appended at the end
+ * so that the ordinals of the existing kinds stay the same.
+ */
+public enum NodeKind {
+  IDENTIFIER(Identifier.class),
+  ITERATION_CONDITION_INITIALIZER(IterationConditionInitializer.class),
+  TRANSLATION_UNIT(TranslationUnit.class),
+  VERSION_STATEMENT(VersionStatement.class),
+  DECLARATION_MEMBER(DeclarationMember.class),
+  FUNCTION_DECLARATION(FunctionDeclaration.class),
+  FUNCTION_PARAMETER(FunctionParameter.class),
+  INTERFACE_BLOCK_DECLARATION(InterfaceBlockDeclaration.class),
+  PRECISION_DECLARATION(PrecisionDeclaration.class),
+  TYPE_AND_INIT_DECLARATION(TypeAndInitDeclaration.class),
+  VARIABLE_DECLARATION(VariableDeclaration.class),
+  CONDITION_EXPRESSION(ConditionExpression.class),
+  LITERAL_EXPRESSION(LiteralExpression.class),
+  REFERENCE_EXPRESSION(ReferenceExpression.class),
+  SEQUENCE_EXPRESSION(SequenceExpression.class),
+  ADDITION_ASSIGNMENT_EXPRESSION(AdditionAssignmentExpression.class),
+  ADDITION_EXPRESSION(AdditionExpression.class),
+  ARRAY_ACCESS_EXPRESSION(ArrayAccessExpression.class),
+  ASSIGNMENT_EXPRESSION(AssignmentExpression.class),
+  BITWISE_AND_ASSIGNMENT_EXPRESSION(BitwiseAndAssignmentExpression.class),
+  BITWISE_AND_EXPRESSION(BitwiseAndExpression.class),
+  BITWISE_OR_ASSIGNMENT_EXPRESSION(BitwiseOrAssignmentExpression.class),
+  BITWISE_OR_EXPRESSION(BitwiseOrExpression.class),
+  BITWISE_XOR_ASSIGNMENT_EXPRESSION(BitwiseXorAssignmentExpression.class),
+  BITWISE_XOR_EXPRESSION(BitwiseXorExpression.class),
+  BOOLEAN_AND_EXPRESSION(BooleanAndExpression.class),
+  BOOLEAN_OR_EXPRESSION(BooleanOrExpression.class),
+  BOOLEAN_XOR_EXPRESSION(BooleanXorExpression.class),
+  DIVISION_ASSIGNMENT_EXPRESSION(DivisionAssignmentExpression.class),
+  DIVISION_EXPRESSION(DivisionExpression.class),
+  EQUALITY_EXPRESSION(EqualityExpression.class),
+  GREATER_THAN_EQUAL_EXPRESSION(GreaterThanEqualExpression.class),
+  GREATER_THAN_EXPRESSION(GreaterThanExpression.class),
+  INEQUALITY_EXPRESSION(InequalityExpression.class),
+  LEFT_SHIFT_ASSIGNMENT_EXPRESSION(LeftShiftAssignmentExpression.class),
+  LEFT_SHIFT_EXPRESSION(LeftShiftExpression.class),
+  LESS_THAN_EQUAL_EXPRESSION(LessThanEqualExpression.class),
+  LESS_THAN_EXPRESSION(LessThanExpression.class),
+  MODULO_ASSIGNMENT_EXPRESSION(ModuloAssignmentExpression.class),
+  MODULO_EXPRESSION(ModuloExpression.class),
+  MULTIPLICATION_ASSIGNMENT_EXPRESSION(MultiplicationAssignmentExpression.class),
+  MULTIPLICATION_EXPRESSION(MultiplicationExpression.class),
+  RIGHT_SHIFT_ASSIGNMENT_EXPRESSION(RightShiftAssignmentExpression.class),
+  RIGHT_SHIFT_EXPRESSION(RightShiftExpression.class),
+  SUBTRACTION_ASSIGNMENT_EXPRESSION(SubtractionAssignmentExpression.class),
+  SUBTRACTION_EXPRESSION(SubtractionExpression.class),
+  BITWISE_NOT_EXPRESSION(BitwiseNotExpression.class),
+  BOOLEAN_NOT_EXPRESSION(BooleanNotExpression.class),
+  DECREMENT_POSTFIX_EXPRESSION(DecrementPostfixExpression.class),
+  DECREMENT_PREFIX_EXPRESSION(DecrementPrefixExpression.class),
+  FUNCTION_CALL_EXPRESSION(FunctionCallExpression.class),
+  GROUPING_EXPRESSION(GroupingExpression.class),
+  IDENTITY_EXPRESSION(IdentityExpression.class),
+  INCREMENT_POSTFIX_EXPRESSION(IncrementPostfixExpression.class),
+  INCREMENT_PREFIX_EXPRESSION(IncrementPrefixExpression.class),
+  LENGTH_ACCESS_EXPRESSION(LengthAccessExpression.class),
+  MEMBER_ACCESS_EXPRESSION(MemberAccessExpression.class),
+  NEGATION_EXPRESSION(NegationExpression.class),
+  CUSTOM_DIRECTIVE(CustomDirective.class),
+  DECLARATION_EXTERNAL_DECLARATION(DeclarationExternalDeclaration.class),
+  EMPTY_DECLARATION(EmptyDeclaration.class),
+  EXTENSION_DIRECTIVE(ExtensionDirective.class),
+  FUNCTION_DEFINITION(FunctionDefinition.class),
+  INCLUDE_DIRECTIVE(IncludeDirective.class),
+  LAYOUT_DEFAULTS(LayoutDefaults.class),
+  PRAGMA_DIRECTIVE(PragmaDirective.class),
+  COMPOUND_STATEMENT(CompoundStatement.class),
+  DO_WHILE_LOOP_STATEMENT(DoWhileLoopStatement.class),
+  FOR_LOOP_STATEMENT(ForLoopStatement.class),
+  WHILE_LOOP_STATEMENT(WhileLoopStatement.class),
+  SELECTION_STATEMENT(SelectionStatement.class),
+  SWITCH_STATEMENT(SwitchStatement.class),
+  BREAK_STATEMENT(BreakStatement.class),
+  CASE_STATEMENT(CaseStatement.class),
+  CONTINUE_STATEMENT(ContinueStatement.class),
+  DECLARATION_STATEMENT(DeclarationStatement.class),
+  DEFAULT_STATEMENT(DefaultStatement.class),
+  DEMOTE_STATEMENT(DemoteStatement.class),
+  DISCARD_STATEMENT(DiscardStatement.class),
+  EMPTY_STATEMENT(EmptyStatement.class),
+  EXPRESSION_STATEMENT(ExpressionStatement.class),
+  IGNORE_INTERSECTION_STATEMENT(IgnoreIntersectionStatement.class),
+  RETURN_STATEMENT(ReturnStatement.class),
+  TERMINATE_RAY_STATEMENT(TerminateRayStatement.class),
+  FULLY_SPECIFIED_TYPE(FullySpecifiedType.class),
+  EXPRESSION_INITIALIZER(ExpressionInitializer.class),
+  NESTED_INITIALIZER(NestedInitializer.class),
+  INTERPOLATION_QUALIFIER(InterpolationQualifier.class),
+  INVARIANT_QUALIFIER(InvariantQualifier.class),
+  LAYOUT_QUALIFIER(LayoutQualifier.class),
+  NAMED_LAYOUT_QUALIFIER_PART(NamedLayoutQualifierPart.class),
+  PRECISE_QUALIFIER(PreciseQualifier.class),
+  PRECISION_QUALIFIER(PrecisionQualifier.class),
+  SHARED_LAYOUT_QUALIFIER_PART(SharedLayoutQualifierPart.class),
+  STORAGE_QUALIFIER(StorageQualifier.class),
+  TYPE_QUALIFIER(TypeQualifier.class),
+  ARRAY_SPECIFIER(ArraySpecifier.class),
+  BUILTIN_FIXED_TYPE_SPECIFIER(BuiltinFixedTypeSpecifier.class),
+  BUILTIN_NUMERIC_TYPE_SPECIFIER(BuiltinNumericTypeSpecifier.class),
+  FUNCTION_PROTOTYPE(FunctionPrototype.class),
+  POINTER_SPECIFIER(PointerSpecifier.class),
+  TYPE_REFERENCE(TypeReference.class),
+  STRUCT_BODY(StructBody.class),
+  STRUCT_DECLARATOR(StructDeclarator.class),
+  STRUCT_MEMBER(StructMember.class),
+  STRUCT_SPECIFIER(StructSpecifier.class);
+
+  private static final NodeKind[] values = values();
+  private static final ClassValue<NodeKind> kindsByClass = new ClassValue<>() {
+    @Override
+    protected NodeKind computeValue(Class<?> type) {
+      for (var kind : values) {
+        if (kind.nodeClass == type) {
+          return kind;
+        }
+      }
+      return null;
+    }
+  };
+
+  public final Class<? extends ASTNode> nodeClass;
+
+  private NodeKind(Class<? extends ASTNode> nodeClass) {
+    this.nodeClass = nodeClass;
+  }
+
+  /**
+   * Returns the number of node kinds. This is the size of tables indexed by the
+   * ordinal of the kind.
+   * 
+   * @return the number of node kinds
+   */
+  public static int count() {
+    return values.length;
+  }
+
+  /**
+   * Returns the kind with the given ordinal.
+   * 
+   * @param ordinal the ordinal of the kind
+   * @return the kind with the given ordinal
+   */
+  public static NodeKind fromOrdinal(int ordinal) {
+    return values[ordinal];
+  }
+
+  /**
+   * Returns the kind of the given concrete node class.
+   * 
+   * @param type the concrete node class
+   * @return the kind of the class or null if the class is abstract or not a
+   *         node class
+   */
+  public static NodeKind of(Class<?> type) {
+    return kindsByClass.get(type);
+  }
+
+  /**
+   * Checks if nodes of this kind are entered and exited by listeners.
+   * 
+   * @return true if the nodes of this kind are inner nodes
+   */
+  public boolean isInner() {
+    return InnerASTNode.class.isAssignableFrom(nodeClass);
+  }
+}
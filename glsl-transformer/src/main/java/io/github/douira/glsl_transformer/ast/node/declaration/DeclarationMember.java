@@ -2,6 +2,7 @@ package io.github.douira.glsl_transformer.ast.node.declaration;
 
 import io.github.douira.glsl_transformer.ast.node.Identifier;
 import io.github.douira.glsl_transformer.ast.node.abstract_node.InnerASTNode;
+import io.github.douira.glsl_transformer.ast.node.abstract_node.NodeKind;
 import io.github.douira.glsl_transformer.ast.node.type.initializer.Initializer;
 import io.github.douira.glsl_transformer.ast.node.type.specifier.ArraySpecifier;
 import io.github.douira.glsl_transformer.ast.node.type.specifier.PointerSpecifier;
@@ -72,6 +73,11 @@ public class DeclarationMember extends InnerASTNode {
     this.initializer = initializer;
   }
 
+  @Override
+  public NodeKind getNodeKind() {
+    return NodeKind.DECLARATION_MEMBER;
+  }
+
   @Override
   public <R> R accept(ASTVisitor<R> visitor) {
     return visitor.visitDeclarationMember(this);
@@ -1,5 +1,6 @@
 package io.github.douira.glsl_transformer.ast.node.declaration;
 
+import io.github.douira.glsl_transformer.ast.node.abstract_node.NodeKind;
 import io.github.douira.glsl_transformer.ast.node.type.specifier.FunctionPrototype;
 import io.github.douira.glsl_transformer.ast.query.Root;
 import io.github.douira.glsl_transformer.ast.traversal.*;
@@ -25,6 +26,11 @@ public class FunctionDeclaration extends Declaration {
     return DeclarationType.FUNCTION;
   }
 
+  @Override
+  public NodeKind getNodeKind() {
+    return NodeKind.FUNCTION_DECLARATION;
+  }
+
   @Override
   public <R> R declarationAccept(ASTVisitor<R> visitor) {
     return visitor.visitFunctionDeclaration(this);
@@ -2,6 +2,7 @@ package io.github.douira.glsl_transformer.ast.node.declaration;
 
 import io.github.douira.glsl_transformer.ast.node.Identifier;
 import io.github.douira.glsl_transformer.ast.node.abstract_node.InnerASTNode;
+import io.github.douira.glsl_transformer.ast.node.abstract_node.NodeKind;
 import io.github.douira.glsl_transformer.ast.node.type.FullySpecifiedType;
 import io.github.douira.glsl_transformer.ast.node.type.specifier.ArraySpecifier;
 import io.github.douira.glsl_transformer.ast.query.Root;
@@ -57,6 +58,11 @@ public class FunctionParameter extends InnerASTNode {
     this.arraySpecifier = arraySpecifier;
   }
 
+  @Override
+  public NodeKind getNodeKind() {
+    return NodeKind.FUNCTION_PARAMETER;
+  }
+
   @Override
   public <R> R accept(ASTVisitor<R> visitor) {
     return visitor.visitFunctionParameter(this);
@@ -1,6 +1,7 @@
 package io.github.douira.glsl_transformer.ast.node.declaration;
 
 import io.github.douira.glsl_transformer.ast.node.Identifier;
+import io.github.douira.glsl_transformer.ast.node.abstract_node.NodeKind;
 import io.github.douira.glsl_transformer.ast.node.type.qualifier.TypeQualifier;
 import io.github.douira.glsl_transformer.ast.node.type.specifier.ArraySpecifier;
 import io.github.douira.glsl_transformer.ast.node.type.struct.StructBody;
@@ -92,6 +93,11 @@ public class InterfaceBlockDeclaration extends Declaration {
     return DeclarationType.INTERFACE_BLOCK;
   }
 
+  @Override
+  public NodeKind getNodeKind() {
+    return NodeKind.INTERFACE_BLOCK_DECLARATION;
+  }
+
   @Override
   public <R> R declarationAccept(ASTVisitor<R> visitor) {
     return visitor.visitInterfaceBlockDeclaration(this);
@@ -1,5 +1,6 @@
 package io.github.douira.glsl_transformer.ast.node.declaration;
 
+import io.github.douira.glsl_transformer.ast.node.abstract_node.NodeKind;
 import io.github.douira.glsl_transformer.ast.node.type.qualifier.PrecisionQualifier;
 import io.github.douira.glsl_transformer.ast.node.type.specifier.TypeSpecifier;
 import io.github.douira.glsl_transformer.ast.query.Root;
@@ -39,6 +40,11 @@ public class PrecisionDeclaration extends Declaration {
     return DeclarationType.PRECISION;
   }
 
+  @Override
+  public NodeKind getNodeKind() {
+    return NodeKind.PRECISION_DECLARATION;
+  }
+
   @Override
   public <R> R declarationAccept(ASTVisitor<R> visitor) {
     return visitor.visitPrecisionDeclaration(this);
@@ -3,6 +3,7 @@ package io.github.douira.glsl_transformer.ast.node.declaration;
 import java.util.stream.Stream;
 
 import io.github.douira.glsl_transformer.ast.data.ChildNodeList;
+import io.github.douira.glsl_transformer.ast.node.abstract_node.NodeKind;
 import io.github.douira.glsl_transformer.ast.node.type.FullySpecifiedType;
 import io.github.douira.glsl_transformer.ast.query.Root;
 import io.github.douira.glsl_transformer.ast.traversal.*;
@@ -39,6 +40,11 @@ public class TypeAndInitDeclaration extends Declaration {
     return DeclarationType.TYPE_AND_INIT;
   }
 
+  @Override
+  public NodeKind getNodeKind() {
+    return NodeKind.TYPE_AND_INIT_DECLARATION;
+  }
+
   @Override
   public <R> R declarationAccept(ASTVisitor<R> visitor) {
     return visitor.visitTypeAndInitDeclaration(this);
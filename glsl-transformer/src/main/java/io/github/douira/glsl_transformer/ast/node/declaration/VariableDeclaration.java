@@ -4,6 +4,7 @@ import java.util.stream.Stream;
 
 import io.github.douira.glsl_transformer.ast.data.ChildNodeList;
 import io.github.douira.glsl_transformer.ast.node.Identifier;
+import io.github.douira.glsl_transformer.ast.node.abstract_node.NodeKind;
 import io.github.douira.glsl_transformer.ast.node.type.qualifier.TypeQualifier;
 import io.github.douira.glsl_transformer.ast.query.Root;
 import io.github.douira.glsl_transformer.ast.traversal.*;
@@ -39,6 +40,11 @@ public class VariableDeclaration extends Declaration {
     return DeclarationType.VARIABLE;
   }
 
+  @Override
+  public NodeKind getNodeKind() {
+    return NodeKind.VARIABLE_DECLARATION;
+  }
+
   @Override
   public <R> R declarationAccept(ASTVisitor<R> visitor) {
     return visitor.visitVariableDeclaration(this);
@@ -1,5 +1,6 @@
 package io.github.douira.glsl_transformer.ast.node.expression;
 
+import io.github.douira.glsl_transformer.ast.node.abstract_node.NodeKind;
 import io.github.douira.glsl_transformer.ast.query.Root;
 import io.github.douira.glsl_transformer.ast.traversal.*;
 
@@ -25,6 +26,11 @@ public class ConditionExpression extends TernaryExpression {
     return ExpressionType.CONDITION;
   }
 
+  @Override
+  public NodeKind getNodeKind() {
+    return NodeKind.CONDITION_EXPRESSION;
+  }
+
   @Override
   public <R> R expressionAccept(ASTVisitor<R> visitor) {
     return visitor.visitConditionExpression(this);
@@ -2,6 +2,7 @@ package io.github.douira.glsl_transformer.ast.node.expression;
 
 import java.util.Objects;
 
+import io.github.douira.glsl_transformer.ast.node.abstract_node.NodeKind;
 import io.github.douira.glsl_transformer.ast.query.Root;
 import io.github.douira.glsl_transformer.ast.traversal.*;
 import io.github.douira.glsl_transformer.util.Type;
@@ -121,6 +122,7 @@ public class LiteralExpression extends TerminalExpression {
     this.integerValue = 0;
     this.floatingValue = 0;
     this.literalType = Type.STRING;
+    markModified();
   }
 
   public void changeString(String stringValue) {
@@ -131,6 +133,7 @@ public class LiteralExpression extends TerminalExpression {
       throw new IllegalArgumentException("String value cannot be null!");
     }
     this.stringValue = stringValue;
+    markModified();
   }
 
   public boolean getBoolean() {
@@ -143,6 +146,7 @@ public class LiteralExpression extends TerminalExpression {
     this.integerValue = 0;
     this.floatingValue = 0;
     this.literalType = Type.BOOL;
+    markModified();
   }
 
   public void changeBoolean(boolean booleanValue) {
@@ -150,6 +154,7 @@ public class LiteralExpression extends TerminalExpression {
       throw new IllegalStateException("Literal type must be a boolean!");
     }
     this.booleanValue = booleanValue;
+    markModified();
   }
 
   public long getInteger() {
@@ -168,6 +173,7 @@ public class LiteralExpression extends TerminalExpression {
     this.integerFormat = integerFormat;
     this.floatingValue = 0;
     this.literalType = integerType;
+    markModified();
   }
 
   public void setInteger(Type integerType, long integerValue) {
@@ -183,6 +189,7 @@ public class LiteralExpression extends TerminalExpression {
       throw new IllegalStateException("Literal type must be an integer!");
     }
     this.integerValue = integerValue;
+    markModified();
   }
 
   public IntegerFormat getIntegerFormat() {
@@ -198,6 +205,7 @@ public class LiteralExpression extends TerminalExpression {
       throw new IllegalStateException("Literal type must be an integer!");
     }
     this.integerFormat = integerFormat;
+    markModified();
   }
 
   public double getFloating() {
@@ -214,6 +222,7 @@ public class LiteralExpression extends TerminalExpression {
     this.integerValue = 0;
     this.integerFormat = null;
     this.literalType = floatingType;
+    markModified();
   }
 
   public void setFloating(float floatingValue) {
@@ -225,6 +234,7 @@ public class LiteralExpression extends TerminalExpression {
       throw new IllegalStateException("Literal type must be a floating point!");
     }
     this.floatingValue = floatingValue;
+    markModified();
   }
 
   public boolean isString() {
@@ -295,6 +305,11 @@ public class LiteralExpression extends TerminalExpression {
     return ExpressionType.LITERAL;
   }
 
+  @Override
+  public NodeKind getNodeKind() {
+    return NodeKind.LITERAL_EXPRESSION;
+  }
+
   @Override
   public <R> R expressionAccept(ASTVisitor<R> visitor) {
     return visitor.visitLiteralExpression(this);
@@ -1,6 +1,7 @@
 package io.github.douira.glsl_transformer.ast.node.expression;
 
 import io.github.douira.glsl_transformer.ast.node.Identifier;
+import io.github.douira.glsl_transformer.ast.node.abstract_node.NodeKind;
 import io.github.douira.glsl_transformer.ast.query.Root;
 import io.github.douira.glsl_transformer.ast.traversal.*;
 
@@ -25,6 +26,11 @@ public class ReferenceExpression extends TerminalExpression {
     return ExpressionType.REFERENCE;
   }
 
+  @Override
+  public NodeKind getNodeKind() {
+    return NodeKind.REFERENCE_EXPRESSION;
+  }
+
   @Override
   public <R> R expressionAccept(ASTVisitor<R> visitor) {
     return visitor.visitReferenceExpression(this);
@@ -2,6 +2,7 @@ package io.github.douira.glsl_transformer.ast.node.expression;
 
 import java.util.stream.Stream;
 
+import io.github.douira.glsl_transformer.ast.node.abstract_node.NodeKind;
 import io.github.douira.glsl_transformer.ast.query.Root;
 import io.github.douira.glsl_transformer.ast.traversal.*;
 
@@ -15,6 +16,11 @@ public class SequenceExpression extends ManyExpression {
     return ExpressionType.SEQUENCE;
   }
 
+  @Override
+  public NodeKind getNodeKind() {
+    return NodeKind.SEQUENCE_EXPRESSION;
+  }
+
   @Override
   public <R> R expressionAccept(ASTVisitor<R> visitor) {
     return visitor.visitSequenceExpression(this);
@@ -1,5 +1,6 @@
 package io.github.douira.glsl_transformer.ast.node.expression.binary;
 
+import io.github.douira.glsl_transformer.ast.node.abstract_node.NodeKind;
 import io.github.douira.glsl_transformer.ast.node.expression.Expression;
 import io.github.douira.glsl_transformer.ast.query.Root;
 import io.github.douira.glsl_transformer.ast.traversal.*;
@@ -14,6 +15,11 @@ public class BitwiseXorAssignmentExpression extends BinaryExpression {
     return ExpressionType.BITWISE_XOR_ASSIGNMENT;
   }
 
+  @Override
+  public NodeKind getNodeKind() {
+    return NodeKind.BITWISE_XOR_ASSIGNMENT_EXPRESSION;
+  }
+
   @Override
   public <R> R expressionAccept(ASTVisitor<R> visitor) {
     return visitor.visitBitwiseXorAssignmentExpression(this);
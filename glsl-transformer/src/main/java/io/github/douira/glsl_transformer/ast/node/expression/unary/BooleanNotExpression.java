@@ -1,5 +1,6 @@
 package io.github.douira.glsl_transformer.ast.node.expression.unary;
 
+import io.github.douira.glsl_transformer.ast.node.abstract_node.NodeKind;
 import io.github.douira.glsl_transformer.ast.node.expression.Expression;
 import io.github.douira.glsl_transformer.ast.query.Root;
 import io.github.douira.glsl_transformer.ast.traversal.*;
@@ -14,6 +15,11 @@ public class BooleanNotExpression extends UnaryExpression {
     return ExpressionType.BOOLEAN_NOT;
   }
 
+  @Override
+  public NodeKind getNodeKind() {
+    return NodeKind.BOOLEAN_NOT_EXPRESSION;
+  }
+
   @Override
   public <R> R expressionAccept(ASTVisitor<R> visitor) {
     return visitor.visitBooleanNotExpression(this);
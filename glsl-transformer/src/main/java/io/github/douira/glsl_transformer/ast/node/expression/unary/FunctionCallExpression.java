@@ -5,6 +5,7 @@ import java.util.stream.Stream;
 import io.github.douira.glsl_transformer.ast.data.ChildNodeList;
 import io.github.douira.glsl_transformer.ast.node.Identifier;
 import io.github.douira.glsl_transformer.ast.node.abstract_node.ASTNode;
+import io.github.douira.glsl_transformer.ast.node.abstract_node.NodeKind;
 import io.github.douira.glsl_transformer.ast.node.expression.*;
 import io.github.douira.glsl_transformer.ast.node.type.specifier.TypeSpecifier;
 import io.github.douira.glsl_transformer.ast.query.Root;
@@ -105,6 +106,11 @@ public class FunctionCallExpression extends TerminalExpression {
     return ExpressionType.FUNCTION_CALL;
   }
 
+  @Override
+  public NodeKind getNodeKind() {
+    return NodeKind.FUNCTION_CALL_EXPRESSION;
+  }
+
   @Override
   public <R> R expressionAccept(ASTVisitor<R> visitor) {
     return visitor.visitFunctionCallExpression(this);
@@ -1,6 +1,7 @@
 package io.github.douira.glsl_transformer.ast.node.expression.unary;
 
 import io.github.douira.glsl_transformer.ast.node.Identifier;
+import io.github.douira.glsl_transformer.ast.node.abstract_node.NodeKind;
 import io.github.douira.glsl_transformer.ast.node.expression.Expression;
 import io.github.douira.glsl_transformer.ast.query.Root;
 import io.github.douira.glsl_transformer.ast.traversal.*;
@@ -27,6 +28,11 @@ public class MemberAccessExpression extends UnaryExpression {
     return ExpressionType.MEMBER_ACCESS;
   }
 
+  @Override
+  public NodeKind getNodeKind() {
+    return NodeKind.MEMBER_ACCESS_EXPRESSION;
+  }
+
   @Override
   public <R> R expressionAccept(ASTVisitor<R> visitor) {
     return visitor.visitMemberAccessExpression(this);
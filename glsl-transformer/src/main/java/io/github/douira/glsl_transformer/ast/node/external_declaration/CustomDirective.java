@@ -1,5 +1,6 @@
 package io.github.douira.glsl_transformer.ast.node.external_declaration;
 
+import io.github.douira.glsl_transformer.ast.node.abstract_node.NodeKind;
 import io.github.douira.glsl_transformer.ast.query.Root;
 import io.github.douira.glsl_transformer.ast.traversal.*;
 
@@ -18,6 +19,7 @@ public class CustomDirective extends ExternalDeclaration {
     getRoot().unregisterFastRename(this);
     this.content = content;
     getRoot().registerFastRename(this);
+    markModified();
   }
 
   @Override
@@ -25,6 +27,11 @@ public class CustomDirective extends ExternalDeclaration {
     return ExternalDeclarationType.CUSTOM_DIRECTIVE;
   }
 
+  @Override
+  public NodeKind getNodeKind() {
+    return NodeKind.CUSTOM_DIRECTIVE;
+  }
+
   @Override
   public <R> R externalDeclarationAccept(ASTVisitor<R> visitor) {
     return visitor.visitCustomDirective(this);
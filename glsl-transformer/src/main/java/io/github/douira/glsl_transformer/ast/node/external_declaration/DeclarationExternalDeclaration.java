@@ -1,5 +1,6 @@
 package io.github.douira.glsl_transformer.ast.node.external_declaration;
 
+import io.github.douira.glsl_transformer.ast.node.abstract_node.NodeKind;
 import io.github.douira.glsl_transformer.ast.node.declaration.Declaration;
 import io.github.douira.glsl_transformer.ast.query.Root;
 import io.github.douira.glsl_transformer.ast.traversal.*;
@@ -25,6 +26,11 @@ public class DeclarationExternalDeclaration extends ExternalDeclaration {
     return ExternalDeclarationType.DECLARATION;
   }
 
+  @Override
+  public NodeKind getNodeKind() {
+    return NodeKind.DECLARATION_EXTERNAL_DECLARATION;
+  }
+
   @Override
   public <R> R externalDeclarationAccept(ASTVisitor<R> visitor) {
     return visitor.visitDeclarationExternalDeclaration(this);
@@ -1,5 +1,6 @@
 package io.github.douira.glsl_transformer.ast.node.external_declaration;
 
+import io.github.douira.glsl_transformer.ast.node.abstract_node.NodeKind;
 import io.github.douira.glsl_transformer.ast.query.Root;
 import io.github.douira.glsl_transformer.ast.traversal.*;
 
@@ -9,6 +10,11 @@ public class EmptyDeclaration extends ExternalDeclaration {
     return ExternalDeclarationType.EMPTY_DECLARATION;
   }
 
+  @Override
+  public NodeKind getNodeKind() {
+    return NodeKind.EMPTY_DECLARATION;
+  }
+
   @Override
   public <R> R externalDeclarationAccept(ASTVisitor<R> visitor) {
     return visitor.visitEmptyDeclaration(this);
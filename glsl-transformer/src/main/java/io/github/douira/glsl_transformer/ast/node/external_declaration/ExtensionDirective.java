@@ -4,6 +4,7 @@ import org.antlr.v4.runtime.Token;
 
 import io.github.douira.glsl_transformer.GLSLLexer;
 import io.github.douira.glsl_transformer.ast.data.*;
+import io.github.douira.glsl_transformer.ast.node.abstract_node.NodeKind;
 import io.github.douira.glsl_transformer.ast.query.Root;
 import io.github.douira.glsl_transformer.ast.traversal.*;
 
@@ -31,7 +32,7 @@ public class ExtensionDirective extends ExternalDeclaration {
   }
 
   private String name;
-  public ExtensionBehavior behavior; // TODO: nullable
+  private ExtensionBehavior behavior; // TODO: nullable
 
   public ExtensionDirective(String name, ExtensionBehavior behavior) {
     this.name = name;
@@ -50,6 +51,16 @@ public class ExtensionDirective extends ExternalDeclaration {
     getRoot().unregisterFastRename(this);
     this.name = name;
     getRoot().registerFastRename(this);
+    markModified();
+  }
+
+  public ExtensionBehavior getBehavior() {
+    return behavior;
+  }
+
+  public void setBehavior(ExtensionBehavior behavior) {
+    this.behavior = behavior;
+    markModified();
   }
 
   @Override
@@ -57,6 +68,11 @@ public class ExtensionDirective extends ExternalDeclaration {
     return ExternalDeclarationType.EXTENSION_DIRECTIVE;
   }
 
+  @Override
+  public NodeKind getNodeKind() {
+    return NodeKind.EXTENSION_DIRECTIVE;
+  }
+
   @Override
   public <R> R externalDeclarationAccept(ASTVisitor<R> visitor) {
     return visitor.visitExtensionDirective(this);
@@ -1,5 +1,6 @@
 package io.github.douira.glsl_transformer.ast.node.external_declaration;
 
+import io.github.douira.glsl_transformer.ast.node.abstract_node.NodeKind;
 import io.github.douira.glsl_transformer.ast.node.statement.CompoundStatement;
 import io.github.douira.glsl_transformer.ast.node.type.specifier.FunctionPrototype;
 import io.github.douira.glsl_transformer.ast.query.Root;
@@ -37,6 +38,11 @@ public class FunctionDefinition extends ExternalDeclaration {
     return ExternalDeclarationType.FUNCTION_DEFINITION;
   }
 
+  @Override
+  public NodeKind getNodeKind() {
+    return NodeKind.FUNCTION_DEFINITION;
+  }
+
   @Override
   public <R> R externalDeclarationAccept(ASTVisitor<R> visitor) {
     return visitor.visitFunctionDefinition(this);
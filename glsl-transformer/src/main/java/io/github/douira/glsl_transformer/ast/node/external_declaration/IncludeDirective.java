@@ -1,11 +1,12 @@
 package io.github.douira.glsl_transformer.ast.node.external_declaration;
 
+import io.github.douira.glsl_transformer.ast.node.abstract_node.NodeKind;
 import io.github.douira.glsl_transformer.ast.query.Root;
 import io.github.douira.glsl_transformer.ast.traversal.*;
 
 public class IncludeDirective extends ExternalDeclaration {
   private String content;
-  public boolean isAngleBrackets;
+  private boolean isAngleBrackets;
 
   public IncludeDirective(String content, boolean isAngleBrackets) {
     this.content = content;
@@ -24,6 +25,16 @@ public class IncludeDirective extends ExternalDeclaration {
     getRoot().unregisterFastRename(this);
     this.content = content;
     getRoot().registerFastRename(this);
+    markModified();
+  }
+
+  public boolean isAngleBrackets() {
+    return isAngleBrackets;
+  }
+
+  public void setAngleBrackets(boolean isAngleBrackets) {
+    this.isAngleBrackets = isAngleBrackets;
+    markModified();
   }
 
   @Override
@@ -31,6 +42,11 @@ public class IncludeDirective extends ExternalDeclaration {
     return ExternalDeclarationType.INCLUDE_DIRECTIVE;
   }
 
+  @Override
+  public NodeKind getNodeKind() {
+    return NodeKind.INCLUDE_DIRECTIVE;
+  }
+
   @Override
   public <R> R externalDeclarationAccept(ASTVisitor<R> visitor) {
     return visitor.visitIncludeDirective(this);
@@ -4,6 +4,7 @@ import org.antlr.v4.runtime.Token;
 
 import io.github.douira.glsl_transformer.GLSLLexer;
 import io.github.douira.glsl_transformer.ast.data.*;
+import io.github.douira.glsl_transformer.ast.node.abstract_node.NodeKind;
 import io.github.douira.glsl_transformer.ast.node.type.qualifier.LayoutQualifier;
 import io.github.douira.glsl_transformer.ast.query.Root;
 import io.github.douira.glsl_transformer.ast.traversal.*;
@@ -32,7 +33,7 @@ public class LayoutDefaults extends ExternalDeclaration {
   }
 
   protected LayoutQualifier qualifier;
-  public LayoutMode mode;
+  private LayoutMode mode;
 
   public LayoutDefaults(LayoutQualifier qualifier, LayoutMode mode) {
     this.qualifier = setup(qualifier, this::setQualifier);
@@ -48,11 +49,25 @@ public class LayoutDefaults extends ExternalDeclaration {
     this.qualifier = qualifier;
   }
 
+  public LayoutMode getMode() {
+    return mode;
+  }
+
+  public void setMode(LayoutMode mode) {
+    this.mode = mode;
+    markModified();
+  }
+
   @Override
   public ExternalDeclarationType getExternalDeclarationType() {
     return ExternalDeclarationType.LAYOUT_DEFAULTS;
   }
 
+  @Override
+  public NodeKind getNodeKind() {
+    return NodeKind.LAYOUT_DEFAULTS;
+  }
+
   @Override
   public <R> R externalDeclarationAccept(ASTVisitor<R> visitor) {
     return visitor.visitLayoutDefaults(this);
@@ -4,6 +4,7 @@ import org.antlr.v4.runtime.Token;
 
 import io.github.douira.glsl_transformer.GLSLLexer;
 import io.github.douira.glsl_transformer.ast.data.*;
+import io.github.douira.glsl_transformer.ast.node.abstract_node.NodeKind;
 import io.github.douira.glsl_transformer.ast.query.Root;
 import io.github.douira.glsl_transformer.ast.traversal.*;
 
@@ -71,11 +72,11 @@ public class PragmaDirective extends ExternalDeclaration {
     }
   }
 
-  public boolean stdGL;
-  public PragmaType type;
-  public PragmaOption option;
+  private boolean stdGL;
+  private PragmaType type;
+  private PragmaOption option;
   private String customName;
-  public PragmaState state;
+  private PragmaState state;
 
   private PragmaDirective(boolean stdGL, PragmaType type, PragmaOption option, String customName, PragmaState state) {
     this.stdGL = stdGL;
@@ -104,6 +105,42 @@ public class PragmaDirective extends ExternalDeclaration {
     this.option = option;
   }
 
+  public boolean isStdGL() {
+    return stdGL;
+  }
+
+  public void setStdGL(boolean stdGL) {
+    this.stdGL = stdGL;
+    markModified();
+  }
+
+  public PragmaType getType() {
+    return type;
+  }
+
+  public void setType(PragmaType type) {
+    this.type = type;
+    markModified();
+  }
+
+  public PragmaOption getOption() {
+    return option;
+  }
+
+  public void setOption(PragmaOption option) {
+    this.option = option;
+    markModified();
+  }
+
+  public PragmaState getState() {
+    return state;
+  }
+
+  public void setState(PragmaState state) {
+    this.state = state;
+    markModified();
+  }
+
   public String getCustomName() {
     return customName;
   }
@@ -112,6 +149,7 @@ public class PragmaDirective extends ExternalDeclaration {
     // since pragma directives aren't indexed by the external declaration index, no
     // registering is needed
     this.customName = customName;
+    markModified();
   }
 
   @Override
@@ -119,6 +157,11 @@ public class PragmaDirective extends ExternalDeclaration {
     return ExternalDeclarationType.PRAGMA_DIRECTIVE;
   }
 
+  @Override
+  public NodeKind getNodeKind() {
+    return NodeKind.PRAGMA_DIRECTIVE;
+  }
+
   @Override
   public <R> R externalDeclarationAccept(ASTVisitor<R> visitor) {
     return visitor.visitPragmaDirective(this);
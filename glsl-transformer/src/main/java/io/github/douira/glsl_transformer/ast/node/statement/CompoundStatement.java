@@ -2,6 +2,7 @@ package io.github.douira.glsl_transformer.ast.node.statement;
 
 import java.util.stream.Stream;
 
+import io.github.douira.glsl_transformer.ast.node.abstract_node.NodeKind;
 import io.github.douira.glsl_transformer.ast.query.Root;
 import io.github.douira.glsl_transformer.ast.traversal.*;
 
@@ -15,6 +16,11 @@ public class CompoundStatement extends ManyStatement {
     return StatementType.COMPOUND;
   }
 
+  @Override
+  public NodeKind getNodeKind() {
+    return NodeKind.COMPOUND_STATEMENT;
+  }
+
   @Override
   public <R> R statementAccept(ASTVisitor<R> visitor) {
     return visitor.visitCompoundStatement(this);
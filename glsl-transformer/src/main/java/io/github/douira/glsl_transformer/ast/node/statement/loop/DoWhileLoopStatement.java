@@ -1,5 +1,6 @@
 package io.github.douira.glsl_transformer.ast.node.statement.loop;
 
+import io.github.douira.glsl_transformer.ast.node.abstract_node.NodeKind;
 import io.github.douira.glsl_transformer.ast.node.expression.Expression;
 import io.github.douira.glsl_transformer.ast.node.statement.Statement;
 import io.github.douira.glsl_transformer.ast.query.Root;
@@ -15,6 +16,11 @@ public class DoWhileLoopStatement extends ConditionLoopStatement {
     return StatementType.DO_WHILE_LOOP;
   }
 
+  @Override
+  public NodeKind getNodeKind() {
+    return NodeKind.DO_WHILE_LOOP_STATEMENT;
+  }
+
   @Override
   public <R> R statementAccept(ASTVisitor<R> visitor) {
     return visitor.visitDoWhileLoopStatement(this);
@@ -1,6 +1,7 @@
 package io.github.douira.glsl_transformer.ast.node.statement.loop;
 
 import io.github.douira.glsl_transformer.ast.node.IterationConditionInitializer;
+import io.github.douira.glsl_transformer.ast.node.abstract_node.NodeKind;
 import io.github.douira.glsl_transformer.ast.node.declaration.Declaration;
 import io.github.douira.glsl_transformer.ast.node.expression.Expression;
 import io.github.douira.glsl_transformer.ast.node.statement.Statement;
@@ -128,6 +129,11 @@ public class ForLoopStatement extends LoopStatement {
     return StatementType.FOR_LOOP;
   }
 
+  @Override
+  public NodeKind getNodeKind() {
+    return NodeKind.FOR_LOOP_STATEMENT;
+  }
+
   @Override
   public <R> R statementAccept(ASTVisitor<R> visitor) {
     return visitor.visitForLoopStatement(this);
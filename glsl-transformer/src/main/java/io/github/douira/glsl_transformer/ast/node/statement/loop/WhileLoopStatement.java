@@ -1,6 +1,7 @@
 package io.github.douira.glsl_transformer.ast.node.statement.loop;
 
 import io.github.douira.glsl_transformer.ast.node.IterationConditionInitializer;
+import io.github.douira.glsl_transformer.ast.node.abstract_node.NodeKind;
 import io.github.douira.glsl_transformer.ast.node.expression.Expression;
 import io.github.douira.glsl_transformer.ast.node.statement.Statement;
 import io.github.douira.glsl_transformer.ast.query.Root;
@@ -43,6 +44,11 @@ public class WhileLoopStatement extends ConditionLoopStatement {
     return StatementType.WHILE_LOOP;
   }
 
+  @Override
+  public NodeKind getNodeKind() {
+    return NodeKind.WHILE_LOOP_STATEMENT;
+  }
+
   @Override
   public <R> R statementAccept(ASTVisitor<R> visitor) {
     return visitor.visitWhileLoopStatement(this);
@@ -1,5 +1,6 @@
 package io.github.douira.glsl_transformer.ast.node.statement.selection;
 
+import io.github.douira.glsl_transformer.ast.node.abstract_node.NodeKind;
 import io.github.douira.glsl_transformer.ast.node.expression.Expression;
 import io.github.douira.glsl_transformer.ast.node.statement.Statement;
 import io.github.douira.glsl_transformer.ast.node.statement.terminal.SemiTerminalStatement;
@@ -58,6 +59,11 @@ public class SelectionStatement extends SemiTerminalStatement {
     return StatementType.SELECTION;
   }
 
+  @Override
+  public NodeKind getNodeKind() {
+    return NodeKind.SELECTION_STATEMENT;
+  }
+
   @Override
   public <R> R statementAccept(ASTVisitor<R> visitor) {
     return visitor.visitSelectionStatement(this);
@@ -1,5 +1,6 @@
 package io.github.douira.glsl_transformer.ast.node.statement.selection;
 
+import io.github.douira.glsl_transformer.ast.node.abstract_node.NodeKind;
 import io.github.douira.glsl_transformer.ast.node.expression.Expression;
 import io.github.douira.glsl_transformer.ast.node.statement.*;
 import io.github.douira.glsl_transformer.ast.query.Root;
@@ -37,6 +38,11 @@ public class SwitchStatement extends Statement {
     return StatementType.SWITCH;
   }
 
+  @Override
+  public NodeKind getNodeKind() {
+    return NodeKind.SWITCH_STATEMENT;
+  }
+
   @Override
   public <R> R statementAccept(ASTVisitor<R> visitor) {
     return visitor.visitSwitchStatement(this);
@@ -1,5 +1,6 @@
 package io.github.douira.glsl_transformer.ast.node.statement.terminal;
 
+import io.github.douira.glsl_transformer.ast.node.abstract_node.NodeKind;
 import io.github.douira.glsl_transformer.ast.node.expression.Expression;
 import io.github.douira.glsl_transformer.ast.query.Root;
 import io.github.douira.glsl_transformer.ast.traversal.*;
@@ -30,6 +31,11 @@ public class CaseStatement extends CaseLabelStatement {
     return StatementType.CASE;
   }
 
+  @Override
+  public NodeKind getNodeKind() {
+    return NodeKind.CASE_STATEMENT;
+  }
+
   @Override
   public <R> R statementAccept(ASTVisitor<R> visitor) {
     return visitor.visitCaseStatement(this);
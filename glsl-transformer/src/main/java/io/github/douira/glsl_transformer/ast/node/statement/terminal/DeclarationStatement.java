@@ -1,5 +1,6 @@
 package io.github.douira.glsl_transformer.ast.node.statement.terminal;
 
+import io.github.douira.glsl_transformer.ast.node.abstract_node.NodeKind;
 import io.github.douira.glsl_transformer.ast.node.declaration.Declaration;
 import io.github.douira.glsl_transformer.ast.query.Root;
 import io.github.douira.glsl_transformer.ast.traversal.*;
@@ -25,6 +26,11 @@ public class DeclarationStatement extends SemiTerminalStatement {
     return StatementType.DECLARATION;
   }
 
+  @Override
+  public NodeKind getNodeKind() {
+    return NodeKind.DECLARATION_STATEMENT;
+  }
+
   @Override
   public <R> R statementAccept(ASTVisitor<R> visitor) {
     return visitor.visitDeclarationStatement(this);
@@ -1,5 +1,6 @@
 package io.github.douira.glsl_transformer.ast.node.statement.terminal;
 
+import io.github.douira.glsl_transformer.ast.node.abstract_node.NodeKind;
 import io.github.douira.glsl_transformer.ast.query.Root;
 import io.github.douira.glsl_transformer.ast.traversal.ASTVisitor;
 
@@ -14,6 +15,11 @@ public class DefaultStatement extends CaseLabelStatement {
     return StatementType.DEFAULT;
   }
 
+  @Override
+  public NodeKind getNodeKind() {
+    return NodeKind.DEFAULT_STATEMENT;
+  }
+
   @Override
   public <R> R statementAccept(ASTVisitor<R> visitor) {
     return visitor.visitDefaultStatement(this);
@@ -1,5 +1,6 @@
 package io.github.douira.glsl_transformer.ast.node.statement.terminal;
 
+import io.github.douira.glsl_transformer.ast.node.abstract_node.NodeKind;
 import io.github.douira.glsl_transformer.ast.query.Root;
 import io.github.douira.glsl_transformer.ast.traversal.ASTVisitor;
 
@@ -12,6 +13,11 @@ public class IgnoreIntersectionStatement extends TerminalStatement {
     return StatementType.IGNORE_INTERSECTION;
   }
 
+  @Override
+  public NodeKind getNodeKind() {
+    return NodeKind.IGNORE_INTERSECTION_STATEMENT;
+  }
+
   @Override
   public <R> R statementAccept(ASTVisitor<R> visitor) {
     return visitor.visitIgnoreIntersectionStatement(this);
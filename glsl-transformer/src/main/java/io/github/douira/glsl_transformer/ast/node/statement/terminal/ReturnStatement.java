@@ -1,5 +1,6 @@
 package io.github.douira.glsl_transformer.ast.node.statement.terminal;
 
+import io.github.douira.glsl_transformer.ast.node.abstract_node.NodeKind;
 import io.github.douira.glsl_transformer.ast.node.expression.Expression;
 import io.github.douira.glsl_transformer.ast.query.Root;
 import io.github.douira.glsl_transformer.ast.traversal.ASTVisitor;
@@ -28,6 +29,11 @@ public class ReturnStatement extends SemiTerminalStatement {
     return StatementType.RETURN;
   }
 
+  @Override
+  public NodeKind getNodeKind() {
+    return NodeKind.RETURN_STATEMENT;
+  }
+
   @Override
   public <R> R statementAccept(ASTVisitor<R> visitor) {
     return visitor.visitReturnStatement(this);
@@ -1,5 +1,6 @@
 package io.github.douira.glsl_transformer.ast.node.statement.terminal;
 
+import io.github.douira.glsl_transformer.ast.node.abstract_node.NodeKind;
 import io.github.douira.glsl_transformer.ast.query.Root;
 import io.github.douira.glsl_transformer.ast.traversal.ASTVisitor;
 
@@ -12,6 +13,11 @@ public class TerminateRayStatement extends TerminalStatement {
     return StatementType.TERMINATE_RAY;
   }
 
+  @Override
+  public NodeKind getNodeKind() {
+    return NodeKind.TERMINATE_RAY_STATEMENT;
+  }
+
   @Override
   public <R> R statementAccept(ASTVisitor<R> visitor) {
     return visitor.visitTerminateRayStatement(this);
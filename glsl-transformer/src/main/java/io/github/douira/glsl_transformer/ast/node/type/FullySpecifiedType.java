@@ -1,6 +1,7 @@
 package io.github.douira.glsl_transformer.ast.node.type;
 
 import io.github.douira.glsl_transformer.ast.node.abstract_node.InnerASTNode;
+import io.github.douira.glsl_transformer.ast.node.abstract_node.NodeKind;
 import io.github.douira.glsl_transformer.ast.node.type.qualifier.TypeQualifier;
 import io.github.douira.glsl_transformer.ast.node.type.specifier.TypeSpecifier;
 import io.github.douira.glsl_transformer.ast.query.Root;
@@ -37,6 +38,11 @@ public class FullySpecifiedType extends InnerASTNode {
     this.typeSpecifier = typeSpecifier;
   }
 
+  @Override
+  public NodeKind getNodeKind() {
+    return NodeKind.FULLY_SPECIFIED_TYPE;
+  }
+
   @Override
   public <R> R accept(ASTVisitor<R> visitor) {
     return visitor.visitFullySpecifiedType(this);
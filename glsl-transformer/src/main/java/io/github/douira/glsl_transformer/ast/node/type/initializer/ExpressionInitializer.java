@@ -1,5 +1,6 @@
 package io.github.douira.glsl_transformer.ast.node.type.initializer;
 
+import io.github.douira.glsl_transformer.ast.node.abstract_node.NodeKind;
 import io.github.douira.glsl_transformer.ast.node.expression.Expression;
 import io.github.douira.glsl_transformer.ast.query.Root;
 import io.github.douira.glsl_transformer.ast.traversal.*;
@@ -25,6 +26,11 @@ public class ExpressionInitializer extends Initializer {
     return InitializerType.EXPRESSION;
   }
 
+  @Override
+  public NodeKind getNodeKind() {
+    return NodeKind.EXPRESSION_INITIALIZER;
+  }
+
   @Override
   public <R> R initializerAccept(ASTVisitor<R> visitor) {
     return visitor.visitExpressionInitializer(this);
@@ -3,6 +3,7 @@ package io.github.douira.glsl_transformer.ast.node.type.initializer;
 import java.util.stream.Stream;
 
 import io.github.douira.glsl_transformer.ast.data.ChildNodeList;
+import io.github.douira.glsl_transformer.ast.node.abstract_node.NodeKind;
 import io.github.douira.glsl_transformer.ast.query.Root;
 import io.github.douira.glsl_transformer.ast.traversal.*;
 
@@ -26,6 +27,11 @@ public class NestedInitializer extends Initializer {
     return InitializerType.NESTED;
   }
 
+  @Override
+  public NodeKind getNodeKind() {
+    return NodeKind.NESTED_INITIALIZER;
+  }
+
   @Override
   public <R> R initializerAccept(ASTVisitor<R> visitor) {
     return visitor.visitNestedInitializer(this);
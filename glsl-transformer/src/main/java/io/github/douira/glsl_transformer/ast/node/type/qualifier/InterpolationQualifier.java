@@ -4,6 +4,7 @@ import org.antlr.v4.runtime.Token;
 
 import io.github.douira.glsl_transformer.GLSLLexer;
 import io.github.douira.glsl_transformer.ast.data.*;
+import io.github.douira.glsl_transformer.ast.node.abstract_node.NodeKind;
 import io.github.douira.glsl_transformer.ast.query.Root;
 import io.github.douira.glsl_transformer.ast.traversal.*;
 
@@ -29,17 +30,31 @@ public class InterpolationQualifier extends TypeQualifierPart {
     }
   }
 
-  public InterpolationType interpolationType;
+  private InterpolationType interpolationType;
 
   public InterpolationQualifier(InterpolationType interpolationType) {
     this.interpolationType = interpolationType;
   }
 
+  public InterpolationType getInterpolationType() {
+    return interpolationType;
+  }
+
+  public void setInterpolationType(InterpolationType interpolationType) {
+    this.interpolationType = interpolationType;
+    markModified();
+  }
+
   @Override
   public QualifierType getQualifierType() {
     return QualifierType.INTERPOLATION;
   }
 
+  @Override
+  public NodeKind getNodeKind() {
+    return NodeKind.INTERPOLATION_QUALIFIER;
+  }
+
   @Override
   public <R> R typeQualifierPartAccept(ASTVisitor<R> visitor) {
     return visitor.visitInterpolationQualifier(this);
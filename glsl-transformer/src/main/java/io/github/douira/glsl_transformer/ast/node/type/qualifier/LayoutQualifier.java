@@ -3,6 +3,7 @@ package io.github.douira.glsl_transformer.ast.node.type.qualifier;
 import java.util.stream.Stream;
 
 import io.github.douira.glsl_transformer.ast.data.ChildNodeList;
+import io.github.douira.glsl_transformer.ast.node.abstract_node.NodeKind;
 import io.github.douira.glsl_transformer.ast.query.Root;
 import io.github.douira.glsl_transformer.ast.traversal.*;
 
@@ -22,6 +23,11 @@ public class LayoutQualifier extends TypeQualifierPart {
     return QualifierType.LAYOUT;
   }
 
+  @Override
+  public NodeKind getNodeKind() {
+    return NodeKind.LAYOUT_QUALIFIER;
+  }
+
   @Override
   public <R> R typeQualifierPartAccept(ASTVisitor<R> visitor) {
     return visitor.visitLayoutQualifier(this);
@@ -1,6 +1,7 @@
 package io.github.douira.glsl_transformer.ast.node.type.qualifier;
 
 import io.github.douira.glsl_transformer.ast.node.Identifier;
+import io.github.douira.glsl_transformer.ast.node.abstract_node.NodeKind;
 import io.github.douira.glsl_transformer.ast.node.expression.Expression;
 import io.github.douira.glsl_transformer.ast.query.Root;
 import io.github.douira.glsl_transformer.ast.traversal.*;
@@ -41,6 +42,11 @@ public class NamedLayoutQualifierPart extends LayoutQualifierPart {
     return LayoutQualifierType.NAMED;
   }
 
+  @Override
+  public NodeKind getNodeKind() {
+    return NodeKind.NAMED_LAYOUT_QUALIFIER_PART;
+  }
+
   @Override
   public <R> R layoutQualifierPartAccept(ASTVisitor<R> visitor) {
     return visitor.visitNamedLayoutQualifierPart(this);
@@ -1,5 +1,6 @@
 package io.github.douira.glsl_transformer.ast.node.type.qualifier;
 
+import io.github.douira.glsl_transformer.ast.node.abstract_node.NodeKind;
 import io.github.douira.glsl_transformer.ast.query.Root;
 import io.github.douira.glsl_transformer.ast.traversal.*;
 
@@ -9,6 +10,11 @@ public class PreciseQualifier extends TypeQualifierPart {
     return QualifierType.PRECISE;
   }
 
+  @Override
+  public NodeKind getNodeKind() {
+    return NodeKind.PRECISE_QUALIFIER;
+  }
+
   @Override
   public <R> R typeQualifierPartAccept(ASTVisitor<R> visitor) {
     return visitor.visitPreciseQualifier(this);
@@ -4,6 +4,7 @@ import org.antlr.v4.runtime.Token;
 
 import io.github.douira.glsl_transformer.GLSLLexer;
 import io.github.douira.glsl_transformer.ast.data.*;
+import io.github.douira.glsl_transformer.ast.node.abstract_node.NodeKind;
 import io.github.douira.glsl_transformer.ast.query.Root;
 import io.github.douira.glsl_transformer.ast.traversal.*;
 
@@ -29,17 +30,31 @@ public class PrecisionQualifier extends TypeQualifierPart {
     }
   }
 
-  public PrecisionLevel precisionLevel;
+  private PrecisionLevel precisionLevel;
 
   public PrecisionQualifier(PrecisionLevel storageType) {
     this.precisionLevel = storageType;
   }
 
+  public PrecisionLevel getPrecisionLevel() {
+    return precisionLevel;
+  }
+
+  public void setPrecisionLevel(PrecisionLevel precisionLevel) {
+    this.precisionLevel = precisionLevel;
+    markModified();
+  }
+
   @Override
   public QualifierType getQualifierType() {
     return QualifierType.PRECISION;
   }
 
+  @Override
+  public NodeKind getNodeKind() {
+    return NodeKind.PRECISION_QUALIFIER;
+  }
+
   @Override
   public <R> R typeQualifierPartAccept(ASTVisitor<R> visitor) {
     return visitor.visitPrecisionQualifier(this);
@@ -1,5 +1,6 @@
 package io.github.douira.glsl_transformer.ast.node.type.qualifier;
 
+import io.github.douira.glsl_transformer.ast.node.abstract_node.NodeKind;
 import io.github.douira.glsl_transformer.ast.query.Root;
 import io.github.douira.glsl_transformer.ast.traversal.*;
 
@@ -9,6 +10,11 @@ public class SharedLayoutQualifierPart extends LayoutQualifierPart {
     return LayoutQualifierType.SHARED;
   }
 
+  @Override
+  public NodeKind getNodeKind() {
+    return NodeKind.SHARED_LAYOUT_QUALIFIER_PART;
+  }
+
   @Override
   public <R> R layoutQualifierPartAccept(ASTVisitor<R> visitor) {
     return visitor.visitSharedLayoutQualifierPart(this);
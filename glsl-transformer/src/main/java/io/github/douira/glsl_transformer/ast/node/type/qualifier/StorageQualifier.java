@@ -7,6 +7,7 @@ import org.antlr.v4.runtime.Token;
 import io.github.douira.glsl_transformer.GLSLLexer;
 import io.github.douira.glsl_transformer.ast.data.*;
 import io.github.douira.glsl_transformer.ast.node.Identifier;
+import io.github.douira.glsl_transformer.ast.node.abstract_node.NodeKind;
 import io.github.douira.glsl_transformer.ast.query.Root;
 import io.github.douira.glsl_transformer.ast.traversal.*;
 
@@ -59,7 +60,7 @@ public class StorageQualifier extends TypeQualifierPart {
   }
 
   protected ChildNodeList<Identifier> typeNames; // TODO: nullable (optional)
-  public StorageType storageType;
+  private StorageType storageType;
 
   private StorageQualifier(Stream<Identifier> typeNames, StorageType storageType) {
     this.typeNames = ChildNodeList.collect(typeNames, this);
@@ -80,11 +81,25 @@ public class StorageQualifier extends TypeQualifierPart {
     return typeNames;
   }
 
+  public StorageType getStorageType() {
+    return storageType;
+  }
+
+  public void setStorageType(StorageType storageType) {
+    this.storageType = storageType;
+    markModified();
+  }
+
   @Override
   public QualifierType getQualifierType() {
     return QualifierType.STORAGE;
   }
 
+  @Override
+  public NodeKind getNodeKind() {
+    return NodeKind.STORAGE_QUALIFIER;
+  }
+
   @Override
   public <R> R typeQualifierPartAccept(ASTVisitor<R> visitor) {
     return visitor.visitStorageQualifier(this);
@@ -4,6 +4,7 @@ import java.util.List;
 import java.util.stream.Stream;
 
 import io.github.douira.glsl_transformer.ast.node.abstract_node.ListASTNode;
+import io.github.douira.glsl_transformer.ast.node.abstract_node.NodeKind;
 import io.github.douira.glsl_transformer.ast.node.expression.Expression;
 import io.github.douira.glsl_transformer.ast.query.Root;
 import io.github.douira.glsl_transformer.ast.traversal.*;
@@ -18,6 +19,11 @@ public class ArraySpecifier extends ListASTNode<Expression> {
     return getChildren();
   }
 
+  @Override
+  public NodeKind getNodeKind() {
+    return NodeKind.ARRAY_SPECIFIER;
+  }
+
   @Override
   public <R> R accept(ASTVisitor<R> visitor) {
     return visitor.visitArraySpecifier(this);
@@ -4,6 +4,7 @@ import org.antlr.v4.runtime.Token;
 
 import io.github.douira.glsl_transformer.GLSLLexer;
 import io.github.douira.glsl_transformer.ast.data.*;
+import io.github.douira.glsl_transformer.ast.node.abstract_node.NodeKind;
 import io.github.douira.glsl_transformer.ast.query.Root;
 import io.github.douira.glsl_transformer.ast.traversal.*;
 
@@ -124,7 +125,7 @@ public class BuiltinFixedTypeSpecifier extends TypeSpecifier {
     }
   }
 
-  public BuiltinType type;
+  private BuiltinType type;
 
   public BuiltinFixedTypeSpecifier(BuiltinType type) {
     this.type = type;
@@ -135,11 +136,25 @@ public class BuiltinFixedTypeSpecifier extends TypeSpecifier {
     this.type = type;
   }
 
+  public BuiltinType getType() {
+    return type;
+  }
+
+  public void setType(BuiltinType type) {
+    this.type = type;
+    markModified();
+  }
+
   @Override
   public SpecifierType getSpecifierType() {
     return SpecifierType.BULTIN_FIXED;
   }
 
+  @Override
+  public NodeKind getNodeKind() {
+    return NodeKind.BUILTIN_FIXED_TYPE_SPECIFIER;
+  }
+
   @Override
   public <R> R typeSpecifierAccept(ASTVisitor<R> visitor) {
     return visitor.visitBuiltinFixedTypeSpecifier(this);
@@ -1,11 +1,12 @@
 package io.github.douira.glsl_transformer.ast.node.type.specifier;
 
+import io.github.douira.glsl_transformer.ast.node.abstract_node.NodeKind;
 import io.github.douira.glsl_transformer.ast.query.Root;
 import io.github.douira.glsl_transformer.ast.traversal.*;
 import io.github.douira.glsl_transformer.util.Type;
 
 public class BuiltinNumericTypeSpecifier extends TypeSpecifier {
-  public Type type;
+  private Type type;
 
   public BuiltinNumericTypeSpecifier(Type type) {
     this.type = type;
@@ -16,11 +17,25 @@ public class BuiltinNumericTypeSpecifier extends TypeSpecifier {
     this.type = type;
   }
 
+  public Type getType() {
+    return type;
+  }
+
+  public void setType(Type type) {
+    this.type = type;
+    markModified();
+  }
+
   @Override
   public SpecifierType getSpecifierType() {
     return SpecifierType.BUILTIN_NUMERIC;
   }
 
+  @Override
+  public NodeKind getNodeKind() {
+    return NodeKind.BUILTIN_NUMERIC_TYPE_SPECIFIER;
+  }
+
   @Override
   public <R> R typeSpecifierAccept(ASTVisitor<R> visitor) {
     return visitor.visitBuiltinNumericTypeSpecifier(this);
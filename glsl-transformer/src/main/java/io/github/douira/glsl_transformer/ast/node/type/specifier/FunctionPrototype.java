@@ -5,6 +5,7 @@ import java.util.stream.Stream;
 
 import io.github.douira.glsl_transformer.ast.node.Identifier;
 import io.github.douira.glsl_transformer.ast.node.abstract_node.ListASTNode;
+import io.github.douira.glsl_transformer.ast.node.abstract_node.NodeKind;
 import io.github.douira.glsl_transformer.ast.node.declaration.FunctionParameter;
 import io.github.douira.glsl_transformer.ast.node.type.FullySpecifiedType;
 import io.github.douira.glsl_transformer.ast.query.Root;
@@ -46,6 +47,11 @@ public class FunctionPrototype extends ListASTNode<FunctionParameter> {
     this.name = name;
   }
 
+  @Override
+  public NodeKind getNodeKind() {
+    return NodeKind.FUNCTION_PROTOTYPE;
+  }
+
   public <R> R accept(ASTVisitor<R> visitor) {
     return visitor.visitFunctionPrototype(this);
   }
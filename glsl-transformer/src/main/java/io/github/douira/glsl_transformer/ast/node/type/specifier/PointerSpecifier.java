@@ -1,6 +1,7 @@
 package io.github.douira.glsl_transformer.ast.node.type.specifier;
 
 import io.github.douira.glsl_transformer.ast.node.abstract_node.InnerASTNode;
+import io.github.douira.glsl_transformer.ast.node.abstract_node.NodeKind;
 import io.github.douira.glsl_transformer.ast.query.Root;
 import io.github.douira.glsl_transformer.ast.traversal.*;
 
@@ -15,6 +16,11 @@ public class PointerSpecifier extends InnerASTNode {
         return depth;
     }
 
+    @Override
+    public NodeKind getNodeKind() {
+        return NodeKind.POINTER_SPECIFIER;
+    }
+
     @Override
     public <R> R accept(ASTVisitor<R> visitor) {
         return visitor.visitPointerSpecifier(this);
@@ -1,6 +1,7 @@
 package io.github.douira.glsl_transformer.ast.node.type.specifier;
 
 import io.github.douira.glsl_transformer.ast.node.Identifier;
+import io.github.douira.glsl_transformer.ast.node.abstract_node.NodeKind;
 import io.github.douira.glsl_transformer.ast.query.Root;
 import io.github.douira.glsl_transformer.ast.traversal.*;
 
@@ -30,6 +31,11 @@ public class TypeReference extends TypeSpecifier {
     return SpecifierType.REFERENCE;
   }
 
+  @Override
+  public NodeKind getNodeKind() {
+    return NodeKind.TYPE_REFERENCE;
+  }
+
   @Override
   public <R> R typeSpecifierAccept(ASTVisitor<R> visitor) {
     return visitor.visitTypeReference(this);
@@ -4,6 +4,7 @@ import java.util.List;
 import java.util.stream.Stream;
 
 import io.github.douira.glsl_transformer.ast.node.abstract_node.ListASTNode;
+import io.github.douira.glsl_transformer.ast.node.abstract_node.NodeKind;
 import io.github.douira.glsl_transformer.ast.query.Root;
 import io.github.douira.glsl_transformer.ast.traversal.*;
 
@@ -16,6 +17,11 @@ public class StructBody extends ListASTNode<StructMember> {
     return getChildren();
   }
 
+  @Override
+  public NodeKind getNodeKind() {
+    return NodeKind.STRUCT_BODY;
+  }
+
   @Override
   public <R> R accept(ASTVisitor<R> visitor) {
     return visitor.visitStructBody(this);
@@ -2,6 +2,7 @@ package io.github.douira.glsl_transformer.ast.node.type.struct;
 
 import io.github.douira.glsl_transformer.ast.node.Identifier;
 import io.github.douira.glsl_transformer.ast.node.abstract_node.InnerASTNode;
+import io.github.douira.glsl_transformer.ast.node.abstract_node.NodeKind;
 import io.github.douira.glsl_transformer.ast.node.type.specifier.ArraySpecifier;
 import io.github.douira.glsl_transformer.ast.query.Root;
 import io.github.douira.glsl_transformer.ast.traversal.*;
@@ -37,6 +38,11 @@ public class StructDeclarator extends InnerASTNode {
     this.arraySpecifier = arraySpecifier;
   }
 
+  @Override
+  public NodeKind getNodeKind() {
+    return NodeKind.STRUCT_DECLARATOR;
+  }
+
   @Override
   public <R> R accept(ASTVisitor<R> visitor) {
     return visitor.visitStructDeclarator(this);
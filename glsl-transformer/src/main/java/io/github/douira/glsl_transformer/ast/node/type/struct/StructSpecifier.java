@@ -1,6 +1,7 @@
 package io.github.douira.glsl_transformer.ast.node.type.struct;
 
 import io.github.douira.glsl_transformer.ast.node.Identifier;
+import io.github.douira.glsl_transformer.ast.node.abstract_node.NodeKind;
 import io.github.douira.glsl_transformer.ast.node.type.specifier.*;
 import io.github.douira.glsl_transformer.ast.query.Root;
 import io.github.douira.glsl_transformer.ast.traversal.*;
@@ -55,6 +56,11 @@ public class StructSpecifier extends TypeSpecifier {
     return SpecifierType.STRUCT;
   }
 
+  @Override
+  public NodeKind getNodeKind() {
+    return NodeKind.STRUCT_SPECIFIER;
+  }
+
   @Override
   public <R> R typeSpecifierAccept(ASTVisitor<R> visitor) {
     return visitor.visitStructSpecifier(this);
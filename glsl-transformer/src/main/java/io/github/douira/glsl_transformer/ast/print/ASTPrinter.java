@@ -1,6 +1,8 @@
 package io.github.douira.glsl_transformer.ast.print;
 
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
 
 import io.github.douira.glsl_transformer.GLSLLexer;
 import io.github.douira.glsl_transformer.ast.node.*;
@@ -31,21 +33,227 @@ import io.github.douira.glsl_transformer.util.Type.NumberType;
  * content and printed structure of each node is encoded in this printer.
  */
 public class ASTPrinter extends ASTPrinterBase {
+  public static final int DEFAULT_CHUNK_SIZE = 64;
+
   private final Deque<Expression> precedenceWrapped = new ArrayDeque<>();
+  private final boolean minify;
+  private boolean verbatim = false;
+  private Map<Identifier, String> identifierNames;
 
   public ASTPrinter(TokenProcessor tokenProcessor) {
+    this(tokenProcessor, false);
+  }
+
+  /**
+   * Creates a new printer that optionally minifies the printed code by removing
+   * redundant parentheses and renaming identifiers with
+   * {@link IdentifierMinifier}. Removing whitespace is the job of the token
+   * processor.
+   * 
+   * @param tokenProcessor The token processor to print to
+   * @param minify         Whether to minify the code
+   */
+  public ASTPrinter(TokenProcessor tokenProcessor, boolean minify) {
     super(tokenProcessor);
+    this.minify = minify;
+  }
+
+  /**
+   * Creates a new printer that prints to the given direct formatter without
+   * creating token objects.
+   * 
+   * @param formatter The formatter to print to
+   * @param minify    Whether to minify the code
+   */
+  public ASTPrinter(DirectFormatter formatter, boolean minify) {
+    super(formatter);
+    this.minify = minify;
+  }
+
+  private static ASTPrinter create(PrintType type, TokenProcessor sink) {
+    var printer = type.hasDirectFormatter()
+        ? new ASTPrinter(type.getDirectFormatter(sink), type.isMinifying())
+        : new ASTPrinter(type.getTokenProcessor(sink), type.isMinifying());
+    printer.verbatim = type.isVerbatim();
+    return printer;
+  }
+
+  private String print(ASTNode node) {
+    startVisit(node);
+    finalizePrinting();
+    return generateString();
   }
 
   public static String printAST(TokenProcessor tokenProcessor, ASTNode node) {
-    var printer = new ASTPrinter(tokenProcessor);
+    return new ASTPrinter(tokenProcessor).print(node);
+  }
+
+  /**
+   * Prints the given node with the given print type. Print types that have a
+   * {@link DirectFormatter} are printed without creating a token object for
+   * each token.
+   * 
+   * @param type The print type that determines the formatting
+   * @param node The node to print
+   * @return The printed code
+   */
+  public static String print(PrintType type, ASTNode node) {
+    return create(type, new SimplePrinter()).print(node);
+  }
+
+  /**
+   * Prints the given node with the given print type into the given sink. Sinks
+   * like {@link AppendablePrinter} or {@link ByteBufferPrinter} receive the
+   * printed code directly without it being built into a string first.
+   * 
+   * @param <P>  The type of the sink
+   * @param type The print type that determines the formatting
+   * @param node The node to print
+   * @param sink The token processor that receives the formatted tokens
+   * @return The given sink
+   */
+  public static <P extends TokenProcessor> P print(PrintType type, ASTNode node, P sink) {
+    var printer = create(type, sink);
     printer.startVisit(node);
     printer.finalizePrinting();
-    return printer.generateString();
+    return sink;
   }
 
-  public static String print(PrintType type, ASTNode node) {
-    return printAST(type.getTokenProcessor(), node);
+  private record PrintedChunk(
+      String text, int indentLevel, boolean indentationPrinted, boolean startSensitive) {
+  }
+
+  /**
+   * Prints a part of a translation unit with a separate printer that continues
+   * from the given indentation state.
+   */
+  private static PrintedChunk printChunk(
+      PrintType type, TranslationUnit node,
+      int indentLevel, boolean indentationPrinted,
+      Consumer<ASTPrinter> content) {
+    var printer = create(type, new SimplePrinter());
+    var formatter = printer.getFormatter();
+    formatter.continueFrom(indentLevel, indentationPrinted);
+    printer.precedenceWrapped.clear();
+    printer.context = node;
+    printer.setCurrentNode(node);
+    content.accept(printer);
+    printer.finalizePrinting();
+    return new PrintedChunk(
+        printer.generateString(),
+        formatter.getIndentLevel(),
+        formatter.isIndentationPrinted(),
+        formatter.isStartSensitive());
+  }
+
+  private static PrintedChunk printDeclarations(
+      PrintType type, TranslationUnit node, List<ExternalDeclaration> declarations,
+      int indentLevel, boolean indentationPrinted, boolean last) {
+    return printChunk(type, node, indentLevel, indentationPrinted, printer -> {
+      for (var declaration : declarations) {
+        printer.visit(declaration);
+      }
+      if (last) {
+        printer.emitToken(new EOFToken());
+      }
+    });
+  }
+
+  public static String printParallel(PrintType type, TranslationUnit node) {
+    return printParallel(type, node, DEFAULT_CHUNK_SIZE);
+  }
+
+  /**
+   * Prints the external declarations of the given translation unit in chunks
+   * that are printed in parallel, each with its own printer and formatter. The
+   * output is the same as that of {@link #print(PrintType, ASTNode)}.
+   * 
+   * Each chunk is printed assuming it starts at the top level at the beginning
+   * of a line, which is where external declarations usually end. When joining
+   * the chunks, a chunk that was printed with a different indentation state
+   * than the one the preceding chunk ended with is printed again with the
+   * correct state. If a chunk begins with something that would have changed the
+   * held back last token of the preceding chunk, the whole tree is printed
+   * sequentially instead.
+   * 
+   * Print types without a {@link DirectFormatter} are printed sequentially since
+   * the line annotator's decisions depend on all previously printed lines.
+   * Minified printing is also sequential since the identifier names are
+   * computed for the whole tree.
+   * 
+   * @param type      The print type that determines the formatting
+   * @param node      The translation unit to print
+   * @param chunkSize The number of external declarations in each chunk
+   * @return The printed code
+   */
+  public static String printParallel(PrintType type, TranslationUnit node, int chunkSize) {
+    if (chunkSize < 1) {
+      throw new IllegalArgumentException("The chunk size must be positive!");
+    }
+    var children = node.getChildren();
+    if (!type.hasDirectFormatter() || type.isMinifying() || children.size() <= chunkSize) {
+      return print(type, node);
+    }
+
+    var chunkCount = (children.size() + chunkSize - 1) / chunkSize;
+    var chunks = new PrintedChunk[chunkCount];
+    IntStream.range(0, chunkCount).parallel().forEach(i -> chunks[i] = printDeclarations(
+        type, node, getChunk(children, i, chunkSize), 0, false, i == chunkCount - 1));
+
+    // the version statement and the header are short enough to print directly
+    var head = printChunk(type, node, 0, false, printer -> {
+      printer.visitSafe(node.getVersionStatement());
+      printer.emitLiteralSafe(node.outputOptions.getPrintHeader());
+    });
+    var builder = new StringBuilder(head.text());
+    var previous = head;
+    for (var i = 0; i < chunkCount; i++) {
+      var chunk = chunks[i];
+      if (chunk.startSensitive()) {
+        return print(type, node);
+      }
+      if (previous.indentLevel() != 0 || previous.indentationPrinted()) {
+        chunk = printDeclarations(type, node, getChunk(children, i, chunkSize),
+            previous.indentLevel(), previous.indentationPrinted(), i == chunkCount - 1);
+      }
+      builder.append(chunk.text());
+      previous = chunk;
+    }
+    return builder.toString();
+  }
+
+  private static List<ExternalDeclaration> getChunk(
+      List<ExternalDeclaration> children, int index, int chunkSize) {
+    return children.subList(index * chunkSize, Math.min(children.size(), (index + 1) * chunkSize));
+  }
+
+  /**
+   * Prints the given node with the token processors of the given print type and
+   * records the source locations of the printed code in a {@link SourceMap}
+   * instead of printing #line directives. The printed code and the map are
+   * available from the returned source mapper.
+   * 
+   * @param type The print type that determines the formatting, it can't be one
+   *             that annotates lines
+   * @param node The node to print
+   * @param sink The token processor that receives the printed code
+   * @return The source mapper that holds the source map
+   */
+  public static SourceMapper printSourceMapped(PrintType type, ASTNode node, TokenProcessor sink) {
+    var mapper = new SourceMapper(sink);
+    var tokenProcessor = type.getTokenProcessor(mapper);
+    if (tokenProcessor instanceof LineAnnotator) {
+      throw new IllegalArgumentException("The print type " + type + " already annotates lines!");
+    }
+    var printer = new ASTPrinter(tokenProcessor, type.isMinifying());
+    printer.verbatim = type.isVerbatim();
+    printer.startVisit(node);
+    printer.finalizePrinting();
+    return mapper;
+  }
+
+  public static SourceMapper printSourceMapped(PrintType type, ASTNode node) {
+    return printSourceMapped(type, node, new SimplePrinter());
   }
 
   public static String printSimple(ASTNode node) {
@@ -64,12 +272,61 @@ public class ASTPrinter extends ASTPrinterBase {
     return print(PrintType.INDENTED_ANNOTATED, node);
   }
 
+  public static String printMinified(ASTNode node) {
+    return print(PrintType.MINIFIED, node);
+  }
+
+  public static String printVerbatim(ASTNode node) {
+    return print(PrintType.VERBATIM, node);
+  }
+
   @Override
   public Void startVisit(ASTNode node) {
     precedenceWrapped.clear();
+    identifierNames = minify ? IdentifierMinifier.computeNames(node) : null;
     return super.startVisit(node);
   }
 
+  /**
+   * Statements, expressions, function definitions and declarations that haven't
+   * been modified since they were parsed are copied from the source code when
+   * printing verbatim. Only the modified regions are printed from the tree. Since
+   * the copied text doesn't pass through the printer as tokens, the token
+   * processors can't change it.
+   */
+  @Override
+  public Void visit(ASTNode node) {
+    if (verbatim && node.hasVerbatimSource() && isVerbatimCopyable(node)) {
+      copySourceText(node);
+      return null;
+    }
+    return super.visit(node);
+  }
+
+  private static boolean isVerbatimCopyable(ASTNode node) {
+    return node instanceof Statement
+        || node instanceof Expression
+        || node instanceof FunctionDefinition
+        || node instanceof DeclarationExternalDeclaration;
+  }
+
+  private void copySourceText(ASTNode node) {
+    var previousNode = getCurrentNode();
+    setCurrentNode(node);
+    var text = node.getSourceRange().getText();
+    if (node instanceof Expression expression) {
+      // the parentheses that the parent requires aren't part of the source text
+      enterExpression(expression);
+      emitLiteral(text);
+      exitExpression(expression);
+    } else {
+      // the source text ends before the newline that would have been printed
+      emitLiteral(text);
+      emitCommonNewline();
+    }
+    setCurrentNode(previousNode);
+  }
+
   @Override
   public Void visitTranslationUnit(TranslationUnit node) {
     visitSafe(node.getVersionStatement());
@@ -83,10 +340,10 @@ public class ASTPrinter extends ASTPrinterBase {
   public Void visitVersionStatement(VersionStatement node) {
     emitType(GLSLLexer.NR, GLSLLexer.NR_VERSION);
     emitExtendableSpace();
-    emitType(node.version.tokenType);
-    if (node.profile != null) {
+    emitType(node.getVersion().tokenType);
+    if (node.getProfile() != null) {
       emitExtendableSpace();
-      emitType(node.profile.tokenType);
+      emitType(node.getProfile().tokenType);
     }
     emitExactNewline();
     return null;
@@ -122,26 +379,26 @@ public class ASTPrinter extends ASTPrinterBase {
   public Void visitPragmaDirective(PragmaDirective node) {
     emitType(GLSLLexer.NR, GLSLLexer.NR_PRAGMA);
     emitExtendableSpace();
-    if (node.stdGL) {
+    if (node.isStdGL()) {
       emitType(GLSLLexer.NR_STDGL);
       emitExtendableSpace();
     }
-    if (node.type == PragmaType.CUSTOM) {
+    if (node.getType() == PragmaType.CUSTOM) {
       emitLiteral(node.getCustomName());
-    } else if (node.type == PragmaType.OPTIONNV) {
+    } else if (node.getType() == PragmaType.OPTIONNV) {
       emitType(
-              node.type.tokenType,
+              node.getType().tokenType,
               GLSLLexer.NR_LPAREN,
-              node.option.tokenType);
+              node.getOption().tokenType);
       emitExtendableSpace();
       emitType(
-              node.state.tokenType,
+              node.getState().tokenType,
               GLSLLexer.NR_RPAREN);
     } else {
       emitType(
-          node.type.tokenType,
+          node.getType().tokenType,
           GLSLLexer.NR_LPAREN,
-          node.state.tokenType,
+          node.getState().tokenType,
           GLSLLexer.NR_RPAREN);
     }
     emitExactNewline();
@@ -153,10 +410,10 @@ public class ASTPrinter extends ASTPrinterBase {
     emitType(GLSLLexer.NR, GLSLLexer.NR_EXTENSION);
     emitExtendableSpace();
     emitLiteral(node.getName());
-    if (node.behavior != null) {
+    if (node.getBehavior() != null) {
       emitType(GLSLLexer.NR_COLON);
       emitExtendableSpace();
-      emitType(node.behavior.tokenType);
+      emitType(node.getBehavior().tokenType);
     }
     emitExactNewline();
     return null;
@@ -183,19 +440,19 @@ public class ASTPrinter extends ASTPrinterBase {
   public Void visitIncludeDirective(IncludeDirective node) {
     emitType(GLSLLexer.NR, GLSLLexer.NR_INCLUDE);
     emitExtendableSpace();
-    emitType(node.isAngleBrackets ? GLSLLexer.NR_STRING_START_ANGLE : GLSLLexer.NR_STRING_START);
+    emitType(node.isAngleBrackets() ? GLSLLexer.NR_STRING_START_ANGLE : GLSLLexer.NR_STRING_START);
     var content = node.getContent();
     if (content != null) {
       emitLiteral(content);
     }
-    emitType(node.isAngleBrackets ? GLSLLexer.NR_SA_STRING_END : GLSLLexer.NR_S_STRING_END);
+    emitType(node.isAngleBrackets() ? GLSLLexer.NR_SA_STRING_END : GLSLLexer.NR_S_STRING_END);
     emitExactNewline();
     return null;
   }
 
   @Override
   public void exitLayoutDefaults(LayoutDefaults node) {
-    emitType(node.mode.tokenType);
+    emitType(node.getMode().tokenType);
     emitBreakableSpace();
     emitStatementEnd();
   }
@@ -245,10 +502,57 @@ public class ASTPrinter extends ASTPrinterBase {
     emitType(GLSLLexer.MINUS_OP, GLSLLexer.MINUS_OP);
   }
 
+  /**
+   * Checks if the parentheses of a grouping expression can be omitted without
+   * changing the meaning of the expression. Sequences always keep their
+   * parentheses since they could be confused with argument lists or
+   * declarations.
+   */
+  private static boolean isGroupingRedundant(GroupingExpression node) {
+    var operand = node.getOperand();
+    var ownType = operand.getExpressionType();
+    if (ownType == ExpressionType.SEQUENCE) {
+      return false;
+    }
+    if (ownType.precedence <= 2) {
+      return true;
+    }
+
+    // find the expression the grouping is an operand of
+    ASTNode child = node;
+    var parent = node.getParent();
+    while (parent instanceof GroupingExpression) {
+      child = parent;
+      parent = parent.getParent();
+    }
+    if (!(parent instanceof Expression parentExpression)
+        || parent instanceof FunctionCallExpression
+        || parent instanceof ArrayAccessExpression access && access.getRight() == child) {
+      return true;
+    }
+    var parentType = parentExpression.getExpressionType();
+    if (parentType.precedence > ownType.precedence) {
+      return true;
+    }
+    if (parentType.precedence < ownType.precedence) {
+      return false;
+    }
+    if (parent instanceof BinaryExpression binary) {
+      return parentType.associativity == ExpressionType.Associativity.LTR
+          ? binary.getLeft() == child
+          : binary.getRight() == child;
+    }
+    if (parent instanceof ConditionExpression condition) {
+      return condition.getCondition() != child;
+    }
+    return parentType.operandStructure == OperandStructure.UNARY;
+  }
+
   @Override
   public Void visitGroupingExpression(GroupingExpression node) {
     var operand = node.getOperand();
-    if (operand.getExpressionType() == ExpressionType.GROUPING) {
+    if (operand.getExpressionType() == ExpressionType.GROUPING
+        || minify && isGroupingRedundant(node)) {
       visit(operand);
     } else {
       emitType(GLSLLexer.LPAREN);
@@ -1097,7 +1401,7 @@ public class ASTPrinter extends ASTPrinterBase {
 
   @Override
   public Void visitInterpolationQualifier(InterpolationQualifier node) {
-    emitType(node.interpolationType.tokenType);
+    emitType(node.getInterpolationType().tokenType);
     return null;
   }
 
@@ -1141,13 +1445,13 @@ public class ASTPrinter extends ASTPrinterBase {
 
   @Override
   public Void visitPrecisionQualifier(PrecisionQualifier node) {
-    emitType(node.precisionLevel.tokenType);
+    emitType(node.getPrecisionLevel().tokenType);
     return null;
   }
 
   @Override
   public Void visitStorageQualifier(StorageQualifier node) {
-    emitType(node.storageType.tokenType);
+    emitType(node.getStorageType().tokenType);
     if (node.getTypeNames() != null) {
       emitType(GLSLLexer.LPAREN);
       visitCommaSpaced(node.getTypeNames());
@@ -1172,6 +1476,14 @@ public class ASTPrinter extends ASTPrinterBase {
     return null;
   }
 
+  @Override
+  public Void visitPointerSpecifier(PointerSpecifier node) {
+    for (int i = 0; i < node.getDepth(); i++) {
+      emitType(GLSLLexer.TIMES_OP);
+    }
+    return null;
+  }
+
   @Override
   public void exitTypeSpecifier(TypeSpecifier node) {
     visitSafe(node.getArraySpecifier());
@@ -1179,13 +1491,13 @@ public class ASTPrinter extends ASTPrinterBase {
 
   @Override
   public Void visitBuiltinFixedTypeSpecifier(BuiltinFixedTypeSpecifier node) {
-    emitType(node.type.tokenType);
+    emitType(node.getType().tokenType);
     return null;
   }
 
   @Override
   public Void visitBuiltinNumericTypeSpecifier(BuiltinNumericTypeSpecifier node) {
-    emitLiteral(node.type.getMostCompactName());
+    emitLiteral(node.getType().getMostCompactName());
     return null;
   }
 
@@ -1261,6 +1573,13 @@ public class ASTPrinter extends ASTPrinterBase {
 
   @Override
   public Void visitIdentifier(Identifier node) {
+    if (identifierNames != null) {
+      var name = identifierNames.get(node);
+      if (name != null) {
+        emitLiteral(name);
+        return null;
+      }
+    }
     emitLiteral(node.getName());
     return null;
   }
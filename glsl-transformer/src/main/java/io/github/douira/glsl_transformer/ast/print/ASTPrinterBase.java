@@ -14,11 +14,27 @@ public abstract class ASTPrinterBase extends ASTListenerVisitor<Void> {
   private PrintToken lastToken;
   private ASTNode currentNode;
   private TokenProcessor tokenProcessor;
+  private DirectFormatter formatter;
 
   protected ASTPrinterBase(TokenProcessor tokenProcessor) {
     this.tokenProcessor = tokenProcessor;
   }
 
+  /**
+   * Creates a printer that emits the token texts directly to the given formatter
+   * instead of creating a token object for each of them.
+   * 
+   * @param formatter The formatter to emit to
+   */
+  protected ASTPrinterBase(DirectFormatter formatter) {
+    this.tokenProcessor = formatter.getSink();
+    this.formatter = formatter;
+  }
+
+  protected DirectFormatter getFormatter() {
+    return formatter;
+  }
+
   protected String generateString() {
     return tokenProcessor.generateString();
   }
@@ -28,11 +44,19 @@ public abstract class ASTPrinterBase extends ASTListenerVisitor<Void> {
   }
 
   public void replaceToken(PrintToken replacement) {
+    if (formatter != null) {
+      formatter.replace(replacement);
+      return;
+    }
     lastToken = replacement;
   }
 
   protected void emitToken(PrintToken token) {
     token.setSource(currentNode);
+    if (formatter != null) {
+      formatter.emitToken(token, this);
+      return;
+    }
     if (token instanceof ReplaceToken replaceToken) {
       if (lastToken == null) {
         return;
@@ -48,6 +72,10 @@ public abstract class ASTPrinterBase extends ASTListenerVisitor<Void> {
   }
 
   protected void finalizePrinting() {
+    if (formatter != null) {
+      formatter.flush();
+      return;
+    }
     if (lastToken != null) {
       appendToken(lastToken);
       lastToken = null;
@@ -61,11 +89,15 @@ public abstract class ASTPrinterBase extends ASTListenerVisitor<Void> {
   }
 
   protected void emitLiteral(TokenRole role, String literal) {
+    if (formatter != null) {
+      formatter.emit(role, literal, currentNode);
+      return;
+    }
     emitToken(new LiteralToken(role, literal));
   }
 
   protected void emitLiteral(String literal) {
-    emitToken(new LiteralToken(literal));
+    emitLiteral(TokenRole.DEFAULT, literal);
   }
 
   protected void emitLiteralSafe(String literal) {
@@ -85,6 +117,10 @@ public abstract class ASTPrinterBase extends ASTListenerVisitor<Void> {
   }
 
   protected void emitType(TokenRole role, int type) {
+    if (formatter != null) {
+      formatter.emit(role, ParserToken.getTokenText(type), currentNode);
+      return;
+    }
     emitToken(new ParserToken(role, type));
   }
 
@@ -103,6 +139,10 @@ public abstract class ASTPrinterBase extends ASTListenerVisitor<Void> {
   }
 
   protected void emitWhitespace(TokenRole role, String whitespace) {
+    if (formatter != null) {
+      formatter.emit(role, whitespace, currentNode);
+      return;
+    }
     emitToken(new LiteralToken(TokenChannel.WHITESPACE, role, whitespace));
   }
 
@@ -145,15 +185,28 @@ public abstract class ASTPrinterBase extends ASTListenerVisitor<Void> {
 
   protected void emitLineDirective(SourceLocation location) {
     if (location instanceof PresentSourceLocation present && present.canPrint()) {
+      // line directives are only printed by the token processor chain
+      if (formatter != null) {
+        formatter.flush();
+        return;
+      }
       emitToken(new LineDirectiveMarker(present));
     }
   }
 
   protected void indent() {
+    if (formatter != null) {
+      formatter.changeIndent(1);
+      return;
+    }
     emitToken(IndentMarker.indent());
   }
 
   protected void unindent() {
+    if (formatter != null) {
+      formatter.changeIndent(-1);
+      return;
+    }
     emitToken(IndentMarker.unindent());
   }
 
@@ -162,6 +215,10 @@ public abstract class ASTPrinterBase extends ASTListenerVisitor<Void> {
   }
 
   protected void compactCommonNewline(Class<? extends ASTNode> sourceClass) {
+    if (formatter != null) {
+      formatter.replaceCommonNewline(sourceClass);
+      return;
+    }
     emitToken(ReplaceToken.fromMatchAndNodeCondition(
         new LiteralToken(TokenRole.COMMON_FORMATTING, " "),
         "\n",
@@ -0,0 +1,48 @@
+package io.github.douira.glsl_transformer.ast.print;
+
+import java.io.*;
+
+import io.github.douira.glsl_transformer.ast.print.token.PrintToken;
+
+/**
+ * Writes the printed code directly to an {@link Appendable} such as a
+ * {@link Writer} without building a string first. The appendable isn't flushed
+ * or closed by this printer. IO exceptions are rethrown as
+ * {@link UncheckedIOException}.
+ */
+public class AppendablePrinter implements TokenProcessor {
+  private final Appendable appendable;
+
+  public AppendablePrinter(Appendable appendable) {
+    this.appendable = appendable;
+  }
+
+  /**
+   * Returns null since the printed code is not collected by this printer.
+   */
+  @Override
+  public String generateString() {
+    return null;
+  }
+
+  @Override
+  public void appendToken(PrintToken token) {
+    var content = token.getContent();
+    if (content != null) {
+      appendText(content);
+    }
+  }
+
+  @Override
+  public void appendText(String text) {
+    try {
+      appendable.append(text);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  public Appendable getAppendable() {
+    return appendable;
+  }
+}
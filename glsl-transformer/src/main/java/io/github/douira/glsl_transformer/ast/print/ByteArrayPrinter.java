@@ -0,0 +1,77 @@
+package io.github.douira.glsl_transformer.ast.print;
+
+import java.nio.charset.*;
+import java.util.Arrays;
+
+/**
+ * Encodes the printed code into a byte array. If the array is too small, it's
+ * replaced by a larger copy.
+ */
+public class ByteArrayPrinter extends EncodingPrinter {
+  private byte[] array;
+  private int length;
+
+  /**
+   * Creates a printer that encodes into the given array with the given charset,
+   * starting at the first position.
+   * 
+   * @param array   The array to write into
+   * @param charset The charset to encode with, either US-ASCII or UTF-8
+   */
+  public ByteArrayPrinter(byte[] array, Charset charset) {
+    super(charset);
+    this.array = array;
+  }
+
+  public ByteArrayPrinter(byte[] array) {
+    this(array, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Creates a printer with an array that is large enough for the printed code
+   * of an input with the given length.
+   * 
+   * @param inputLength The length of the parsed code
+   * @param charset     The charset to encode with, either US-ASCII or UTF-8
+   */
+  public ByteArrayPrinter(int inputLength, Charset charset) {
+    this(new byte[TokenProcessor.estimateOutputLength(inputLength)], charset);
+  }
+
+  public ByteArrayPrinter(int inputLength) {
+    this(inputLength, StandardCharsets.UTF_8);
+  }
+
+  @Override
+  protected void reserve(int bytes) {
+    var required = length + bytes;
+    if (required > array.length) {
+      array = Arrays.copyOf(array, Math.max(required, array.length * 2));
+    }
+  }
+
+  @Override
+  protected void put(byte value) {
+    array[length++] = value;
+  }
+
+  @Override
+  public int getLength() {
+    return length;
+  }
+
+  @Override
+  public String generateString() {
+    return new String(array, 0, length, charset);
+  }
+
+  /**
+   * Returns the array that contains the printed code. This is not the array
+   * given to the constructor if it had to be grown.
+   * 
+   * @return The array containing the printed code
+   */
+  public byte[] getArray() {
+    return array;
+  }
+}
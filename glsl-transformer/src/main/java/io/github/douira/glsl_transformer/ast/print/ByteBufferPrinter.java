@@ -0,0 +1,87 @@
+package io.github.douira.glsl_transformer.ast.print;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.*;
+
+/**
+ * Encodes the printed code into a byte buffer which is usually a direct buffer
+ * that can be passed to native code without copying. If the buffer is too
+ * small, it's replaced by a larger buffer of the same kind.
+ */
+public class ByteBufferPrinter extends EncodingPrinter {
+  private ByteBuffer buffer;
+
+  /**
+   * Creates a printer that encodes into the given buffer with the given
+   * charset, starting at the buffer's current position. Content before the
+   * position is kept and becomes part of the printed code.
+   * 
+   * @param buffer  The buffer to write into
+   * @param charset The charset to encode with, either US-ASCII or UTF-8
+   */
+  public ByteBufferPrinter(ByteBuffer buffer, Charset charset) {
+    super(charset);
+    this.buffer = buffer;
+  }
+
+  public ByteBufferPrinter(ByteBuffer buffer) {
+    this(buffer, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Creates a printer with a direct buffer that is large enough for the
+   * printed code of an input with the given length.
+   * 
+   * @param inputLength The length of the parsed code
+   * @param charset     The charset to encode with, either US-ASCII or UTF-8
+   */
+  public ByteBufferPrinter(int inputLength, Charset charset) {
+    this(ByteBuffer.allocateDirect(TokenProcessor.estimateOutputLength(inputLength)), charset);
+  }
+
+  public ByteBufferPrinter(int inputLength) {
+    this(inputLength, StandardCharsets.UTF_8);
+  }
+
+  @Override
+  protected void reserve(int bytes) {
+    if (bytes > buffer.remaining()) {
+      var capacity = Math.max(buffer.position() + bytes, buffer.capacity() * 2);
+      var grown = buffer.isDirect()
+          ? ByteBuffer.allocateDirect(capacity)
+          : ByteBuffer.allocate(capacity);
+      grown.order(buffer.order());
+      grown.put(buffer.flip());
+      buffer = grown;
+    }
+  }
+
+  @Override
+  protected void put(byte value) {
+    buffer.put(value);
+  }
+
+  @Override
+  public int getLength() {
+    return buffer.position();
+  }
+
+  @Override
+  public String generateString() {
+    var bytes = new byte[buffer.position()];
+    buffer.get(0, bytes);
+    return new String(bytes, charset);
+  }
+
+  /**
+   * Returns a view of the printed code with the position at zero and the limit
+   * at the end of the code. The returned buffer shares its content with the
+   * buffer being written to which is not the buffer given to the constructor if
+   * it had to be grown.
+   * 
+   * @return A view of the printed code
+   */
+  public ByteBuffer getBuffer() {
+    return buffer.duplicate().flip();
+  }
+}
@@ -0,0 +1,72 @@
+package io.github.douira.glsl_transformer.ast.print;
+
+import java.util.Arrays;
+
+import io.github.douira.glsl_transformer.ast.print.token.PrintToken;
+
+/**
+ * Writes the printed code into a char array. If the array is too small, it's
+ * replaced by a larger copy.
+ */
+public class CharArrayPrinter implements TokenProcessor {
+  private char[] array;
+  private int length;
+
+  /**
+   * Creates a printer that writes into the given array, starting at the first
+   * position.
+   * 
+   * @param array The array to write into
+   */
+  public CharArrayPrinter(char[] array) {
+    this.array = array;
+  }
+
+  /**
+   * Creates a printer with an array that is large enough for the printed code
+   * of an input with the given length.
+   * 
+   * @param inputLength The length of the parsed code
+   */
+  public CharArrayPrinter(int inputLength) {
+    this(new char[TokenProcessor.estimateOutputLength(inputLength)]);
+  }
+
+  @Override
+  public String generateString() {
+    return new String(array, 0, length);
+  }
+
+  @Override
+  public void appendToken(PrintToken token) {
+    var content = token.getContent();
+    if (content != null) {
+      appendText(content);
+    }
+  }
+
+  @Override
+  public void appendText(String text) {
+    var textLength = text.length();
+    var required = length + textLength;
+    if (required > array.length) {
+      array = Arrays.copyOf(array, Math.max(required, array.length * 2));
+    }
+    text.getChars(0, textLength, array, length);
+    length = required;
+  }
+
+  /**
+   * Returns the array that contains the printed code. This is not the array
+   * given to the constructor if it had to be grown.
+   * 
+   * @return The array containing the printed code
+   */
+  public char[] getArray() {
+    return array;
+  }
+
+  public int getLength() {
+    return length;
+  }
+}
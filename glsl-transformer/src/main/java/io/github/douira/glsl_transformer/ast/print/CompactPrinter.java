@@ -4,6 +4,9 @@ import io.github.douira.glsl_transformer.ast.print.token.*;
 import io.github.douira.glsl_transformer.token_filter.TokenChannel;
 
 public class CompactPrinter extends DelegateTokenProcessor {
+  private static final PrintToken SPACE = new LiteralToken(
+      TokenChannel.WHITESPACE, TokenRole.COMMON_FORMATTING, " ");
+
   public CompactPrinter(TokenProcessor delegate) {
     super(delegate);
   }
@@ -15,8 +18,7 @@ public class CompactPrinter extends DelegateTokenProcessor {
   @Override
   public void appendToken(PrintToken token) {
     if (token.getRole() == TokenRole.COMMON_FORMATTING && "\n".equals(token.getContent())) {
-      token = new LiteralToken(
-          TokenChannel.WHITESPACE, TokenRole.COMMON_FORMATTING, " ");
+      token = SPACE;
     }
     super.appendToken(token);
   }
@@ -0,0 +1,238 @@
+package io.github.douira.glsl_transformer.ast.print;
+
+import java.util.Arrays;
+
+import io.github.douira.glsl_transformer.ast.node.abstract_node.ASTNode;
+import io.github.douira.glsl_transformer.ast.print.token.*;
+
+/**
+ * Formats the printed code without creating a token object for each emitted
+ * token. The texts are written directly to the sink with
+ * {@link TokenProcessor#appendText(String)}. This implements the same output as
+ * the token processor chains of the simple, indented and compact print types
+ * but keeps the state of replacement, compaction and indentation in primitive
+ * fields.
+ *
+ * The last emitted token is held back until the next token is emitted since a
+ * replacement may still change it.
+ */
+public class DirectFormatter {
+  private static final String NEWLINE = "\n";
+
+  private final TokenProcessor sink;
+  private final boolean compact;
+  private final boolean indenting;
+  private final char indent;
+  private final int indentMultiplier;
+
+  private boolean hasPending = false;
+  private TokenRole pendingRole;
+  private String pendingText;
+  private ASTNode pendingSource;
+
+  private int indentLevel = 0;
+  private boolean indentationPrinted = false;
+  private String[] indentations = new String[0];
+
+  private boolean started = false;
+  private boolean startSensitive = false;
+
+  private DirectFormatter(
+      TokenProcessor sink, boolean compact, boolean indenting, char indent, int indentMultiplier) {
+    this.sink = sink;
+    this.compact = compact;
+    this.indenting = indenting;
+    this.indent = indent;
+    this.indentMultiplier = indentMultiplier;
+  }
+
+  public static DirectFormatter simple(TokenProcessor sink) {
+    return new DirectFormatter(sink, false, false, '\t', 1);
+  }
+
+  public static DirectFormatter compact(TokenProcessor sink) {
+    return new DirectFormatter(sink, true, false, '\t', 1);
+  }
+
+  public static DirectFormatter indenting(TokenProcessor sink) {
+    return new DirectFormatter(sink, false, true, '\t', 1);
+  }
+
+  public static DirectFormatter indenting(TokenProcessor sink, char indent, int indentMultiplier) {
+    return new DirectFormatter(sink, false, true, indent, indentMultiplier);
+  }
+
+  public TokenProcessor getSink() {
+    return sink;
+  }
+
+  /**
+   * Sets the indentation state this formatter continues from. This is used when
+   * a part of the code is printed separately and the formatter has to continue
+   * where the printing of the preceding part ended.
+   *
+   * @param indentLevel        The indentation level at the start
+   * @param indentationPrinted Whether the current line is already indented
+   */
+  public void continueFrom(int indentLevel, boolean indentationPrinted) {
+    this.indentLevel = indentLevel;
+    this.indentationPrinted = indentationPrinted;
+  }
+
+  public int getIndentLevel() {
+    return indentLevel;
+  }
+
+  public boolean isIndentationPrinted() {
+    return indentationPrinted;
+  }
+
+  /**
+   * Returns whether the first thing this formatter received was something other
+   * than a regular token. Replacements and markers at the start would have
+   * affected the held back token of the preceding part if the code had been
+   * printed in one piece.
+   *
+   * @return Whether the output depends on the preceding held back token
+   */
+  public boolean isStartSensitive() {
+    return startSensitive;
+  }
+
+  private void start(boolean sensitive) {
+    if (!started) {
+      started = true;
+      startSensitive = sensitive;
+    }
+  }
+
+  /**
+   * Emits a token with the given text. The token is only written once the next
+   * token is emitted or printing is finished.
+   *
+   * @param role   The role of the token
+   * @param text   The text of the token
+   * @param source The node that emitted the token
+   */
+  public void emit(TokenRole role, String text, ASTNode source) {
+    start(false);
+    flush();
+    hasPending = true;
+    pendingRole = role;
+    pendingText = text;
+    pendingSource = source;
+  }
+
+  /**
+   * Emits a token object. Markers and replacement tokens are handled like the
+   * token processors would handle them.
+   *
+   * @param token   The token to emit
+   * @param printer The printer that emits the token, it receives replacements
+   */
+  public void emitToken(PrintToken token, ASTPrinterBase printer) {
+    if (token instanceof ReplaceToken replaceToken) {
+      start(true);
+      if (hasPending) {
+        var pendingToken = new LiteralToken(pendingRole, pendingText);
+        pendingToken.setSource(pendingSource);
+        replaceToken.replace(pendingToken, printer);
+      }
+    } else if (token instanceof Marker) {
+      start(true);
+      flush();
+      if (token instanceof IndentMarker indentMarker) {
+        indentLevel += indentMarker.indentDelta;
+      }
+    } else {
+      emit(token.getRole(), token.getContent(), token.getSource());
+    }
+  }
+
+  /**
+   * Replaces the held back token with the given token.
+   *
+   * @param token The replacement token
+   */
+  public void replace(PrintToken token) {
+    hasPending = true;
+    pendingRole = token.getRole();
+    pendingText = token.getContent();
+    pendingSource = token.getSource();
+  }
+
+  /**
+   * Replaces the held back token with a space if it's a common formatting
+   * newline emitted by a node of the given type.
+   *
+   * @param sourceClass The type of node the newline has to be from
+   */
+  public void replaceCommonNewline(Class<? extends ASTNode> sourceClass) {
+    start(true);
+    if (hasPending
+        && pendingRole == TokenRole.COMMON_FORMATTING
+        && NEWLINE.equals(pendingText)
+        && sourceClass.isInstance(pendingSource)) {
+      pendingText = " ";
+      pendingSource = null;
+    }
+  }
+
+  /**
+   * Changes the indentation level after writing the held back token.
+   *
+   * @param delta The change of the indentation level
+   */
+  public void changeIndent(int delta) {
+    start(true);
+    flush();
+    indentLevel += delta;
+  }
+
+  /**
+   * Writes the held back token without emitting a new one. This is what markers
+   * that don't print anything do.
+   */
+  public void flush() {
+    if (hasPending) {
+      hasPending = false;
+      write(pendingRole, pendingText);
+      pendingText = null;
+      pendingSource = null;
+    }
+  }
+
+  private String getIndentation(int level) {
+    if (level >= indentations.length) {
+      indentations = Arrays.copyOf(indentations, level + 1);
+    }
+    var indentation = indentations[level];
+    if (indentation == null) {
+      indentation = String.valueOf(indent).repeat(level * indentMultiplier);
+      indentations[level] = indentation;
+    }
+    return indentation;
+  }
+
+  private void write(TokenRole role, String text) {
+    if (text == null) {
+      return;
+    }
+    if (compact && role == TokenRole.COMMON_FORMATTING && NEWLINE.equals(text)) {
+      text = " ";
+    }
+    if (indenting) {
+      var isNewline = text.endsWith(NEWLINE);
+      if (!indentationPrinted && !isNewline) {
+        indentationPrinted = true;
+        if (indentLevel > 0) {
+          sink.appendText(getIndentation(indentLevel));
+        }
+      }
+      if (isNewline) {
+        indentationPrinted = false;
+      }
+    }
+    sink.appendText(text);
+  }
+}
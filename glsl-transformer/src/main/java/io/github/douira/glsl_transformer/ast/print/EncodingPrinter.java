@@ -0,0 +1,83 @@
+package io.github.douira.glsl_transformer.ast.print;
+
+import java.nio.charset.*;
+
+import io.github.douira.glsl_transformer.ast.print.token.PrintToken;
+
+/**
+ * Encodes the printed code into bytes without creating a string first. Only
+ * US-ASCII and UTF-8 are supported since they cover all valid GLSL code.
+ * Characters that can't be encoded are replaced by a question mark.
+ */
+public abstract class EncodingPrinter implements TokenProcessor {
+  private static final byte REPLACEMENT = '?';
+
+  protected final Charset charset;
+  private final boolean utf8;
+
+  protected EncodingPrinter(Charset charset) {
+    if (charset.equals(StandardCharsets.UTF_8)) {
+      utf8 = true;
+    } else if (charset.equals(StandardCharsets.US_ASCII)) {
+      utf8 = false;
+    } else {
+      throw new IllegalArgumentException("Unsupported charset: " + charset);
+    }
+    this.charset = charset;
+  }
+
+  /**
+   * Makes sure that the given number of bytes can be put without growing.
+   * 
+   * @param bytes The number of bytes that will be put
+   */
+  protected abstract void reserve(int bytes);
+
+  protected abstract void put(byte value);
+
+  /**
+   * Returns the number of bytes that have been written.
+   * 
+   * @return The number of written bytes
+   */
+  public abstract int getLength();
+
+  @Override
+  public void appendToken(PrintToken token) {
+    var content = token.getContent();
+    if (content != null) {
+      appendText(content);
+    }
+  }
+
+  @Override
+  public void appendText(String content) {
+    var contentLength = content.length();
+    reserve(utf8 ? contentLength * 3 : contentLength);
+    for (int i = 0; i < contentLength; i++) {
+      var c = content.charAt(i);
+      if (c < 0x80) {
+        put((byte) c);
+      } else if (!utf8) {
+        put(REPLACEMENT);
+      } else if (c < 0x800) {
+        put((byte) (0xC0 | c >> 6));
+        put((byte) (0x80 | c & 0x3F));
+      } else if (Character.isHighSurrogate(c)
+          && i + 1 < contentLength
+          && Character.isLowSurrogate(content.charAt(i + 1))) {
+        var codePoint = Character.toCodePoint(c, content.charAt(++i));
+        put((byte) (0xF0 | codePoint >> 18));
+        put((byte) (0x80 | codePoint >> 12 & 0x3F));
+        put((byte) (0x80 | codePoint >> 6 & 0x3F));
+        put((byte) (0x80 | codePoint & 0x3F));
+      } else if (Character.isSurrogate(c)) {
+        put(REPLACEMENT);
+      } else {
+        put((byte) (0xE0 | c >> 12));
+        put((byte) (0x80 | c >> 6 & 0x3F));
+        put((byte) (0x80 | c & 0x3F));
+      }
+    }
+  }
+}
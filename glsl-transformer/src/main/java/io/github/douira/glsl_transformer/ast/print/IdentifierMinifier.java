@@ -0,0 +1,235 @@
+package io.github.douira.glsl_transformer.ast.print;
+
+import java.util.*;
+
+import io.github.douira.glsl_transformer.GLSLLexer;
+import io.github.douira.glsl_transformer.ast.data.BuiltinFunctions;
+import io.github.douira.glsl_transformer.ast.node.*;
+import io.github.douira.glsl_transformer.ast.node.abstract_node.ASTNode;
+import io.github.douira.glsl_transformer.ast.node.declaration.*;
+import io.github.douira.glsl_transformer.ast.node.expression.unary.FunctionCallExpression;
+import io.github.douira.glsl_transformer.ast.node.external_declaration.FunctionDefinition;
+import io.github.douira.glsl_transformer.ast.node.type.specifier.FunctionPrototype;
+import io.github.douira.glsl_transformer.ast.query.index.SymbolIndex;
+import io.github.douira.glsl_transformer.ast.traversal.NodeKindWalker;
+
+/**
+ * Computes short replacement names for the identifiers of a tree without
+ * modifying it. Local variables, parameters and functions other than the entry
+ * point are renamed. Global variables, interface blocks, struct types, members
+ * and built-ins keep their names since they're visible to the outside or can't
+ * be resolved. The names of all kept identifiers and keywords are never used as
+ * replacement names.
+ *
+ * Functions are renamed by name which means all overloads of a function get the
+ * same new name. A function is only renamed if all of its overloads are
+ * defined in the tree since the definition of an overload with only a
+ * prototype may be in another compilation unit. Functions with the name of a
+ * built-in function keep their name since calls to them may be calls to the
+ * built-in. All locals of a function get distinct names which avoids any
+ * shadowing, while locals of different functions reuse the same short names.
+ */
+public class IdentifierMinifier {
+  private static final String ENTRY_POINT_NAME = "main";
+  private static final String FIRST_CHARS = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ";
+  private static final String OTHER_CHARS = FIRST_CHARS + "0123456789_";
+  private static final Set<String> RESERVED_WORDS = new HashSet<>(Arrays.asList(
+      "asm", "class", "union", "enum", "typedef", "template", "this", "resource", "goto", "inline",
+      "noinline", "public", "static", "extern", "external", "interface", "long", "short", "half",
+      "fixed", "unsigned", "superp", "input", "output", "filter", "sizeof", "cast", "namespace",
+      "using", "packed", "common", "partition", "active"));
+
+  static {
+    var vocabulary = GLSLLexer.VOCABULARY;
+    for (int i = 0; i <= vocabulary.getMaxTokenType(); i++) {
+      var literalName = vocabulary.getLiteralName(i);
+      if (literalName != null && literalName.length() > 2) {
+        RESERVED_WORDS.add(literalName.substring(1, literalName.length() - 1));
+      }
+    }
+  }
+
+  private final SymbolIndex symbolIndex;
+  private final Map<Identifier, String> names = new HashMap<>();
+  private final Set<String> taken = new HashSet<>();
+  private final Map<String, String> functionNames = new LinkedHashMap<>();
+  private final Map<String, List<FunctionPrototype>> prototypes = new HashMap<>();
+  private final Map<FunctionDefinition, List<ASTNode>> locals = new LinkedHashMap<>();
+  private final List<Identifier> localReferences = new ArrayList<>();
+  private final List<Identifier> functionReferences = new ArrayList<>();
+
+  private IdentifierMinifier(SymbolIndex symbolIndex) {
+    this.symbolIndex = symbolIndex;
+  }
+
+  /**
+   * Computes the replacement names for the identifiers in the given tree. Only
+   * whole translation units are renamed since the declarations of a subtree's
+   * references may not be part of it. If the tree's root has no identifier
+   * index, no identifiers are renamed either.
+   *
+   * @param node the tree to compute the names for
+   * @return a map from identifiers to their new names. Identifiers that keep
+   *         their name are not contained in the map.
+   */
+  public static Map<Identifier, String> computeNames(ASTNode node) {
+    var root = node.getRoot();
+    if (!(node instanceof TranslationUnit) || root == null || root.identifierIndex == null) {
+      return Collections.emptyMap();
+    }
+    var minifier = new IdentifierMinifier(root.getSymbolIndex());
+    minifier.collect(node);
+    minifier.assign();
+    return minifier.names;
+  }
+
+  private static boolean isRenamableFunction(String name) {
+    return !name.equals(ENTRY_POINT_NAME) && !BuiltinFunctions.isBuiltin(name);
+  }
+
+  private static boolean isLocalDeclaration(ASTNode declaration) {
+    return (declaration instanceof DeclarationMember
+        || declaration instanceof FunctionParameter
+        || declaration instanceof IterationConditionInitializer)
+        && declaration.hasAncestor(FunctionDefinition.class);
+  }
+
+  private void collect(ASTNode node) {
+    new NodeKindWalker().on(Identifier.class, this::collectIdentifier).walk(node);
+  }
+
+  private void collectIdentifier(Identifier identifier) {
+    var name = identifier.getName();
+    var parent = identifier.getParent();
+    if (parent instanceof FunctionPrototype prototype && prototype.getName() == identifier) {
+      if (isRenamableFunction(name)) {
+        if (prototype.getParent() instanceof FunctionDefinition) {
+          functionNames.put(name, null);
+        }
+        prototypes.computeIfAbsent(name, key -> new ArrayList<>()).add(prototype);
+        functionReferences.add(identifier);
+      } else {
+        taken.add(name);
+      }
+    } else if (SymbolIndex.isReference(identifier)) {
+      var declaration = symbolIndex.getDeclaration(identifier);
+      if (declaration != null && isLocalDeclaration(declaration)) {
+        localReferences.add(identifier);
+      } else if (parent instanceof FunctionCallExpression
+          && (declaration == null || declaration instanceof FunctionDefinition)) {
+        // decided once all function names are known
+        functionReferences.add(identifier);
+      } else {
+        taken.add(name);
+      }
+    } else if (isLocalDeclaration(parent) && SymbolIndex.getDeclaredName(parent) == identifier) {
+      locals.computeIfAbsent(parent.getAncestor(FunctionDefinition.class), key -> new ArrayList<>())
+          .add(parent);
+    } else {
+      taken.add(name);
+    }
+  }
+
+  private static boolean hasSameParameters(FunctionPrototype a, FunctionPrototype b) {
+    var aParameters = a.getParameters();
+    var bParameters = b.getParameters();
+    if (aParameters.size() != bParameters.size()) {
+      return false;
+    }
+    for (int i = 0; i < aParameters.size(); i++) {
+      var aParameter = aParameters.get(i);
+      var bParameter = bParameters.get(i);
+      if (!aParameter.getType().equalsStructurally(bParameter.getType())) {
+        return false;
+      }
+      var aArraySpecifier = aParameter.getArraySpecifier();
+      if (aArraySpecifier == null
+          ? bParameter.getArraySpecifier() != null
+          : !aArraySpecifier.equalsStructurally(bParameter.getArraySpecifier())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isFullyDefined(List<FunctionPrototype> overloads) {
+    for (var prototype : overloads) {
+      if (prototype.getParent() instanceof FunctionDefinition) {
+        continue;
+      }
+      var defined = false;
+      for (var other : overloads) {
+        if (other.getParent() instanceof FunctionDefinition && hasSameParameters(prototype, other)) {
+          defined = true;
+          break;
+        }
+      }
+      if (!defined) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static String generateName(int index) {
+    var builder = new StringBuilder();
+    builder.append(FIRST_CHARS.charAt(index % FIRST_CHARS.length()));
+    index /= FIRST_CHARS.length();
+    while (index > 0) {
+      index--;
+      builder.append(OTHER_CHARS.charAt(index % OTHER_CHARS.length()));
+      index /= OTHER_CHARS.length();
+    }
+    return builder.toString();
+  }
+
+  private int nextFreeIndex(int index) {
+    while (taken.contains(generateName(index)) || RESERVED_WORDS.contains(generateName(index))) {
+      index++;
+    }
+    return index;
+  }
+
+  private void assign() {
+    // functions that are only called or declared but not defined, or that have
+    // an overload without a definition, are built-ins or defined elsewhere and
+    // keep their names
+    functionNames.keySet().removeIf(name -> !isFullyDefined(prototypes.get(name)));
+    for (var identifier : functionReferences) {
+      if (!functionNames.containsKey(identifier.getName())) {
+        taken.add(identifier.getName());
+      }
+    }
+
+    var index = 0;
+    for (var entry : functionNames.entrySet()) {
+      index = nextFreeIndex(index);
+      var name = generateName(index++);
+      entry.setValue(name);
+      taken.add(name);
+    }
+    for (var identifier : functionReferences) {
+      var name = functionNames.get(identifier.getName());
+      if (name != null) {
+        names.put(identifier, name);
+      }
+    }
+
+    var localNames = new HashMap<ASTNode, String>();
+    for (var functionLocals : locals.values()) {
+      var localIndex = 0;
+      for (var declaration : functionLocals) {
+        localIndex = nextFreeIndex(localIndex);
+        var name = generateName(localIndex++);
+        localNames.put(declaration, name);
+        names.put(SymbolIndex.getDeclaredName(declaration), name);
+      }
+    }
+    for (var identifier : localReferences) {
+      var name = localNames.get(symbolIndex.getDeclaration(identifier));
+      if (name != null) {
+        names.put(identifier, name);
+      }
+    }
+  }
+}
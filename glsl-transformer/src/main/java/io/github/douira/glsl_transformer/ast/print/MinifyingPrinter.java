@@ -0,0 +1,64 @@
+package io.github.douira.glsl_transformer.ast.print;
+
+import io.github.douira.glsl_transformer.ast.node.abstract_node.ASTNode;
+import io.github.douira.glsl_transformer.ast.print.token.*;
+import io.github.douira.glsl_transformer.token_filter.TokenChannel;
+
+/**
+ * Drops all whitespace that isn't necessary to separate tokens. A single space
+ * is only inserted between two tokens that would otherwise merge into a
+ * different token, such as two words or the minus signs of two different
+ * operators. Exact newlines are kept since they terminate preprocessor
+ * directives.
+ */
+public class MinifyingPrinter extends DelegateTokenProcessor {
+  private char lastChar = '\n';
+  private ASTNode lastSource;
+
+  public MinifyingPrinter(TokenProcessor delegate) {
+    super(delegate);
+  }
+
+  public MinifyingPrinter() {
+    this(new SimplePrinter());
+  }
+
+  private static boolean isWordChar(char c) {
+    return Character.isLetterOrDigit(c) || c == '_';
+  }
+
+  private boolean needsSeparator(char next, ASTNode nextSource) {
+    // operators like ++ are emitted as two tokens of the same node
+    return isWordChar(lastChar) && isWordChar(next)
+        || lastChar == next && (next == '+' || next == '-') && lastSource != nextSource
+        || lastChar == '/' && (next == '/' || next == '*');
+  }
+
+  private void appendContent(PrintToken source, String content) {
+    super.appendToken(new LiteralToken(source.getChannel(), source.getRole(), content));
+  }
+
+  @Override
+  public void appendToken(PrintToken token) {
+    var content = token.getContent();
+    if (token instanceof Marker || content == null || content.isEmpty()) {
+      super.appendToken(token);
+      return;
+    }
+
+    if (token.getChannel() == TokenChannel.WHITESPACE || content.isBlank()) {
+      if (token.getRole() == TokenRole.EXACT && content.indexOf('\n') >= 0 && lastChar != '\n') {
+        appendContent(token, "\n");
+        lastChar = '\n';
+      }
+      return;
+    }
+
+    if (needsSeparator(content.charAt(0), token.getSource())) {
+      appendContent(token, " ");
+    }
+    super.appendToken(token);
+    lastChar = content.charAt(content.length() - 1);
+    lastSource = token.getSource();
+  }
+}
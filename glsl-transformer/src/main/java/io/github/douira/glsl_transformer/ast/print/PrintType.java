@@ -1,22 +1,95 @@
 package io.github.douira.glsl_transformer.ast.print;
 
-import java.util.function.Supplier;
+import java.util.function.*;
 
 public enum PrintType {
-  SIMPLE(SimplePrinter::new),
-  INDENTED(IndentingPrinter::new),
-  COMPACT(CompactPrinter::new),
-  SIMPLE_ANNOTATED(() -> new LineAnnotator(new SimplePrinter())),
-  INDENTED_ANNOTATED(() -> new LineAnnotator(new IndentingPrinter())),
-  COMPACT_ANNOTATED(() -> new LineAnnotator(new CompactPrinter()));
+  SIMPLE(sink -> sink, DirectFormatter::simple),
+  INDENTED(IndentingPrinter::new, DirectFormatter::indenting),
+  COMPACT(CompactPrinter::new, DirectFormatter::compact),
+  SIMPLE_ANNOTATED(LineAnnotator::new),
+  INDENTED_ANNOTATED(sink -> new LineAnnotator(new IndentingPrinter(sink))),
+  COMPACT_ANNOTATED(sink -> new LineAnnotator(new CompactPrinter(sink))),
 
-  private final Supplier<TokenProcessor> printerSupplier;
+  /**
+   * Removes all optional whitespace and redundant parentheses and renames local
+   * variables, parameters and functions to short names. The tree isn't modified.
+   */
+  MINIFIED(MinifyingPrinter::new, null, true, false),
 
-  PrintType(Supplier<TokenProcessor> printerSupplier) {
-    this.printerSupplier = printerSupplier;
+  /**
+   * Copies the source text of parsed statements, expressions and declarations
+   * that haven't been modified and prints the modified regions with indentation.
+   * This preserves the formatting and comments of the parsed code.
+   */
+  VERBATIM(IndentingPrinter::new, DirectFormatter::indenting, false, true);
+
+  private final UnaryOperator<TokenProcessor> printerFactory;
+  private final Function<TokenProcessor, DirectFormatter> formatterFactory;
+  private final boolean minifying;
+  private final boolean verbatim;
+
+  PrintType(
+      UnaryOperator<TokenProcessor> printerFactory,
+      Function<TokenProcessor, DirectFormatter> formatterFactory,
+      boolean minifying,
+      boolean verbatim) {
+    this.printerFactory = printerFactory;
+    this.formatterFactory = formatterFactory;
+    this.minifying = minifying;
+    this.verbatim = verbatim;
+  }
+
+  PrintType(
+      UnaryOperator<TokenProcessor> printerFactory,
+      Function<TokenProcessor, DirectFormatter> formatterFactory) {
+    this(printerFactory, formatterFactory, false, false);
+  }
+
+  PrintType(UnaryOperator<TokenProcessor> printerFactory) {
+    this(printerFactory, null, false, false);
+  }
+
+  public boolean isMinifying() {
+    return minifying;
+  }
+
+  public boolean isVerbatim() {
+    return verbatim;
   }
 
   public TokenProcessor getTokenProcessor() {
-    return printerSupplier.get();
+    return getTokenProcessor(new SimplePrinter());
+  }
+
+  /**
+   * Creates the token processors of this print type that format the tokens
+   * before passing them to the given sink.
+   * 
+   * @param sink The token processor that receives the formatted tokens
+   * @return The first token processor of the chain
+   */
+  public TokenProcessor getTokenProcessor(TokenProcessor sink) {
+    return printerFactory.apply(sink);
+  }
+
+  /**
+   * Returns if this print type can be printed with a {@link DirectFormatter}
+   * which doesn't create a token object for each printed token.
+   * 
+   * @return Whether a direct formatter is available
+   */
+  public boolean hasDirectFormatter() {
+    return formatterFactory != null;
+  }
+
+  /**
+   * Creates a direct formatter that produces the same output as the token
+   * processors of this print type.
+   * 
+   * @param sink The token processor that receives the formatted text
+   * @return The formatter or null if this print type doesn't have one
+   */
+  public DirectFormatter getDirectFormatter(TokenProcessor sink) {
+    return formatterFactory == null ? null : formatterFactory.apply(sink);
   }
 }
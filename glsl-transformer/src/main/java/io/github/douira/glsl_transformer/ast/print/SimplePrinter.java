@@ -18,6 +18,11 @@ public class SimplePrinter implements TokenProcessor {
     }
   }
 
+  @Override
+  public void appendText(String text) {
+    builder.append(text);
+  }
+
   public StringBuilder getBuilder() {
     return builder;
   }
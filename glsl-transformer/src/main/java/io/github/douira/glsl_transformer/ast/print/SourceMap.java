@@ -0,0 +1,153 @@
+package io.github.douira.glsl_transformer.ast.print;
+
+import java.util.*;
+
+import io.github.douira.glsl_transformer.ast.transform.*;
+
+/**
+ * A compact map from positions in the printed code to the source locations
+ * they were printed from. It replaces the #line directives that the
+ * {@link LineAnnotator} would insert into the code.
+ *
+ * The map is a run-length encoded array of segments. Each segment consists of
+ * four numbers: the output line and column where it starts, the source line of
+ * that output line and the source. All following output lines up to the next
+ * segment continue counting from that source line. A segment is only recorded
+ * if the source location doesn't already follow from the previous segment. The
+ * source is either an index into the table of source names, {@link #NO_SOURCE}
+ * or, for numbered sources, {@code -1 - sourceNumber}.
+ *
+ * Output lines are counted from one like compilers report them and output
+ * columns are counted from zero.
+ */
+public class SourceMap {
+  public static final int NO_SOURCE = Integer.MIN_VALUE;
+  public static final int SEGMENT_SIZE = 4;
+
+  private final int[] segments;
+  private final String[] sourceNames;
+
+  public SourceMap(int[] segments, String[] sourceNames) {
+    if (segments.length % SEGMENT_SIZE != 0) {
+      throw new IllegalArgumentException("The segments must consist of " + SEGMENT_SIZE + " numbers each!");
+    }
+    this.segments = segments;
+    this.sourceNames = sourceNames;
+  }
+
+  public int[] getSegments() {
+    return segments;
+  }
+
+  public String[] getSourceNames() {
+    return sourceNames;
+  }
+
+  public int getSegmentCount() {
+    return segments.length / SEGMENT_SIZE;
+  }
+
+  /**
+   * Finds the source location of a position in the printed code. The parsed
+   * line of the returned location is the given output line. Positions before the
+   * first segment map to themselves.
+   *
+   * @param outputLine   The line in the printed code, counted from one
+   * @param outputColumn The column in the printed code, counted from zero
+   * @return The source location of the position
+   */
+  public PresentSourceLocation getSourceLocation(int outputLine, int outputColumn) {
+    // binary search for the last segment that starts at or before the position
+    var low = 0;
+    var high = getSegmentCount() - 1;
+    var found = -1;
+    while (low <= high) {
+      var middle = (low + high) >>> 1;
+      var index = middle * SEGMENT_SIZE;
+      var segmentLine = segments[index];
+      if (segmentLine < outputLine
+          || segmentLine == outputLine && segments[index + 1] <= outputColumn) {
+        found = middle;
+        low = middle + 1;
+      } else {
+        high = middle - 1;
+      }
+    }
+    if (found == -1) {
+      return new PresentSourceLocation(outputLine, outputLine);
+    }
+
+    var index = found * SEGMENT_SIZE;
+    var line = segments[index + 2] + outputLine - segments[index];
+    var source = segments[index + 3];
+    if (source == NO_SOURCE) {
+      return new PresentSourceLocation(outputLine, line);
+    } else if (source < 0) {
+      return new NumberedSourceLocation(outputLine, line, -1 - source);
+    } else {
+      return new NamedSourceLocation(outputLine, line, sourceNames[source]);
+    }
+  }
+
+  public PresentSourceLocation getSourceLocation(int outputLine) {
+    return getSourceLocation(outputLine, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Builds a source map from the source locations encountered while printing.
+   */
+  public static class Builder {
+    private int[] segments = new int[SEGMENT_SIZE * 8];
+    private int size = 0;
+    private final List<String> sourceNames = new ArrayList<>();
+    private final Map<String, Integer> sourceNameIndexes = new HashMap<>();
+    private PresentSourceLocation lastLocation;
+    private int lastLocationLine;
+
+    /**
+     * Records that the code printed from the given position on comes from the
+     * given source location. Nothing is recorded if the location follows from the
+     * previously recorded one, which is the case in which the
+     * {@link LineAnnotator} doesn't print a directive either.
+     *
+     * @param outputLine   The line in the printed code, counted from one
+     * @param outputColumn The column in the printed code, counted from zero
+     * @param location     The source location
+     */
+    public void add(int outputLine, int outputColumn, PresentSourceLocation location) {
+      if (!location.needsPrint(outputLine - 1, lastLocation, lastLocationLine - 1)) {
+        return;
+      }
+      var source = encodeSource(location);
+      if (source == NO_SOURCE && size > 0) {
+        // like a #line directive without a source, this keeps the previous source
+        source = segments[size - 1];
+      }
+      if (size == segments.length) {
+        segments = Arrays.copyOf(segments, size * 2);
+      }
+      segments[size++] = outputLine;
+      segments[size++] = outputColumn;
+      segments[size++] = location.line;
+      segments[size++] = source;
+      lastLocation = location;
+      lastLocationLine = outputLine;
+    }
+
+    private int encodeSource(PresentSourceLocation location) {
+      if (location instanceof NumberedSourceLocation numbered) {
+        return -1 - numbered.sourceNumber;
+      } else if (location instanceof NamedSourceLocation named) {
+        return sourceNameIndexes.computeIfAbsent(named.sourceName, name -> {
+          sourceNames.add(name);
+          return sourceNames.size() - 1;
+        });
+      }
+      return NO_SOURCE;
+    }
+
+    public SourceMap build() {
+      return new SourceMap(Arrays.copyOf(segments, size), sourceNames.toArray(String[]::new));
+    }
+  }
+}
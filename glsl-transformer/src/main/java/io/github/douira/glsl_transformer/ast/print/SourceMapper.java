@@ -0,0 +1,55 @@
+package io.github.douira.glsl_transformer.ast.print;
+
+import io.github.douira.glsl_transformer.ast.print.token.LineDirectiveMarker;
+import io.github.douira.glsl_transformer.ast.print.token.PrintToken;
+
+/**
+ * Records the source locations of the printed code in a {@link SourceMap}
+ * instead of inserting #line directives like the {@link LineAnnotator}. The
+ * printed code stays as it is, which keeps compact and minified output small.
+ * Error positions reported by the compiler can be translated back to the
+ * source locations with the map.
+ *
+ * This token processor has to come after the processors that change the
+ * printed text so that it counts the lines and columns of the final output.
+ */
+public class SourceMapper extends DelegateTokenProcessor {
+  private final SourceMap.Builder builder = new SourceMap.Builder();
+  private int line = 1;
+  private int column = 0;
+
+  public SourceMapper(TokenProcessor delegate) {
+    super(delegate);
+  }
+
+  public SourceMapper() {
+    this(new SimplePrinter());
+  }
+
+  @Override
+  public void appendToken(PrintToken token) {
+    if (token instanceof LineDirectiveMarker lineDirectiveMarker) {
+      builder.add(line, column, lineDirectiveMarker.location);
+      return;
+    }
+
+    var content = token.getContent();
+    if (content != null) {
+      var lastNewline = -1;
+      for (var i = 0; i < content.length(); i++) {
+        if (content.charAt(i) == '\n') {
+          line++;
+          lastNewline = i;
+        }
+      }
+      column = lastNewline == -1
+          ? column + content.length()
+          : content.length() - lastNewline - 1;
+    }
+    super.appendToken(token);
+  }
+
+  public SourceMap getSourceMap() {
+    return builder.build();
+  }
+}
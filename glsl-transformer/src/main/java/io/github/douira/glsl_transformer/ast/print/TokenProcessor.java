@@ -1,9 +1,32 @@
 package io.github.douira.glsl_transformer.ast.print;
 
-import io.github.douira.glsl_transformer.ast.print.token.PrintToken;
+import io.github.douira.glsl_transformer.ast.print.token.*;
 
 public interface TokenProcessor {
   String generateString();
 
   void appendToken(PrintToken token);
+
+  /**
+   * Appends text that doesn't need any further processing. Sinks override this
+   * to write the text without creating a token.
+   * 
+   * @param text The text to append
+   */
+  default void appendText(String text) {
+    appendToken(new LiteralToken(text));
+  }
+
+  /**
+   * Estimates the length of the printed code from the length of the code it was
+   * parsed from. Printing normalizes the whitespace which makes the output
+   * about as long as the input. Some room is left for code inserted by
+   * transformations so that sinks with a fixed capacity rarely have to grow.
+   * 
+   * @param inputLength The length of the parsed code
+   * @return The estimated length of the printed code
+   */
+  static int estimateOutputLength(int inputLength) {
+    return inputLength + (inputLength >> 3) + 64;
+  }
 }
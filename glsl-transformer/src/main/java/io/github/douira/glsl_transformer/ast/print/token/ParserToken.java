@@ -51,18 +51,41 @@ public class ParserToken extends PrintToken {
     this.tokenType = tokenType;
   }
 
-  @Override
-  public String calculateContent() {
-    var literalName = GLSLLexer.VOCABULARY.getLiteralName(tokenType);
-    if (literalName == null) {
-      var replacement = missingTokenStrings.get(tokenType);
-      if (replacement != null) {
-        return replacement;
-      }
+  /**
+   * The text of each token type indexed by the token type. Token types without a
+   * text have a null entry.
+   */
+  private static final String[] tokenTexts;
+
+  static {
+    var vocabulary = GLSLLexer.VOCABULARY;
+    tokenTexts = new String[vocabulary.getMaxTokenType() + 1];
+    for (int i = 0; i < tokenTexts.length; i++) {
+      var literalName = vocabulary.getLiteralName(i);
+      tokenTexts[i] = literalName == null
+          ? missingTokenStrings.get(i)
+          : literalName.substring(1, literalName.length() - 1);
+    }
+  }
+
+  /**
+   * Returns the text of the given token type from a precomputed table.
+   * 
+   * @param tokenType The token type
+   * @return The text of tokens of this type
+   */
+  public static String getTokenText(int tokenType) {
+    var text = tokenType >= 0 && tokenType < tokenTexts.length ? tokenTexts[tokenType] : null;
+    if (text == null) {
       throw new IllegalStateException(
           "Can't create a parser token for a token type that doesn't have a defined literal name! Resolving "
               + tokenType + " failed.");
     }
-    return literalName.substring(1, literalName.length() - 1);
+    return text;
+  }
+
+  @Override
+  public String calculateContent() {
+    return getTokenText(tokenType);
   }
 }
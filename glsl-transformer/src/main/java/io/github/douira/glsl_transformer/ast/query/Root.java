@@ -25,7 +25,7 @@ public class Root {
    * available node index implementations that provide different trade-offs
    * between performance, memory consumption and query capabilities.
    */
-  public final NodeIndex<?> nodeIndex;
+  public final AbstractNodeIndex nodeIndex;
 
   /**
    * The identifier index is used to query identifiers by their name or prefixes
@@ -42,10 +42,19 @@ public class Root {
    */
   public final ExternalDeclarationIndex<?, ?> externalDeclarationIndex;
 
+  // lazily created since they're only useful for some transformations
+  private SymbolIndex symbolIndex;
+  private CallGraphIndex callGraphIndex;
+  private StructuralHashIndex structuralHashIndex;
+
   // internal utility state
-  private static Deque<Root> activeBuildRoots = new ArrayDeque<>();
+  // per thread so that trees can be built on multiple threads at the same time
+  private static final ThreadLocal<Deque<Root>> activeBuildRoots = ThreadLocal.withInitial(ArrayDeque::new);
   private List<? extends ASTNode> nodeList;
   private boolean activity;
+  private int modificationCount = 0;
+  private List<ASTNode> deferredNodes;
+  private BitSet deferredSubtreeRoots;
 
   /**
    * Constructs a new root with the given node and identifier indexes.
@@ -54,7 +63,7 @@ public class Root {
    * @param identifierIndex          The identifier index
    * @param externalDeclarationIndex The external declaration index
    */
-  public Root(NodeIndex<?> nodeIndex,
+  public Root(AbstractNodeIndex nodeIndex,
       IdentifierIndex<?, ?> identifierIndex,
       ExternalDeclarationIndex<?, ?> externalDeclarationIndex) {
     this.nodeIndex = nodeIndex;
@@ -84,6 +93,57 @@ public class Root {
     }
   }
 
+  /**
+   * Returns the symbol index of this root which resolves references to their
+   * declarations. It's created on the first call and kept up to date afterwards.
+   * This requires the root to have an identifier index.
+   * 
+   * @return The symbol index
+   */
+  public SymbolIndex getSymbolIndex() {
+    if (symbolIndex == null) {
+      if (identifierIndex == null) {
+        throw new IllegalStateException("The symbol index requires an identifier index");
+      }
+      symbolIndex = new SymbolIndex(this);
+    }
+    return symbolIndex;
+  }
+
+  /**
+   * Returns the call graph index of this root which tracks which functions call
+   * each other. It's created on the first call and kept up to date afterwards.
+   * This requires the root to have a node index and an identifier index.
+   * 
+   * @return The call graph index
+   */
+  public CallGraphIndex getCallGraphIndex() {
+    if (callGraphIndex == null) {
+      if (nodeIndex == null) {
+        throw new IllegalStateException("The call graph index requires a node index");
+      }
+      callGraphIndex = new CallGraphIndex(this, getSymbolIndex());
+    }
+    return callGraphIndex;
+  }
+
+  /**
+   * Returns the structural hash index of this root which finds nodes by their
+   * structural hash. It's created on the first call and kept up to date
+   * afterwards. This requires the root to have a node index.
+   * 
+   * @return The structural hash index
+   */
+  public StructuralHashIndex getStructuralHashIndex() {
+    if (structuralHashIndex == null) {
+      if (nodeIndex == null) {
+        throw new IllegalStateException("The structural hash index requires a node index");
+      }
+      structuralHashIndex = new StructuralHashIndex(this);
+    }
+    return structuralHashIndex;
+  }
+
   /**
    * Registers the given node with this root.
    * 
@@ -92,6 +152,13 @@ public class Root {
    *                      added
    */
   public void registerNode(ASTNode node, boolean isSubtreeRoot) {
+    if (deferredNodes != null) {
+      if (isSubtreeRoot) {
+        deferredSubtreeRoots.set(deferredNodes.size());
+      }
+      deferredNodes.add(node);
+      return;
+    }
     if (nodeIndex != null) {
       nodeIndex.add(node);
     }
@@ -105,6 +172,20 @@ public class Root {
         externalDeclarationIndex.notifySubtreeAdd(node);
       }
     }
+    if (symbolIndex != null) {
+      if (node instanceof Identifier identifier) {
+        symbolIndex.invalidate(identifier.getName());
+      }
+      if (isSubtreeRoot) {
+        symbolIndex.notifySubtreeChange(node, node.getParent());
+      }
+    }
+    if (callGraphIndex != null) {
+      callGraphIndex.notifyRegister(node, isSubtreeRoot);
+    }
+    if (structuralHashIndex != null) {
+      structuralHashIndex.notifyRegister(node);
+    }
   }
 
   /**
@@ -128,6 +209,33 @@ public class Root {
         externalDeclarationIndex.notifySubtreeRemove(node);
       }
     }
+    if (symbolIndex != null && node instanceof Identifier identifier) {
+      symbolIndex.invalidate(identifier.getName());
+    }
+    if (callGraphIndex != null) {
+      callGraphIndex.notifyUnregister(node);
+    }
+    if (structuralHashIndex != null) {
+      structuralHashIndex.notifyUnregister(node);
+    }
+  }
+
+  /**
+   * Notifies this root that a registered node was attached to a parent or
+   * detached from its parent without being unregistered. This happens when nodes
+   * are moved around within the tree.
+   * 
+   * @param node      The node that was moved, its parent is still the previous
+   *                  parent
+   * @param newParent The new parent of the node or null if it's being detached
+   */
+  public void notifyNodeMove(ASTNode node, ASTNode newParent) {
+    if (symbolIndex != null) {
+      symbolIndex.notifyNodeMove(node, newParent);
+    }
+    if (callGraphIndex != null) {
+      callGraphIndex.notifyNodeMove(node, newParent);
+    }
   }
 
   public void unregisterIdentifierRename(Identifier identifier) {
@@ -138,6 +246,14 @@ public class Root {
   }
 
   public void unregisterFastRename(ASTNode identifier) {
+    if (identifier instanceof Identifier renamed) {
+      if (symbolIndex != null) {
+        symbolIndex.invalidate(renamed.getName());
+      }
+      if (callGraphIndex != null) {
+        callGraphIndex.notifyRename(renamed);
+      }
+    }
     if (externalDeclarationIndex != null) {
       externalDeclarationIndex.notifySubtreeRemove(identifier);
     }
@@ -151,11 +267,52 @@ public class Root {
   }
 
   public void registerFastRename(ASTNode identifier) {
+    if (identifier instanceof Identifier renamed) {
+      if (symbolIndex != null) {
+        symbolIndex.invalidate(renamed.getName());
+      }
+      if (callGraphIndex != null) {
+        callGraphIndex.notifyRename(renamed);
+      }
+    }
     if (externalDeclarationIndex != null) {
       externalDeclarationIndex.notifySubtreeAdd(identifier);
     }
   }
 
+  /**
+   * Returns the number of modifications made to the nodes of this root. It's
+   * incremented every time a child is added, removed or replaced and when the
+   * data of a node is changed through its setters. The value can be compared
+   * before and after running a transformation to detect if it changed anything.
+   * 
+   * @return The modification count
+   */
+  public int getModificationCount() {
+    return modificationCount;
+  }
+
+  /**
+   * Counts a modification of a node of this root. This is called by
+   * {@link ASTNode#markModified()}.
+   */
+  public void notifyModification() {
+    modificationCount++;
+  }
+
+  /**
+   * Notifies this root that the structural hash of one of its nodes was
+   * invalidated. This is called by {@link ASTNode#markModified()} for each
+   * node whose hash is invalidated.
+   * 
+   * @param node The node with the invalidated hash
+   */
+  public void notifyStructuralHashInvalidation(ASTNode node) {
+    if (structuralHashIndex != null) {
+      structuralHashIndex.notifyInvalidation(node);
+    }
+  }
+
   private void ensureEmptyNodeList() {
     if (nodeList == null) {
       nodeList = new ArrayList<>();
@@ -173,7 +330,7 @@ public class Root {
    * @return the currently active build root
    */
   public static Root getActiveBuildRoot() {
-    return activeBuildRoots.peekFirst();
+    return activeBuildRoots.get().peekFirst();
   }
 
   /**
@@ -185,11 +342,12 @@ public class Root {
    */
   protected final <R> R withActiveBuildRoot(
       Function<Root, R> rootConsumer) {
-    activeBuildRoots.push(this);
+    var roots = activeBuildRoots.get();
+    roots.push(this);
     try {
       return rootConsumer.apply(this);
     } finally {
-      activeBuildRoots.pop();
+      roots.pop();
     }
   }
 
@@ -212,6 +370,82 @@ public class Root {
     });
   }
 
+  /**
+   * Runs the given builder like {@link #indexNodes(Supplier)} but registers the
+   * constructed nodes in one pass after the builder is done instead of
+   * registering each node as it's attached to its parent. The nodes are
+   * registered in the same order. Nothing may query the indexes of this root
+   * from within the builder since the new nodes aren't in them yet. If the
+   * builder throws, none of the constructed nodes are registered.
+   * 
+   * @param <N>          The type of the node to build
+   * @param builder      The builder to run
+   * @param expectedSize The expected number of constructed nodes
+   * @return The built and registered node
+   */
+  public <N extends ASTNode> N indexNodesInBulk(Supplier<N> builder, int expectedSize) {
+    return deferRegistration(() -> indexNodes(builder), expectedSize);
+  }
+
+  /**
+   * Builds a number of separate trees with the given builder and registers all
+   * of their nodes in one pass after the last tree has been built. Each built
+   * tree is registered as the root of a subtree like with
+   * {@link #indexNodes(Supplier)}. The same restrictions as with
+   * {@link #indexNodesInBulk(Supplier, int)} apply.
+   * 
+   * @param <N>          The type of the nodes to build
+   * @param count        The number of trees to build
+   * @param builder      The builder that is called with the index of each tree
+   * @param expectedSize The expected number of constructed nodes in all trees
+   * @return The built and registered trees in the order they were built
+   */
+  public <N extends ASTNode> List<N> indexSeparateTreesInBulk(
+      int count, IntFunction<N> builder, int expectedSize) {
+    return deferRegistration(() -> withActiveBuildRoot(root -> {
+      var result = new ArrayList<N>(count);
+      for (var i = 0; i < count; i++) {
+        var tree = builder.apply(i);
+        root.registerNode(tree, true);
+        result.add(tree);
+      }
+      return result;
+    }), expectedSize);
+  }
+
+  private <R> R deferRegistration(Supplier<R> build, int expectedSize) {
+    if (deferredNodes != null) {
+      // the registration is already deferred by an enclosing build but the nodes
+      // of this build have to be discarded if it fails
+      var start = deferredNodes.size();
+      try {
+        return build.get();
+      } catch (RuntimeException | Error e) {
+        deferredNodes.subList(start, deferredNodes.size()).clear();
+        deferredSubtreeRoots.clear(start, Math.max(start, deferredSubtreeRoots.length()));
+        throw e;
+      }
+    }
+    deferredNodes = new ArrayList<>(expectedSize);
+    deferredSubtreeRoots = new BitSet();
+    var nodes = deferredNodes;
+    var subtreeRoots = deferredSubtreeRoots;
+    R result;
+    try {
+      result = build.get();
+    } finally {
+      deferredNodes = null;
+      deferredSubtreeRoots = null;
+    }
+
+    // the nodes are only registered if the build completed since the nodes of a
+    // failed build aren't attached to anything
+    for (int i = 0, size = nodes.size(); i < size; i++) {
+      registerNode(nodes.get(i), subtreeRoots.get(i));
+    }
+    return result;
+  }
+
   /**
    * Runs a given runnable with the given root as the active build root. This is
    * used for constructing nodes with children without registering the constructed
@@ -470,7 +704,7 @@ public class Root {
       HintedMatcher<N> hintedMatcher,
       Consumer<? super N> replacer) {
     return processMatches(t,
-        identifierIndex.getStream(hintedMatcher.getHint()), hintedMatcher, replacer);
+        hintedMatcher.getCandidates(this), hintedMatcher, replacer);
   }
 
   /**
@@ -513,6 +747,6 @@ public class Root {
       HintedMatcher<N> hintedMatcher,
       String expression) {
     return replaceExpressionMatches(t,
-        identifierIndex.getStream(hintedMatcher.getHint()), hintedMatcher, expression);
+        hintedMatcher.getCandidates(this), hintedMatcher, expression);
   }
 }
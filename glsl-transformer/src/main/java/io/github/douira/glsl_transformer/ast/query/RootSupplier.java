@@ -28,6 +28,18 @@ public class RootSupplier implements Supplier<Root> {
       PrefixIdentifierIndex::withPrefix,
       PrefixExternalDeclarationIndex::withPrefix);
 
+  public static final RootSupplier INTERNED_UNORDERED = new RootSupplier(
+      NodeIndex::withUnordered, IdentifierIndex::withInterned);
+  public static final RootSupplier INTERNED_UNORDERED_ED_INTERNED = new RootSupplier(
+      NodeIndex::withUnordered,
+      IdentifierIndex::withInterned,
+      ExternalDeclarationIndex::withInterned);
+
+  public static final RootSupplier COMPACT_EXACT = new RootSupplier(
+      CompactNodeIndex::withExact, IdentifierIndex::withOnlyExact);
+  public static final RootSupplier COMPACT_SUPERCLASS = new RootSupplier(
+      CompactNodeIndex::withSuperclasses, IdentifierIndex::withOnlyExact);
+
   public static final RootSupplier EMPTY = new RootSupplier(supplier(null), supplier(null));
   public static final RootSupplier ONLY_NODE_INDEX = new RootSupplier(
       NodeIndex::withUnordered, supplier(null));
@@ -44,12 +56,12 @@ public class RootSupplier implements Supplier<Root> {
     return DEFAULT.get();
   }
 
-  private final Supplier<NodeIndex<?>> nodeIndexSupplier;
+  private final Supplier<? extends AbstractNodeIndex> nodeIndexSupplier;
   private final Supplier<IdentifierIndex<?, ?>> identifierIndexSupplier;
   private final Supplier<ExternalDeclarationIndex<?, ?>> externalDeclarationIndexSupplier;
 
   public RootSupplier(
-      Supplier<NodeIndex<?>> nodeIndexSupplier,
+      Supplier<? extends AbstractNodeIndex> nodeIndexSupplier,
       Supplier<IdentifierIndex<?, ?>> identifierIndexSupplier,
       Supplier<ExternalDeclarationIndex<?, ?>> externalDeclarationIndexSupplier) {
     this.nodeIndexSupplier = nodeIndexSupplier;
@@ -58,7 +70,7 @@ public class RootSupplier implements Supplier<Root> {
   }
 
   public RootSupplier(
-      Supplier<NodeIndex<?>> nodeIndexSupplier,
+      Supplier<? extends AbstractNodeIndex> nodeIndexSupplier,
       Supplier<IdentifierIndex<?, ?>> identifierIndexSupplier) {
     this(nodeIndexSupplier, identifierIndexSupplier, supplier(null));
   }
@@ -71,7 +83,7 @@ public class RootSupplier implements Supplier<Root> {
         externalDeclarationIndexSupplier.get());
   }
 
-  public RootSupplier setNodeIndex(Supplier<NodeIndex<?>> nodeIndexSupplier) {
+  public RootSupplier setNodeIndex(Supplier<? extends AbstractNodeIndex> nodeIndexSupplier) {
     return new RootSupplier(nodeIndexSupplier, identifierIndexSupplier);
   }
 
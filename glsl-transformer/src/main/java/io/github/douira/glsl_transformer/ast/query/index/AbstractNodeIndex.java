@@ -0,0 +1,119 @@
+package io.github.douira.glsl_transformer.ast.query.index;
+
+import java.util.Set;
+import java.util.stream.Stream;
+
+import io.github.douira.glsl_transformer.ast.node.abstract_node.ASTNode;
+
+/**
+ * The queries that all node indexes support. A node index stores the nodes of
+ * a root by their class. How the nodes are stored and whether querying for a
+ * superclass returns the nodes of its subclasses depends on the implementation.
+ * {@link NodeIndex} and {@link SuperclassNodeIndex} store the nodes in a map of
+ * sets while {@link CompactNodeIndex} stores them in arrays.
+ */
+public abstract class AbstractNodeIndex implements Index<ASTNode> {
+  /**
+   * Returns a set of all nodes with the given type.
+   *
+   * @param <N>  the type of the class
+   * @param type the class of nodes to return
+   * @return a set of nodes with the given type
+   */
+  public abstract <N extends ASTNode> Set<N> get(Class<N> type);
+
+  /**
+   * Returns a stream of all nodes with the given type.
+   *
+   * @param <N>  the type of the class
+   * @param type the class of nodes to return
+   * @return a stream of nodes with the given type
+   */
+  public abstract <N extends ASTNode> Stream<N> getStream(Class<N> type);
+
+  /**
+   * Returns an arbitrary node with the given type.
+   *
+   * @param <N>  the type of the class
+   * @param type the class of the node to return
+   * @return an arbitrary node with the given type
+   */
+  public abstract <N extends ASTNode> N getOne(Class<N> type);
+
+  /**
+   * Returns the only node with the given type. Throws an exception if there is
+   * not exactly one node with the given type.
+   *
+   * @param <N>  the type of the class
+   * @param type the class of the node to return
+   * @return the only node with the given type
+   */
+  public abstract <N extends ASTNode> N getUnique(Class<N> type);
+
+  /**
+   * Checks if the index contains any nodes of the given type.
+   *
+   * @param type the class of the nodes to check for
+   * @return true if the index contains any nodes of the given type
+   */
+  public abstract boolean has(Class<? extends ASTNode> type);
+
+  /**
+   * Returns the set of nodes that have the same class as the given node.
+   *
+   * @param <N>  The type of the nodes
+   * @param node The node to get the set of
+   * @return The set of nodes that have the same class as the given node
+   */
+  @SuppressWarnings("unchecked")
+  public <N extends ASTNode> Set<N> get(N node) {
+    return (Set<N>) get(node.getClass());
+  }
+
+  /**
+   * Returns an arbitrary node that has the same class as the given node.
+   *
+   * @param <N>  The type of the node
+   * @param node The node to get a node from the index for
+   * @return An arbitrary node that has the same class as the given node
+   */
+  @SuppressWarnings("unchecked")
+  public <N extends ASTNode> N getOne(N node) {
+    return (N) getOne(node.getClass());
+  }
+
+  /**
+   * Returns the only node that has the same class as the given node. Throws an
+   * exception if there is not exactly one node with the same class as the given
+   * node.
+   *
+   * @param <N>  The type of the node
+   * @param node The node to get a node from the index for
+   * @return The only node that has the same class as the given node
+   */
+  @SuppressWarnings("unchecked")
+  public <N extends ASTNode> N getUnique(N node) {
+    return (N) getUnique(node.getClass());
+  }
+
+  /**
+   * Checks if the index contains a node of the given type.
+   *
+   * @param node the node to check for
+   * @return true if the index contains the node
+   */
+  public boolean has(ASTNode node) {
+    return has(node.getClass());
+  }
+
+  /**
+   * Checks if the index contains the given node itself.
+   *
+   * @param node the node to check for
+   * @return true if the index contains the node
+   */
+  public boolean hasExact(ASTNode node) {
+    var set = get(node);
+    return set != null && set.contains(node);
+  }
+}
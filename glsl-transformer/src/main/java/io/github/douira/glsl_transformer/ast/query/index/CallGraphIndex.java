@@ -0,0 +1,384 @@
+package io.github.douira.glsl_transformer.ast.query.index;
+
+import java.util.*;
+
+import io.github.douira.glsl_transformer.ast.node.Identifier;
+import io.github.douira.glsl_transformer.ast.node.abstract_node.ASTNode;
+import io.github.douira.glsl_transformer.ast.node.expression.unary.FunctionCallExpression;
+import io.github.douira.glsl_transformer.ast.node.external_declaration.FunctionDefinition;
+import io.github.douira.glsl_transformer.ast.node.type.specifier.FunctionPrototype;
+import io.github.douira.glsl_transformer.ast.query.Root;
+import io.github.douira.glsl_transformer.ast.traversal.NodeKindWalker;
+
+/**
+ * Tracks which function definitions call each other. Each function call
+ * expression within a function definition is an edge from the enclosing
+ * definition to the definition the call resolves to. Calls are resolved with
+ * the {@link SymbolIndex} which disambiguates overloads by the number of
+ * arguments. A call that matches multiple overloads with the same number of
+ * parameters creates an edge to each of them since the one that is actually
+ * called can't be determined without type information. Calls to built-in
+ * functions don't create edges.
+ *
+ * The index is built from the node index on the first query. After that, the
+ * root notifies it of added, removed, renamed and moved nodes which marks only
+ * the affected calls as dirty. Dirty calls are resolved again on the next query.
+ * The set of functions reachable from an entry point is cached until an edge is
+ * added or removed, so edits that don't change the call graph don't require
+ * another traversal of the graph.
+ */
+public class CallGraphIndex {
+  private final Root root;
+  private final SymbolIndex symbolIndex;
+  private final Map<FunctionCallExpression, Edge> edges = new HashMap<>();
+  private final Map<FunctionDefinition, FunctionEntry> functions = new HashMap<>();
+  private final Set<FunctionCallExpression> dirtyCalls = new HashSet<>();
+  private final Set<String> dirtyNames = new HashSet<>();
+  private final Map<FunctionDefinition, Set<FunctionDefinition>> reachableCache = new HashMap<>();
+  private final NodeKindWalker dirtyCallMarker = new NodeKindWalker()
+      .on(FunctionCallExpression.class, dirtyCalls::add);
+  private boolean initialized = false;
+
+  private record Edge(FunctionDefinition caller, List<FunctionDefinition> callees) {
+  }
+
+  private static class FunctionEntry {
+    // the values count how many calls make up each edge
+    final Map<FunctionDefinition, Integer> callees = new HashMap<>();
+    final Map<FunctionDefinition, Integer> callers = new HashMap<>();
+
+    boolean isEmpty() {
+      return callees.isEmpty() && callers.isEmpty();
+    }
+  }
+
+  public CallGraphIndex(Root root, SymbolIndex symbolIndex) {
+    this.root = root;
+    this.symbolIndex = symbolIndex;
+  }
+
+  private static String getCalledName(FunctionCallExpression call) {
+    var name = call.getFunctionName();
+    return name == null ? null : name.getName();
+  }
+
+  private void markName(ASTNode node) {
+    if (node instanceof FunctionCallExpression call) {
+      var name = getCalledName(call);
+      if (name != null) {
+        dirtyNames.add(name);
+      }
+    } else if (node instanceof FunctionPrototype prototype) {
+      if (prototype.getName() != null) {
+        dirtyNames.add(prototype.getName().getName());
+      }
+    }
+  }
+
+  /**
+   * Notifies this index of a registered node. This is only meant to be called
+   * by {@link Root}.
+   *
+   * @param node          the registered node
+   * @param isSubtreeRoot whether the node is the root of an added subtree
+   */
+  public void notifyRegister(ASTNode node, boolean isSubtreeRoot) {
+    if (!initialized) {
+      return;
+    }
+    if (node instanceof FunctionCallExpression call) {
+      dirtyCalls.add(call);
+    } else if (node instanceof Identifier identifier) {
+      notifyRename(identifier);
+    }
+    if (isSubtreeRoot) {
+      // adding arguments or parameters changes which overloads calls resolve to
+      markName(node.getParent());
+    }
+  }
+
+  /**
+   * Notifies this index of an unregistered node. This is only meant to be
+   * called by {@link Root}.
+   *
+   * @param node the unregistered node
+   */
+  public void notifyUnregister(ASTNode node) {
+    if (!initialized) {
+      return;
+    }
+    if (node instanceof FunctionCallExpression call) {
+      dirtyCalls.remove(call);
+      removeEdge(call);
+    } else if (node instanceof Identifier identifier) {
+      dirtyNames.add(identifier.getName());
+    }
+  }
+
+  /**
+   * Notifies this index of an identifier that is being renamed. This is called
+   * before and after the name changes. This is only meant to be called by
+   * {@link Root}.
+   *
+   * @param identifier the renamed identifier
+   */
+  public void notifyRename(Identifier identifier) {
+    if (!initialized) {
+      return;
+    }
+    dirtyNames.add(identifier.getName());
+    if (identifier.getParent() instanceof FunctionCallExpression call) {
+      dirtyCalls.add(call);
+    }
+  }
+
+  /**
+   * Notifies this index of a registered node that is moved to a different
+   * parent. This is only meant to be called by {@link Root}.
+   *
+   * @param node      the moved node
+   * @param newParent the new parent or null if the node is being detached
+   */
+  public void notifyNodeMove(ASTNode node, ASTNode newParent) {
+    if (!initialized || node.getParent() == newParent) {
+      return;
+    }
+    markName(node.getParent());
+    markName(newParent);
+
+    // the calls in the moved subtree may now be in a different function
+    dirtyCallMarker.walk(node);
+  }
+
+  private FunctionEntry getEntry(FunctionDefinition function) {
+    return functions.computeIfAbsent(function, key -> new FunctionEntry());
+  }
+
+  private static boolean increment(Map<FunctionDefinition, Integer> counts, FunctionDefinition key) {
+    return counts.merge(key, 1, Integer::sum) == 1;
+  }
+
+  private static boolean decrement(Map<FunctionDefinition, Integer> counts, FunctionDefinition key) {
+    var count = counts.get(key);
+    if (count == null) {
+      return false;
+    }
+    if (count == 1) {
+      counts.remove(key);
+      return true;
+    }
+    counts.put(key, count - 1);
+    return false;
+  }
+
+  private void addEdge(FunctionCallExpression call, FunctionDefinition caller, List<FunctionDefinition> callees) {
+    edges.put(call, new Edge(caller, callees));
+    var callerEntry = getEntry(caller);
+    for (var callee : callees) {
+      increment(getEntry(callee).callers, caller);
+      if (increment(callerEntry.callees, callee)) {
+        reachableCache.clear();
+      }
+    }
+  }
+
+  private void removeEdge(FunctionCallExpression call) {
+    var edge = edges.remove(call);
+    if (edge == null) {
+      return;
+    }
+    var callerEntry = functions.get(edge.caller);
+    for (var callee : edge.callees) {
+      var calleeEntry = functions.get(callee);
+      decrement(calleeEntry.callers, edge.caller);
+      if (decrement(callerEntry.callees, callee)) {
+        reachableCache.clear();
+      }
+      if (calleeEntry.isEmpty()) {
+        functions.remove(callee);
+      }
+    }
+    if (callerEntry.isEmpty()) {
+      functions.remove(edge.caller);
+    }
+  }
+
+  private void updateCall(FunctionCallExpression call) {
+    var previous = edges.get(call);
+    var caller = call.getAncestor(FunctionDefinition.class);
+    var callees = caller == null
+        ? Collections.<FunctionDefinition>emptyList()
+        : symbolIndex.getCandidateDefinitions(call);
+    if (previous != null && previous.caller == caller && previous.callees.equals(callees)) {
+      return;
+    }
+    removeEdge(call);
+    if (caller != null && !callees.isEmpty()) {
+      addEdge(call, caller, callees);
+    }
+  }
+
+  /**
+   * Brings the index up to date by resolving all calls that have been affected
+   * by changes since the last query.
+   */
+  private void update() {
+    if (!initialized) {
+      initialized = true;
+      root.nodeIndex.getStream(FunctionCallExpression.class).forEach(dirtyCalls::add);
+    }
+    if (!dirtyNames.isEmpty()) {
+      for (var name : dirtyNames) {
+        for (var identifier : root.identifierIndex.get(name)) {
+          if (identifier.getParent() instanceof FunctionCallExpression call
+              && call.getFunctionName() == identifier) {
+            dirtyCalls.add(call);
+          }
+        }
+      }
+      dirtyNames.clear();
+    }
+    if (!dirtyCalls.isEmpty()) {
+      for (var call : dirtyCalls) {
+        updateCall(call);
+      }
+      dirtyCalls.clear();
+    }
+  }
+
+  /**
+   * Returns the function definition the given call resolves to.
+   *
+   * @param call the function call
+   * @return the called function definition or null if the call is not within a
+   *         function definition, doesn't resolve to one or is ambiguous
+   */
+  public FunctionDefinition getCallee(FunctionCallExpression call) {
+    update();
+    var edge = edges.get(call);
+    return edge == null || edge.callees.size() != 1 ? null : edge.callees.get(0);
+  }
+
+  /**
+   * Returns the function definitions the given call may resolve to. There is
+   * more than one if the call is ambiguous between overloads.
+   *
+   * @param call the function call
+   * @return an unmodifiable list of the possibly called function definitions
+   */
+  public List<FunctionDefinition> getPossibleCallees(FunctionCallExpression call) {
+    update();
+    var edge = edges.get(call);
+    return edge == null ? Collections.emptyList() : Collections.unmodifiableList(edge.callees);
+  }
+
+  /**
+   * Returns the function definitions called by the given function definition.
+   *
+   * @param function the calling function definition
+   * @return an unmodifiable set of the called function definitions
+   */
+  public Set<FunctionDefinition> getCallees(FunctionDefinition function) {
+    update();
+    var entry = functions.get(function);
+    return entry == null ? Collections.emptySet() : Collections.unmodifiableSet(entry.callees.keySet());
+  }
+
+  /**
+   * Returns the function definitions that call the given function definition.
+   *
+   * @param function the called function definition
+   * @return an unmodifiable set of the calling function definitions
+   */
+  public Set<FunctionDefinition> getCallers(FunctionDefinition function) {
+    update();
+    var entry = functions.get(function);
+    return entry == null ? Collections.emptySet() : Collections.unmodifiableSet(entry.callers.keySet());
+  }
+
+  /**
+   * Returns the function definitions reachable from the given entry point
+   * through any number of calls. The entry point itself is always included.
+   * The result is cached until the call graph changes.
+   *
+   * @param entryPoint the function definition to start from
+   * @return an unmodifiable set of the reachable function definitions
+   */
+  public Set<FunctionDefinition> getReachable(FunctionDefinition entryPoint) {
+    update();
+    var reachable = reachableCache.get(entryPoint);
+    if (reachable == null) {
+      reachable = new HashSet<>();
+      var queue = new ArrayDeque<FunctionDefinition>();
+      reachable.add(entryPoint);
+      queue.add(entryPoint);
+      while (!queue.isEmpty()) {
+        var entry = functions.get(queue.poll());
+        if (entry == null) {
+          continue;
+        }
+        for (var callee : entry.callees.keySet()) {
+          if (reachable.add(callee)) {
+            queue.add(callee);
+          }
+        }
+      }
+      reachable = Collections.unmodifiableSet(reachable);
+      reachableCache.put(entryPoint, reachable);
+    }
+    return reachable;
+  }
+
+  /**
+   * Returns the function definitions reachable from any of the function
+   * definitions with the given name. This is usually used with "main".
+   *
+   * @param entryPointName the name of the entry point functions
+   * @return the reachable function definitions
+   */
+  public Set<FunctionDefinition> getReachable(String entryPointName) {
+    var entryPoints = symbolIndex.getFunctionDefinitions(entryPointName);
+    if (entryPoints.size() == 1) {
+      return getReachable(entryPoints.get(0));
+    }
+    var reachable = new HashSet<FunctionDefinition>();
+    for (var entryPoint : entryPoints) {
+      reachable.addAll(getReachable(entryPoint));
+    }
+    return reachable;
+  }
+
+  /**
+   * Checks if the given function definition is reachable from the entry points
+   * with the given name.
+   *
+   * @param entryPointName the name of the entry point functions
+   * @param function       the function definition to check
+   * @return true if the function is reachable
+   */
+  public boolean isReachable(String entryPointName, FunctionDefinition function) {
+    return getReachable(entryPointName).contains(function);
+  }
+
+  /**
+   * Returns the function definitions in the tree that are not reachable from
+   * the entry points with the given name. If there is no entry point, no
+   * functions are considered unreachable.
+   *
+   * @param entryPointName the name of the entry point functions
+   * @return the unreachable function definitions
+   */
+  public List<FunctionDefinition> getUnreachable(String entryPointName) {
+    var reachable = getReachable(entryPointName);
+    var unreachable = new ArrayList<FunctionDefinition>();
+    if (reachable.isEmpty()) {
+      return unreachable;
+    }
+    for (var function : root.nodeIndex.get(FunctionDefinition.class)) {
+      if (!reachable.contains(function)) {
+        unreachable.add(function);
+      }
+    }
+    return unreachable;
+  }
+}
@@ -0,0 +1,309 @@
+package io.github.douira.glsl_transformer.ast.query.index;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.*;
+
+import io.github.douira.glsl_transformer.ast.node.abstract_node.ASTNode;
+
+/**
+ * A node index that stores the nodes in growable arrays instead of hash sets.
+ * Each node class gets a dense id from {@link NodeClassTable} and each id gets
+ * a bucket of nodes. The position of each node in its bucket is stored on the
+ * node itself which makes removal a constant time swap with the last element
+ * of the bucket. Adding and removing nodes doesn't allocate unless a bucket has
+ * to grow.
+ *
+ * Nodes are only stored in the bucket of their exact class. If the index is
+ * created with superclass queries enabled, querying for a superclass such as
+ * Expression combines the buckets of all known subclasses which have been
+ * precomputed in the class table. This is equivalent to
+ * {@link SuperclassNodeIndex} but doesn't store each node multiple times.
+ *
+ * The returned sets are read-only views of the buckets and the order of the
+ * nodes is not stable since removal moves the last node of a bucket into the
+ * removed node's position. A node can only be in one compact node index at a
+ * time since it only has a single slot.
+ */
+public class CompactNodeIndex extends AbstractNodeIndex {
+  private static final int INITIAL_BUCKET_CAPACITY = 8;
+
+  private final boolean superclassQueries;
+  private Bucket[] buckets = new Bucket[64];
+  private int modCount = 0;
+
+  public CompactNodeIndex(boolean superclassQueries) {
+    this.superclassQueries = superclassQueries;
+  }
+
+  /**
+   * Creates a compact node index that only returns nodes of the exact queried
+   * class like {@link NodeIndex}.
+   *
+   * @return a new compact node index
+   */
+  public static CompactNodeIndex withExact() {
+    return new CompactNodeIndex(false);
+  }
+
+  /**
+   * Creates a compact node index that also returns the nodes of all subclasses
+   * of the queried class like {@link SuperclassNodeIndex}.
+   *
+   * @return a new compact node index with superclass queries
+   */
+  public static CompactNodeIndex withSuperclasses() {
+    return new CompactNodeIndex(true);
+  }
+
+  private static class Bucket {
+    ASTNode[] nodes = new ASTNode[INITIAL_BUCKET_CAPACITY];
+    int size = 0;
+  }
+
+  private Bucket getBucket(int id) {
+    return id < buckets.length ? buckets[id] : null;
+  }
+
+  private Bucket getOrCreateBucket(int id) {
+    if (id >= buckets.length) {
+      buckets = Arrays.copyOf(buckets, Math.max(buckets.length * 2, id + 1));
+    }
+    var bucket = buckets[id];
+    if (bucket == null) {
+      bucket = new Bucket();
+      buckets[id] = bucket;
+    }
+    return bucket;
+  }
+
+  private int[] getQueryIds(Class<?> type) {
+    var entry = NodeClassTable.getEntry(type);
+    return superclassQueries ? entry.getDescendants() : entry.getAncestors();
+  }
+
+  private int getQueryIdCount(int[] ids) {
+    // without superclass queries only the class itself is queried which is the
+    // first entry of the ancestors array
+    return superclassQueries ? ids.length : 1;
+  }
+
+  /**
+   * Method used internally to add a node to the index. This is only meant to be
+   * called by {@link io.github.douira.glsl_transformer.ast.query.Root}.
+   */
+  @Override
+  public void add(ASTNode node) {
+    var bucket = getOrCreateBucket(NodeClassTable.getId(node.getClass()));
+    var slot = node._getNodeIndexSlot();
+    if (slot >= 0 && slot < bucket.size && bucket.nodes[slot] == node) {
+      return;
+    }
+    if (bucket.size == bucket.nodes.length) {
+      bucket.nodes = Arrays.copyOf(bucket.nodes, bucket.nodes.length * 2);
+    }
+    slot = bucket.size++;
+    bucket.nodes[slot] = node;
+    node._setNodeIndexSlot(slot);
+    modCount++;
+  }
+
+  /**
+   * Method used internally to remove a node from the index. This is only meant to
+   * be called by {@link io.github.douira.glsl_transformer.ast.query.Root}.
+   */
+  @Override
+  public void remove(ASTNode node) {
+    var bucket = getBucket(NodeClassTable.getId(node.getClass()));
+    var slot = node._getNodeIndexSlot();
+    if (bucket == null || slot < 0 || slot >= bucket.size || bucket.nodes[slot] != node) {
+      return;
+    }
+
+    // move the last node into the freed slot
+    var lastSlot = --bucket.size;
+    if (slot != lastSlot) {
+      var last = bucket.nodes[lastSlot];
+      bucket.nodes[slot] = last;
+      last._setNodeIndexSlot(slot);
+    }
+    bucket.nodes[lastSlot] = null;
+    node._setNodeIndexSlot(-1);
+    modCount++;
+  }
+
+  /**
+   * Returns the number of nodes that would be returned for the given class.
+   *
+   * @param type the class of nodes to count
+   * @return the number of nodes with the given type
+   */
+  public int count(Class<? extends ASTNode> type) {
+    var ids = getQueryIds(type);
+    var total = 0;
+    for (int i = 0, count = getQueryIdCount(ids); i < count; i++) {
+      var bucket = getBucket(ids[i]);
+      if (bucket != null) {
+        total += bucket.size;
+      }
+    }
+    return total;
+  }
+
+  /**
+   * Runs the given consumer on each node of the given type without creating a
+   * stream or an iterator. The index must not be modified by the consumer.
+   *
+   * @param <N>      the type of the class
+   * @param type     the class of nodes to process
+   * @param consumer the consumer to run on each node
+   */
+  @SuppressWarnings("unchecked")
+  public <N extends ASTNode> void forEach(Class<N> type, Consumer<? super N> consumer) {
+    var ids = getQueryIds(type);
+    for (int i = 0, count = getQueryIdCount(ids); i < count; i++) {
+      var bucket = getBucket(ids[i]);
+      if (bucket != null) {
+        for (int j = 0; j < bucket.size; j++) {
+          consumer.accept((N) bucket.nodes[j]);
+        }
+      }
+    }
+  }
+
+  private class BucketIterator<N extends ASTNode> implements Iterator<N> {
+    private final int[] ids;
+    private final int idCount;
+    private final int expectedModCount = modCount;
+    private int idIndex = 0;
+    private int position = 0;
+    private Bucket bucket;
+
+    BucketIterator(int[] ids, int idCount) {
+      this.ids = ids;
+      this.idCount = idCount;
+      advance();
+    }
+
+    private void advance() {
+      while (bucket == null || position >= bucket.size) {
+        if (idIndex >= idCount) {
+          bucket = null;
+          return;
+        }
+        bucket = getBucket(ids[idIndex++]);
+        position = 0;
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      return bucket != null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public N next() {
+      if (modCount != expectedModCount) {
+        throw new ConcurrentModificationException();
+      }
+      if (bucket == null) {
+        throw new NoSuchElementException();
+      }
+      var node = (N) bucket.nodes[position++];
+      advance();
+      return node;
+    }
+  }
+
+  private class BucketView<N extends ASTNode> extends AbstractSet<N> {
+    private final Class<N> type;
+
+    BucketView(Class<N> type) {
+      this.type = type;
+    }
+
+    @Override
+    public Iterator<N> iterator() {
+      var ids = getQueryIds(type);
+      return new BucketIterator<>(ids, getQueryIdCount(ids));
+    }
+
+    @Override
+    public int size() {
+      return count(type);
+    }
+
+    @Override
+    public boolean isEmpty() {
+      return !has(type);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      if (!(o instanceof ASTNode node)) {
+        return false;
+      }
+      if (superclassQueries ? !type.isInstance(node) : node.getClass() != type) {
+        return false;
+      }
+      return hasExact(node);
+    }
+  }
+
+  @Override
+  public <N extends ASTNode> Set<N> get(Class<N> type) {
+    return new BucketView<>(type);
+  }
+
+  @Override
+  public <N extends ASTNode> Stream<N> getStream(Class<N> type) {
+    var ids = getQueryIds(type);
+    var spliterator = Spliterators.<N>spliterator(
+        new BucketIterator<>(ids, getQueryIdCount(ids)),
+        count(type),
+        Spliterator.DISTINCT | Spliterator.NONNULL);
+    return StreamSupport.stream(spliterator, false);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <N extends ASTNode> N getOne(Class<N> type) {
+    var ids = getQueryIds(type);
+    for (int i = 0, count = getQueryIdCount(ids); i < count; i++) {
+      var bucket = getBucket(ids[i]);
+      if (bucket != null && bucket.size > 0) {
+        return (N) bucket.nodes[0];
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public <N extends ASTNode> N getUnique(Class<N> type) {
+    var resultCount = count(type);
+    if (resultCount != 1) {
+      throw new IllegalStateException("Expected exactly one node of type " + type + " but found " + resultCount);
+    }
+    return getOne(type);
+  }
+
+  @Override
+  public boolean has(Class<? extends ASTNode> type) {
+    var ids = getQueryIds(type);
+    for (int i = 0, count = getQueryIdCount(ids); i < count; i++) {
+      var bucket = getBucket(ids[i]);
+      if (bucket != null && bucket.size > 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public boolean hasExact(ASTNode node) {
+    var bucket = getBucket(NodeClassTable.getId(node.getClass()));
+    var slot = node._getNodeIndexSlot();
+    return bucket != null && slot >= 0 && slot < bucket.size && bucket.nodes[slot] == node;
+  }
+}
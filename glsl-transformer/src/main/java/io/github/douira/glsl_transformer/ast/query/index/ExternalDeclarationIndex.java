@@ -56,6 +56,7 @@ public class ExternalDeclarationIndex<S extends Set<DeclarationEntry>, I extends
   }
 
   private void addEntry(ExternalDeclaration node, ASTNode keyMember, String key) {
+    key = internKey(key);
     var set = index.get(key);
     if (set == null) {
       set = setFactory.get();
@@ -65,6 +66,7 @@ public class ExternalDeclarationIndex<S extends Set<DeclarationEntry>, I extends
   }
 
   private void removeEntry(ExternalDeclaration node, ASTNode keyMember, String key) {
+    key = lookupKey(key);
     var set = index.get(key);
     if (set == null) {
       return;
@@ -209,4 +211,8 @@ public class ExternalDeclarationIndex<S extends Set<DeclarationEntry>, I extends
       Supplier<R> setFactory) {
     return new ExternalDeclarationIndex<>(new HashMap<>(), setFactory);
   }
+
+  public static ExternalDeclarationIndex<HashSet<DeclarationEntry>, IdentityHashMap<String, HashSet<DeclarationEntry>>> withInterned() {
+    return new ExternalDeclarationIndex<>(new IdentityHashMap<>(), HashSet::new);
+  }
 }
@@ -18,7 +18,7 @@ public class IdentifierIndex<S extends Set<Identifier>, I extends Map<String, S>
 
   @Override
   public void add(Identifier node) {
-    var key = node.getName();
+    var key = internKey(node.getName());
     var set = index.get(key);
     if (set == null) {
       set = setFactory.get();
@@ -29,7 +29,7 @@ public class IdentifierIndex<S extends Set<Identifier>, I extends Map<String, S>
 
   @Override
   public void remove(Identifier node) {
-    var key = node.getName();
+    var key = lookupKey(node.getName());
     var set = index.get(key);
     if (set == null) {
       return;
@@ -54,11 +54,13 @@ public class IdentifierIndex<S extends Set<Identifier>, I extends Map<String, S>
       return false;
     }
     Identifier.validateContents(newName);
+    oldName = lookupKey(oldName);
     var set = index.get(oldName);
     if (set == null) {
       return false;
     }
     index.remove(oldName);
+    newName = internKey(newName);
     var existing = index.get(newName);
     if (existing == null) {
       index.put(newName, set);
@@ -83,4 +85,13 @@ public class IdentifierIndex<S extends Set<Identifier>, I extends Map<String, S>
       Supplier<R> setFactory) {
     return new IdentifierIndex<>(new HashMap<>(), setFactory);
   }
+
+  public static IdentifierIndex<HashSet<Identifier>, IdentityHashMap<String, HashSet<Identifier>>> withInterned() {
+    return new IdentifierIndex<>(new IdentityHashMap<>(), HashSet::new);
+  }
+
+  public static <R extends Set<Identifier>> IdentifierIndex<R, IdentityHashMap<String, R>> withInterned(
+      Supplier<R> setFactory) {
+    return new IdentifierIndex<>(new IdentityHashMap<>(), setFactory);
+  }
 }
@@ -0,0 +1,177 @@
+package io.github.douira.glsl_transformer.ast.query.index;
+
+import java.util.*;
+
+import io.github.douira.glsl_transformer.ast.node.abstract_node.*;
+
+/**
+ * Assigns a dense integer id to each AST node class and precomputes the chain
+ * of superclasses and the set of known subclasses for each class. The ids are
+ * assigned in the order in which the classes are first seen and are only valid
+ * within the running JVM. Like in {@link SuperclassNodeIndex}, the base classes
+ * {@link ASTNode}, {@link InnerASTNode} and {@link ListASTNode} are not part of
+ * the superclass chains.
+ *
+ * Looking up the id of a class doesn't allocate once the class has been seen
+ * before since the entries are cached with a {@link ClassValue}.
+ */
+public final class NodeClassTable {
+  private static final Map<Class<?>, ClassEntry> entriesByClass = new HashMap<>();
+  private static ClassEntry[] entries = new ClassEntry[128];
+  private static int size = 0;
+
+  private static final ClassValue<ClassEntry> classEntries = new ClassValue<>() {
+    @Override
+    protected ClassEntry computeValue(Class<?> type) {
+      return createEntry(type);
+    }
+  };
+
+  private NodeClassTable() {
+  }
+
+  /**
+   * The precomputed information about a single node class.
+   */
+  public static final class ClassEntry {
+    /**
+     * The dense id of this class.
+     */
+    public final int id;
+
+    /**
+     * The class this entry describes.
+     */
+    public final Class<?> type;
+
+    /**
+     * The ids of this class and all its indexed superclasses, starting with the
+     * id of this class itself.
+     */
+    private final int[] ancestors;
+
+    /**
+     * The ids of this class and all its subclasses that have been seen so far.
+     * This array is replaced when a new subclass is registered and never
+     * modified in place.
+     */
+    private volatile int[] descendants;
+
+    private ClassEntry(int id, Class<?> type, int[] ancestors) {
+      this.id = id;
+      this.type = type;
+      this.ancestors = ancestors;
+      this.descendants = new int[] { id };
+    }
+
+    /**
+     * Returns the ids of this class and its superclasses. The returned array
+     * must not be modified.
+     *
+     * @return the ids of the superclass chain including this class
+     */
+    public int[] getAncestors() {
+      return ancestors;
+    }
+
+    /**
+     * Returns the ids of this class and all of its subclasses that have been
+     * seen so far. The returned array must not be modified.
+     *
+     * @return the ids of the known subclasses including this class
+     */
+    public int[] getDescendants() {
+      return descendants;
+    }
+  }
+
+  private static boolean isBaseClass(Class<?> type) {
+    return type == ASTNode.class
+        || type == InnerASTNode.class
+        || type == ListASTNode.class;
+  }
+
+  private static synchronized ClassEntry createEntry(Class<?> type) {
+    // the class value may compute the entry multiple times if there is contention
+    var existing = entriesByClass.get(type);
+    if (existing != null) {
+      return existing;
+    }
+
+    var superclass = type.getSuperclass();
+    int[] superAncestors;
+    if (isBaseClass(type)
+        || superclass == null
+        || isBaseClass(superclass)
+        || !ASTNode.class.isAssignableFrom(superclass)) {
+      superAncestors = new int[0];
+    } else {
+      superAncestors = classEntries.get(superclass).ancestors;
+    }
+
+    var id = size++;
+    var ancestors = new int[superAncestors.length + 1];
+    ancestors[0] = id;
+    System.arraycopy(superAncestors, 0, ancestors, 1, superAncestors.length);
+    var entry = new ClassEntry(id, type, ancestors);
+
+    if (id == entries.length) {
+      entries = Arrays.copyOf(entries, entries.length * 2);
+    }
+    entries[id] = entry;
+    entriesByClass.put(type, entry);
+
+    // register the new class as a descendant of all its superclasses
+    for (int i = 1; i < ancestors.length; i++) {
+      var ancestor = entries[ancestors[i]];
+      var descendants = ancestor.descendants;
+      var extended = Arrays.copyOf(descendants, descendants.length + 1);
+      extended[descendants.length] = id;
+      ancestor.descendants = extended;
+    }
+    return entry;
+  }
+
+  /**
+   * Returns the entry for the given class and creates it if it doesn't exist
+   * yet.
+   *
+   * @param type the class to get the entry for
+   * @return the entry of the class
+   */
+  public static ClassEntry getEntry(Class<?> type) {
+    return classEntries.get(type);
+  }
+
+  /**
+   * Returns the dense id of the given class.
+   *
+   * @param type the class to get the id of
+   * @return the id of the class
+   */
+  public static int getId(Class<?> type) {
+    return classEntries.get(type).id;
+  }
+
+  /**
+   * Returns the entry with the given id.
+   *
+   * @param id the id of the class
+   * @return the entry of the class with the given id
+   */
+  public static synchronized ClassEntry getEntry(int id) {
+    if (id < 0 || id >= size) {
+      throw new IndexOutOfBoundsException("No node class with id " + id);
+    }
+    return entries[id];
+  }
+
+  /**
+   * Returns the number of classes that have been assigned an id so far.
+   *
+   * @return the number of known classes
+   */
+  public static synchronized int size() {
+    return size;
+  }
+}
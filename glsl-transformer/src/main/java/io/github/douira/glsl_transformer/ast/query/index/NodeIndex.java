@@ -17,7 +17,7 @@ import io.github.douira.glsl_transformer.ast.query.Root;
  * Unchecked casts are used but they are safe because each set in the map only
  * has the right types of nodes.
  */
-public class NodeIndex<S extends Set<ASTNode>> implements Index<ASTNode> {
+public class NodeIndex<S extends Set<ASTNode>> extends AbstractNodeIndex {
   public final Map<Class<ASTNode>, S> index = new HashMap<>();
   public final Supplier<S> setFactory;
 
@@ -63,39 +63,21 @@ public class NodeIndex<S extends Set<ASTNode>> implements Index<ASTNode> {
     set.remove(node);
   }
 
-  /**
-   * Returns a set of all nodes with the given type.
-   * 
-   * @param <N>  the type of the class
-   * @param type the class of nodes to return
-   * @return a set of nodes with the given type
-   */
+  @Override
   @SuppressWarnings("unchecked")
   public <N extends ASTNode> Set<N> get(Class<N> type) {
     var result = (Set<N>) index.get(type);
     return result == null ? Collections.emptySet() : result;
   }
 
-  /**
-   * Returns a stream of all nodes with the given type.
-   * 
-   * @param <N>  the type of the class
-   * @param type the class of nodes to return
-   * @return a stream of nodes with the given type
-   */
+  @Override
   @SuppressWarnings("unchecked")
   public <N extends ASTNode> Stream<N> getStream(Class<N> type) {
     var result = (Set<N>) index.get(type);
     return result == null ? Stream.empty() : result.stream();
   }
 
-  /**
-   * Returns an arbitrary node with the given type.
-   * 
-   * @param <N>  the type of the class
-   * @param type the class of the node to return
-   * @return an arbitrary node with the given type
-   */
+  @Override
   @SuppressWarnings("unchecked")
   public <N extends ASTNode> N getOne(Class<N> type) {
     var result = (Set<N>) index.get(type);
@@ -106,14 +88,7 @@ public class NodeIndex<S extends Set<ASTNode>> implements Index<ASTNode> {
     return iterator.hasNext() ? iterator.next() : null;
   }
 
-  /**
-   * Returns the only node with the given type. Throws an exception if there is
-   * not exactly one node with the given type.
-   * 
-   * @param <N>  the type of the class
-   * @param type the class of the node to return
-   * @return the only node with the given type
-   */
+  @Override
   @SuppressWarnings("unchecked")
   public <N extends ASTNode> N getUnique(Class<N> type) {
     var result = (Set<N>) index.get(type);
@@ -124,73 +99,9 @@ public class NodeIndex<S extends Set<ASTNode>> implements Index<ASTNode> {
     return result.iterator().next();
   }
 
-  /**
-   * Checks if the index contains any nodes of the given type.
-   * 
-   * @param type the class of the nodes to check for
-   * @return true if the index contains any nodes of the given type
-   */
+  @Override
   public boolean has(Class<? extends ASTNode> type) {
     var result = index.get(type);
     return result != null && !result.isEmpty();
   }
-
-  /**
-   * Returns the set of nodes that have the same class as the given node.
-   * 
-   * @param <N>  The type of the nodes
-   * @param node The node to get the set of
-   * @return The set of nodes that have the same class as the given node
-   */
-  @SuppressWarnings("unchecked")
-  public <N extends ASTNode> Set<N> get(N node) {
-    return (Set<N>) get(node.getClass());
-  }
-
-  /**
-   * Returns an arbitrary node that has the same class as the given node.
-   * 
-   * @param <N>  The type of the node
-   * @param node The node to get a node from the index for
-   * @return An arbitrary node that has the same class as the given node
-   */
-  @SuppressWarnings("unchecked")
-  public <N extends ASTNode> N getOne(N node) {
-    return (N) getOne(node.getClass());
-  }
-
-  /**
-   * Returns the only node that has the same class as the given node. Throws an
-   * exception if there is not exactly one node with the same class as the given
-   * node.
-   * 
-   * @param <N>  The type of the node
-   * @param node The node to get a node from the index for
-   * @return The only node that has the same class as the given node
-   */
-  @SuppressWarnings("unchecked")
-  public <N extends ASTNode> N getUnique(N node) {
-    return (N) getUnique(node.getClass());
-  }
-
-  /**
-   * Checks if the index contains a node of the given type.
-   * 
-   * @param node the node to check for
-   * @return true if the index contains the node
-   */
-  public boolean has(ASTNode node) {
-    return has(node.getClass());
-  }
-
-  /**
-   * Checks if the index contains the given node itself.
-   * 
-   * @param node the node to check for
-   * @return true if the index contains the node
-   */
-  public boolean hasExact(ASTNode node) {
-    var set = get(node);
-    return set != null && set.contains(node);
-  }
 }
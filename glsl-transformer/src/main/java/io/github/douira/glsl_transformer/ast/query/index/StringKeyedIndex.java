@@ -4,12 +4,18 @@ import java.util.*;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
 
+import io.github.douira.glsl_transformer.ast.data.SymbolTable;
 import io.github.douira.glsl_transformer.ast.node.abstract_node.ASTNode;
 import io.github.douira.glsl_transformer.ast.node.expression.ReferenceExpression;
 
 /**
  * Indexes nodes based on their content and provides some utilities for querying them.
  * 
+ * If the given map is an {@link IdentityHashMap}, the keys are interned in the
+ * {@link SymbolTable} and compared by identity. Query keys are looked up in the
+ * symbol table first which means queries for names that have never been
+ * interned don't add anything to the table.
+ * 
  * @param <V> The entry type stored in the index, the "value".
  * @param <N> The node type of the entry.
  * @param <S> The set type used to store entries.
@@ -19,21 +25,46 @@ public abstract class StringKeyedIndex<V, N extends ASTNode, S extends Set<V>, I
     implements Index<N> {
   public final I index;
   public final Supplier<S> setFactory;
+  protected final boolean internedKeys;
 
   public StringKeyedIndex(I index, Supplier<S> setFactory) {
     this.index = index;
     this.setFactory = setFactory;
+    this.internedKeys = index instanceof IdentityHashMap;
   }
 
   protected abstract N getNode(V entry);
 
+  /**
+   * Returns the key that should be used for storing entries under the given
+   * key. Interns the key if this index compares keys by identity.
+   * 
+   * @param key the key to store entries with
+   * @return the key to use in the map
+   */
+  protected String internKey(String key) {
+    return internedKeys ? SymbolTable.intern(key) : key;
+  }
+
+  /**
+   * Returns the key that should be used for looking up entries with the given
+   * key. If this index compares keys by identity and the key has never been
+   * interned, null is returned which is never a key in the map.
+   * 
+   * @param key the key to look up
+   * @return the key to use in the map
+   */
+  protected String lookupKey(String key) {
+    return internedKeys ? SymbolTable.lookup(key) : key;
+  }
+
   public Set<V> get(String key) {
-    var result = index.get(key);
+    var result = index.get(lookupKey(key));
     return result == null ? Collections.emptySet() : result;
   }
 
   public Stream<V> getStream(String key) {
-    var result = index.get(key);
+    var result = index.get(lookupKey(key));
     return result == null ? Stream.empty() : result.stream();
   }
 
@@ -54,12 +85,16 @@ public abstract class StringKeyedIndex<V, N extends ASTNode, S extends Set<V>, I
   }
 
   public V getOne(String key) {
-    var iterator = index.get(key).iterator();
+    var result = index.get(lookupKey(key));
+    if (result == null) {
+      return null;
+    }
+    var iterator = result.iterator();
     return iterator.hasNext() ? iterator.next() : null;
   }
 
   public V getUnique(String key) {
-    var set = index.get(key);
+    var set = index.get(lookupKey(key));
     var resultSize = set == null ? 0 : set.size();
     if (resultSize != 1) {
       throw new IllegalStateException("Expected exactly one result for key " + key + ", but got " + resultSize);
@@ -68,7 +103,7 @@ public abstract class StringKeyedIndex<V, N extends ASTNode, S extends Set<V>, I
   }
 
   public boolean has(String key) {
-    var result = index.get(key);
+    var result = index.get(lookupKey(key));
     return result != null && !result.isEmpty();
   }
 }
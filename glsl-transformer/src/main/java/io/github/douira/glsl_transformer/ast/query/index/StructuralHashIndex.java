@@ -0,0 +1,170 @@
+package io.github.douira.glsl_transformer.ast.query.index;
+
+import java.util.*;
+import java.util.stream.Stream;
+
+import io.github.douira.glsl_transformer.ast.node.abstract_node.*;
+import io.github.douira.glsl_transformer.ast.query.Root;
+
+/**
+ * Indexes the nodes of a root by their structural hash. This makes it possible
+ * to find all nodes that are structurally equal to a given node, for example
+ * repeated subexpressions, without comparing it to every node in the tree.
+ *
+ * The index is built from the node index on the first query. After that, the
+ * root notifies it of added and removed nodes and of nodes whose structural
+ * hash was invalidated. These nodes are marked as dirty and only they are hashed
+ * and moved to their new bucket on the next query.
+ */
+public class StructuralHashIndex {
+  private final Root root;
+  private final Map<Integer, Set<ASTNode>> nodesByHash = new HashMap<>();
+  private final Map<ASTNode, Integer> indexedHashes = new IdentityHashMap<>();
+  private final Set<ASTNode> dirtyNodes = Collections.newSetFromMap(new IdentityHashMap<>());
+  private boolean initialized = false;
+
+  public StructuralHashIndex(Root root) {
+    this.root = root;
+  }
+
+  /**
+   * Notifies this index of a registered node. This is only meant to be called
+   * by {@link Root}.
+   *
+   * @param node the registered node
+   */
+  public void notifyRegister(ASTNode node) {
+    if (initialized) {
+      dirtyNodes.add(node);
+    }
+  }
+
+  /**
+   * Notifies this index of an unregistered node. This is only meant to be
+   * called by {@link Root}.
+   *
+   * @param node the unregistered node
+   */
+  public void notifyUnregister(ASTNode node) {
+    if (initialized) {
+      dirtyNodes.remove(node);
+      removeEntry(node);
+    }
+  }
+
+  /**
+   * Notifies this index of a node whose structural hash was invalidated. This
+   * is only meant to be called by {@link Root}.
+   *
+   * @param node the node with the invalidated hash
+   */
+  public void notifyInvalidation(ASTNode node) {
+    if (initialized && indexedHashes.containsKey(node)) {
+      dirtyNodes.add(node);
+    }
+  }
+
+  private void removeEntry(ASTNode node) {
+    var hash = indexedHashes.remove(node);
+    if (hash != null) {
+      var bucket = nodesByHash.get(hash);
+      bucket.remove(node);
+      if (bucket.isEmpty()) {
+        nodesByHash.remove(hash);
+      }
+    }
+  }
+
+  private void addEntry(ASTNode node) {
+    var hash = node.getStructuralHash();
+    indexedHashes.put(node, hash);
+    nodesByHash.computeIfAbsent(hash, key -> Collections.newSetFromMap(new IdentityHashMap<>())).add(node);
+  }
+
+  /**
+   * Brings the index up to date by hashing the nodes that have been added or
+   * changed since the last query.
+   */
+  private void update() {
+    if (!initialized) {
+      initialized = true;
+      for (var kind : NodeKind.values()) {
+        root.nodeIndex.getStream(kind.nodeClass).forEach(dirtyNodes::add);
+      }
+    }
+    if (!dirtyNodes.isEmpty()) {
+      for (var node : dirtyNodes) {
+        removeEntry(node);
+        addEntry(node);
+      }
+      dirtyNodes.clear();
+    }
+  }
+
+  /**
+   * Returns the nodes with the given structural hash. Nodes with the same hash
+   * are not necessarily structurally equal.
+   *
+   * @param hash the structural hash
+   * @return the nodes with the hash
+   */
+  public Set<ASTNode> get(int hash) {
+    update();
+    var bucket = nodesByHash.get(hash);
+    return bucket == null ? Collections.emptySet() : Collections.unmodifiableSet(bucket);
+  }
+
+  /**
+   * Returns the nodes of this root that are structurally equal to the given
+   * node. The given node is included if it's part of this root.
+   *
+   * @param node the node to compare with
+   * @return a stream of the structurally equal nodes
+   */
+  public Stream<ASTNode> getEqual(ASTNode node) {
+    return get(node.getStructuralHash()).stream().filter(node::equalsStructurally);
+  }
+
+  /**
+   * Returns the groups of at least two structurally equal nodes of the given
+   * class.
+   *
+   * @param <N>  the type of the nodes
+   * @param type the class of the nodes to group
+   * @return the groups of structurally equal nodes
+   */
+  public <N extends ASTNode> List<List<N>> getDuplicates(Class<N> type) {
+    update();
+    var result = new ArrayList<List<N>>();
+    for (var bucket : nodesByHash.values()) {
+      if (bucket.size() < 2) {
+        continue;
+      }
+      var groups = new ArrayList<List<N>>();
+      for (var node : bucket) {
+        if (!type.isInstance(node)) {
+          continue;
+        }
+        var typedNode = type.cast(node);
+        List<N> group = null;
+        for (var candidate : groups) {
+          if (candidate.get(0).equalsStructurally(typedNode)) {
+            group = candidate;
+            break;
+          }
+        }
+        if (group == null) {
+          group = new ArrayList<>();
+          groups.add(group);
+        }
+        group.add(typedNode);
+      }
+      for (var group : groups) {
+        if (group.size() > 1) {
+          result.add(group);
+        }
+      }
+    }
+    return result;
+  }
+}
@@ -0,0 +1,565 @@
+package io.github.douira.glsl_transformer.ast.query.index;
+
+import java.util.*;
+
+import io.github.douira.glsl_transformer.ast.data.SymbolTable;
+import io.github.douira.glsl_transformer.ast.node.*;
+import io.github.douira.glsl_transformer.ast.node.abstract_node.ASTNode;
+import io.github.douira.glsl_transformer.ast.node.declaration.*;
+import io.github.douira.glsl_transformer.ast.node.expression.ReferenceExpression;
+import io.github.douira.glsl_transformer.ast.node.expression.unary.FunctionCallExpression;
+import io.github.douira.glsl_transformer.ast.node.external_declaration.*;
+import io.github.douira.glsl_transformer.ast.node.statement.CompoundStatement;
+import io.github.douira.glsl_transformer.ast.node.statement.loop.*;
+import io.github.douira.glsl_transformer.ast.node.statement.terminal.DeclarationStatement;
+import io.github.douira.glsl_transformer.ast.node.type.specifier.*;
+import io.github.douira.glsl_transformer.ast.node.type.specifier.BuiltinFixedTypeSpecifier.BuiltinType;
+import io.github.douira.glsl_transformer.ast.node.type.struct.StructDeclarator;
+import io.github.douira.glsl_transformer.ast.query.Root;
+import io.github.douira.glsl_transformer.ast.traversal.ASTKindVoidVisitor;
+
+/**
+ * Resolves references to the declarations they refer to by following the
+ * scoping rules of GLSL. A reference is an identifier in a
+ * {@link ReferenceExpression} or the name of a called function in a
+ * {@link FunctionCallExpression}. The declaration a reference resolves to is
+ * one of the following nodes:
+ *
+ * - {@link DeclarationMember} for variables declared in a
+ * {@link TypeAndInitDeclaration}
+ * - {@link FunctionParameter} for parameters of the enclosing function
+ * - {@link FunctionDefinition} for function calls. Overloaded functions are
+ * disambiguated by the number of arguments. A call that matches multiple
+ * overloads with the same number of parameters doesn't resolve to any of them
+ * since that requires type information, but
+ * {@link #getCandidateDefinitions(FunctionCallExpression)} returns all of them.
+ * - {@link IterationConditionInitializer} for variables declared in the
+ * condition of a loop
+ * - {@link InterfaceBlockDeclaration} for the instance name of an interface
+ * block
+ * - {@link StructDeclarator} for members of an interface block without an
+ * instance name
+ *
+ * References to built-in variables and functions don't resolve to anything.
+ *
+ * The resolution is computed lazily for all references with the same name at
+ * once and is then cached. The root notifies this index of added, removed and
+ * renamed identifiers which only invalidates the cached resolution of the
+ * affected names. Moving a subtree around in the tree without unregistering it
+ * only changes the scopes of the declarations and references in it, which
+ * means only the names of the identifiers in the moved subtree are
+ * invalidated. Once a name has been resolved, use-def and def-use queries are
+ * constant time lookups.
+ *
+ * This index requires the root to have an identifier index since it uses it
+ * to find all identifiers with a given name.
+ */
+public class SymbolIndex {
+  private final Root root;
+  private final Map<String, NameEntry> entries = new HashMap<>();
+
+  private static class NameEntry {
+    final Map<Identifier, ASTNode> declarations = new HashMap<>();
+    final Map<ASTNode, List<Identifier>> references = new HashMap<>();
+    List<FunctionDefinition> functions;
+  }
+
+  private static final NameEntry EMPTY_ENTRY = new NameEntry();
+
+  public SymbolIndex(Root root) {
+    if (root.identifierIndex == null) {
+      throw new IllegalStateException("The symbol index requires an identifier index");
+    }
+    this.root = root;
+  }
+
+  /**
+   * Invalidates the cached resolution of all references with the given name.
+   * This is called by the root when identifiers are added, removed or renamed.
+   *
+   * @param name the name to invalidate
+   */
+  public void invalidate(String name) {
+    entries.remove(name);
+  }
+
+  /**
+   * Checks if the resolution of the references with the given name is cached.
+   *
+   * @param name the name to check
+   * @return true if the name has been resolved and not invalidated since
+   */
+  public boolean isResolved(String name) {
+    return entries.containsKey(name);
+  }
+
+  /**
+   * Invalidates all cached resolutions.
+   */
+  public void invalidateAll() {
+    if (!entries.isEmpty()) {
+      entries.clear();
+    }
+  }
+
+  /**
+   * Notifies this index of a registered node that is being moved within the
+   * tree. The cached resolutions of the names of all identifiers in the moved
+   * subtree are invalidated as well as those of the overloads affected by the
+   * previous and the new parent. Nothing is invalidated if the node is attached
+   * to the parent it already has.
+   *
+   * @param node      the moved node, its parent is still the previous parent
+   * @param newParent the new parent of the node or null if it's being detached
+   */
+  public void notifyNodeMove(ASTNode node, ASTNode newParent) {
+    if (entries.isEmpty() || node.getParent() == newParent) {
+      return;
+    }
+    new ASTKindVoidVisitor() {
+      @Override
+      public void visitVoid(ASTNode moved) {
+        if (moved instanceof Identifier identifier) {
+          invalidate(identifier.getName());
+        }
+      }
+    }.visit(node);
+    notifySubtreeChange(node, node.getParent());
+    notifySubtreeChange(node, newParent);
+  }
+
+  /**
+   * Notifies this index of a subtree that was added or removed as a whole.
+   * Changing the number of arguments of a call or the number of parameters of a
+   * function changes which overload calls resolve to even if no identifiers
+   * were added or removed.
+   *
+   * @param subtreeRoot the root of the subtree
+   * @param parent      the parent the subtree was added to or removed from
+   */
+  public void notifySubtreeChange(ASTNode subtreeRoot, ASTNode parent) {
+    if (parent instanceof FunctionCallExpression call) {
+      if (call.getFunctionName() != null) {
+        invalidate(call.getFunctionName().getName());
+      }
+    } else if (parent instanceof FunctionPrototype prototype) {
+      if (prototype.getName() != null) {
+        invalidate(prototype.getName().getName());
+      }
+    }
+  }
+
+  /**
+   * Returns the identifier that holds the name of the given declaration.
+   *
+   * @param declaration a declaration node of one of the types this index
+   *                    resolves references to
+   * @return the name of the declaration or null if it doesn't have one
+   */
+  public static Identifier getDeclaredName(ASTNode declaration) {
+    if (declaration instanceof DeclarationMember member) {
+      return member.getName();
+    } else if (declaration instanceof FunctionParameter parameter) {
+      return parameter.getName();
+    } else if (declaration instanceof FunctionDefinition definition) {
+      return definition.getFunctionPrototype().getName();
+    } else if (declaration instanceof IterationConditionInitializer initializer) {
+      return initializer.getName();
+    } else if (declaration instanceof InterfaceBlockDeclaration block) {
+      return block.getVariableName();
+    } else if (declaration instanceof StructDeclarator declarator) {
+      return declarator.getName();
+    }
+    return null;
+  }
+
+  /**
+   * Checks if the given identifier is used as a reference to a variable or a
+   * function.
+   *
+   * @param identifier the identifier to check
+   * @return true if the identifier is a reference
+   */
+  public static boolean isReference(Identifier identifier) {
+    var parent = identifier.getParent();
+    return parent instanceof ReferenceExpression
+        || parent instanceof FunctionCallExpression call && call.getFunctionName() == identifier;
+  }
+
+  /**
+   * Returns the number of parameters of a function prototype. A single unnamed
+   * void parameter is not counted.
+   *
+   * @param prototype the function prototype
+   * @return the number of parameters
+   */
+  public static int getParameterCount(FunctionPrototype prototype) {
+    var parameters = prototype.getParameters();
+    if (parameters.size() == 1) {
+      var parameter = parameters.get(0);
+      if (parameter.getName() == null
+          && parameter.getType().getTypeSpecifier() instanceof BuiltinFixedTypeSpecifier specifier
+          && specifier.getType() == BuiltinType.VOID) {
+        return 0;
+      }
+    }
+    return parameters.size();
+  }
+
+  private NameEntry getEntry(String name) {
+    // names that were never interned can't be the name of any identifier
+    name = SymbolTable.lookup(name);
+    if (name == null) {
+      return EMPTY_ENTRY;
+    }
+    var entry = entries.get(name);
+    if (entry == null) {
+      entry = resolveName(name);
+      entries.put(name, entry);
+    }
+    return entry;
+  }
+
+  private NameEntry resolveName(String name) {
+    var entry = new NameEntry();
+    for (var identifier : root.identifierIndex.get(name)) {
+      ASTNode declaration;
+      var parent = identifier.getParent();
+      if (parent instanceof ReferenceExpression) {
+        declaration = resolveVariable(identifier, name);
+      } else if (parent instanceof FunctionCallExpression call && call.getFunctionName() == identifier) {
+        if (entry.functions == null) {
+          entry.functions = getFunctionDefinitions(name);
+        }
+        declaration = resolveFunction(call, entry.functions);
+      } else {
+        continue;
+      }
+      if (declaration != null) {
+        entry.declarations.put(identifier, declaration);
+        entry.references.computeIfAbsent(declaration, key -> new ArrayList<>()).add(identifier);
+      }
+    }
+    return entry;
+  }
+
+  /**
+   * Returns the definitions of all overloads of the function with the given
+   * name.
+   *
+   * @param name the name of the function
+   * @return the function definitions with the given name
+   */
+  public List<FunctionDefinition> getFunctionDefinitions(String name) {
+    var functions = new ArrayList<FunctionDefinition>();
+    for (var identifier : root.identifierIndex.get(name)) {
+      if (identifier.getParent() instanceof FunctionPrototype prototype
+          && prototype.getName() == identifier
+          && prototype.getParent() instanceof FunctionDefinition definition) {
+        functions.add(definition);
+      }
+    }
+    return functions;
+  }
+
+  /**
+   * Returns the definitions of all overloads that the given call may resolve to.
+   * These are the definitions with the name of the called function and as many
+   * parameters as the call has arguments. If there is more than one candidate,
+   * the call is ambiguous without type information and
+   * {@link #getDeclaration(Identifier)} doesn't resolve it.
+   *
+   * @param call the function call
+   * @return the candidate definitions, empty if the call is to a built-in
+   *         function or doesn't match any definition
+   */
+  public List<FunctionDefinition> getCandidateDefinitions(FunctionCallExpression call) {
+    var name = call.getFunctionName();
+    if (name == null) {
+      return Collections.emptyList();
+    }
+    var entry = getEntry(name.getName());
+    if (entry == EMPTY_ENTRY) {
+      return Collections.emptyList();
+    }
+    if (entry.functions == null) {
+      entry.functions = getFunctionDefinitions(name.getName());
+    }
+    var argumentCount = call.getParameters().size();
+    List<FunctionDefinition> candidates = null;
+    for (var function : entry.functions) {
+      if (getParameterCount(function.getFunctionPrototype()) == argumentCount) {
+        if (candidates == null) {
+          candidates = new ArrayList<>(1);
+        }
+        candidates.add(function);
+      }
+    }
+    return candidates == null ? Collections.emptyList() : candidates;
+  }
+
+  private static FunctionDefinition resolveFunction(
+      FunctionCallExpression call, List<FunctionDefinition> functions) {
+    // calls with a different number of arguments are to built-in functions
+    var argumentCount = call.getParameters().size();
+    FunctionDefinition match = null;
+    for (var function : functions) {
+      if (getParameterCount(function.getFunctionPrototype()) == argumentCount) {
+        if (match != null) {
+          // ambiguous without type information
+          return null;
+        }
+        match = function;
+      }
+    }
+    return match;
+  }
+
+  private static boolean declares(Identifier declaredName, String name) {
+    return declaredName != null && declaredName.getName() == name;
+  }
+
+  private static ASTNode findMember(TypeAndInitDeclaration declaration, String name, ASTNode before) {
+    ASTNode result = null;
+    for (var member : declaration.getMembers()) {
+      if (member == before) {
+        break;
+      }
+      if (declares(member.getName(), name)) {
+        result = member;
+      }
+    }
+    return result;
+  }
+
+  private static ASTNode findInDeclaration(Declaration declaration, String name) {
+    if (declaration instanceof TypeAndInitDeclaration typeAndInitDeclaration) {
+      return findMember(typeAndInitDeclaration, name, null);
+    }
+    if (declaration instanceof InterfaceBlockDeclaration block) {
+      if (block.getVariableName() != null) {
+        return declares(block.getVariableName(), name) ? block : null;
+      }
+      for (var member : block.getStructBody().getMembers()) {
+        for (var declarator : member.getDeclarators()) {
+          if (declares(declarator.getName(), name)) {
+            return declarator;
+          }
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Finds the declaration of a variable by walking up the tree and looking at
+   * the declarations that are visible at each level.
+   */
+  private static ASTNode resolveVariable(Identifier reference, String name) {
+    ASTNode child = reference;
+    for (var node = reference.getParent(); node != null; child = node, node = node.getParent()) {
+      ASTNode result = null;
+      if (node instanceof CompoundStatement compound) {
+        for (var statement : compound.getStatements()) {
+          if (statement == child) {
+            break;
+          }
+          if (statement instanceof DeclarationStatement declarationStatement) {
+            var found = findInDeclaration(declarationStatement.getDeclaration(), name);
+            if (found != null) {
+              result = found;
+            }
+          }
+        }
+      } else if (node instanceof TypeAndInitDeclaration declaration) {
+        if (child instanceof DeclarationMember) {
+          result = findMember(declaration, name, child);
+        }
+      } else if (node instanceof ForLoopStatement loop) {
+        if (child != loop.getInitDeclaration()) {
+          var initializer = loop.getIterationConditionInitializer();
+          if (child != initializer && initializer != null && declares(initializer.getName(), name)) {
+            result = initializer;
+          } else if (loop.getInitDeclaration() != null) {
+            result = findInDeclaration(loop.getInitDeclaration(), name);
+          }
+        }
+      } else if (node instanceof WhileLoopStatement loop) {
+        var initializer = loop.getIterationConditionInitializer();
+        if (child == loop.getStatement() && initializer != null && declares(initializer.getName(), name)) {
+          result = initializer;
+        }
+      } else if (node instanceof FunctionDefinition definition) {
+        if (child == definition.getBody()) {
+          for (var parameter : definition.getFunctionPrototype().getParameters()) {
+            if (declares(parameter.getName(), name)) {
+              result = parameter;
+            }
+          }
+        }
+      } else if (node instanceof TranslationUnit translationUnit) {
+        for (var externalDeclaration : translationUnit.getChildren()) {
+          if (externalDeclaration == child) {
+            break;
+          }
+          if (externalDeclaration instanceof DeclarationExternalDeclaration declarationExternalDeclaration) {
+            var found = findInDeclaration(declarationExternalDeclaration.getDeclaration(), name);
+            if (found != null) {
+              result = found;
+            }
+          }
+        }
+      }
+      if (result != null) {
+        return result;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Returns the declaration the given reference resolves to.
+   *
+   * @param reference the identifier of a reference expression or the name of a
+   *                  called function
+   * @return the declaration or null if the identifier isn't a reference or it
+   *         doesn't resolve to a declaration in the tree
+   */
+  public ASTNode getDeclaration(Identifier reference) {
+    return getEntry(reference.getName()).declarations.get(reference);
+  }
+
+  /**
+   * Returns the declaration the given reference resolves to if it has the given
+   * type.
+   *
+   * @param <N>       the type of the declaration
+   * @param reference the reference to resolve
+   * @param type      the class of the declaration
+   * @return the declaration or null if it doesn't exist or has a different type
+   */
+  public <N extends ASTNode> N getDeclaration(Identifier reference, Class<N> type) {
+    var declaration = getDeclaration(reference);
+    return type.isInstance(declaration) ? type.cast(declaration) : null;
+  }
+
+  /**
+   * Returns the references that resolve to the given declaration.
+   *
+   * @param declaration the declaration
+   * @return an unmodifiable list of the identifiers that reference the
+   *         declaration
+   */
+  public List<Identifier> getReferences(ASTNode declaration) {
+    var declaredName = getDeclaredName(declaration);
+    if (declaredName == null) {
+      return Collections.emptyList();
+    }
+    var references = getEntry(declaredName.getName()).references.get(declaration);
+    return references == null ? Collections.emptyList() : Collections.unmodifiableList(references);
+  }
+
+  /**
+   * Checks if the given declaration is declared in the global scope.
+   *
+   * @param declaration the declaration
+   * @return true if the declaration isn't within a function
+   */
+  public static boolean isGlobal(ASTNode declaration) {
+    return declaration instanceof FunctionDefinition
+        || !declaration.hasAncestor(FunctionDefinition.class)
+            && declaration.hasAncestor(TranslationUnit.class);
+  }
+
+  /**
+   * Returns the references with the given name that resolve to a declaration in
+   * the global scope. This excludes references to local variables and
+   * parameters that shadow a global declaration with the same name.
+   *
+   * @param name the name of the global declaration
+   * @return the references to global declarations with the given name
+   */
+  public List<Identifier> getGlobalReferences(String name) {
+    var result = new ArrayList<Identifier>();
+    for (var references : getEntry(name).references.entrySet()) {
+      if (isGlobal(references.getKey())) {
+        result.addAll(references.getValue());
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Renames a single symbol. The name of the declaration and all references
+   * that resolve to it are renamed while other identifiers with the same name
+   * are left alone. If the declaration is a function definition, prototypes of
+   * the function with the same number of parameters are renamed as well.
+   *
+   * The rename is reverted and an exception is thrown if it would change the
+   * meaning of the code. This happens if the renamed references would resolve
+   * to a different declaration or if other references with the new name would
+   * resolve to the renamed declaration.
+   *
+   * @param declaration the declaration to rename
+   * @param newName     the new name
+   * @return true if anything was renamed
+   */
+  public boolean rename(ASTNode declaration, String newName) {
+    var declaredName = getDeclaredName(declaration);
+    if (declaredName == null) {
+      throw new IllegalArgumentException("The given node is not a named declaration: " + declaration);
+    }
+    var oldName = declaredName.getName();
+    if (oldName.equals(newName)) {
+      return false;
+    }
+    Identifier.validateContents(newName);
+
+    var renamed = new ArrayList<Identifier>();
+    renamed.add(declaredName);
+    renamed.addAll(getReferences(declaration));
+    if (declaration instanceof FunctionDefinition definition) {
+      var parameterCount = getParameterCount(definition.getFunctionPrototype());
+      for (var identifier : root.identifierIndex.get(oldName)) {
+        if (identifier.getParent() instanceof FunctionPrototype prototype
+            && prototype.getName() == identifier
+            && prototype.getParent() instanceof FunctionDeclaration
+            && getParameterCount(prototype) == parameterCount) {
+          renamed.add(identifier);
+        }
+      }
+    }
+    var existing = new HashMap<>(getEntry(newName).declarations);
+
+    for (var identifier : renamed) {
+      identifier.setName(newName);
+    }
+
+    // check that the renamed references still resolve to the declaration and
+    // that no other references were captured by it
+    var valid = true;
+    for (var identifier : renamed) {
+      if (identifier != declaredName && isReference(identifier)
+          && getDeclaration(identifier) != declaration) {
+        valid = false;
+        break;
+      }
+    }
+    if (valid) {
+      for (var resolved : existing.entrySet()) {
+        if (getDeclaration(resolved.getKey()) != resolved.getValue()) {
+          valid = false;
+          break;
+        }
+      }
+    }
+    if (!valid) {
+      for (var identifier : renamed) {
+        identifier.setName(oldName);
+      }
+      throw new IllegalStateException(
+          "Renaming " + oldName + " to " + newName + " would change which declarations references resolve to");
+    }
+    return true;
+  }
+}
@@ -1,7 +1,11 @@
 package io.github.douira.glsl_transformer.ast.query.match;
 
+import java.util.*;
+import java.util.stream.Stream;
+
 import io.github.douira.glsl_transformer.ast.node.Identifier;
 import io.github.douira.glsl_transformer.ast.node.abstract_node.ASTNode;
+import io.github.douira.glsl_transformer.ast.query.Root;
 import io.github.douira.glsl_transformer.parser.ParseShape;
 
 /**
@@ -9,8 +13,16 @@ import io.github.douira.glsl_transformer.parser.ParseShape;
  * by finding the longest identifier in the pattern. If that hint is not the
  * best (most distinguishing) hint, then the manually hinted
  * {@link HintedMatcher} should be used instead.
+ * 
+ * Alternatively, the hint can be selected for each root that is queried. Then
+ * the identifier of the pattern that occurs the least often in the root's
+ * identifier index is used. A pattern without a usable identifier then finds
+ * its candidates among the nodes of the pattern class in the node index.
  */
 public class AutoHintedMatcher<N extends ASTNode> extends HintedMatcher<N> {
+  private boolean selectHintPerRoot = false;
+  private volatile String[] hints;
+
   public AutoHintedMatcher(N pattern, String wildcardPrefix) {
     super(pattern, wildcardPrefix, null);
   }
@@ -48,6 +60,74 @@ public class AutoHintedMatcher<N extends ASTNode> extends HintedMatcher<N> {
     hint = longestHint;
   }
 
+  private synchronized void determineHints() {
+    if (hints != null) {
+      return;
+    }
+    preparePatternItems();
+    var names = new LinkedHashSet<String>();
+    for (var item : patternItems) {
+      if (item instanceof Identifier id) {
+        var idContent = id.getName();
+        if (wildcardPrefix == null || !idContent.startsWith(wildcardPrefix)) {
+          names.add(idContent);
+        }
+      }
+    }
+    hints = names.toArray(String[]::new);
+  }
+
+  /**
+   * Sets whether the hint is selected separately for each root by the number
+   * of identifiers with each of the pattern's identifier names.
+   * 
+   * @param selectHintPerRoot Whether to select the hint for each root
+   */
+  public void setSelectHintPerRoot(boolean selectHintPerRoot) {
+    this.selectHintPerRoot = selectHintPerRoot;
+  }
+
+  public boolean getSelectHintPerRoot() {
+    return selectHintPerRoot;
+  }
+
+  /**
+   * Returns the identifier of the pattern that occurs the least often in the
+   * given root.
+   * 
+   * @param root The root to select the hint for
+   * @return The selected hint or null if the pattern has no usable identifier
+   */
+  public String getHint(Root root) {
+    if (hints == null) {
+      determineHints();
+    }
+    String bestHint = null;
+    var bestCount = Integer.MAX_VALUE;
+    for (var candidate : hints) {
+      var count = root.identifierIndex.get(candidate).size();
+      if (count < bestCount) {
+        bestHint = candidate;
+        bestCount = count;
+        if (count == 0) {
+          break;
+        }
+      }
+    }
+    return bestHint;
+  }
+
+  @Override
+  public Stream<? extends ASTNode> getCandidates(Root root) {
+    if (!selectHintPerRoot) {
+      return super.getCandidates(root);
+    }
+    var selectedHint = getHint(root);
+    return selectedHint == null
+        ? root.nodeIndex.getStream(getPatternClass())
+        : root.identifierIndex.getStream(selectedHint);
+  }
+
   @Override
   public String getHint() {
     if (hint == null) {
@@ -1,6 +1,9 @@
 package io.github.douira.glsl_transformer.ast.query.match;
 
+import java.util.stream.Stream;
+
 import io.github.douira.glsl_transformer.ast.node.abstract_node.ASTNode;
+import io.github.douira.glsl_transformer.ast.query.Root;
 import io.github.douira.glsl_transformer.parser.ParseShape;
 
 /**
@@ -34,4 +37,16 @@ public class HintedMatcher<N extends ASTNode> extends Matcher<N> {
   public String getHint() {
     return hint;
   }
+
+  /**
+   * Returns the nodes of the given root that the candidates for matching are
+   * found from. The nearest ancestor of the pattern class of each of these nodes
+   * is matched against the pattern.
+   * 
+   * @param root The root to find the candidates in
+   * @return The identifiers with the hint as their name
+   */
+  public Stream<? extends ASTNode> getCandidates(Root root) {
+    return root.identifierIndex.getStream(getHint());
+  }
 }
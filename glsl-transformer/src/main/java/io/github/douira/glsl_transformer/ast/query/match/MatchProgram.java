@@ -0,0 +1,70 @@
+package io.github.douira.glsl_transformer.ast.query.match;
+
+import java.util.List;
+
+import io.github.douira.glsl_transformer.ast.node.abstract_node.ASTNode;
+import io.github.douira.glsl_transformer.ast.query.match.Matcher.NodeWildcard;
+
+/**
+ * A pattern compiled into a flat array of instructions. Each pattern item
+ * becomes one instruction with its operand resolved ahead of time: the exact
+ * class of pattern nodes, the wildcard object of node wildcards, the name of
+ * data wildcards without the prefix and the value of data items. Matching then
+ * only switches on the instruction kind instead of inspecting the pattern item
+ * at every step.
+ */
+final class MatchProgram {
+  static final byte NODE = 0;
+  static final byte WILDCARD = 1;
+  static final byte LIST_WILDCARD = 2;
+  static final byte DATA = 3;
+  static final byte IDENTITY_DATA = 4;
+  static final byte DATA_WILDCARD = 5;
+
+  final byte[] instructions;
+  final Object[] operands;
+  final String[] names;
+  final int size;
+
+  /**
+   * The class the root of a matching tree has to have or null if the pattern
+   * root is a wildcard.
+   */
+  final Class<?> rootClass;
+
+  private MatchProgram(byte[] instructions, Object[] operands, String[] names) {
+    this.instructions = instructions;
+    this.operands = operands;
+    this.names = names;
+    this.size = instructions.length;
+    this.rootClass = size > 0 && instructions[0] == NODE ? (Class<?>) operands[0] : null;
+  }
+
+  static MatchProgram compile(List<Object> patternItems, String wildcardPrefix) {
+    var size = patternItems.size();
+    var instructions = new byte[size];
+    var operands = new Object[size];
+    var names = new String[size];
+    for (var i = 0; i < size; i++) {
+      var item = patternItems.get(i);
+      if (item instanceof NodeWildcard wildcard) {
+        instructions[i] = wildcard.name.endsWith("*") ? LIST_WILDCARD : WILDCARD;
+        operands[i] = wildcard;
+        names[i] = wildcard.name;
+      } else if (item instanceof ASTNode node) {
+        instructions[i] = NODE;
+        operands[i] = node.getClass();
+      } else if (wildcardPrefix != null
+          && item instanceof String str
+          && str.startsWith(wildcardPrefix)) {
+        instructions[i] = DATA_WILDCARD;
+        names[i] = str.substring(wildcardPrefix.length());
+      } else {
+        // enum constants can only be equal to themselves
+        instructions[i] = item == null || item instanceof Enum<?> ? IDENTITY_DATA : DATA;
+        operands[i] = item;
+      }
+    }
+    return new MatchProgram(instructions, operands, names);
+  }
+}
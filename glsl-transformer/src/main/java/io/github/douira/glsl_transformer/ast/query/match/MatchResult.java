@@ -0,0 +1,210 @@
+package io.github.douira.glsl_transformer.ast.query.match;
+
+import java.util.*;
+
+import io.github.douira.glsl_transformer.ast.node.abstract_node.ASTNode;
+import io.github.douira.glsl_transformer.ast.query.match.Matcher.NodeWildcard;
+import io.github.douira.glsl_transformer.ast.traversal.*;
+
+/**
+ * Holds the state of matching a tree against a pattern and the wildcard
+ * matches extracted from it. A match result is used by one thread at a time
+ * but can be reused for any number of matches, with any matcher, without
+ * allocating. The matcher itself doesn't store any match state which means it
+ * can be shared between threads as long as each of them uses its own match
+ * result.
+ */
+public class MatchResult {
+  private final Map<String, Object> dataMatches;
+  private final Map<String, ASTNode> nodeMatches;
+
+  private boolean collectMatches;
+  private MatchProgram program;
+  private int matchIndex;
+  private boolean matches;
+  private NodeWildcard activeListWildcard;
+
+  /**
+   * Creates a new match result that stores the extracted matches in the given
+   * maps.
+   *
+   * @param dataMatches The map to store data matches in
+   * @param nodeMatches The map to store node matches in
+   */
+  public MatchResult(Map<String, Object> dataMatches, Map<String, ASTNode> nodeMatches) {
+    this.dataMatches = dataMatches;
+    this.nodeMatches = nodeMatches;
+  }
+
+  public MatchResult() {
+    this(new HashMap<>(), new HashMap<>());
+  }
+
+  private final ASTVisitor<?> compiledVisitor = new ASTVoidVisitor() {
+    @Override
+    public Void visit(ASTNode node) {
+      if (!matches || matchIndex >= program.size && activeListWildcard == null) {
+        matches = false;
+        return null;
+      }
+      var index = matchIndex >= program.size ? -1 : matchIndex++;
+      var instruction = index == -1 ? -1 : program.instructions[index];
+
+      // regular wildcard match
+      if (instruction == MatchProgram.WILDCARD || instruction == MatchProgram.LIST_WILDCARD) {
+        var wildcard = (NodeWildcard) program.operands[index];
+        if (wildcard.test(node)) {
+          if (collectMatches) {
+            nodeMatches.put(wildcard.name, node);
+          }
+          activeListWildcard = instruction == MatchProgram.LIST_WILDCARD ? wildcard : null;
+          return null;
+        }
+      }
+
+      // list wildcard match
+      if (activeListWildcard != null) {
+        if (activeListWildcard.test(node)) {
+          if (collectMatches) {
+            nodeMatches.put(activeListWildcard.name, node);
+          }
+          matchIndex--;
+          return null;
+        }
+        activeListWildcard = null;
+      }
+
+      if (instruction != MatchProgram.NODE || node.getClass() != program.operands[index]) {
+        matches = false;
+        return null;
+      }
+      return NodeKindDispatch.dispatch(this, node);
+    }
+
+    @Override
+    public void visitVoidData(Object data) {
+      if (!matches
+          || matchIndex >= program.size
+          || data instanceof ASTNode) {
+        matches = false;
+        return;
+      }
+      var index = matchIndex++;
+      switch (program.instructions[index]) {
+        case MatchProgram.DATA_WILDCARD -> {
+          if (collectMatches) {
+            dataMatches.put(program.names[index], data);
+          }
+          activeListWildcard = null;
+        }
+        case MatchProgram.DATA -> {
+          if (!Objects.equals(data, program.operands[index])) {
+            matches = false;
+          }
+        }
+        case MatchProgram.IDENTITY_DATA -> {
+          if (data != program.operands[index]) {
+            matches = false;
+          }
+        }
+        default -> matches = false;
+      }
+    }
+  };
+
+  private void start(boolean collect) {
+    collectMatches = collect;
+    if (collect) {
+      clear();
+    }
+    matchIndex = 0;
+    matches = true;
+    activeListWildcard = null;
+  }
+
+  private boolean finish() {
+    if (collectMatches && !matches) {
+      clear();
+    }
+    collectMatches = false;
+    program = null;
+    return matches;
+  }
+
+  boolean run(MatchProgram program, ASTNode tree, boolean collect) {
+    start(collect);
+    this.program = program;
+    compiledVisitor.startVisit(tree);
+    return finish();
+  }
+
+  /**
+   * Removes all extracted matches.
+   */
+  public void clear() {
+    dataMatches.clear();
+    nodeMatches.clear();
+  }
+
+  /**
+   * Returns the data match map.
+   *
+   * @return The data match map
+   */
+  public Map<String, Object> getDataMatches() {
+    return dataMatches;
+  }
+
+  /**
+   * Returns the node match map.
+   *
+   * @return The node match map
+   */
+  public Map<String, ASTNode> getNodeMatches() {
+    return nodeMatches;
+  }
+
+  /**
+   * Gets a data match with the given name.
+   *
+   * @param name The name of the data match
+   * @return The data match or null if not found
+   */
+  public Object getDataMatch(String name) {
+    return dataMatches.get(name);
+  }
+
+  /**
+   * Gets a data match with the given name as a string.
+   *
+   * @param name The name of the data match
+   * @return The data match or null if either not found or not a string
+   */
+  public String getStringDataMatch(String name) {
+    var result = dataMatches.get(name);
+    return result instanceof String str ? str : null;
+  }
+
+  /**
+   * Gets a node match with the given name.
+   *
+   * @param name The name of the node match
+   * @return The node match or null if not found
+   */
+  public ASTNode getNodeMatch(String name) {
+    return nodeMatches.get(name);
+  }
+
+  /**
+   * Gets a node match with the given name if it is available as the given class.
+   *
+   * @param <NN> The type of the node match
+   * @param name The name of the node match
+   * @param type The class of the node match
+   * @return The node match or null if not found or not of the given class
+   */
+  public <NN extends ASTNode> NN getNodeMatch(String name, Class<NN> type) {
+    var result = nodeMatches.get(name);
+    return type.isInstance(result) ? type.cast(result) : null;
+  }
+}
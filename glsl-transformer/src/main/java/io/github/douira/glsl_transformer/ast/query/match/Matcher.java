@@ -10,6 +10,12 @@ import io.github.douira.glsl_transformer.parser.ParseShape;
 /**
  * Instances of the matcher can match a node against a stored pattern. This
  * avoids a separate equality implementation for each node type.
+ * 
+ * The pattern and its wildcards are set up when the matcher is created. Once
+ * the pattern has been compiled, the matcher doesn't change anymore and the
+ * state of each match is kept in a {@link MatchResult}. Matching with a given
+ * match result or without extracting anything is thread safe. The methods that
+ * extract into the matcher's own result use a separate result for each thread.
  */
 public class Matcher<N extends ASTNode> {
   /**
@@ -18,15 +24,11 @@ public class Matcher<N extends ASTNode> {
   protected final N pattern;
 
   protected final String wildcardPrefix;
-  private Map<String, Object> dataMatches;
-  private Map<String, ASTNode> nodeMatches;
   private Map<ASTNode, NodeWildcard> nodeWildcards;
-  private boolean collectMatches = false;
-  protected List<Object> patternItems;
+  protected volatile List<Object> patternItems;
   protected int patternItemsSize;
-  private int matchIndex;
-  private boolean matches;
-  private NodeWildcard activeListWildcard;
+  private volatile MatchProgram program;
+  private final ThreadLocal<MatchResult> localResult = ThreadLocal.withInitial(MatchResult::new);
 
   /**
    * Creates a new matcher for the given pattern and wildcard prefix.
@@ -56,123 +58,98 @@ public class Matcher<N extends ASTNode> {
     this(input, parseShape, null);
   }
 
-  private ASTVisitor<?> matchVisitor = new ASTVoidVisitor() {
-    @Override
-    public Void visit(ASTNode node) {
-      if (!matches || matchIndex >= patternItemsSize && activeListWildcard == null) {
-        matches = false;
-        return null;
-      }
-      var patternItem = matchIndex >= patternItemsSize ? null : patternItems.get(matchIndex++);
-
-      // match either a wildcard node
-      if (nodeWildcards != null) {
-        // regular wildcard match
-        if (patternItem instanceof NodeWildcard wildcard && wildcard.test(node)) {
-          if (collectMatches) {
-            nodeMatches.put(wildcard.name, node);
-          }
-
-          // signal list matching
-          if (wildcard.name.endsWith("*")) {
-            activeListWildcard = wildcard;
-          } else {
-            activeListWildcard = null;
-          }
-          return null;
-        }
-        // list wildcard match
-        else if (activeListWildcard != null) {
-          if (activeListWildcard.test(node)) {
-            if (collectMatches) {
-              nodeMatches.put(activeListWildcard.name, node);
-            }
-            matchIndex--;
-            return null;
-          } else {
-            activeListWildcard = null;
-          }
-        }
-      }
-
-      // if the pattern item is null here, it failed to match a list at the end
-      if (patternItem == null) {
-        matches = false;
-        return null;
-      }
-
-      // or the class exactly
-      if (node.getClass() != patternItem.getClass()) {
-        matches = false;
-        return null;
-      }
-      return node.accept(this);
-    }
-
-    @Override
-    public void visitVoidData(Object data) {
-      // Data has to only match by equality since these might also be strings.
-      if (!matches
-          || matchIndex >= patternItemsSize
-          || data instanceof ASTNode) {
-        matches = false;
-        return;
-      }
-      var patternItem = patternItems.get(matchIndex++);
-
-      // match either a wildcard or a data item exactly
-      if (wildcardPrefix != null
-          && patternItem instanceof String str
-          && str.startsWith(wildcardPrefix)) {
-        // the wildcard was matched, but the string is only collected if enabled
-        if (collectMatches) {
-          dataMatches.put(str.substring(wildcardPrefix.length()), data);
-        }
-        activeListWildcard = null;
-        return;
-      }
-
-      if (!Objects.equals(data, patternItem)) {
-        matches = false;
-        return;
-      }
-    }
-  };
-
   /**
    * Prepares the matcher for matching. It parses the pattern and stores the
    * resulting items. This can be used to pre-compute this list of items.
    * Otherwise, this will be calculated on demand
    */
-  public void preparePatternItems() {
+  public synchronized void preparePatternItems() {
     if (patternItems != null) {
       return;
     }
 
     // visit the pattern and collect all items (ASTNodes and data),
     // don't collect subtrees of node wildcards
-    patternItems = new ArrayList<>();
+    var items = new ArrayList<Object>();
     new ASTVoidVisitor() {
       @Override
       public Void visit(ASTNode node) {
         if (nodeWildcards != null) {
           var wildcard = nodeWildcards.get(node);
           if (wildcard != null) {
-            patternItems.add(wildcard);
+            items.add(wildcard);
             return null;
           }
         }
-        patternItems.add(node);
-        node.accept(this);
+        items.add(node);
+        NodeKindDispatch.dispatch(this, node);
         return null;
       }
 
       @Override
       public void visitVoidData(Object data) {
-        patternItems.add(data);
+        items.add(data);
       }
     }.startVisit(pattern);
-    patternItemsSize = patternItems.size();
+    patternItemsSize = items.size();
+    patternItems = items;
+  }
+
+  /**
+   * Compiles the pattern into a flat instruction array that is used for
+   * matching. This happens on demand but can be done ahead of time.
+   */
+  public void compile() {
+    if (program != null) {
+      return;
+    }
+    synchronized (this) {
+      if (program == null) {
+        preparePatternItems();
+        program = MatchProgram.compile(patternItems, wildcardPrefix);
+      }
+    }
+  }
+
+  /**
+   * Returns the exact class the root of a matching tree has to have. If the root
+   * of the pattern is a wildcard, trees with different root classes can match
+   * and null is returned.
+   * 
+   * @return The class of matching roots or null if it isn't fixed
+   */
+  @SuppressWarnings("unchecked") // the pattern only contains nodes
+  public Class<? extends ASTNode> getRootClass() {
+    compile();
+    return (Class<? extends ASTNode>) program.rootClass;
+  }
+
+  /**
+   * Matches the given tree with the given match result which receives the
+   * wildcard matches if extraction is enabled.
+   * 
+   * @param tree    The tree to match
+   * @param result  The match result to use
+   * @param extract Whether to extract the wildcard matches into the result
+   * @return True if the tree matches the pattern, false otherwise
+   */
+  private boolean matches(N tree, MatchResult result, boolean extract) {
+    if (tree == null) {
+      if (extract) {
+        result.clear();
+      }
+      return false;
+    }
+    compile();
+
+    // reject trees with a different root class before visiting them
+    if (program.rootClass != null && tree.getClass() != program.rootClass) {
+      if (extract) {
+        result.clear();
+      }
+      return false;
+    }
+    return result.run(program, tree, extract);
   }
 
   /**
@@ -183,45 +160,34 @@ public class Matcher<N extends ASTNode> {
    * @return True if the tree matches the pattern, false otherwise
    */
   public boolean matches(N tree) {
-    if (tree == null) {
-      return false;
-    }
-    preparePatternItems();
-    matchIndex = 0;
-    matches = true;
-    activeListWildcard = null;
-    matchVisitor.startVisit(tree);
-    return matches;
+    return matches(tree, localResult.get(), false);
   }
 
-  private void ensureMatchMaps() {
-    if (dataMatches == null) {
-      dataMatches = new HashMap<>();
-    }
-    if (nodeMatches == null) {
-      nodeMatches = new HashMap<>();
-    }
+  /**
+   * Matches the given tree and collects the matching data and node wildcards in
+   * the given match result. The result is cleared first and stays empty if the
+   * tree doesn't match. Different threads can use the same matcher at the same
+   * time with their own match results.
+   * 
+   * @param tree   The tree to match
+   * @param result The match result to collect the matches in
+   * @return True if the tree matches the pattern, false otherwise
+   */
+  public boolean matchesExtract(N tree, MatchResult result) {
+    return matches(tree, result, true);
   }
 
   /**
    * Matches the given tree and collect matching string wildcards, data wildcard
-   * and node wildcards. It uses the default data and node wildcard maps.
+   * and node wildcards. The matches are stored in this matcher's result for the
+   * current thread which is overwritten by the next extraction on the same
+   * thread.
    * 
    * @param tree The tree to match
    * @return True if the tree matches the pattern, false otherwise
    */
   public boolean matchesExtract(N tree) {
-    ensureMatchMaps();
-    dataMatches.clear();
-    nodeMatches.clear();
-    collectMatches = true;
-    var succeeded = matches(tree);
-    collectMatches = false;
-    if (!succeeded) {
-      dataMatches.clear();
-      nodeMatches.clear();
-    }
-    return succeeded;
+    return matchesExtract(tree, localResult.get());
   }
 
   /**
@@ -237,12 +203,17 @@ public class Matcher<N extends ASTNode> {
       N tree,
       Map<String, Object> dataMatches,
       Map<String, ASTNode> nodeMatches) {
-    this.dataMatches = dataMatches;
-    this.nodeMatches = nodeMatches;
-    var succeeded = matchesExtract(tree);
-    this.dataMatches = null;
-    this.nodeMatches = null;
-    return succeeded;
+    return matchesExtract(tree, new MatchResult(dataMatches, nodeMatches));
+  }
+
+  /**
+   * Returns the match result that {@link #matchesExtract(ASTNode)} stores the
+   * matches of the current thread in.
+   * 
+   * @return The match result of the current thread
+   */
+  public MatchResult getResult() {
+    return localResult.get();
   }
 
   /**
@@ -251,7 +222,7 @@ public class Matcher<N extends ASTNode> {
    * @return The data match map
    */
   public Map<String, Object> getDataMatches() {
-    return dataMatches;
+    return getResult().getDataMatches();
   }
 
   /**
@@ -260,7 +231,7 @@ public class Matcher<N extends ASTNode> {
    * @return The node match map
    */
   public Map<String, ASTNode> getNodeMatches() {
-    return nodeMatches;
+    return getResult().getNodeMatches();
   }
 
   /**
@@ -270,7 +241,7 @@ public class Matcher<N extends ASTNode> {
    * @return The data match or null if not found
    */
   public Object getDataMatch(String name) {
-    return dataMatches.get(name);
+    return getResult().getDataMatch(name);
   }
 
   /**
@@ -280,8 +251,7 @@ public class Matcher<N extends ASTNode> {
    * @return The data match or null if either not found or not a string
    */
   public String getStringDataMatch(String name) {
-    var result = dataMatches.get(name);
-    return result instanceof String str ? str : null;
+    return getResult().getStringDataMatch(name);
   }
 
   /**
@@ -291,7 +261,7 @@ public class Matcher<N extends ASTNode> {
    * @return The node match or null if not found
    */
   public ASTNode getNodeMatch(String name) {
-    return nodeMatches.get(name);
+    return getResult().getNodeMatch(name);
   }
 
   /**
@@ -303,8 +273,7 @@ public class Matcher<N extends ASTNode> {
    * @return The node match or null if not found or not of the given class
    */
   public <NN extends ASTNode> NN getNodeMatch(String name, Class<NN> type) {
-    var result = nodeMatches.get(name);
-    return type.isInstance(result) ? type.cast(result) : null;
+    return getResult().getNodeMatch(name, type);
   }
 
   @SuppressWarnings("unchecked")
@@ -318,7 +287,7 @@ public class Matcher<N extends ASTNode> {
     }
   }
 
-  private static abstract class NodeWildcard implements Predicate<ASTNode> {
+  static abstract class NodeWildcard implements Predicate<ASTNode> {
     final String name;
 
     NodeWildcard(String name) {
@@ -0,0 +1,155 @@
+package io.github.douira.glsl_transformer.ast.query.match;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+import io.github.douira.glsl_transformer.ast.node.abstract_node.ASTNode;
+import io.github.douira.glsl_transformer.ast.query.Root;
+
+/**
+ * A matcher set finds the matches of many hinted matchers in one pass. Calling
+ * {@link Root#processMatches(io.github.douira.glsl_transformer.ast.transform.ASTParser, HintedMatcher, Consumer)}
+ * for each matcher streams the identifiers of its hint, looks up the ancestor
+ * of the pattern class for each of them and de-duplicates the ancestors
+ * separately. The matcher set indexes the matchers by their hint and then by
+ * their pattern class. The identifiers of each hint are visited once, a single
+ * walk up the ancestors of each identifier finds the candidates for all
+ * pattern classes of that hint, and each candidate is only matched once by
+ * each matcher.
+ *
+ * All matches are found before any of the handlers is run. The handlers are
+ * then run in the order in which the matchers were added. This is different
+ * from processing the matchers one after another where the changes of one
+ * handler are visible to the following matchers.
+ */
+public class MatcherSet {
+  private final List<Entry<?>> entries = new ArrayList<>();
+  private final Map<String, List<ClassGroup>> groupsByHint = new LinkedHashMap<>();
+
+  private record Entry<N extends ASTNode>(
+      int index, HintedMatcher<N> matcher, Consumer<? super N> handler) {
+    @SuppressWarnings("unchecked")
+    boolean matches(ASTNode node) {
+      return matcher.matches((N) node);
+    }
+
+    @SuppressWarnings("unchecked")
+    void handle(ASTNode node) {
+      handler.accept((N) node);
+    }
+  }
+
+  private static class ClassGroup {
+    final Class<? extends ASTNode> type;
+    final List<Entry<?>> entries = new ArrayList<>();
+
+    ClassGroup(Class<? extends ASTNode> type) {
+      this.type = type;
+    }
+  }
+
+  /**
+   * Adds a matcher and the handler that processes its matches.
+   *
+   * @param <N>     The type of the matched nodes
+   * @param matcher The matcher to add
+   * @param handler The consumer to process the matched nodes with
+   * @return This matcher set
+   */
+  public <N extends ASTNode> MatcherSet add(HintedMatcher<N> matcher, Consumer<? super N> handler) {
+    var entry = new Entry<>(entries.size(), matcher, handler);
+    entries.add(entry);
+
+    var type = matcher.getPatternClass();
+    var groups = groupsByHint.computeIfAbsent(matcher.getHint(), hint -> new ArrayList<>());
+    ClassGroup group = null;
+    for (var candidate : groups) {
+      if (candidate.type == type) {
+        group = candidate;
+        break;
+      }
+    }
+    if (group == null) {
+      group = new ClassGroup(type);
+      groups.add(group);
+    }
+    group.entries.add(entry);
+    return this;
+  }
+
+  public int size() {
+    return entries.size();
+  }
+
+  /**
+   * Finds the matches of all matchers in the tree of the given root without
+   * processing them.
+   *
+   * @param root The root of the tree to search
+   * @return The lists of matched nodes of each matcher in the order in which the
+   *         matchers were added
+   */
+  public List<List<ASTNode>> findMatches(Root root) {
+    var matches = new ArrayList<List<ASTNode>>(entries.size());
+    for (var i = 0; i < entries.size(); i++) {
+      matches.add(new ArrayList<>());
+    }
+
+    for (var hintGroups : groupsByHint.entrySet()) {
+      var groups = hintGroups.getValue();
+      var groupCount = groups.size();
+      var candidates = new ArrayList<Set<ASTNode>>(groupCount);
+      for (var i = 0; i < groupCount; i++) {
+        candidates.add(new LinkedHashSet<>());
+      }
+
+      // walk up from each identifier once to find the nearest ancestor of each
+      // pattern class
+      var found = new boolean[groupCount];
+      for (var identifier : root.identifierIndex.get(hintGroups.getKey())) {
+        Arrays.fill(found, false);
+        var remaining = groupCount;
+        for (ASTNode node = identifier; node != null && remaining > 0; node = node.getParent()) {
+          for (var i = 0; i < groupCount; i++) {
+            if (!found[i] && groups.get(i).type.isInstance(node)) {
+              found[i] = true;
+              remaining--;
+              candidates.get(i).add(node);
+            }
+          }
+        }
+      }
+
+      for (var i = 0; i < groupCount; i++) {
+        var groupEntries = groups.get(i).entries;
+        for (var candidate : candidates.get(i)) {
+          for (var entry : groupEntries) {
+            if (entry.matches(candidate)) {
+              matches.get(entry.index()).add(candidate);
+            }
+          }
+        }
+      }
+    }
+    return matches;
+  }
+
+  /**
+   * Finds the matches of all matchers and then processes them with the handlers
+   * of the matchers.
+   *
+   * @param root The root of the tree to process
+   * @return Whether anything was processed
+   */
+  public boolean process(Root root) {
+    var matches = findMatches(root);
+    var activity = false;
+    for (var entry : entries) {
+      for (var node : matches.get(entry.index())) {
+        entry.handle(node);
+        activity = true;
+      }
+    }
+    return activity;
+  }
+}
@@ -47,6 +47,7 @@ import io.github.douira.glsl_transformer.util.Type.NumberType;
 public class ASTBuilder extends GLSLParserBaseVisitor<ASTNode> {
   private static SourceLocation lastSourceLocation;
   private static BufferedTokenStream tokenStream = null;
+  private static boolean recordSourceRanges = true;
 
   public static void setTokenStream(BufferedTokenStream tokenStream) {
     ASTBuilder.tokenStream = tokenStream;
@@ -56,6 +57,17 @@ public class ASTBuilder extends GLSLParserBaseVisitor<ASTNode> {
     ASTBuilder.tokenStream = null;
   }
 
+  /**
+   * Sets whether the source ranges of the built nodes should be recorded. They
+   * must not be recorded if the parsed tokens were filtered since the source
+   * text of a node's range then contains the tokens that were removed.
+   * 
+   * @param recordSourceRanges Whether to record source ranges
+   */
+  public static void setRecordSourceRanges(boolean recordSourceRanges) {
+    ASTBuilder.recordSourceRanges = recordSourceRanges;
+  }
+
   /**
    * Builds an AST from the given parse tree with the given root.
    *
@@ -202,6 +214,19 @@ public class ASTBuilder extends GLSLParserBaseVisitor<ASTNode> {
     }
   }
 
+  /**
+   * Records the range of source characters the given node was built from. This
+   * is done for the nodes that the printer can copy verbatim and has to happen
+   * after the node's children have been attached since that marks the node as
+   * modified. Nothing is recorded if the tokens were filtered.
+   */
+  private static <N extends ASTNode> N setSourceRangeSafe(N node, ParserRuleContext ctx) {
+    if (node != null && recordSourceRanges) {
+      node.setSourceRange(SourceRange.fromContext(ctx));
+    }
+    return node;
+  }
+
   @Override
   public TranslationUnit visitTranslationUnit(TranslationUnitContext ctx) {
     var versionStatement = visitVersionStatement(ctx.versionStatement());
@@ -944,11 +969,12 @@ public class ASTBuilder extends GLSLParserBaseVisitor<ASTNode> {
   public Expression visitExpression(ExpressionContext ctx) {
     return ctx.items.size() == 1
         ? visitExpression(ctx.items.get(0))
-        : new SequenceExpression(ctx.items.stream().map(this::visitExpression));
+        : setSourceRangeSafe(
+            new SequenceExpression(ctx.items.stream().map(this::visitExpression)), ctx);
   }
 
   public Expression visitExpression(FiniteExpressionContext ctx) {
-    return (Expression) visit(ctx);
+    return setSourceRangeSafe((Expression) visit(ctx), ctx);
   }
 
   @Override
@@ -956,7 +982,7 @@ public class ASTBuilder extends GLSLParserBaseVisitor<ASTNode> {
     var sourceLocation = readLineDirective(ctx);
     var node = (Statement) super.visitStatement(ctx);
     setSourceLocationSafe(node, sourceLocation);
-    return node;
+    return setSourceRangeSafe(node, ctx);
   }
 
   @Override
@@ -969,10 +995,10 @@ public class ASTBuilder extends GLSLParserBaseVisitor<ASTNode> {
     if (result instanceof Declaration declaration) {
       var node = new DeclarationExternalDeclaration(declaration);
       setSourceLocationSafe(node, sourceLocation);
-      return node;
+      return setSourceRangeSafe(node, ctx);
     }
     setSourceLocationSafe(result, sourceLocation);
-    return (ExternalDeclaration) result;
+    return (ExternalDeclaration) setSourceRangeSafe(result, ctx);
   }
 
   public Declaration visitDeclaration(DeclarationContext ctx) {
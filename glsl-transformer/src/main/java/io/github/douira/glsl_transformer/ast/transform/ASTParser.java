@@ -31,6 +31,7 @@ public class ASTParser implements ParserInterface {
   private TypedTreeCache<ASTNode> buildCache;
   private ASTCacheStrategy astCacheStrategy = ASTCacheStrategy.ALL_EXCLUDING_TRANSLATION_UNIT;
   private boolean parseLineDirectives = false;
+  private boolean tokenFilterSet = false;
 
   public enum ASTCacheStrategy {
     ALL,
@@ -139,18 +140,35 @@ public class ASTParser implements ParserInterface {
   @Override
   public void setTokenFilter(TokenFilter<?> setTokenFilter) {
     parser.setTokenFilter(setTokenFilter);
+    tokenFilterSet = setTokenFilter != null;
+
+    // cached trees may have source ranges that contain now filtered tokens
+    buildCache.clear();
+  }
+
+  /**
+   * Returns whether a token filter is set. The built nodes don't have source
+   * ranges if this is the case since their source text may contain tokens that
+   * were removed by the filter.
+   * 
+   * @return Whether a token filter is set
+   */
+  public boolean hasTokenFilter() {
+    return tokenFilterSet;
   }
 
   private void setBuilderTokenStream() {
     if (parseLineDirectives) {
       ASTBuilder.setTokenStream(parser.getTokenStream());
     }
+    ASTBuilder.setRecordSourceRanges(!tokenFilterSet);
   }
 
   private void unsetBuilderTokenStream() {
     if (parseLineDirectives) {
       ASTBuilder.unsetTokenStream();
     }
+    ASTBuilder.setRecordSourceRanges(true);
   }
 
   private class EmptyRoot extends Root {
@@ -11,6 +11,7 @@ import io.github.douira.glsl_transformer.ast.node.statement.Statement;
 import io.github.douira.glsl_transformer.ast.print.PrintType;
 import io.github.douira.glsl_transformer.ast.query.*;
 import io.github.douira.glsl_transformer.parser.EnhancedParser;
+import io.github.douira.glsl_transformer.parser.EnhancedParser.ParsingStrategy;
 import io.github.douira.glsl_transformer.token_filter.TokenFilter;
 
 /**
@@ -23,6 +24,8 @@ public abstract class ASTTransformer<J extends JobParameters, V> extends ASTPars
   private J jobParameters;
   private PrintType printType = PrintType.COMPACT;
   private RootSupplier rootSupplier = RootSupplier.DEFAULT;
+  private boolean skipUnmodified = false;
+  private TransformationCache<V> resultCache;
 
   @Override
   public J getJobParameters() {
@@ -40,13 +43,170 @@ public abstract class ASTTransformer<J extends JobParameters, V> extends ASTPars
 
   public void setPrintType(PrintType printType) {
     this.printType = printType;
+    clearResultCache();
   }
 
   @Override
   @SuppressWarnings("unchecked")
   public void setTokenFilter(TokenFilter<?> tokenFilter) {
     super.setTokenFilter(tokenFilter);
-    ((TokenFilter<J>) tokenFilter).setJobParametersSupplier(this::getJobParameters);
+    clearResultCache();
+    if (tokenFilter != null) {
+      ((TokenFilter<J>) tokenFilter).setJobParametersSupplier(this::getJobParameters);
+    }
+  }
+
+  public boolean getSkipUnmodified() {
+    return skipUnmodified;
+  }
+
+  /**
+   * Sets whether the input string should be returned as-is if the
+   * transformation didn't modify the parsed tree. This skips printing entirely
+   * but it also means that the output isn't formatted according to the print
+   * type when nothing was changed. All changes made through the setters of the
+   * nodes are detected. Printing isn't skipped if a token filter is set since it
+   * may have removed tokens from the parsed input.
+   * 
+   * @param skipUnmodified Whether to skip printing unmodified trees
+   */
+  public void setSkipUnmodified(boolean skipUnmodified) {
+    this.skipUnmodified = skipUnmodified;
+    clearResultCache();
+  }
+
+  @Override
+  public void setParseLineDirectives(boolean parseLineDirectives) {
+    super.setParseLineDirectives(parseLineDirectives);
+    clearResultCache();
+  }
+
+  @Override
+  public void setParser(EnhancedParser parser) {
+    super.setParser(parser);
+    clearResultCache();
+  }
+
+  @Override
+  public void setBuildCache(TypedTreeCache<ASTNode> buildCache) {
+    super.setBuildCache(buildCache);
+    clearResultCache();
+  }
+
+  @Override
+  public void setASTCacheStrategy(ASTCacheStrategy astCacheStrategy) {
+    super.setASTCacheStrategy(astCacheStrategy);
+    clearResultCache();
+  }
+
+  @Override
+  public void setParsingCacheStrategy(ParsingCacheStrategy parsingCacheStrategy) {
+    super.setParsingCacheStrategy(parsingCacheStrategy);
+    clearResultCache();
+  }
+
+  @Override
+  public void setThrowParseErrors(boolean throwParseErrors) {
+    super.setThrowParseErrors(throwParseErrors);
+    clearResultCache();
+  }
+
+  @Override
+  public void setParsingStrategy(ParsingStrategy parsingStrategy) {
+    super.setParsingStrategy(parsingStrategy);
+    clearResultCache();
+  }
+
+  @Override
+  public void setSLLOnly() {
+    super.setSLLOnly();
+    clearResultCache();
+  }
+
+  @Override
+  public void setLLOnly() {
+    super.setLLOnly();
+    clearResultCache();
+  }
+
+  public TransformationCache<V> getResultCache() {
+    return resultCache;
+  }
+
+  /**
+   * Sets the cache that stores the results of this transformer by input and job
+   * parameters. Transforming an input that was already transformed with equal
+   * job parameters then returns the cached result without parsing. The cache is
+   * cleared when the transformation or the output settings change. Results
+   * printed into a sink are not cached. Since the cached results don't record
+   * which transformer produced them, a cache can't be shared between
+   * transformers.
+   * 
+   * @param resultCache The result cache or null to disable caching
+   * @throws IllegalArgumentException If the cache is used by another transformer
+   */
+  public void setResultCache(TransformationCache<V> resultCache) {
+    if (resultCache == this.resultCache) {
+      return;
+    }
+    if (resultCache != null && !resultCache.claim(this)) {
+      throw new IllegalArgumentException("The result cache is already used by another transformer!");
+    }
+    if (this.resultCache != null) {
+      this.resultCache.release(this);
+    }
+    this.resultCache = resultCache;
+  }
+
+  /**
+   * Clears the result cache if there is one. This is called when something that
+   * affects the output of this transformer is changed.
+   */
+  protected void clearResultCache() {
+    if (resultCache != null) {
+      resultCache.clear();
+    }
+  }
+
+  /**
+   * Copies a value before it's stored in or returned from the result cache.
+   * Transformers that work with mutable values have to copy them so that
+   * changes to them don't affect the cache.
+   * 
+   * @param value The value to copy
+   * @return The copied value
+   */
+  protected V copyCachedValue(V value) {
+    return value;
+  }
+
+  /**
+   * Returns the weight of a result cache entry that is compared with the
+   * maximum weight of the cache.
+   * 
+   * @param input  The input of the transformation
+   * @param output The output of the transformation
+   * @return The weight of the cache entry
+   */
+  protected long getCacheWeight(V input, V output) {
+    return 1;
+  }
+
+  /**
+   * Checks if the given translation unit can be skipped instead of being printed
+   * because the transformation didn't modify it.
+   * 
+   * @param translationUnit   The transformed translation unit
+   * @param modificationCount The modification count of the translation unit's
+   *                          root before the transformation
+   * @return Whether the input can be returned instead of printing the tree
+   */
+  protected boolean isUnmodified(TranslationUnit translationUnit, int modificationCount) {
+    return skipUnmodified
+        && !hasTokenFilter()
+        && translationUnit.getRoot().getModificationCount() == modificationCount
+        && translationUnit.outputOptions.getPrintHeader() == null
+        && translationUnit.outputOptions.printCustomDirectives;
   }
 
   public RootSupplier getRootSupplier() {
@@ -56,6 +216,7 @@ public abstract class ASTTransformer<J extends JobParameters, V> extends ASTPars
   public void setRootSupplier(RootSupplier rootSupplier) {
     Objects.requireNonNull(rootSupplier);
     this.rootSupplier = rootSupplier;
+    clearResultCache();
   }
 
   public Root supplyRoot() {
@@ -64,7 +225,20 @@ public abstract class ASTTransformer<J extends JobParameters, V> extends ASTPars
 
   @Override
   public V transform(V input) {
-    return transform(rootSupplier, input);
+    if (resultCache == null) {
+      return transform(rootSupplier, input);
+    }
+    var jobParameters = getJobParameters();
+    var cached = resultCache.get(input, jobParameters);
+    if (cached != null) {
+      return copyCachedValue(cached);
+    }
+    var result = transform(rootSupplier, input);
+    if (result != null) {
+      resultCache.put(copyCachedValue(input), jobParameters, copyCachedValue(result),
+          getCacheWeight(input, result));
+    }
+    return result;
   }
 
   /**
@@ -0,0 +1,519 @@
+package io.github.douira.glsl_transformer.ast.transform;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+
+import io.github.douira.glsl_transformer.ast.node.*;
+import io.github.douira.glsl_transformer.ast.node.abstract_node.*;
+import io.github.douira.glsl_transformer.ast.node.declaration.*;
+import io.github.douira.glsl_transformer.ast.node.expression.*;
+import io.github.douira.glsl_transformer.ast.node.expression.binary.BinaryExpression;
+import io.github.douira.glsl_transformer.ast.node.expression.unary.*;
+import io.github.douira.glsl_transformer.ast.node.statement.*;
+import io.github.douira.glsl_transformer.ast.node.statement.selection.SelectionStatement;
+import io.github.douira.glsl_transformer.ast.node.statement.terminal.*;
+import io.github.douira.glsl_transformer.ast.node.type.initializer.ExpressionInitializer;
+import io.github.douira.glsl_transformer.ast.node.type.qualifier.StorageQualifier;
+import io.github.douira.glsl_transformer.ast.node.type.specifier.BuiltinNumericTypeSpecifier;
+import io.github.douira.glsl_transformer.ast.query.Root;
+import io.github.douira.glsl_transformer.util.Type;
+import io.github.douira.glsl_transformer.util.Type.NumberType;
+
+/**
+ * A transformation that evaluates expressions with constant operands. It can be
+ * used as the transformation of a {@link SingleASTTransformer} or called from
+ * within any other transformation. The following is done:
+ *
+ * - Unary and binary operators with scalar literal operands are replaced by
+ * their result. The operands are converted to a common type using the implicit
+ * conversions of {@link Type}. Operations on incompatible types, divisions by
+ * zero, out of range shifts and results that can't be written as a literal are
+ * not folded.
+ * - References to scalar const variables with a constant initializer are
+ * replaced by the converted value of the initializer.
+ * - Selection statements with a constant condition are replaced by the branch
+ * that is taken.
+ *
+ * Negative results are represented as a negation of a positive literal since
+ * literals are always positive. Instead of walking the whole tree, the literal
+ * expressions are taken from the node index and only the ancestors of
+ * constants are visited. Each new constant is processed again to fold the
+ * expressions that contain it.
+ *
+ * The root needs to have a node index. Propagation of const variables
+ * additionally requires an identifier index.
+ */
+public class ConstantFolding implements BiConsumer<TranslationUnit, Root> {
+  private final boolean propagateConstants;
+  private final boolean pruneSelections;
+
+  /**
+   * Creates a constant folding that also propagates const variables and prunes
+   * selection statements.
+   */
+  public ConstantFolding() {
+    this(true, true);
+  }
+
+  /**
+   * Creates a constant folding with the given options.
+   *
+   * @param propagateConstants if references to const variables should be
+   *                           replaced by their value
+   * @param pruneSelections    if selection statements with constant conditions
+   *                           should be replaced by the taken branch
+   */
+  public ConstantFolding(boolean propagateConstants, boolean pruneSelections) {
+    this.propagateConstants = propagateConstants;
+    this.pruneSelections = pruneSelections;
+  }
+
+  @Override
+  public void accept(TranslationUnit tree, Root root) {
+    new Pass(tree, root).run();
+  }
+
+  /**
+   * Folds the constants in the given tree using the default settings.
+   *
+   * @param tree the translation unit to process
+   * @param root the root of the translation unit
+   */
+  public static void apply(TranslationUnit tree, Root root) {
+    new ConstantFolding().accept(tree, root);
+  }
+
+  /**
+   * The value of a scalar constant. Integer values are stored sign extended or
+   * zero extended from their bit depth.
+   */
+  private record Constant(Type type, boolean booleanValue, long integerValue, double floatingValue) {
+    static Constant ofBoolean(boolean value) {
+      return new Constant(Type.BOOL, value, 0, 0);
+    }
+
+    static Constant ofInteger(Type type, long value) {
+      return new Constant(type, false, normalize(type, value), 0);
+    }
+
+    static Constant ofFloating(Type type, double value) {
+      return new Constant(type, false, 0, type.getBitDepth() == 32 ? (float) value : value);
+    }
+
+    static Constant ofLiteral(LiteralExpression literal) {
+      var type = literal.getType();
+      if (!type.isScalar()) {
+        return null;
+      }
+      return switch (type.getNumberType()) {
+        case BOOLEAN -> ofBoolean(literal.getBoolean());
+        case SIGNED_INTEGER, UNSIGNED_INTEGER -> ofInteger(type, literal.getInteger());
+        case FLOATING_POINT -> ofFloating(type, literal.getFloating());
+        default -> null;
+      };
+    }
+
+    static long normalize(Type type, long value) {
+      var signed = type.getNumberType() == NumberType.SIGNED_INTEGER;
+      return switch (type.getBitDepth()) {
+        case 8 -> signed ? (byte) value : value & 0xFFL;
+        case 16 -> signed ? (short) value : value & 0xFFFFL;
+        case 32 -> signed ? (int) value : value & 0xFFFFFFFFL;
+        default -> value;
+      };
+    }
+
+    NumberType numberType() {
+      return type.getNumberType();
+    }
+
+    boolean isInteger() {
+      return numberType() == NumberType.SIGNED_INTEGER || numberType() == NumberType.UNSIGNED_INTEGER;
+    }
+
+    boolean isUnsigned64() {
+      return numberType() == NumberType.UNSIGNED_INTEGER && type.getBitDepth() == 64;
+    }
+
+    double toDouble() {
+      if (numberType() == NumberType.FLOATING_POINT) {
+        return floatingValue;
+      }
+      if (isUnsigned64() && integerValue < 0) {
+        return (double) (integerValue >>> 1) * 2.0 + (integerValue & 1);
+      }
+      return integerValue;
+    }
+
+    /**
+     * Converts this constant to the given type if there is an implicit
+     * conversion to it.
+     */
+    Constant convert(Type target) {
+      if (target == type) {
+        return this;
+      }
+      if (!type.getImplicitCasts().contains(target)) {
+        return null;
+      }
+      return target.getNumberType() == NumberType.FLOATING_POINT
+          ? ofFloating(target, toDouble())
+          : ofInteger(target, integerValue);
+    }
+
+    int compareTo(Constant other) {
+      if (numberType() == NumberType.FLOATING_POINT) {
+        return floatingValue < other.floatingValue ? -1 : floatingValue > other.floatingValue ? 1 : 0;
+      }
+      return isUnsigned64()
+          ? Long.compareUnsigned(integerValue, other.integerValue)
+          : Long.compare(integerValue, other.integerValue);
+    }
+
+    boolean isEqual(Constant other) {
+      return numberType() == NumberType.BOOLEAN
+          ? booleanValue == other.booleanValue
+          : compareTo(other) == 0;
+    }
+
+    Constant negate() {
+      return switch (numberType()) {
+        case SIGNED_INTEGER, UNSIGNED_INTEGER -> ofInteger(type, -integerValue);
+        case FLOATING_POINT -> ofFloating(type, -floatingValue);
+        default -> null;
+      };
+    }
+
+    /**
+     * Creates the expression for this constant. Returns null if the value can't
+     * be written as a literal in GLSL.
+     */
+    Expression toExpression(Root root) {
+      LiteralExpression literal;
+      boolean negative;
+      switch (numberType()) {
+        case BOOLEAN:
+          return root.indexNodes(() -> new LiteralExpression(booleanValue));
+        case SIGNED_INTEGER:
+        case UNSIGNED_INTEGER:
+          negative = numberType() == NumberType.SIGNED_INTEGER && integerValue < 0;
+          // the smallest value can't be negated without overflowing
+          if (type.getBitDepth() == 8
+              || negative && integerValue == normalize(type, 1L << (type.getBitDepth() - 1))) {
+            return null;
+          }
+          var integer = negative ? -integerValue : integerValue;
+          literal = root.indexNodes(() -> new LiteralExpression(type, integer));
+          break;
+        case FLOATING_POINT:
+          if (type.getBitDepth() == 16 || !Double.isFinite(floatingValue)) {
+            return null;
+          }
+          negative = Math.copySign(1.0, floatingValue) < 0;
+          var magnitude = Math.abs(floatingValue);
+          // print the shortest representation that results in the same float
+          var floating = type.getBitDepth() == 32
+              ? Double.parseDouble(Float.toString((float) magnitude))
+              : magnitude;
+          literal = root.indexNodes(() -> new LiteralExpression(type, floating));
+          break;
+        default:
+          return null;
+      }
+      return negative ? root.indexNodes(() -> new NegationExpression(literal)) : literal;
+    }
+  }
+
+  private static Expression unwrapGroupings(Expression expression) {
+    while (expression instanceof GroupingExpression grouping) {
+      expression = grouping.getOperand();
+    }
+    return expression;
+  }
+
+  /**
+   * Returns the value of a literal or a negated literal expression.
+   */
+  private static Constant getConstant(Expression expression) {
+    expression = unwrapGroupings(expression);
+    if (expression instanceof LiteralExpression literal) {
+      return Constant.ofLiteral(literal);
+    }
+    if (expression instanceof NegationExpression negation
+        && unwrapGroupings(negation.getOperand()) instanceof LiteralExpression literal) {
+      var constant = Constant.ofLiteral(literal);
+      return constant == null ? null : constant.negate();
+    }
+    return null;
+  }
+
+  private static Type getCommonType(Type a, Type b) {
+    if (a == b) {
+      return a;
+    }
+    if (a.getImplicitCasts().contains(b)) {
+      return b;
+    }
+    if (b.getImplicitCasts().contains(a)) {
+      return a;
+    }
+    return null;
+  }
+
+  private static Constant evaluateUnary(UnaryExpression expression) {
+    var operand = getConstant(expression.getOperand());
+    if (operand == null) {
+      return null;
+    }
+    return switch (expression.getNodeKind()) {
+      case IDENTITY_EXPRESSION -> operand.numberType() == NumberType.BOOLEAN ? null : operand;
+      case NEGATION_EXPRESSION -> operand.negate();
+      case BITWISE_NOT_EXPRESSION -> operand.isInteger()
+          ? Constant.ofInteger(operand.type(), ~operand.integerValue())
+          : null;
+      case BOOLEAN_NOT_EXPRESSION -> operand.numberType() == NumberType.BOOLEAN
+          ? Constant.ofBoolean(!operand.booleanValue())
+          : null;
+      default -> null;
+    };
+  }
+
+  private static Constant evaluateShift(BinaryExpression expression, Constant left, Constant right) {
+    if (!left.isInteger() || !right.isInteger()
+        || right.integerValue() < 0 || right.integerValue() >= left.type().getBitDepth()) {
+      return null;
+    }
+    var amount = (int) right.integerValue();
+    var value = left.integerValue();
+    return Constant.ofInteger(left.type(), switch (expression.getNodeKind()) {
+      case LEFT_SHIFT_EXPRESSION -> value << amount;
+      default -> left.numberType() == NumberType.SIGNED_INTEGER ? value >> amount : value >>> amount;
+    });
+  }
+
+  private static Constant evaluateBinary(BinaryExpression expression) {
+    var left = getConstant(expression.getLeft());
+    var right = getConstant(expression.getRight());
+    if (left == null || right == null) {
+      return null;
+    }
+    var kind = expression.getNodeKind();
+    if (kind == NodeKind.LEFT_SHIFT_EXPRESSION || kind == NodeKind.RIGHT_SHIFT_EXPRESSION) {
+      // the operands of shifts don't have to be of the same type
+      return evaluateShift(expression, left, right);
+    }
+
+    var type = getCommonType(left.type(), right.type());
+    if (type == null) {
+      return null;
+    }
+    left = left.convert(type);
+    right = right.convert(type);
+    var numberType = type.getNumberType();
+    if (numberType == NumberType.BOOLEAN) {
+      var a = left.booleanValue();
+      var b = right.booleanValue();
+      return switch (kind) {
+        case BOOLEAN_AND_EXPRESSION -> Constant.ofBoolean(a && b);
+        case BOOLEAN_OR_EXPRESSION -> Constant.ofBoolean(a || b);
+        case BOOLEAN_XOR_EXPRESSION -> Constant.ofBoolean(a != b);
+        case EQUALITY_EXPRESSION -> Constant.ofBoolean(a == b);
+        case INEQUALITY_EXPRESSION -> Constant.ofBoolean(a != b);
+        default -> null;
+      };
+    }
+
+    switch (kind) {
+      case EQUALITY_EXPRESSION:
+        return Constant.ofBoolean(left.isEqual(right));
+      case INEQUALITY_EXPRESSION:
+        return Constant.ofBoolean(!left.isEqual(right));
+      case LESS_THAN_EXPRESSION:
+        return Constant.ofBoolean(left.compareTo(right) < 0);
+      case LESS_THAN_EQUAL_EXPRESSION:
+        return Constant.ofBoolean(left.compareTo(right) <= 0);
+      case GREATER_THAN_EXPRESSION:
+        return Constant.ofBoolean(left.compareTo(right) > 0);
+      case GREATER_THAN_EQUAL_EXPRESSION:
+        return Constant.ofBoolean(left.compareTo(right) >= 0);
+      default:
+        break;
+    }
+
+    if (numberType == NumberType.FLOATING_POINT) {
+      // float16 arithmetic can't be emulated exactly
+      if (type.getBitDepth() == 16) {
+        return null;
+      }
+      var a = left.floatingValue();
+      var b = right.floatingValue();
+      return switch (kind) {
+        case ADDITION_EXPRESSION -> Constant.ofFloating(type, a + b);
+        case SUBTRACTION_EXPRESSION -> Constant.ofFloating(type, a - b);
+        case MULTIPLICATION_EXPRESSION -> Constant.ofFloating(type, a * b);
+        case DIVISION_EXPRESSION -> b == 0 ? null : Constant.ofFloating(type, a / b);
+        default -> null;
+      };
+    }
+
+    var a = left.integerValue();
+    var b = right.integerValue();
+    var unsigned64 = left.isUnsigned64();
+    return switch (kind) {
+      case ADDITION_EXPRESSION -> Constant.ofInteger(type, a + b);
+      case SUBTRACTION_EXPRESSION -> Constant.ofInteger(type, a - b);
+      case MULTIPLICATION_EXPRESSION -> Constant.ofInteger(type, a * b);
+      case DIVISION_EXPRESSION -> b == 0 ? null
+          : Constant.ofInteger(type, unsigned64 ? Long.divideUnsigned(a, b) : a / b);
+      // the result of modulo with negative operands is undefined
+      case MODULO_EXPRESSION -> b == 0 || !unsigned64 && (a < 0 || b < 0) ? null
+          : Constant.ofInteger(type, unsigned64 ? Long.remainderUnsigned(a, b) : a % b);
+      case BITWISE_AND_EXPRESSION -> Constant.ofInteger(type, a & b);
+      case BITWISE_OR_EXPRESSION -> Constant.ofInteger(type, a | b);
+      case BITWISE_XOR_EXPRESSION -> Constant.ofInteger(type, a ^ b);
+      default -> null;
+    };
+  }
+
+  private class Pass {
+    final TranslationUnit tree;
+    final Root root;
+    final Deque<Expression> worklist = new ArrayDeque<>();
+
+    Pass(TranslationUnit tree, Root root) {
+      this.tree = tree;
+      this.root = root;
+    }
+
+    void run() {
+      worklist.addAll(root.nodeIndex.get(LiteralExpression.class));
+      while (!worklist.isEmpty()) {
+        var expression = worklist.poll();
+        // the expression may have been removed or belong to a different tree
+        if (expression.hasAncestor(tree)) {
+          process(expression);
+        }
+      }
+    }
+
+    void replace(Expression expression, Constant value) {
+      var replacement = value.toExpression(root);
+      if (replacement != null) {
+        expression.replaceByAndDelete(replacement);
+        worklist.add(replacement);
+      }
+    }
+
+    void process(Expression constant) {
+      if (getConstant(constant) == null) {
+        return;
+      }
+
+      // find the expression the constant is used in
+      Expression outermost = constant;
+      var site = constant.getParent();
+      while (site instanceof GroupingExpression grouping) {
+        outermost = grouping;
+        site = grouping.getParent();
+      }
+
+      if (site instanceof NegationExpression negation && constant instanceof LiteralExpression) {
+        // a negated literal is the canonical form of a negative value
+        if (outermost != constant) {
+          replace(outermost, getConstant(constant));
+        } else {
+          worklist.add(negation);
+        }
+        return;
+      }
+      if (site instanceof UnaryExpression unary) {
+        var result = evaluateUnary(unary);
+        if (result != null) {
+          replace(unary, result);
+        }
+        return;
+      }
+      if (site instanceof BinaryExpression binary) {
+        var result = evaluateBinary(binary);
+        if (result != null) {
+          replace(binary, result);
+          return;
+        }
+      }
+
+      // groupings can be removed everywhere else since unary operators bind tighter
+      // than any other operator and other nodes aren't operators.
+      // the replacement is processed again with the new site
+      if (outermost != constant) {
+        replace(outermost, getConstant(constant));
+        return;
+      }
+
+      if (propagateConstants
+          && site instanceof ExpressionInitializer initializer
+          && initializer.getParent() instanceof DeclarationMember member) {
+        propagate(member, getConstant(constant));
+      } else if (pruneSelections
+          && site instanceof SelectionStatement selection
+          && selection.getCondition() == constant) {
+        prune(selection, getConstant(constant));
+      }
+    }
+
+    Type getConstType(DeclarationMember member) {
+      if (member.getArraySpecifier() != null
+          || !(member.getParent() instanceof TypeAndInitDeclaration declaration)) {
+        return null;
+      }
+      var type = declaration.getType();
+      if (!(type.getTypeSpecifier() instanceof BuiltinNumericTypeSpecifier specifier)
+          || specifier.getArraySpecifier() != null
+          || !specifier.getType().isScalar()
+          || type.getTypeQualifier() == null) {
+        return null;
+      }
+      for (var part : type.getTypeQualifier().getParts()) {
+        if (part instanceof StorageQualifier storageQualifier
+            && storageQualifier.getStorageType() == StorageQualifier.StorageType.CONST) {
+          return specifier.getType();
+        }
+      }
+      return null;
+    }
+
+    void propagate(DeclarationMember member, Constant value) {
+      var type = getConstType(member);
+      if (type == null || (value = value.convert(type)) == null) {
+        return;
+      }
+      for (var reference : new ArrayList<>(root.getSymbolIndex().getReferences(member))) {
+        if (reference.getParent() instanceof ReferenceExpression expression) {
+          replace(expression, value);
+        }
+      }
+    }
+
+    void prune(SelectionStatement selection, Constant condition) {
+      if (condition.numberType() != NumberType.BOOLEAN) {
+        return;
+      }
+      var taken = condition.booleanValue() ? selection.getIfTrue() : selection.getIfFalse();
+      if (taken == null) {
+        if (selection.getParent() instanceof CompoundStatement) {
+          selection.detachAndDelete();
+        } else {
+          selection.replaceByAndDelete(root.indexNodes(EmptyStatement::new));
+        }
+        return;
+      }
+      taken.detach();
+      ASTNode replacement = taken;
+      if (taken instanceof DeclarationStatement) {
+        // the declaration must not become visible outside the branch
+        replacement = root.indexNodes(() -> new CompoundStatement(Stream.of(taken)));
+      }
+      selection.replaceByAndDelete(replacement);
+    }
+  }
+}
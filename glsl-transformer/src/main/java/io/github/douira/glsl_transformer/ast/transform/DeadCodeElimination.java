@@ -0,0 +1,311 @@
+package io.github.douira.glsl_transformer.ast.transform;
+
+import java.util.*;
+import java.util.function.*;
+
+import io.github.douira.glsl_transformer.ast.node.*;
+import io.github.douira.glsl_transformer.ast.node.abstract_node.ASTNode;
+import io.github.douira.glsl_transformer.ast.node.declaration.*;
+import io.github.douira.glsl_transformer.ast.node.expression.unary.FunctionCallExpression;
+import io.github.douira.glsl_transformer.ast.node.external_declaration.*;
+import io.github.douira.glsl_transformer.ast.node.type.qualifier.StorageQualifier;
+import io.github.douira.glsl_transformer.ast.node.type.specifier.*;
+import io.github.douira.glsl_transformer.ast.node.type.struct.StructSpecifier;
+import io.github.douira.glsl_transformer.ast.query.Root;
+import io.github.douira.glsl_transformer.ast.query.index.*;
+import io.github.douira.glsl_transformer.ast.traversal.NodeKindWalker;
+
+/**
+ * A transformation that removes code that doesn't contribute to the shader.
+ * It can be used as the transformation of a {@link SingleASTTransformer} or
+ * called from within any other transformation. The following is removed:
+ *
+ * - Function definitions that are not reachable from the entry point function.
+ * If there is no entry point function, no functions are removed. Functions
+ * called from global initializers are treated as additional entry points. A
+ * call that matches multiple overloads with the same number of parameters
+ * keeps all of them.
+ * - Function prototypes without a remaining definition of the same overload
+ * - Members of global declarations that are never referenced and declarations
+ * that don't declare anything anymore
+ * - Interface blocks whose members or instance name are never referenced
+ * - Struct declarations whose type is never referenced
+ *
+ * The call graph and symbol indexes of the root are used to find unused code.
+ * After an initial pass over the external declarations, only the declarations
+ * that were referenced by removed code are checked again, so the cost of
+ * reaching the fixpoint is proportional to the amount of removed code.
+ *
+ * The root needs to have a node index and an identifier index.
+ */
+public class DeadCodeElimination implements BiConsumer<TranslationUnit, Root> {
+  /**
+   * Keeps declarations that are part of the interface of the shader stage which
+   * are inputs, outputs, uniforms and buffers. Removing unused inputs and
+   * outputs can break linking with other stages.
+   */
+  public static final Predicate<DeclarationExternalDeclaration> KEEP_INTERFACE = declaration -> {
+    var qualifier = declaration.getDeclaration() instanceof InterfaceBlockDeclaration block
+        ? block.getTypeQualifier()
+        : declaration.getDeclaration() instanceof TypeAndInitDeclaration typeAndInit
+            ? typeAndInit.getType().getTypeQualifier()
+            : null;
+    if (qualifier == null) {
+      return false;
+    }
+    for (var part : qualifier.getParts()) {
+      if (part instanceof StorageQualifier storageQualifier) {
+        switch (storageQualifier.getStorageType()) {
+          case IN, OUT, INOUT, UNIFORM, BUFFER, VARYING, ATTRIBUTE:
+            return true;
+          default:
+            break;
+        }
+      }
+    }
+    return false;
+  };
+
+  private final String entryPointName;
+  private final Predicate<DeclarationExternalDeclaration> keep;
+
+  /**
+   * Creates a dead code elimination that uses "main" as the entry point and
+   * removes all unused declarations.
+   */
+  public DeadCodeElimination() {
+    this("main", declaration -> false);
+  }
+
+  /**
+   * Creates a dead code elimination with the given entry point and a predicate
+   * for global declarations that should be kept even if they're unused.
+   *
+   * @param entryPointName the name of the entry point function
+   * @param keep           returns true for declarations that must not be
+   *                       removed
+   */
+  public DeadCodeElimination(String entryPointName, Predicate<DeclarationExternalDeclaration> keep) {
+    this.entryPointName = entryPointName;
+    this.keep = keep;
+  }
+
+  @Override
+  public void accept(TranslationUnit tree, Root root) {
+    new Pass(tree, root).run();
+  }
+
+  /**
+   * Removes dead code from the given tree using the default settings.
+   *
+   * @param tree the translation unit to process
+   * @param root the root of the translation unit
+   */
+  public static void apply(TranslationUnit tree, Root root) {
+    new DeadCodeElimination().accept(tree, root);
+  }
+
+  private class Pass {
+    final TranslationUnit tree;
+    final Root root;
+    final SymbolIndex symbolIndex;
+    final CallGraphIndex callGraph;
+    final Deque<DeclarationExternalDeclaration> worklist = new ArrayDeque<>();
+    final Set<DeclarationExternalDeclaration> queued = new HashSet<>();
+    final NodeKindWalker dependencyCollector;
+    boolean removedCalls;
+
+    Pass(TranslationUnit tree, Root root) {
+      this.tree = tree;
+      this.root = root;
+      symbolIndex = root.getSymbolIndex();
+      callGraph = root.getCallGraphIndex();
+      dependencyCollector = new NodeKindWalker()
+          .on(Identifier.class, this::collectDependency)
+          .on(FunctionCallExpression.class, call -> removedCalls = true);
+    }
+
+    void run() {
+      for (var child : tree.getChildren()) {
+        if (child instanceof DeclarationExternalDeclaration declaration) {
+          enqueue(declaration);
+        }
+      }
+      do {
+        removedCalls = false;
+        removeFunctions();
+        removeDeclarations();
+        // removed global initializers may have been the only users of a function
+      } while (removedCalls);
+    }
+
+    void enqueue(DeclarationExternalDeclaration declaration) {
+      if (declaration != null && queued.add(declaration)) {
+        worklist.add(declaration);
+      }
+    }
+
+    void enqueueStruct(String name) {
+      for (var identifier : root.identifierIndex.get(name)) {
+        if (identifier.getParent() instanceof StructSpecifier) {
+          enqueue(identifier.getAncestor(DeclarationExternalDeclaration.class));
+        }
+      }
+    }
+
+    /**
+     * Queues the global declarations that the identifier depends on since they
+     * may become unused when the identifier is removed.
+     */
+    void collectDependency(Identifier identifier) {
+      if (identifier.getParent() instanceof TypeReference) {
+        enqueueStruct(identifier.getName());
+      } else if (SymbolIndex.isReference(identifier)) {
+        var declaration = symbolIndex.getDeclaration(identifier);
+        if (declaration != null && !(declaration instanceof FunctionDefinition)
+            && SymbolIndex.isGlobal(declaration)) {
+          enqueue(declaration.getAncestor(DeclarationExternalDeclaration.class));
+        } else if (identifier.getParent() instanceof FunctionCallExpression) {
+          // constructor calls of structs
+          enqueueStruct(identifier.getName());
+        }
+      }
+    }
+
+    void remove(ASTNode node) {
+      // dependencies have to be resolved while the node is still in the tree
+      dependencyCollector.walk(node);
+      node.detachAndDelete();
+    }
+
+    boolean isReferencedOutsideFunctions(FunctionDefinition function) {
+      // ambiguous calls don't resolve but may call any of their candidates
+      var name = function.getFunctionPrototype().getName().getName();
+      for (var identifier : root.identifierIndex.get(name)) {
+        if (identifier.getParent() instanceof FunctionCallExpression call
+            && call.getFunctionName() == identifier
+            && !call.hasAncestor(FunctionDefinition.class)
+            && symbolIndex.getCandidateDefinitions(call).contains(function)) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    void removeFunctions() {
+      if (symbolIndex.getFunctionDefinitions(entryPointName).isEmpty()) {
+        return;
+      }
+      var unreachable = callGraph.getUnreachable(entryPointName);
+      if (unreachable.isEmpty()) {
+        return;
+      }
+      Set<FunctionDefinition> reachable = null;
+      for (var function : unreachable) {
+        if (isReferencedOutsideFunctions(function)) {
+          if (reachable == null) {
+            reachable = new HashSet<>();
+          }
+          reachable.addAll(callGraph.getReachable(function));
+        }
+      }
+      var removedNames = new HashSet<String>();
+      for (var function : unreachable) {
+        if (reachable == null || !reachable.contains(function)) {
+          removedNames.add(function.getFunctionPrototype().getName().getName());
+          remove(function);
+        }
+      }
+      removedCalls = false;
+
+      // remove prototypes of removed functions
+      for (var name : removedNames) {
+        var definitions = symbolIndex.getFunctionDefinitions(name);
+        for (var identifier : new ArrayList<>(root.identifierIndex.get(name))) {
+          if (identifier.getParent() instanceof FunctionPrototype prototype
+              && prototype.getParent() instanceof FunctionDeclaration declaration
+              && declaration.getParent() instanceof DeclarationExternalDeclaration externalDeclaration
+              && !hasOverload(definitions, SymbolIndex.getParameterCount(prototype))) {
+            queued.remove(externalDeclaration);
+            remove(externalDeclaration);
+          }
+        }
+      }
+    }
+
+    boolean hasOverload(List<FunctionDefinition> definitions, int parameterCount) {
+      for (var definition : definitions) {
+        if (SymbolIndex.getParameterCount(definition.getFunctionPrototype()) == parameterCount) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    boolean isStructUsed(StructSpecifier struct) {
+      var name = struct.getName();
+      if (name == null) {
+        return false;
+      }
+      for (var identifier : root.identifierIndex.get(name.getName())) {
+        if (identifier != name) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    void removeDeclarations() {
+      while (!worklist.isEmpty()) {
+        var externalDeclaration = worklist.poll();
+        queued.remove(externalDeclaration);
+        if (externalDeclaration.getParent() != tree || keep.test(externalDeclaration)) {
+          continue;
+        }
+        var declaration = externalDeclaration.getDeclaration();
+        if (declaration instanceof TypeAndInitDeclaration typeAndInit) {
+          processTypeAndInit(externalDeclaration, typeAndInit);
+        } else if (declaration instanceof InterfaceBlockDeclaration block) {
+          if (!isBlockUsed(block)) {
+            remove(externalDeclaration);
+          }
+        }
+      }
+    }
+
+    void processTypeAndInit(
+        DeclarationExternalDeclaration externalDeclaration,
+        TypeAndInitDeclaration declaration) {
+      var members = declaration.getMembers();
+      var unused = new ArrayList<DeclarationMember>();
+      for (var member : members) {
+        if (symbolIndex.getReferences(member).isEmpty()) {
+          unused.add(member);
+        }
+      }
+      if (unused.size() < members.size()) {
+        unused.forEach(this::remove);
+      } else if (declaration.getType().getTypeSpecifier() instanceof StructSpecifier struct
+          && isStructUsed(struct)) {
+        // the struct type declaration has to stay even without members
+        unused.forEach(this::remove);
+      } else {
+        remove(externalDeclaration);
+      }
+    }
+
+    boolean isBlockUsed(InterfaceBlockDeclaration block) {
+      if (block.getVariableName() != null) {
+        return !symbolIndex.getReferences(block).isEmpty();
+      }
+      for (var member : block.getStructBody().getMembers()) {
+        for (var declarator : member.getDeclarators()) {
+          if (!symbolIndex.getReferences(declarator).isEmpty()) {
+            return true;
+          }
+        }
+      }
+      return false;
+    }
+  }
+}
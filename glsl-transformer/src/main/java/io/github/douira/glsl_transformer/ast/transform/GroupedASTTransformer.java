@@ -1,6 +1,6 @@
 package io.github.douira.glsl_transformer.ast.transform;
 
-import java.util.Map;
+import java.util.*;
 import java.util.function.*;
 
 import io.github.douira.glsl_transformer.ast.node.TranslationUnit;
@@ -50,37 +50,81 @@ public class GroupedASTTransformer<J extends JobParameters, K, M extends Map<K,
 
   public void setTransformation(Consumer<N> transformation) {
     this.transformation = transformation;
+    clearResultCache();
   }
 
   public void setTransformation(BiConsumer<N, J> transformation) {
     this.transformation = trees -> transformation.accept(trees, getJobParameters());
+    clearResultCache();
   }
 
   public void setTuMapSupplier(Supplier<N> tuMapSupplier) {
     this.tuMapSupplier = tuMapSupplier;
+    clearResultCache();
   }
 
   public void setResultMapSupplier(Supplier<M> resultMapSupplier) {
     this.resultMapSupplier = resultMapSupplier;
+    clearResultCache();
+  }
+
+  @Override
+  protected Map<K, String> copyCachedValue(Map<K, String> value) {
+    var copy = resultMapSupplier.get();
+    copy.putAll(value);
+    return copy;
+  }
+
+  @Override
+  protected long getCacheWeight(Map<K, String> input, Map<K, String> output) {
+    long weight = 0;
+    for (var value : input.values()) {
+      weight += value == null ? 0 : value.length();
+    }
+    for (var value : output.values()) {
+      weight += value == null ? 0 : value.length();
+    }
+    return weight;
+  }
+
+  private record ParsedItem(String input, int modificationCount) {
   }
 
   @Override
   public M transform(RootSupplier rootSupplier, Map<K, String> items) {
-    // parse all items
+    // parse all items and remember the input and modification count of each tree
+    // to detect unmodified items
     var translationUnits = tuMapSupplier.get();
+    var parsedItems = new IdentityHashMap<TranslationUnit, ParsedItem>();
     for (var entry : items.entrySet()) {
       var value = entry.getValue();
-      translationUnits.put(entry.getKey(), value == null ? null : parseTranslationUnit(rootSupplier, value));
+      if (value == null) {
+        translationUnits.put(entry.getKey(), null);
+      } else {
+        var translationUnit = parseTranslationUnit(rootSupplier, value);
+        translationUnits.put(entry.getKey(), translationUnit);
+        parsedItems.put(translationUnit,
+            new ParsedItem(value, translationUnit.getRoot().getModificationCount()));
+      }
     }
 
     // transform them all at once
     transformation.accept(translationUnits);
 
-    // print all items
+    // print all items, unmodified items are passed through
     var printedItems = resultMapSupplier.get();
     for (var entry : translationUnits.entrySet()) {
       var value = entry.getValue();
-      printedItems.put(entry.getKey(), value == null ? null : ASTPrinter.print(getPrintType(), value));
+      String printed;
+      if (value == null) {
+        printed = null;
+      } else {
+        var parsedItem = parsedItems.get(value);
+        printed = parsedItem != null && isUnmodified(value, parsedItem.modificationCount())
+            ? parsedItem.input()
+            : ASTPrinter.print(getPrintType(), value);
+      }
+      printedItems.put(entry.getKey(), printed);
     }
     return printedItems;
   }
@@ -0,0 +1,270 @@
+package io.github.douira.glsl_transformer.ast.transform;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+
+import io.github.douira.glsl_transformer.ast.node.TranslationUnit;
+import io.github.douira.glsl_transformer.ast.node.abstract_node.*;
+import io.github.douira.glsl_transformer.ast.query.Root;
+import io.github.douira.glsl_transformer.ast.query.match.*;
+import io.github.douira.glsl_transformer.ast.traversal.ASTKindVoidVisitor;
+
+/**
+ * Applies a set of rewrite rules until none of them matches anymore. Each rule
+ * consists of a matcher and a rewrite that creates the replacement of the
+ * matched node, either with a function or by instantiating a template.
+ *
+ * Replacing the matches of each rule with
+ * {@link Root#replaceExpressionMatches(ASTParser, HintedMatcher, String)} scans
+ * the candidates of each rule separately and has to be repeated until nothing
+ * changes if the replacements of one rule can be matched by another rule. The
+ * rewrite engine indexes the rules by the class of the root of their pattern so
+ * that each node is only matched against the rules that can match it. The
+ * candidates of hinted matchers are taken from the identifier index and the
+ * candidates of other matchers from the node index. After that, only the nodes
+ * that are near a rewrite are examined again: the nodes of the replacement and
+ * its ancestors.
+ *
+ * The rules are tried in the order in which they were added and the first rule
+ * that rewrites a node wins. Rules that keep rewriting each other's results
+ * never reach a fixpoint. A {@link TransformationException} is thrown if the
+ * rewrite limit is exceeded. The root of the rewritten tree can't be replaced
+ * which is why template rules are not applied to it and a rewrite that returns
+ * a replacement for it causes an exception.
+ */
+public class RewriteEngine implements BiConsumer<TranslationUnit, Root> {
+  private final Map<Class<?>, List<Rule<?>>> rulesByClass = new HashMap<>();
+  private final List<Rule<?>> wildcardRules = new ArrayList<>();
+  private final List<Rule<?>> rules = new ArrayList<>();
+  private int rewriteLimit = 100000;
+
+  /**
+   * Creates the replacement of a matched node.
+   */
+  @FunctionalInterface
+  public interface Rewrite<N extends ASTNode> {
+    /**
+     * Rewrites the matched node. The returned node replaces the matched node.
+     * Descendants of the matched node that are used in the replacement are
+     * detached automatically. If the matched node was changed in place, it
+     * should be returned itself. The rule didn't apply if null is returned.
+     *
+     * @param node  the matched node
+     * @param match the wildcard matches of the matched node
+     * @return the replacement, the node itself or null
+     */
+    ASTNode rewrite(N node, MatchResult match);
+  }
+
+  private record Rule<N extends ASTNode>(
+      Matcher<N> matcher, Rewrite<? super N> rewrite, int order, boolean replacing) {
+    @SuppressWarnings("unchecked")
+    boolean matches(ASTNode node, MatchResult match) {
+      return matcher.matchesExtract((N) node, match);
+    }
+
+    @SuppressWarnings("unchecked")
+    ASTNode apply(ASTNode node, MatchResult match) {
+      return rewrite.rewrite((N) node, match);
+    }
+  }
+
+  /**
+   * Adds a rule that replaces the nodes matched by the given matcher with the
+   * node created by the given rewrite.
+   *
+   * @param <N>     the type of the matched nodes
+   * @param matcher the matcher that selects the nodes to rewrite
+   * @param rewrite the rewrite that creates the replacement
+   * @return this rewrite engine
+   */
+  public <N extends ASTNode> RewriteEngine addRule(Matcher<N> matcher, Rewrite<? super N> rewrite) {
+    return addRule(matcher, rewrite, false);
+  }
+
+  private <N extends ASTNode> RewriteEngine addRule(
+      Matcher<N> matcher, Rewrite<? super N> rewrite, boolean replacing) {
+    var rule = new Rule<>(matcher, rewrite, rules.size(), replacing);
+    rules.add(rule);
+    var rootClass = matcher.getRootClass();
+    if (rootClass == null) {
+      wildcardRules.add(rule);
+    } else {
+      rulesByClass.computeIfAbsent(rootClass, key -> new ArrayList<>()).add(rule);
+    }
+    return this;
+  }
+
+  /**
+   * Adds a rule that replaces the nodes matched by the given matcher with an
+   * instance of the given template. The nodes matched by the given node
+   * wildcards are used as the local replacements of the template in the given
+   * order. The rule is not applied to the root of the rewritten tree since it
+   * always replaces the matched node.
+   *
+   * @param <N>           the type of the matched nodes
+   * @param matcher       the matcher that selects the nodes to rewrite
+   * @param template      the template of the replacement
+   * @param nodeWildcards the names of the node wildcards that supply the local
+   *                      replacements of the template
+   * @return this rewrite engine
+   */
+  public <N extends ASTNode> RewriteEngine addRule(
+      Matcher<N> matcher, Template<? extends ASTNode> template, String... nodeWildcards) {
+    return addRule(matcher, (node, match) -> {
+      var localReplacements = new ArrayList<ASTNode>(nodeWildcards.length);
+      for (var name : nodeWildcards) {
+        var replacement = match.getNodeMatch(name);
+        if (replacement == null) {
+          throw new TransformationException("The node wildcard " + name + " was not matched");
+        }
+        replacement.detach();
+        localReplacements.add(replacement);
+      }
+      return template.getInstanceFor(node.getRoot(), localReplacements);
+    }, true);
+  }
+
+  public int size() {
+    return rules.size();
+  }
+
+  public int getRewriteLimit() {
+    return rewriteLimit;
+  }
+
+  /**
+   * Sets the number of rewrites after which applying the rules is aborted.
+   *
+   * @param rewriteLimit the maximum number of rewrites
+   */
+  public void setRewriteLimit(int rewriteLimit) {
+    this.rewriteLimit = rewriteLimit;
+  }
+
+  @Override
+  public void accept(TranslationUnit tree, Root root) {
+    apply(tree);
+  }
+
+  /**
+   * Applies the rules to the given tree until none of them matches anymore.
+   *
+   * @param tree the tree to rewrite
+   * @return the number of rewrites that were done
+   */
+  public int apply(ASTNode tree) {
+    return new Pass(tree).run();
+  }
+
+  private class Pass {
+    final ASTNode tree;
+    final Root root;
+    final MatchResult match = new MatchResult();
+    final Deque<ASTNode> worklist = new ArrayDeque<>();
+    final Set<ASTNode> queued = Collections.newSetFromMap(new IdentityHashMap<>());
+    final ASTKindVoidVisitor subtreeEnqueuer = new ASTKindVoidVisitor() {
+      @Override
+      public void visitVoid(ASTNode node) {
+        enqueue(node);
+      }
+    };
+    int rewrites = 0;
+
+    Pass(ASTNode tree) {
+      this.tree = tree;
+      this.root = tree.getRoot();
+    }
+
+    void enqueue(ASTNode node) {
+      if (node != null && queued.add(node)) {
+        worklist.add(node);
+      }
+    }
+
+    void enqueueCandidates() {
+      if (!wildcardRules.isEmpty()) {
+        subtreeEnqueuer.visit(tree);
+        return;
+      }
+      for (var rule : rules) {
+        if (rule.matcher() instanceof HintedMatcher<?> hintedMatcher) {
+          var matchClass = hintedMatcher.getPatternClass();
+          hintedMatcher.getCandidates(root)
+              .map(node -> node.getAncestor(matchClass))
+              .forEach(this::enqueue);
+        } else {
+          root.nodeIndex.getStream(rule.matcher().getRootClass()).forEach(this::enqueue);
+        }
+      }
+    }
+
+    int run() {
+      if (rules.isEmpty()) {
+        return 0;
+      }
+      enqueueCandidates();
+      while (!worklist.isEmpty()) {
+        var node = worklist.poll();
+        queued.remove(node);
+        // the node may have been removed or belong to a different tree
+        if (node.hasAncestor(tree)) {
+          process(node);
+        }
+      }
+      return rewrites;
+    }
+
+    void process(ASTNode node) {
+      var classRules = rulesByClass.getOrDefault(node.getClass(), Collections.emptyList());
+      // merge the two lists of rules to try them in the order they were added
+      var classIndex = 0;
+      var wildcardIndex = 0;
+      while (classIndex < classRules.size() || wildcardIndex < wildcardRules.size()) {
+        Rule<?> rule;
+        if (wildcardIndex >= wildcardRules.size()
+            || classIndex < classRules.size()
+                && classRules.get(classIndex).order() < wildcardRules.get(wildcardIndex).order()) {
+          rule = classRules.get(classIndex++);
+        } else {
+          rule = wildcardRules.get(wildcardIndex++);
+        }
+        if (tryRule(rule, node)) {
+          return;
+        }
+      }
+    }
+
+    boolean tryRule(Rule<?> rule, ASTNode node) {
+      // checked before applying since applying may already have detached parts
+      if (rule.replacing() && node == tree || !rule.matches(node, match)) {
+        return false;
+      }
+      var replacement = rule.apply(node, match);
+      if (replacement == null) {
+        return false;
+      }
+      if (++rewrites > rewriteLimit) {
+        throw new TransformationException(
+            "The rewrite rules didn't reach a fixpoint after " + rewriteLimit + " rewrites");
+      }
+
+      if (replacement != node) {
+        // parts of the matched node that are reused must not be deleted with it
+        if (replacement.getParent() != null) {
+          replacement.detach();
+        }
+        if (node == tree || !node.replaceByAndDelete(replacement)) {
+          throw new TransformationException("The root of the rewritten tree can't be replaced");
+        }
+      }
+
+      // the new nodes and the nodes containing them may match now
+      subtreeEnqueuer.visit(replacement);
+      for (var ancestor = replacement.getParent(); ancestor != null; ancestor = ancestor.getParent()) {
+        enqueue(ancestor);
+      }
+      return true;
+    }
+  }
+}
@@ -3,7 +3,7 @@ package io.github.douira.glsl_transformer.ast.transform;
 import java.util.function.*;
 
 import io.github.douira.glsl_transformer.ast.node.TranslationUnit;
-import io.github.douira.glsl_transformer.ast.print.ASTPrinter;
+import io.github.douira.glsl_transformer.ast.print.*;
 import io.github.douira.glsl_transformer.ast.query.*;
 import io.github.douira.glsl_transformer.util.TriConsumer;
 
@@ -37,14 +37,17 @@ public class SingleASTTransformer<J extends JobParameters> extends ASTTransforme
 
   public void setTransformation(Consumer<TranslationUnit> transformation) {
     this.transformation = transformation;
+    clearResultCache();
   }
 
   public void setTransformation(BiConsumer<TranslationUnit, Root> transformation) {
     this.transformation = wrapTransformation(this, transformation);
+    clearResultCache();
   }
 
   public void setTransformation(TriConsumer<TranslationUnit, Root, J> transformation) {
     this.transformation = wrapTransformation(this, transformation);
+    clearResultCache();
   }
 
   public static <T, R> Consumer<TranslationUnit> wrapTransformation(ParameterizedTransformer<T, R> transformer,
@@ -63,10 +66,43 @@ public class SingleASTTransformer<J extends JobParameters> extends ASTTransforme
         translationUnit.getRoot());
   }
 
+  @Override
+  protected long getCacheWeight(String input, String output) {
+    return (long) input.length() + output.length();
+  }
+
   @Override
   public String transform(RootSupplier rootSupplier, String str) {
     var translationUnit = parseTranslationUnit(rootSupplier, str);
+    var modificationCount = translationUnit.getRoot().getModificationCount();
     transformation.accept(translationUnit);
+    if (isUnmodified(translationUnit, modificationCount)) {
+      return str;
+    }
     return ASTPrinter.print(getPrintType(), translationUnit);
   }
+
+  /**
+   * Transforms the given string and prints the result into the given sink
+   * instead of returning it as a string.
+   * 
+   * @param <P>  The type of the sink
+   * @param str  The string to transform
+   * @param sink The token processor that receives the printed code
+   * @return The given sink
+   */
+  public <P extends TokenProcessor> P transformInto(String str, P sink) {
+    return transformInto(getRootSupplier(), str, sink);
+  }
+
+  public <P extends TokenProcessor> P transformInto(RootSupplier rootSupplier, String str, P sink) {
+    var translationUnit = parseTranslationUnit(rootSupplier, str);
+    var modificationCount = translationUnit.getRoot().getModificationCount();
+    transformation.accept(translationUnit);
+    if (isUnmodified(translationUnit, modificationCount)) {
+      sink.appendText(str);
+      return sink;
+    }
+    return ASTPrinter.print(getPrintType(), translationUnit, sink);
+  }
 }
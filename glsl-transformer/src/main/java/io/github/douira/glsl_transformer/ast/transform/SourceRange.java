@@ -0,0 +1,46 @@
+package io.github.douira.glsl_transformer.ast.transform;
+
+import org.antlr.v4.runtime.*;
+import org.antlr.v4.runtime.misc.Interval;
+
+/**
+ * Immutable class representing the characters of the parsed source code a node
+ * was built from. The text is only extracted from the input when it's printed
+ * verbatim.
+ */
+public class SourceRange {
+  public final CharStream input;
+  public final int start; // index of the first character
+  public final int stop; // index of the last character, inclusive
+
+  public SourceRange(CharStream input, int start, int stop) {
+    this.input = input;
+    this.start = start;
+    this.stop = stop;
+  }
+
+  /**
+   * Creates the source range that spans the tokens of the given parse tree node.
+   *
+   * @param ctx The parse tree node
+   * @return The source range or null if the node doesn't span any characters
+   */
+  public static SourceRange fromContext(ParserRuleContext ctx) {
+    var startToken = ctx.getStart();
+    var stopToken = ctx.getStop();
+    if (startToken == null || stopToken == null) {
+      return null;
+    }
+    var input = startToken.getInputStream();
+    var start = startToken.getStartIndex();
+    var stop = stopToken.getStopIndex();
+    if (input == null || start < 0 || stop < start) {
+      return null;
+    }
+    return new SourceRange(input, start, stop);
+  }
+
+  public String getText() {
+    return input.getText(Interval.of(start, stop));
+  }
+}
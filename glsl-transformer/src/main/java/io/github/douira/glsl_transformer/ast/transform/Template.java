@@ -8,12 +8,35 @@ import io.github.douira.glsl_transformer.ast.node.expression.Expression;
 import io.github.douira.glsl_transformer.ast.node.external_declaration.ExternalDeclaration;
 import io.github.douira.glsl_transformer.ast.node.statement.Statement;
 import io.github.douira.glsl_transformer.ast.query.*;
+import io.github.douira.glsl_transformer.ast.traversal.ASTKindVoidVisitor;
 import io.github.douira.glsl_transformer.parser.ParseShape;
 
+/**
+ * A template is a tree that is copied into other trees. Marked nodes of the
+ * template are replaced in each instance, either by local replacements that
+ * are passed to the instantiation or by the results of suppliers.
+ * 
+ * The replacements are marked when the template is set up. After that, the
+ * template isn't changed by instantiating it. The local replacements passed to
+ * {@link #getInstanceFor(Root, List)} and its overloads are only used for that
+ * call which means a template can be shared between threads and transformers
+ * as long as the suppliers of its replacements are thread-safe. The older
+ * {@link #supplyLocalReplacements(List)} stores the local replacements in the
+ * template for {@link #getInstanceFor(Root)} and must not be used on shared
+ * templates.
+ */
 public class Template<N extends ASTNode> {
+  private record Instantiation(Template<?> template, List<ASTNode> localReplacements) {
+  }
+
+  // the local replacements of the instantiations running on the current thread
+  private static final ThreadLocal<Instantiation> activeInstantiation = new ThreadLocal<>();
+
   private final Map<ASTNode, Supplier<ASTNode>> replacements = new HashMap<>();
+  private final Map<ASTNode, Integer> localIndexes = new HashMap<>();
   private int localReplacementsMarked = 0;
   private List<ASTNode> localReplacements = Collections.emptyList();
+  private volatile int nodeCount = -1;
   protected final N source;
 
   public Template(N source) {
@@ -28,24 +51,83 @@ public class Template<N extends ASTNode> {
     return source.getRoot();
   }
 
+  private List<ASTNode> getLocalReplacements() {
+    var instantiation = activeInstantiation.get();
+    return instantiation != null && instantiation.template() == this
+        ? instantiation.localReplacements()
+        : localReplacements;
+  }
+
   @SuppressWarnings("unchecked") // the replacements map is always consistent
   public <R> R getReplacement(R original) {
     // correct use of the API should result in the right type here
+    var localIndex = localIndexes.get(original);
+    if (localIndex != null) {
+      return (R) getLocalReplacements().get(localIndex);
+    }
     var replacementSupplier = replacements.get(original);
     return replacementSupplier == null ? null : (R) replacementSupplier.get();
   }
 
+  /**
+   * Compiles this template for repeated instantiation by counting its nodes. The
+   * nodes of each instance created by {@link #getInstanceFor(Root)} are then
+   * registered with the root in bulk after the instance has been constructed,
+   * using a list of the right size. This is worthwhile if the template is
+   * instantiated many times.
+   * 
+   * @return This template
+   */
+  public Template<N> compile() {
+    if (nodeCount < 0) {
+      var counter = new ASTKindVoidVisitor() {
+        int count = 0;
+
+        @Override
+        public void visitVoid(ASTNode node) {
+          count++;
+        }
+      };
+      counter.visit(source);
+      nodeCount = counter.count;
+    }
+    return this;
+  }
+
+  public boolean isCompiled() {
+    return nodeCount >= 0;
+  }
+
   @SuppressWarnings("unchecked") // all ASTNodes clone themselves with the right type
-  public N getInstanceFor(Root root) {
+  private N instantiate(Root root) {
+    var nodeCount = this.nodeCount;
+    if (nodeCount >= 0) {
+      return root.indexNodesInBulk(() -> ASTNode.clone(source), nodeCount);
+    }
     return (N) source.cloneInto(root);
   }
 
-  public void supplyLocalReplacements(List<ASTNode> replacements) {
+  /**
+   * Creates an instance of this template in the given root using the local
+   * replacements stored with {@link #supplyLocalReplacements(List)}.
+   * 
+   * @param root The root to create the instance in
+   * @return The instance
+   */
+  public N getInstanceFor(Root root) {
+    return instantiate(root);
+  }
+
+  private void checkLocalReplacements(List<ASTNode> replacements) {
     Objects.requireNonNull(replacements);
     if (replacements.size() < localReplacementsMarked) {
       throw new IllegalStateException(
           "The local replacements must have enough items for all marked nodes in the template.");
     }
+  }
+
+  public void supplyLocalReplacements(List<ASTNode> replacements) {
+    checkLocalReplacements(replacements);
     this.localReplacements = replacements;
   }
 
@@ -59,24 +141,71 @@ public class Template<N extends ASTNode> {
     supplyLocalReplacements(Arrays.asList(replacements));
   }
 
+  /**
+   * Creates an instance of this template in the given root with the given local
+   * replacements. The local replacements are only used for this instance and
+   * aren't stored in the template.
+   * 
+   * @param root              The root to create the instance in
+   * @param localReplacements The replacements of the locally marked nodes in the
+   *                          order in which they were marked
+   * @return The instance
+   */
   public N getInstanceFor(Root root, List<ASTNode> localReplacements) {
-    supplyLocalReplacements(localReplacements);
-    return getInstanceFor(root);
+    checkLocalReplacements(localReplacements);
+    var previous = activeInstantiation.get();
+    activeInstantiation.set(new Instantiation(this, localReplacements));
+    try {
+      return instantiate(root);
+    } finally {
+      activeInstantiation.set(previous);
+    }
+  }
+
+  /**
+   * Creates one instance of this template in the given root for each list of
+   * local replacements. The template is compiled if it hasn't been compiled yet.
+   * The list of new nodes is allocated once with the size of all instances and
+   * the nodes of all instances are registered with the root in one pass after
+   * the last instance has been constructed.
+   *
+   * @param root              The root to create the instances in
+   * @param localReplacements The local replacements of each instance
+   * @return The instances in the order of the given local replacements
+   */
+  @SuppressWarnings("unchecked") // all ASTNodes clone themselves with the right type
+  public List<N> instantiateAll(Root root, List<List<ASTNode>> localReplacements) {
+    Objects.requireNonNull(localReplacements);
+    for (var replacements : localReplacements) {
+      checkLocalReplacements(replacements);
+    }
+    compile();
+    var count = localReplacements.size();
+    var previous = activeInstantiation.get();
+    try {
+      return root.indexSeparateTreesInBulk(count, i -> {
+        activeInstantiation.set(new Instantiation(this, localReplacements.get(i)));
+        return ASTNode.clone(source);
+      }, nodeCount * count);
+    } finally {
+      activeInstantiation.set(previous);
+    }
   }
 
   public N getInstanceFor(Root root, ASTNode localReplacement) {
-    supplyLocalReplacements(localReplacement);
-    return getInstanceFor(root);
+    Objects.requireNonNull(localReplacement);
+    return getInstanceFor(root, Collections.singletonList(localReplacement));
   }
 
   public N getInstanceFor(Root root, ASTNode... localReplacements) {
-    supplyLocalReplacements(localReplacements);
-    return getInstanceFor(root);
+    Objects.requireNonNull(localReplacements);
+    return getInstanceFor(root, Arrays.asList(localReplacements));
   }
 
   public void markLocalReplacement(ASTNode original) {
     final var index = localReplacementsMarked++;
-    markReplacement(original, () -> localReplacements.get(index));
+    markReplacement(original, () -> getLocalReplacements().get(index));
+    localIndexes.put(original, index);
   }
 
   public void markLocalReplacement(String tag, Class<? extends ASTNode> type) {
@@ -95,7 +224,11 @@ public class Template<N extends ASTNode> {
     Objects.requireNonNull(original);
     Objects.requireNonNull(replacement);
     replacements.put(original, replacement);
+    localIndexes.remove(original);
     original.markTemplate(this);
+
+    // instances differ from the template's source text where replacements happen
+    original.markModified();
   }
 
   @SuppressWarnings("unchecked")
@@ -0,0 +1,174 @@
+package io.github.douira.glsl_transformer.ast.transform;
+
+import java.util.*;
+
+/**
+ * Caches the results of a transformer by the input and the job parameters it
+ * was run with. Since job parameters are required to implement {@code equals}
+ * and {@code hashCode}, transforming the same input with equal job parameters
+ * again returns the previously printed output without parsing the input.
+ *
+ * The cache is bounded by the number of entries and by the total weight of the
+ * entries. The weight of an entry is determined by the transformer, usually as
+ * the number of characters in the input and the output. The least recently used
+ * entries are evicted first. Like the transformers, this class isn't thread
+ * safe.
+ *
+ * The transformer that owns the cache clears it when its transformation or its
+ * output settings are changed. The entries don't record which transformer
+ * produced them, which is why a cache can only be used by one transformer at a
+ * time.
+ */
+public class TransformationCache<V> {
+  public static final int DEFAULT_MAX_ENTRIES = 200;
+
+  private final int maxEntries;
+  private final long maxWeight;
+  private final LinkedHashMap<CacheKey<V>, CacheEntry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private long weight = 0;
+  private long hitCount = 0;
+  private long missCount = 0;
+  private long evictionCount = 0;
+  private Object owner;
+
+  private record CacheKey<V>(V input, Object jobParameters) {
+  }
+
+  private record CacheEntry<V>(V output, long weight) {
+  }
+
+  /**
+   * Creates a new cache with bounds on the number of entries and the total
+   * weight.
+   *
+   * @param maxEntries The maximum number of entries
+   * @param maxWeight  The maximum total weight of all entries
+   */
+  public TransformationCache(int maxEntries, long maxWeight) {
+    if (maxEntries < 1 || maxWeight < 1) {
+      throw new IllegalArgumentException("The cache bounds must be positive!");
+    }
+    this.maxEntries = maxEntries;
+    this.maxWeight = maxWeight;
+  }
+
+  public TransformationCache(int maxEntries) {
+    this(maxEntries, Long.MAX_VALUE);
+  }
+
+  public TransformationCache() {
+    this(DEFAULT_MAX_ENTRIES);
+  }
+
+  /**
+   * Makes the given transformer the owner of this cache if it isn't owned by
+   * another transformer yet.
+   *
+   * @param transformer The transformer that wants to use this cache
+   * @return Whether the transformer owns this cache now
+   */
+  boolean claim(Object transformer) {
+    if (owner != null && owner != transformer) {
+      return false;
+    }
+    owner = transformer;
+    return true;
+  }
+
+  /**
+   * Releases this cache if it's owned by the given transformer. The entries are
+   * removed since they were produced by the previous owner.
+   *
+   * @param transformer The transformer that stops using this cache
+   */
+  void release(Object transformer) {
+    if (owner == transformer) {
+      owner = null;
+      clear();
+    }
+  }
+
+  /**
+   * Returns the cached output for the given input and job parameters and records
+   * the lookup as a hit or a miss.
+   *
+   * @param input         The input of the transformer
+   * @param jobParameters The job parameters, may be null
+   * @return The cached output or null if there is none
+   */
+  public V get(V input, Object jobParameters) {
+    var entry = entries.get(new CacheKey<>(input, jobParameters));
+    if (entry == null) {
+      missCount++;
+      return null;
+    }
+    hitCount++;
+    return entry.output();
+  }
+
+  /**
+   * Stores the output for the given input and job parameters. Entries that are
+   * heavier than the maximum weight are not stored. The least recently used
+   * entries are evicted until the cache is within its bounds again.
+   *
+   * @param input         The input of the transformer
+   * @param jobParameters The job parameters, may be null
+   * @param output        The output of the transformer
+   * @param entryWeight   The weight of the new entry
+   */
+  public void put(V input, Object jobParameters, V output, long entryWeight) {
+    if (entryWeight > maxWeight) {
+      return;
+    }
+    var previous = entries.put(new CacheKey<>(input, jobParameters), new CacheEntry<>(output, entryWeight));
+    if (previous != null) {
+      weight -= previous.weight();
+    }
+    weight += entryWeight;
+
+    var iterator = entries.values().iterator();
+    while (entries.size() > maxEntries || weight > maxWeight) {
+      weight -= iterator.next().weight();
+      iterator.remove();
+      evictionCount++;
+    }
+  }
+
+  /**
+   * Removes all entries from the cache. The statistics are kept.
+   */
+  public void clear() {
+    entries.clear();
+    weight = 0;
+  }
+
+  public int size() {
+    return entries.size();
+  }
+
+  public long getWeight() {
+    return weight;
+  }
+
+  public long getHitCount() {
+    return hitCount;
+  }
+
+  public long getMissCount() {
+    return missCount;
+  }
+
+  public long getEvictionCount() {
+    return evictionCount;
+  }
+
+  /**
+   * Returns the fraction of lookups that were hits.
+   *
+   * @return The hit rate or 0 if there were no lookups
+   */
+  public double getHitRate() {
+    var lookups = hitCount + missCount;
+    return lookups == 0 ? 0 : (double) hitCount / lookups;
+  }
+}
@@ -0,0 +1,19 @@
+package io.github.douira.glsl_transformer.ast.traversal;
+
+import io.github.douira.glsl_transformer.ast.node.abstract_node.ASTNode;
+
+/**
+ * A void visitor that visits each node through {@link NodeKindDispatch}
+ * instead of {@link ASTNode#accept(ASTVisitor)}. This skips the visit methods
+ * of the abstract superclasses which makes traversing the whole tree cheaper.
+ * Subclasses must not override the visit methods of abstract node classes
+ * since they are never called.
+ */
+public abstract class ASTKindVoidVisitor extends ASTVoidVisitor {
+  @Override
+  public Void visit(ASTNode node) {
+    visitVoid(node);
+    NodeKindDispatch.dispatch(this, node);
+    return null;
+  }
+}
@@ -30,7 +30,7 @@ public interface ASTVisitor<R> extends GeneralASTVisitor<R> {
   }
 
   default R visitVersionStatement(VersionStatement node) {
-    return visitData(node.profile);
+    return visitData(node.getProfile());
   }
 
   default R visitExternalDeclaration(ExternalDeclaration node) {
@@ -46,16 +46,16 @@ public interface ASTVisitor<R> extends GeneralASTVisitor<R> {
   }
 
   default R visitPragmaDirective(PragmaDirective node) {
-    var result = visitData(node.stdGL);
-    result = visitData(result, node.type);
+    var result = visitData(node.isStdGL());
+    result = visitData(result, node.getType());
     result = visitData(result, node.getCustomName());
-    result = visitData(result, node.option);
-    return visitData(result, node.state);
+    result = visitData(result, node.getOption());
+    return visitData(result, node.getState());
   }
 
   default R visitExtensionDirective(ExtensionDirective node) {
     var result = visitData(superNodeTypeResult(), node.getName());
-    return visitData(result, node.behavior);
+    return visitData(result, node.getBehavior());
   }
 
   default R visitCustomDirective(CustomDirective node) {
@@ -72,7 +72,7 @@ public interface ASTVisitor<R> extends GeneralASTVisitor<R> {
 
   default R visitLayoutDefaults(LayoutDefaults node) {
     var result = visit(node.getQualifier());
-    result = aggregateResult(result, visitData(node.mode));
+    result = aggregateResult(result, visitData(node.getMode()));
     return result;
   }
 
@@ -447,7 +447,7 @@ public interface ASTVisitor<R> extends GeneralASTVisitor<R> {
   }
 
   default R visitInterpolationQualifier(InterpolationQualifier node) {
-    return visitData(node.interpolationType);
+    return visitData(node.getInterpolationType());
   }
 
   default R visitInvariantQualifier(InvariantQualifier node) {
@@ -471,7 +471,7 @@ public interface ASTVisitor<R> extends GeneralASTVisitor<R> {
   }
 
   default R visitPrecisionQualifier(PrecisionQualifier node) {
-    return visitData(node.precisionLevel);
+    return visitData(node.getPrecisionLevel());
   }
 
   default R visitSharedLayoutQualifierPart(SharedLayoutQualifierPart node) {
@@ -480,7 +480,7 @@ public interface ASTVisitor<R> extends GeneralASTVisitor<R> {
 
   default R visitStorageQualifier(StorageQualifier node) {
     var result = visitChildren(node.getTypeNames());
-    return visitData(result, node.storageType);
+    return visitData(result, node.getStorageType());
   }
 
   default R visitTypeQualifier(TypeQualifier node) {
@@ -496,15 +496,15 @@ public interface ASTVisitor<R> extends GeneralASTVisitor<R> {
   }
 
   default R visitPointerSpecifier(PointerSpecifier node) {
-    return visit(node);
+    return visitData(node.getDepth());
   }
 
   default R visitBuiltinFixedTypeSpecifier(BuiltinFixedTypeSpecifier node) {
-    return visitData(node.type);
+    return visitData(node.getType());
   }
 
   default R visitBuiltinNumericTypeSpecifier(BuiltinNumericTypeSpecifier node) {
-    return visitData(node.type);
+    return visitData(node.getType());
   }
 
   default R visitTypeReference(TypeReference node) {
@@ -4,6 +4,7 @@ import io.github.douira.glsl_transformer.ast.node.abstract_node.*;
 
 public class ASTWalker<R> extends ASTBaseVisitor<R> {
   protected ASTListener listener;
+  private ListenerDispatchTable dispatchTable;
 
   protected ASTWalker() {
   }
@@ -31,15 +32,33 @@ public class ASTWalker<R> extends ASTBaseVisitor<R> {
     }
   }
 
+  /**
+   * Returns the table of node kinds that the listener has callbacks for. The
+   * table is looked up again if the listener has been changed to an instance of
+   * a different class.
+   */
+  private ListenerDispatchTable getDispatchTable(ASTListener listener) {
+    var table = dispatchTable;
+    if (table == null || table.listenerClass != listener.getClass()) {
+      table = ListenerDispatchTable.get(listener.getClass());
+      dispatchTable = table;
+    }
+    return table;
+  }
+
   protected void enterNode(ASTListener listener, InnerASTNode node) {
     listener.enterEveryNode(node);
-    node.enterNode(listener);
+    if (getDispatchTable(listener).entersKind(node.getNodeKind())) {
+      node.enterNode(listener);
+    }
     listener.afterEnterEveryNode(node);
   }
 
   protected void exitNode(ASTListener listener, InnerASTNode node) {
     listener.beforeExitEveryNode(node);
-    node.exitNode(listener);
+    if (getDispatchTable(listener).exitsKind(node.getNodeKind())) {
+      node.exitNode(listener);
+    }
     listener.exitEveryNode(node);
   }
 
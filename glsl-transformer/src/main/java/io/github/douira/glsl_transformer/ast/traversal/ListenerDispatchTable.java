@@ -0,0 +1,72 @@
+package io.github.douira.glsl_transformer.ast.traversal;
+
+import io.github.douira.glsl_transformer.ast.node.abstract_node.*;
+
+/**
+ * Records for each kind of node whether a listener class overrides any of the
+ * enter or exit methods that {@link InnerASTNode#enterNode(ASTListener)} and
+ * {@link InnerASTNode#exitNode(ASTListener)} call for that kind. The walker
+ * uses this to skip calling into nodes whose callbacks would all be no-ops.
+ * 
+ * Each node class calls the listener method named after itself, such as
+ * {@code enterAdditionExpression}, and its superclasses do the same. A kind is
+ * only skipped if none of the methods for the class and its superclasses are
+ * overridden. The tables are computed once per listener class.
+ */
+final class ListenerDispatchTable {
+  private static final ClassValue<ListenerDispatchTable> tables = new ClassValue<>() {
+    @Override
+    protected ListenerDispatchTable computeValue(Class<?> type) {
+      return new ListenerDispatchTable(type);
+    }
+  };
+
+  final Class<?> listenerClass;
+  private final boolean[] enters;
+  private final boolean[] exits;
+
+  private ListenerDispatchTable(Class<?> listenerClass) {
+    this.listenerClass = listenerClass;
+    var count = NodeKind.count();
+    enters = new boolean[count];
+    exits = new boolean[count];
+    for (var kind : NodeKind.values()) {
+      if (!kind.isInner()) {
+        continue;
+      }
+      for (Class<?> type = kind.nodeClass; !isBaseClass(type); type = type.getSuperclass()) {
+        enters[kind.ordinal()] |= isOverridden(listenerClass, "enter", type);
+        exits[kind.ordinal()] |= isOverridden(listenerClass, "exit", type);
+      }
+    }
+  }
+
+  static ListenerDispatchTable get(Class<?> listenerClass) {
+    return tables.get(listenerClass);
+  }
+
+  private static boolean isBaseClass(Class<?> type) {
+    return type == null
+        || type == ASTNode.class
+        || type == InnerASTNode.class
+        || type == ListASTNode.class;
+  }
+
+  private static boolean isOverridden(Class<?> listenerClass, String prefix, Class<?> type) {
+    try {
+      var method = listenerClass.getMethod(prefix + type.getSimpleName(), type);
+      return method.getDeclaringClass() != ASTListener.class;
+    } catch (NoSuchMethodException e) {
+      // there is no callback for this class
+      return false;
+    }
+  }
+
+  boolean entersKind(NodeKind kind) {
+    return enters[kind.ordinal()];
+  }
+
+  boolean exitsKind(NodeKind kind) {
+    return exits[kind.ordinal()];
+  }
+}
@@ -0,0 +1,151 @@
+package io.github.douira.glsl_transformer.ast.traversal;
+
+import io.github.douira.glsl_transformer.ast.node.*;
+import io.github.douira.glsl_transformer.ast.node.abstract_node.ASTNode;
+import io.github.douira.glsl_transformer.ast.node.declaration.*;
+import io.github.douira.glsl_transformer.ast.node.expression.*;
+import io.github.douira.glsl_transformer.ast.node.expression.binary.*;
+import io.github.douira.glsl_transformer.ast.node.expression.unary.*;
+import io.github.douira.glsl_transformer.ast.node.external_declaration.*;
+import io.github.douira.glsl_transformer.ast.node.statement.*;
+import io.github.douira.glsl_transformer.ast.node.statement.loop.*;
+import io.github.douira.glsl_transformer.ast.node.statement.selection.*;
+import io.github.douira.glsl_transformer.ast.node.statement.terminal.*;
+import io.github.douira.glsl_transformer.ast.node.type.*;
+import io.github.douira.glsl_transformer.ast.node.type.initializer.*;
+import io.github.douira.glsl_transformer.ast.node.type.qualifier.*;
+import io.github.douira.glsl_transformer.ast.node.type.specifier.*;
+import io.github.douira.glsl_transformer.ast.node.type.struct.*;
+
+/**
+ * Dispatches a visit to the visit method of the concrete class of a node by
+ * switching on the node's kind. Unlike {@link ASTNode#accept(ASTVisitor)},
+ * this doesn't call the visit methods of the abstract superclasses like
+ * {@link ASTVisitor#visitExpression(Expression)} and doesn't aggregate their
+ * results. It is only equivalent to accepting the visitor if the visitor
+ * doesn't override any of those methods.
+ */
+public final class NodeKindDispatch {
+  private NodeKindDispatch() {
+  }
+
+  /**
+   * Calls the visit method of the given visitor for the concrete class of the
+   * given node.
+   * 
+   * @param <R>     the result type of the visitor
+   * @param visitor the visitor to call
+   * @param node    the node to visit
+   * @return the result of the visit method
+   */
+  public static <R> R dispatch(ASTVisitor<R> visitor, ASTNode node) {
+    return switch (node.getNodeKind()) {
+      case IDENTIFIER -> visitor.visitIdentifier((Identifier) node);
+      case ITERATION_CONDITION_INITIALIZER -> visitor.visitIterationConditionInitializer((IterationConditionInitializer) node);
+      case TRANSLATION_UNIT -> visitor.visitTranslationUnit((TranslationUnit) node);
+      case VERSION_STATEMENT -> visitor.visitVersionStatement((VersionStatement) node);
+      case DECLARATION_MEMBER -> visitor.visitDeclarationMember((DeclarationMember) node);
+      case FUNCTION_DECLARATION -> visitor.visitFunctionDeclaration((FunctionDeclaration) node);
+      case FUNCTION_PARAMETER -> visitor.visitFunctionParameter((FunctionParameter) node);
+      case INTERFACE_BLOCK_DECLARATION -> visitor.visitInterfaceBlockDeclaration((InterfaceBlockDeclaration) node);
+      case PRECISION_DECLARATION -> visitor.visitPrecisionDeclaration((PrecisionDeclaration) node);
+      case TYPE_AND_INIT_DECLARATION -> visitor.visitTypeAndInitDeclaration((TypeAndInitDeclaration) node);
+      case VARIABLE_DECLARATION -> visitor.visitVariableDeclaration((VariableDeclaration) node);
+      case CONDITION_EXPRESSION -> visitor.visitConditionExpression((ConditionExpression) node);
+      case LITERAL_EXPRESSION -> visitor.visitLiteralExpression((LiteralExpression) node);
+      case REFERENCE_EXPRESSION -> visitor.visitReferenceExpression((ReferenceExpression) node);
+      case SEQUENCE_EXPRESSION -> visitor.visitSequenceExpression((SequenceExpression) node);
+      case ADDITION_ASSIGNMENT_EXPRESSION -> visitor.visitAdditionAssignmentExpression((AdditionAssignmentExpression) node);
+      case ADDITION_EXPRESSION -> visitor.visitAdditionExpression((AdditionExpression) node);
+      case ARRAY_ACCESS_EXPRESSION -> visitor.visitArrayAccessExpression((ArrayAccessExpression) node);
+      case ASSIGNMENT_EXPRESSION -> visitor.visitAssignmentExpression((AssignmentExpression) node);
+      case BITWISE_AND_ASSIGNMENT_EXPRESSION -> visitor.visitBitwiseAndAssignmentExpression((BitwiseAndAssignmentExpression) node);
+      case BITWISE_AND_EXPRESSION -> visitor.visitBitwiseAndExpression((BitwiseAndExpression) node);
+      case BITWISE_OR_ASSIGNMENT_EXPRESSION -> visitor.visitBitwiseOrAssignmentExpression((BitwiseOrAssignmentExpression) node);
+      case BITWISE_OR_EXPRESSION -> visitor.visitBitwiseOrExpression((BitwiseOrExpression) node);
+      case BITWISE_XOR_ASSIGNMENT_EXPRESSION -> visitor.visitBitwiseXorAssignmentExpression((BitwiseXorAssignmentExpression) node);
+      case BITWISE_XOR_EXPRESSION -> visitor.visitBitwiseXorExpression((BitwiseXorExpression) node);
+      case BOOLEAN_AND_EXPRESSION -> visitor.visitBooleanAndExpression((BooleanAndExpression) node);
+      case BOOLEAN_OR_EXPRESSION -> visitor.visitBooleanOrExpression((BooleanOrExpression) node);
+      case BOOLEAN_XOR_EXPRESSION -> visitor.visitBooleanXorExpression((BooleanXorExpression) node);
+      case DIVISION_ASSIGNMENT_EXPRESSION -> visitor.visitDivisionAssignmentExpression((DivisionAssignmentExpression) node);
+      case DIVISION_EXPRESSION -> visitor.visitDivisionExpression((DivisionExpression) node);
+      case EQUALITY_EXPRESSION -> visitor.visitEqualityExpression((EqualityExpression) node);
+      case GREATER_THAN_EQUAL_EXPRESSION -> visitor.visitGreaterThanEqualExpression((GreaterThanEqualExpression) node);
+      case GREATER_THAN_EXPRESSION -> visitor.visitGreaterThanExpression((GreaterThanExpression) node);
+      case INEQUALITY_EXPRESSION -> visitor.visitInequalityExpression((InequalityExpression) node);
+      case LEFT_SHIFT_ASSIGNMENT_EXPRESSION -> visitor.visitLeftShiftAssignmentExpression((LeftShiftAssignmentExpression) node);
+      case LEFT_SHIFT_EXPRESSION -> visitor.visitLeftShiftExpression((LeftShiftExpression) node);
+      case LESS_THAN_EQUAL_EXPRESSION -> visitor.visitLessThanEqualExpression((LessThanEqualExpression) node);
+      case LESS_THAN_EXPRESSION -> visitor.visitLessThanExpression((LessThanExpression) node);
+      case MODULO_ASSIGNMENT_EXPRESSION -> visitor.visitModuloAssignmentExpression((ModuloAssignmentExpression) node);
+      case MODULO_EXPRESSION -> visitor.visitModuloExpression((ModuloExpression) node);
+      case MULTIPLICATION_ASSIGNMENT_EXPRESSION -> visitor.visitMultiplicationAssignmentExpression((MultiplicationAssignmentExpression) node);
+      case MULTIPLICATION_EXPRESSION -> visitor.visitMultiplicationExpression((MultiplicationExpression) node);
+      case RIGHT_SHIFT_ASSIGNMENT_EXPRESSION -> visitor.visitRightShiftAssignmentExpression((RightShiftAssignmentExpression) node);
+      case RIGHT_SHIFT_EXPRESSION -> visitor.visitRightShiftExpression((RightShiftExpression) node);
+      case SUBTRACTION_ASSIGNMENT_EXPRESSION -> visitor.visitSubtractionAssignmentExpression((SubtractionAssignmentExpression) node);
+      case SUBTRACTION_EXPRESSION -> visitor.visitSubtractionExpression((SubtractionExpression) node);
+      case BITWISE_NOT_EXPRESSION -> visitor.visitBitwiseNotExpression((BitwiseNotExpression) node);
+      case BOOLEAN_NOT_EXPRESSION -> visitor.visitBooleanNotExpression((BooleanNotExpression) node);
+      case DECREMENT_POSTFIX_EXPRESSION -> visitor.visitDecrementPostfixExpression((DecrementPostfixExpression) node);
+      case DECREMENT_PREFIX_EXPRESSION -> visitor.visitDecrementPrefixExpression((DecrementPrefixExpression) node);
+      case FUNCTION_CALL_EXPRESSION -> visitor.visitFunctionCallExpression((FunctionCallExpression) node);
+      case GROUPING_EXPRESSION -> visitor.visitGroupingExpression((GroupingExpression) node);
+      case IDENTITY_EXPRESSION -> visitor.visitIdentityExpression((IdentityExpression) node);
+      case INCREMENT_POSTFIX_EXPRESSION -> visitor.visitIncrementPostfixExpression((IncrementPostfixExpression) node);
+      case INCREMENT_PREFIX_EXPRESSION -> visitor.visitIncrementPrefixExpression((IncrementPrefixExpression) node);
+      case LENGTH_ACCESS_EXPRESSION -> visitor.visitLengthAccessExpression((LengthAccessExpression) node);
+      case MEMBER_ACCESS_EXPRESSION -> visitor.visitMemberAccessExpression((MemberAccessExpression) node);
+      case NEGATION_EXPRESSION -> visitor.visitNegationExpression((NegationExpression) node);
+      case CUSTOM_DIRECTIVE -> visitor.visitCustomDirective((CustomDirective) node);
+      case DECLARATION_EXTERNAL_DECLARATION -> visitor.visitDeclarationExternalDeclaration((DeclarationExternalDeclaration) node);
+      case EMPTY_DECLARATION -> visitor.visitEmptyDeclaration((EmptyDeclaration) node);
+      case EXTENSION_DIRECTIVE -> visitor.visitExtensionDirective((ExtensionDirective) node);
+      case FUNCTION_DEFINITION -> visitor.visitFunctionDefinition((FunctionDefinition) node);
+      case INCLUDE_DIRECTIVE -> visitor.visitIncludeDirective((IncludeDirective) node);
+      case LAYOUT_DEFAULTS -> visitor.visitLayoutDefaults((LayoutDefaults) node);
+      case PRAGMA_DIRECTIVE -> visitor.visitPragmaDirective((PragmaDirective) node);
+      case COMPOUND_STATEMENT -> visitor.visitCompoundStatement((CompoundStatement) node);
+      case DO_WHILE_LOOP_STATEMENT -> visitor.visitDoWhileLoopStatement((DoWhileLoopStatement) node);
+      case FOR_LOOP_STATEMENT -> visitor.visitForLoopStatement((ForLoopStatement) node);
+      case WHILE_LOOP_STATEMENT -> visitor.visitWhileLoopStatement((WhileLoopStatement) node);
+      case SELECTION_STATEMENT -> visitor.visitSelectionStatement((SelectionStatement) node);
+      case SWITCH_STATEMENT -> visitor.visitSwitchStatement((SwitchStatement) node);
+      case BREAK_STATEMENT -> visitor.visitBreakStatement((BreakStatement) node);
+      case CASE_STATEMENT -> visitor.visitCaseStatement((CaseStatement) node);
+      case CONTINUE_STATEMENT -> visitor.visitContinueStatement((ContinueStatement) node);
+      case DECLARATION_STATEMENT -> visitor.visitDeclarationStatement((DeclarationStatement) node);
+      case DEFAULT_STATEMENT -> visitor.visitDefaultStatement((DefaultStatement) node);
+      case DEMOTE_STATEMENT -> visitor.visitDemoteStatement((DemoteStatement) node);
+      case DISCARD_STATEMENT -> visitor.visitDiscardStatement((DiscardStatement) node);
+      case EMPTY_STATEMENT -> visitor.visitEmptyStatement((EmptyStatement) node);
+      case EXPRESSION_STATEMENT -> visitor.visitExpressionStatement((ExpressionStatement) node);
+      case IGNORE_INTERSECTION_STATEMENT -> visitor.visitIgnoreIntersectionStatement((IgnoreIntersectionStatement) node);
+      case RETURN_STATEMENT -> visitor.visitReturnStatement((ReturnStatement) node);
+      case TERMINATE_RAY_STATEMENT -> visitor.visitTerminateRayStatement((TerminateRayStatement) node);
+      case FULLY_SPECIFIED_TYPE -> visitor.visitFullySpecifiedType((FullySpecifiedType) node);
+      case EXPRESSION_INITIALIZER -> visitor.visitExpressionInitializer((ExpressionInitializer) node);
+      case NESTED_INITIALIZER -> visitor.visitNestedInitializer((NestedInitializer) node);
+      case INTERPOLATION_QUALIFIER -> visitor.visitInterpolationQualifier((InterpolationQualifier) node);
+      case INVARIANT_QUALIFIER -> visitor.visitInvariantQualifier((InvariantQualifier) node);
+      case LAYOUT_QUALIFIER -> visitor.visitLayoutQualifier((LayoutQualifier) node);
+      case NAMED_LAYOUT_QUALIFIER_PART -> visitor.visitNamedLayoutQualifierPart((NamedLayoutQualifierPart) node);
+      case PRECISE_QUALIFIER -> visitor.visitPreciseQualifier((PreciseQualifier) node);
+      case PRECISION_QUALIFIER -> visitor.visitPrecisionQualifier((PrecisionQualifier) node);
+      case SHARED_LAYOUT_QUALIFIER_PART -> visitor.visitSharedLayoutQualifierPart((SharedLayoutQualifierPart) node);
+      case STORAGE_QUALIFIER -> visitor.visitStorageQualifier((StorageQualifier) node);
+      case TYPE_QUALIFIER -> visitor.visitTypeQualifier((TypeQualifier) node);
+      case ARRAY_SPECIFIER -> visitor.visitArraySpecifier((ArraySpecifier) node);
+      case BUILTIN_FIXED_TYPE_SPECIFIER -> visitor.visitBuiltinFixedTypeSpecifier((BuiltinFixedTypeSpecifier) node);
+      case BUILTIN_NUMERIC_TYPE_SPECIFIER -> visitor.visitBuiltinNumericTypeSpecifier((BuiltinNumericTypeSpecifier) node);
+      case FUNCTION_PROTOTYPE -> visitor.visitFunctionPrototype((FunctionPrototype) node);
+      case POINTER_SPECIFIER -> visitor.visitPointerSpecifier((PointerSpecifier) node);
+      case TYPE_REFERENCE -> visitor.visitTypeReference((TypeReference) node);
+      case STRUCT_BODY -> visitor.visitStructBody((StructBody) node);
+      case STRUCT_DECLARATOR -> visitor.visitStructDeclarator((StructDeclarator) node);
+      case STRUCT_MEMBER -> visitor.visitStructMember((StructMember) node);
+      case STRUCT_SPECIFIER -> visitor.visitStructSpecifier((StructSpecifier) node);
+    };
+  }
+}
@@ -0,0 +1,73 @@
+package io.github.douira.glsl_transformer.ast.traversal;
+
+import java.util.function.Consumer;
+
+import io.github.douira.glsl_transformer.ast.node.abstract_node.*;
+
+/**
+ * Walks a tree and calls handlers that are registered for specific kinds of
+ * nodes. The handlers are stored in a table indexed by the kind of the node
+ * which means nodes of kinds without a handler only cost a table lookup.
+ * Registering a handler for an abstract class like Expression registers it for
+ * the kinds of all its concrete subclasses.
+ * 
+ * The handlers are called in the same pre-order as {@link ASTVoidVisitor#visitVoid(ASTNode)}.
+ * The tree must not be modified by the handlers.
+ */
+public class NodeKindWalker {
+  @SuppressWarnings("unchecked")
+  private final Consumer<ASTNode>[] handlers = (Consumer<ASTNode>[]) new Consumer<?>[NodeKind.count()];
+
+  private final ASTVoidVisitor visitor = new ASTKindVoidVisitor() {
+    @Override
+    public void visitVoid(ASTNode node) {
+      var handler = handlers[node.getNodeKind().ordinal()];
+      if (handler != null) {
+        handler.accept(node);
+      }
+    }
+  };
+
+  /**
+   * Registers a handler for all kinds of nodes that are instances of the given
+   * class. If a kind already has a handler, the new handler is called after the
+   * existing one.
+   * 
+   * @param <N>     the type of the nodes
+   * @param type    the class of the nodes to handle
+   * @param handler the handler to call for each node of the given type
+   * @return this walker
+   */
+  @SuppressWarnings("unchecked")
+  public <N extends ASTNode> NodeKindWalker on(Class<N> type, Consumer<? super N> handler) {
+    var nodeHandler = (Consumer<ASTNode>) handler;
+    for (var kind : NodeKind.values()) {
+      if (type.isAssignableFrom(kind.nodeClass)) {
+        var existing = handlers[kind.ordinal()];
+        handlers[kind.ordinal()] = existing == null ? nodeHandler : existing.andThen(nodeHandler);
+      }
+    }
+    return this;
+  }
+
+  /**
+   * Checks if a handler is registered for the given kind.
+   * 
+   * @param kind the kind to check
+   * @return true if nodes of the given kind are handled
+   */
+  public boolean handles(NodeKind kind) {
+    return handlers[kind.ordinal()] != null;
+  }
+
+  /**
+   * Walks the given subtree and calls the registered handlers.
+   * 
+   * @param node the root of the subtree to walk
+   */
+  public void walk(ASTNode node) {
+    if (node != null) {
+      visitor.visit(node);
+    }
+  }
+}
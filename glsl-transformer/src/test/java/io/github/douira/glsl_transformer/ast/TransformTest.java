@@ -80,7 +80,7 @@ public class TransformTest extends TestWithSingleASTTransformer {
             if (qualifier == null
                 || qualifier.getChildren().stream().noneMatch(
                     qualifierPart -> qualifierPart instanceof StorageQualifier storageQualifier
-                        && storageQualifier.storageType == StorageType.UNIFORM)) {
+                        && storageQualifier.getStorageType() == StorageType.UNIFORM)) {
               continue;
             }
             uniformDeclarations.add(externalDeclaration);
@@ -194,7 +194,7 @@ public class TransformTest extends TestWithSingleASTTransformer {
 
                 tree.prependMainFunctionBody(initTemplate.getInstanceFor(root,
                     new Identifier(name),
-                    LiteralExpression.getDefaultValue(specifier.type)));
+                    LiteralExpression.getDefaultValue(specifier.getType())));
               }
             }
           });
@@ -330,10 +330,10 @@ public class TransformTest extends TestWithSingleASTTransformer {
           boolean isStruct = false;
           String typeName = null;
           switch (typeSpecifier.getSpecifierType()) {
-            case BUILTIN_NUMERIC -> typeName = ((BuiltinNumericTypeSpecifier) typeSpecifier).type.getMostCompactName();
+            case BUILTIN_NUMERIC -> typeName = ((BuiltinNumericTypeSpecifier) typeSpecifier).getType().getMostCompactName();
             case BULTIN_FIXED ->
               typeName = new ParserToken(
-                  ((BuiltinFixedTypeSpecifier) typeSpecifier).type.tokenType).getContent();
+                  ((BuiltinFixedTypeSpecifier) typeSpecifier).getType().tokenType).getContent();
             case STRUCT -> {
               isStruct = true;
               typeName = ((StructSpecifier) typeSpecifier)
@@ -485,7 +485,7 @@ public class TransformTest extends TestWithSingleASTTransformer {
         for (TypeQualifierPart part : qualifier.getParts()) {
           if (part instanceof StorageQualifier) {
             StorageQualifier storageQualifier = (StorageQualifier) part;
-            if (storageQualifier.storageType == StorageType.OUT) {
+            if (storageQualifier.getStorageType() == StorageType.OUT) {
               hasOutQualifier = true;
             }
           } else if (part instanceof LayoutQualifier) {
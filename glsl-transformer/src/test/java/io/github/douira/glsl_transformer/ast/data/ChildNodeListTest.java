@@ -0,0 +1,137 @@
+package io.github.douira.glsl_transformer.ast.data;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.stream.*;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.douira.glsl_transformer.ast.node.*;
+import io.github.douira.glsl_transformer.ast.node.external_declaration.*;
+import io.github.douira.glsl_transformer.ast.query.*;
+
+/**
+ * Tests replacing and removing the children of a list through their replacers.
+ * Set {@link #benchmark} to true to repeat the removal of half of the children
+ * of a large translation unit enough times for a meaningful measurement.
+ */
+public class ChildNodeListTest {
+  static final boolean benchmark = false;
+  static final int largeSize = 50000;
+
+  private static TranslationUnit createTranslationUnit(int size) {
+    var root = RootSupplier.supplyDefault();
+    return root.indexNodes(() -> new TranslationUnit(
+        IntStream.range(0, size).mapToObj(i -> (ExternalDeclaration) new EmptyDeclaration())));
+  }
+
+  private static void assertParents(TranslationUnit tree) {
+    for (var child : tree.getChildren()) {
+      assertSame(tree, child.getParent());
+    }
+  }
+
+  @Test
+  void testRemoveInOrder() {
+    var tree = createTranslationUnit(100);
+    var children = new ArrayList<>(tree.getChildren());
+    for (var i = 0; i < children.size(); i += 2) {
+      assertTrue(children.get(i).detachAndDelete());
+    }
+    assertEquals(50, tree.getChildren().size());
+    for (var i = 0; i < 50; i++) {
+      assertSame(children.get(i * 2 + 1), tree.getChildren().get(i),
+          "It should remove the right children when the slots are stale");
+    }
+    assertParents(tree);
+  }
+
+  @Test
+  void testRemoveInReverseOrder() {
+    var tree = createTranslationUnit(100);
+    var children = new ArrayList<>(tree.getChildren());
+    for (var i = children.size() - 1; i >= 0; i -= 2) {
+      assertTrue(children.get(i).detachAndDelete());
+    }
+    assertEquals(50, tree.getChildren().size());
+    for (var i = 0; i < 50; i++) {
+      assertSame(children.get(i * 2), tree.getChildren().get(i));
+    }
+    assertParents(tree);
+  }
+
+  @Test
+  void testReplaceAfterChanges() {
+    var tree = createTranslationUnit(10);
+    var list = tree.getChildren();
+    var children = new ArrayList<>(list);
+    var root = tree.getRoot();
+    list.add(0, root.indexNodes(() -> new EmptyDeclaration()));
+    list.sort(Comparator.comparingInt(children::indexOf).reversed());
+    list.removeIf(child -> child == children.get(3));
+
+    var replacement = root.indexNodes(() -> new EmptyDeclaration());
+    assertTrue(children.get(5).replaceBy(replacement));
+    assertSame(replacement, list.get(4),
+        "It should find children after changes that don't update the slots");
+    assertNull(children.get(5).getParent());
+    assertTrue(children.get(6).detach());
+    assertFalse(list.contains(children.get(6)));
+    assertEquals(9, list.size());
+    assertParents(tree);
+  }
+
+  @Test
+  void testAccessAfterRemoval() {
+    var tree = createTranslationUnit(6);
+    var list = tree.getChildren();
+    var children = new ArrayList<>(list);
+    assertTrue(children.get(1).detach());
+    assertTrue(children.get(5).detach());
+    var replacement = tree.getRoot().indexNodes(() -> new EmptyDeclaration());
+    assertTrue(children.get(3).replaceBy(replacement),
+        "It should replace children after removed ones");
+    var expected = List.of(children.get(0), children.get(2), replacement, children.get(4));
+    assertEquals(expected, list, "It should not expose removed children");
+    assertEquals(expected, list.stream().toList());
+    assertArrayEquals(expected.toArray(), list.toArray());
+    assertSame(children.get(4), list.getLast());
+    assertEquals(2, list.indexOf(replacement));
+    assertFalse(list.contains(children.get(1)));
+    assertEquals(expected.subList(1, 3), list.subList(1, 3));
+
+    var iterator = list.iterator();
+    iterator.next();
+    children.get(2).detach();
+    assertThrows(ConcurrentModificationException.class, iterator::next,
+        "It should detect removals during iteration");
+    assertEquals(3, list.size());
+    assertParents(tree);
+  }
+
+  private static Duration removeHalf(TranslationUnit tree) {
+    var children = List.copyOf(tree.getChildren());
+    var start = System.nanoTime();
+    for (var i = 0; i < children.size(); i += 2) {
+      children.get(i).detachAndDelete();
+    }
+    return Duration.ofNanos(System.nanoTime() - start);
+  }
+
+  @Test
+  void testRemoveHalfPerformance() {
+    var repetitions = benchmark ? 20 : 1;
+    var total = Duration.ZERO;
+    TranslationUnit tree = null;
+    for (var i = 0; i < repetitions; i++) {
+      tree = createTranslationUnit(largeSize);
+      total = total.plus(removeHalf(tree));
+    }
+    System.out.println("removing half of " + largeSize + " children: "
+        + total.dividedBy(repetitions));
+    assertEquals(largeSize / 2, tree.getChildren().size());
+    assertEquals(largeSize / 2, tree.getRoot().nodeIndex.get(EmptyDeclaration.class).size());
+  }
+}
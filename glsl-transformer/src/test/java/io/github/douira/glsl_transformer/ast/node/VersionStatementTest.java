@@ -13,8 +13,8 @@ public class VersionStatementTest extends TestWithSingleASTTransformer {
       var tu = p.parseTranslationUnit(root, ";");
       tu.ensureVersionStatement();
       assertNotNull(tu.versionStatement);
-      assertNull(tu.versionStatement.profile);
-      assertEquals(Version.GLSL11, tu.versionStatement.version);
+      assertNull(tu.versionStatement.getProfile());
+      assertEquals(Version.GLSL11, tu.versionStatement.getVersion());
     });
   }
 
@@ -31,8 +31,8 @@ public class VersionStatementTest extends TestWithSingleASTTransformer {
     p.supplyRoot().indexBuildSession((root) -> {
       var tu = p.parseTranslationUnit(root, "#version 330\n;");
       assertNotNull(tu.versionStatement);
-      assertNull(tu.versionStatement.profile);
-      assertEquals(Version.GLSL33, tu.versionStatement.version);
+      assertNull(tu.versionStatement.getProfile());
+      assertEquals(Version.GLSL33, tu.versionStatement.getVersion());
     });
   }
 
@@ -41,8 +41,8 @@ public class VersionStatementTest extends TestWithSingleASTTransformer {
     p.supplyRoot().indexBuildSession((root) -> {
       var tu = p.parseTranslationUnit(root, "#version 330 core\n;");
       assertNotNull(tu.versionStatement);
-      assertEquals(Profile.CORE, tu.versionStatement.profile);
-      assertEquals(Version.GLSL33, tu.versionStatement.version);
+      assertEquals(Profile.CORE, tu.versionStatement.getProfile());
+      assertEquals(Version.GLSL33, tu.versionStatement.getVersion());
     });
   }
 
@@ -51,8 +51,8 @@ public class VersionStatementTest extends TestWithSingleASTTransformer {
     p.supplyRoot().indexBuildSession((root) -> {
       var tu = p.parseTranslationUnit(root, "#version 140 compatibility\n;");
       assertNotNull(tu.versionStatement);
-      assertEquals(Profile.COMPATIBILITY, tu.versionStatement.profile);
-      assertEquals(Version.GLSL14, tu.versionStatement.version);
+      assertEquals(Profile.COMPATIBILITY, tu.versionStatement.getProfile());
+      assertEquals(Version.GLSL14, tu.versionStatement.getVersion());
     });
   }
 
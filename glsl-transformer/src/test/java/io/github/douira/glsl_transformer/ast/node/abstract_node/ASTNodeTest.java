@@ -2,10 +2,15 @@ package io.github.douira.glsl_transformer.ast.node.abstract_node;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.*;
+
 import org.junit.jupiter.api.Test;
 
-import io.github.douira.glsl_transformer.ast.node.expression.binary.AdditionExpression;
-import io.github.douira.glsl_transformer.ast.node.external_declaration.FunctionDefinition;
+import io.github.douira.glsl_transformer.ast.node.Version;
+import io.github.douira.glsl_transformer.ast.node.expression.binary.*;
+import io.github.douira.glsl_transformer.ast.node.external_declaration.*;
+import io.github.douira.glsl_transformer.ast.node.type.qualifier.StorageQualifier;
+import io.github.douira.glsl_transformer.ast.node.type.qualifier.StorageQualifier.StorageType;
 import io.github.douira.glsl_transformer.test_util.TestWithSingleASTTransformer;
 
 public class ASTNodeTest extends TestWithSingleASTTransformer {
@@ -85,4 +90,98 @@ public class ASTNodeTest extends TestWithSingleASTTransformer {
     assertDoesNotThrow(() -> p.transform("void main() { return; }"),
         "It should not throw when changing the root of a null member (null expression in return statement)");
   }
+
+  @Test
+  void testStructuralHash() {
+    var tree = p.parseSeparateTranslationUnit("""
+        void main() { x = a * b; y = a * b; z = a * c; }
+        """);
+    var other = p.parseSeparateTranslationUnit("float w = a * b;");
+    var products = tree.getRoot().nodeIndex.get(MultiplicationExpression.class);
+    var otherProduct = other.getRoot().nodeIndex.getOne(MultiplicationExpression.class);
+    var same = new ArrayList<MultiplicationExpression>();
+    MultiplicationExpression different = null;
+    for (var product : products) {
+      if (product.getRight().equalsStructurally(otherProduct.getRight())) {
+        same.add(product);
+      } else {
+        different = product;
+      }
+    }
+    assertEquals(2, same.size());
+    assertNotNull(different);
+
+    var first = same.get(0);
+    var second = same.get(1);
+    assertEquals(first.getStructuralHash(), second.getStructuralHash());
+    assertEquals(first.getStructuralHash(), otherProduct.getStructuralHash(),
+        "It should not depend on the root or the position in the tree");
+    assertTrue(first.equalsStructurally(second));
+    assertTrue(first.equalsStructurally(otherProduct));
+    assertFalse(first.equalsStructurally(different));
+    assertFalse(first.equalsStructurally(first.getLeft()));
+
+    // changes invalidate the hashes up the parent chain
+    var rootHash = tree.getStructuralHash();
+    var identifier = different.getRoot().identifierIndex.getOne("c");
+    identifier.setName("b");
+    assertEquals(first.getStructuralHash(), different.getStructuralHash());
+    assertTrue(first.equalsStructurally(different));
+    assertNotEquals(rootHash, tree.getStructuralHash());
+    identifier.setName("c");
+    assertEquals(rootHash, tree.getStructuralHash(),
+        "It should compute the same hash again after reverting the change");
+
+    second.setLeft(second.getRight().cloneInto(tree.getRoot()));
+    assertFalse(first.equalsStructurally(second));
+  }
+
+  @Test
+  void testStructuralHashIndex() {
+    var tree = p.parseSeparateTranslationUnit("""
+        void main() { x = a * b; y = a * b; z = a * c; }
+        """);
+    var root = tree.getRoot();
+    var index = root.getStructuralHashIndex();
+    var duplicates = index.getDuplicates(MultiplicationExpression.class);
+    assertEquals(1, duplicates.size());
+    var first = duplicates.get(0).get(0);
+    assertEquals(2, index.getEqual(first).count());
+
+    // the index is updated after changes
+    root.identifierIndex.getOne("c").setName("b");
+    assertEquals(3, index.getEqual(first).count());
+    assertEquals(3, index.getDuplicates(MultiplicationExpression.class).get(0).size());
+    first.detachAndDelete();
+    assertEquals(2, index.getEqual(first).count());
+    assertFalse(index.get(first.getStructuralHash()).contains(first));
+  }
+
+  @Test
+  void testStructuralHashData() {
+    var tree = p.parseSeparateTranslationUnit("""
+        #version 330 core
+        in float a; out float a;
+        """);
+    var root = tree.getRoot();
+    var index = root.getStructuralHashIndex();
+    var qualifiers = root.nodeIndex.get(StorageQualifier.class).stream()
+        .sorted(Comparator.comparing(StorageQualifier::getStorageType)).toList();
+    var in = qualifiers.get(0);
+    var out = qualifiers.get(1);
+    assertFalse(in.equalsStructurally(out));
+    assertEquals(1, index.getEqual(in).count());
+
+    out.setStorageType(StorageType.IN);
+    assertTrue(in.equalsStructurally(out), "It should detect changes to the data of nodes");
+    assertEquals(2, index.getEqual(in).count());
+    assertTrue(in.getAncestor(ExternalDeclaration.class)
+        .equalsStructurally(out.getAncestor(ExternalDeclaration.class)));
+
+    var version = tree.getVersionStatement();
+    var otherVersion = version.clone();
+    otherVersion.setVersion(Version.GLSL40);
+    assertFalse(version.equalsStructurally(otherVersion),
+        "It should include the version in the hash");
+  }
 }
@@ -0,0 +1,57 @@
+package io.github.douira.glsl_transformer.ast.print;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.StringWriter;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.douira.glsl_transformer.ast.node.TranslationUnit;
+import io.github.douira.glsl_transformer.test_util.*;
+import io.github.douira.glsl_transformer.test_util.TestResourceManager.DirectoryLocation;
+
+public class DirectFormatterTest extends TestWithSingleASTTransformer {
+  private void assertSameOutput(TranslationUnit tree, String scenario) {
+    for (var type : PrintType.values()) {
+      // verbatim printing is only done by the printers created from print types
+      if (type.hasDirectFormatter() && !type.isVerbatim()) {
+        assertEquals(
+            ASTPrinter.printAST(type.getTokenProcessor(), tree),
+            ASTPrinter.print(type, tree),
+            "It should print " + scenario + " the same with " + type);
+      }
+    }
+  }
+
+  @Test
+  void testSameOutput() {
+    assertSameOutput(p.parseSeparateTranslationUnit(
+        "#version 330 core\n#extension GL_foo : enable\nstruct S { float x; int y[2]; };\n"
+            + "layout(location = 0) out vec4 c; void main() { if (true) { c = vec4(1.0); } else c.x++; "
+            + "for (int i = 0; i < 3; i++) { switch (i) { case 0: break; default: c *= 2.0; } } }"),
+        "the example");
+
+    TestResourceManager
+        .getDirectoryResources(DirectoryLocation.GLSLANG_TESTS)
+        .forEach(resource -> {
+          TranslationUnit tree;
+          try {
+            tree = p.parseSeparateTranslationUnit(resource.content());
+          } catch (Exception e) {
+            return;
+          }
+          assertSameOutput(tree, resource.getScenarioName());
+        });
+  }
+
+  @Test
+  void testSinks() {
+    var tree = p.parseSeparateTranslationUnit("void main() { if (a) { b++; } }");
+    var expected = ASTPrinter.printAST(PrintType.INDENTED.getTokenProcessor(), tree);
+    var writer = new StringWriter();
+    ASTPrinter.print(PrintType.INDENTED, tree, new AppendablePrinter(writer));
+    assertEquals(expected, writer.toString());
+    assertEquals(expected,
+        ASTPrinter.print(PrintType.INDENTED, tree, new ByteArrayPrinter(0)).generateString());
+  }
+}
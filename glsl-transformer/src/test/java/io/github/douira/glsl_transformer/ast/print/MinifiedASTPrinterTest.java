@@ -0,0 +1,74 @@
+package io.github.douira.glsl_transformer.ast.print;
+
+import static io.github.douira.glsl_transformer.test_util.AssertUtil.*;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.douira.glsl_transformer.GLSLParser;
+import io.github.douira.glsl_transformer.test_util.TestWithSingleASTTransformer;
+
+public class MinifiedASTPrinterTest extends TestWithSingleASTTransformer {
+  @Test
+  void testWhitespace() {
+    assertReprint(PrintType.MINIFIED, GLSLParser::translationUnit,
+        "#version 330 core\nuniform vec4 color;void main(){gl_FragColor=vec4(1.0f)*color;}",
+        "#version 330 core\n"
+            + "uniform vec4 color;\n"
+            + "void main() {\n"
+            + "  gl_FragColor = vec4(1.0f) * color;\n"
+            + "}");
+  }
+
+  @Test
+  void testSeparators() {
+    assertReprint(PrintType.MINIFIED, GLSLParser::translationUnit,
+        "uniform int x;void main(){int a=x- -x;int b=x+ +x;a=- -x;a++;}",
+        "uniform int x; void main() { int first = x - -x; int second = x + +x; first = -(-x); first++; }");
+  }
+
+  @Test
+  void testRenaming() {
+    assertReprint(PrintType.MINIFIED, GLSLParser::translationUnit,
+        "uniform float a;in vec3 normal;float b(float c,float d){return c*d;}float b(float c){return c;}"
+            + "void main(){float c=b(a);for(int d=0;d<3;d++){c+=b(c,a);}gl_FragColor=vec4(normal*c,sin(c));}",
+        "uniform float a;\n"
+            + "in vec3 normal;\n"
+            + "float scale(float value, float factor) { return value * factor; }\n"
+            + "float scale(float value) { return value; }\n"
+            + "void main() {\n"
+            + "  float result = scale(a);\n"
+            + "  for (int i = 0; i < 3; i++) { result += scale(result, a); }\n"
+            + "  gl_FragColor = vec4(normal * result, sin(result));\n"
+            + "}");
+  }
+
+  @Test
+  void testKeepBuiltinAndExternalFunctions() {
+    assertReprint(PrintType.MINIFIED, GLSLParser::translationUnit,
+        "bool radians(bool b){return b;}float helper(float x);float a(float b){return helper(b);}"
+            + "void main(){float b=radians(1.0f);bool c=radians(true);b=a(b);}",
+        "bool radians(bool x) { return x; }\n"
+            + "float helper(float x);\n"
+            + "float local(float x) { return helper(x); }\n"
+            + "void main() { float x = radians(1.0); bool y = radians(true); x = local(x); }");
+  }
+
+  @Test
+  void testKeepPartiallyDefinedFunctions() {
+    assertReprint(PrintType.MINIFIED, GLSLParser::translationUnit,
+        "float helper(int x);float helper(float b){return b;}float a(float c);float a(float b){return b;}"
+            + "void main(){float b=helper(1);b=helper(b);b=a(b);}",
+        "float helper(int x);\n"
+            + "float helper(float value) { return value; }\n"
+            + "float forward(float c);\n"
+            + "float forward(float value) { return value; }\n"
+            + "void main() { float value = helper(1); value = helper(value); value = forward(value); }");
+  }
+
+  @Test
+  void testParentheses() {
+    assertReprint(PrintType.MINIFIED, GLSLParser::translationUnit,
+        "uniform int x;void main(){int a=(x+x)*x+x*x-(x-x);a=x-x-x;a=x?x:x?x:x;a=(x?x:x)?x:x;a=(x,x);a=(x+x).y;}",
+        "uniform int x; void main() { int a = (x + x) * (x) + (x * x) - (x - x); a = (x - x) - x; a = x ? x : (x ? x : x); a = (x ? x : x) ? x : x; a = (x, x); a = (x + x).y; }");
+  }
+}
@@ -0,0 +1,51 @@
+package io.github.douira.glsl_transformer.ast.print;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.douira.glsl_transformer.ast.node.TranslationUnit;
+import io.github.douira.glsl_transformer.test_util.*;
+import io.github.douira.glsl_transformer.test_util.TestResourceManager.DirectoryLocation;
+
+public class ParallelPrinterTest extends TestWithSingleASTTransformer {
+  private void assertSameOutput(TranslationUnit tree, String scenario) {
+    for (var type : PrintType.values()) {
+      var expected = ASTPrinter.print(type, tree);
+      for (var chunkSize : new int[] { 1, 3 }) {
+        assertEquals(expected, ASTPrinter.printParallel(type, tree, chunkSize),
+            "It should print " + scenario + " the same with " + type + " in chunks of " + chunkSize);
+      }
+    }
+  }
+
+  @Test
+  void testSameOutput() {
+    assertSameOutput(p.parseSeparateTranslationUnit(
+        "#version 330 core\n#extension GL_foo : enable\nstruct S { float x; int y[2]; };\n"
+            + "layout(location = 0) out vec4 c; void main() { if (true) { c = vec4(1.0); } else c.x++; }\n"
+            + "float f(float x) { for (int i = 0; i < 3; i++) { x *= 2.0; } return x; }"),
+        "the example");
+
+    TestResourceManager
+        .getDirectoryResources(DirectoryLocation.GLSLANG_TESTS)
+        .forEach(resource -> {
+          TranslationUnit tree;
+          try {
+            tree = p.parseSeparateTranslationUnit(resource.content());
+          } catch (Exception e) {
+            return;
+          }
+          assertSameOutput(tree, resource.getScenarioName());
+        });
+  }
+
+  @Test
+  void testHeader() {
+    var tree = p.parseSeparateTranslationUnit("int a; int b; void main() { a++; }");
+    tree.outputOptions.setHeaderSuffix("test");
+    assertEquals(ASTPrinter.printIndented(tree), ASTPrinter.printParallel(PrintType.INDENTED, tree, 1),
+        "It should print the header before the chunks");
+    assertThrows(IllegalArgumentException.class, () -> ASTPrinter.printParallel(PrintType.SIMPLE, tree, 0));
+  }
+}
@@ -0,0 +1,80 @@
+package io.github.douira.glsl_transformer.ast.print;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.douira.glsl_transformer.ast.print.token.LiteralToken;
+import io.github.douira.glsl_transformer.ast.transform.SingleASTTransformer;
+import io.github.douira.glsl_transformer.test_util.TestWithSingleASTTransformer;
+
+public class PrintSinkTest extends TestWithSingleASTTransformer {
+  private static final String INPUT = "#version 330 core\nuniform vec4 color; void main() { gl_FragColor = color * 2.0; }";
+
+  private String expected() {
+    return ASTPrinter.print(PrintType.INDENTED, p.parseSeparateTranslationUnit(INPUT));
+  }
+
+  @Test
+  void testAppendable() {
+    var writer = new StringWriter();
+    var tree = p.parseSeparateTranslationUnit(INPUT);
+    var sink = ASTPrinter.print(PrintType.INDENTED, tree, new AppendablePrinter(writer));
+    assertSame(writer, sink.getAppendable());
+    assertEquals(expected(), writer.toString());
+  }
+
+  @Test
+  void testCharArray() {
+    var sink = ASTPrinter.print(PrintType.INDENTED, p.parseSeparateTranslationUnit(INPUT),
+        new CharArrayPrinter(INPUT.length()));
+    assertEquals(expected(), new String(sink.getArray(), 0, sink.getLength()));
+
+    var grown = ASTPrinter.print(PrintType.INDENTED, p.parseSeparateTranslationUnit(INPUT),
+        new CharArrayPrinter(new char[1]));
+    assertEquals(expected(), grown.generateString());
+  }
+
+  @Test
+  void testByteArray() {
+    var sink = ASTPrinter.print(PrintType.INDENTED, p.parseSeparateTranslationUnit(INPUT),
+        new ByteArrayPrinter(new byte[0], StandardCharsets.US_ASCII));
+    assertEquals(expected(), new String(sink.getArray(), 0, sink.getLength(), StandardCharsets.US_ASCII));
+  }
+
+  @Test
+  void testByteBuffer() {
+    p.setTransformation(SingleASTTransformer.IDENTITY_TRANSFORMATION);
+    var sink = p.transformInto(INPUT, new ByteBufferPrinter(4));
+    var buffer = sink.getBuffer();
+    assertEquals(0, buffer.position());
+    assertEquals(sink.getLength(), buffer.limit());
+    assertEquals(p.transform(INPUT), sink.generateString());
+
+    var heapSink = new ByteBufferPrinter(ByteBuffer.allocate(2));
+    heapSink.appendToken(new LiteralToken("abc"));
+    assertFalse(heapSink.getBuffer().isDirect());
+    assertTrue(new ByteBufferPrinter(0).getBuffer().isDirect());
+  }
+
+  @Test
+  void testEncoding() {
+    var content = "aé€😀\ud800b";
+    var utf8 = new ByteArrayPrinter(0);
+    utf8.appendToken(new LiteralToken(content));
+    assertArrayEquals("aé€😀?b".getBytes(StandardCharsets.UTF_8),
+        Arrays.copyOf(utf8.getArray(), utf8.getLength()));
+
+    var ascii = new ByteBufferPrinter(0, StandardCharsets.US_ASCII);
+    ascii.appendToken(new LiteralToken(content));
+    assertEquals("a?????b", ascii.generateString());
+
+    assertThrows(IllegalArgumentException.class,
+        () -> new ByteArrayPrinter(0, StandardCharsets.UTF_16));
+  }
+}
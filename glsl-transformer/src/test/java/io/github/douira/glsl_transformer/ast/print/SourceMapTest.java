@@ -0,0 +1,60 @@
+package io.github.douira.glsl_transformer.ast.print;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.douira.glsl_transformer.ast.transform.*;
+import io.github.douira.glsl_transformer.test_util.TestWithSingleASTTransformer;
+
+public class SourceMapTest extends TestWithSingleASTTransformer {
+  private static final String INPUT = "#line 10 \"a\"\nint a;\nint b;\n#line 3 2\nvoid main() {\n  a++;\n}\n";
+
+  private static void assertLocation(String sourceName, int line, PresentSourceLocation location) {
+    assertEquals(line, location.line);
+    assertEquals(sourceName, ((NamedSourceLocation) location).sourceName);
+  }
+
+  private static void assertLocation(int sourceNumber, int line, PresentSourceLocation location) {
+    assertEquals(line, location.line);
+    assertEquals(sourceNumber, ((NumberedSourceLocation) location).sourceNumber);
+  }
+
+  @Test
+  void testCompact() {
+    p.setParseLineDirectives(true);
+    var mapper = ASTPrinter.printSourceMapped(PrintType.COMPACT, p.parseSeparateTranslationUnit(INPUT));
+    var code = mapper.generateString();
+    assertEquals("int a; int b; void main() { a++; } ", code, "It should not print line directives");
+
+    var map = mapper.getSourceMap();
+    assertArrayEquals(new String[] { "a" }, map.getSourceNames());
+    assertLocation("a", 10, map.getSourceLocation(1, 0));
+    assertLocation("a", 11, map.getSourceLocation(1, code.indexOf("int b")));
+    assertLocation(2, 3, map.getSourceLocation(1, code.indexOf("void")));
+    assertLocation(2, 4, map.getSourceLocation(1, code.indexOf("a++")));
+  }
+
+  @Test
+  void testIndented() {
+    p.setParseLineDirectives(true);
+    var mapper = ASTPrinter.printSourceMapped(PrintType.INDENTED, p.parseSeparateTranslationUnit(INPUT));
+    assertEquals("int a;\nint b;\nvoid main() {\n\ta++;\n}\n", mapper.generateString());
+
+    var map = mapper.getSourceMap();
+    assertEquals(2, map.getSegmentCount(), "It should only record locations that don't follow from the previous one");
+    assertLocation("a", 11, map.getSourceLocation(2));
+    assertLocation(2, 3, map.getSourceLocation(3));
+    assertLocation(2, 5, map.getSourceLocation(5));
+  }
+
+  @Test
+  void testWithoutDirectives() {
+    var mapper = ASTPrinter.printSourceMapped(PrintType.INDENTED, p.parseSeparateTranslationUnit("int a;\nint b;"));
+    var map = mapper.getSourceMap();
+    assertEquals(0, map.getSegmentCount());
+    assertEquals(2, map.getSourceLocation(2).line, "It should map lines to themselves without directives");
+    assertThrows(IllegalArgumentException.class,
+        () -> ASTPrinter.printSourceMapped(PrintType.INDENTED_ANNOTATED, p.parseSeparateTranslationUnit("int a;")));
+  }
+}
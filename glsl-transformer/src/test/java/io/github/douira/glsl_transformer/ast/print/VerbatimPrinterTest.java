@@ -0,0 +1,89 @@
+package io.github.douira.glsl_transformer.ast.print;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.douira.glsl_transformer.ast.node.expression.LiteralExpression;
+import io.github.douira.glsl_transformer.ast.node.expression.binary.*;
+import io.github.douira.glsl_transformer.ast.node.type.qualifier.StorageQualifier;
+import io.github.douira.glsl_transformer.ast.node.type.qualifier.StorageQualifier.StorageType;
+import io.github.douira.glsl_transformer.ast.query.RootSupplier;
+import io.github.douira.glsl_transformer.test_util.TestWithSingleASTTransformer;
+import io.github.douira.glsl_transformer.token_filter.StringFilter;
+import io.github.douira.glsl_transformer.util.Type;
+
+public class VerbatimPrinterTest extends TestWithSingleASTTransformer {
+  private static final String INPUT = "void main()  {\n  float a = 1.0  *  x; // keep\n  a  +=  1;\n}\n";
+
+  @Test
+  void testUnmodified() {
+    var tree = p.parseSeparateTranslationUnit(INPUT);
+    assertEquals(INPUT, ASTPrinter.printVerbatim(tree));
+    assertEquals(INPUT, ASTPrinter.printVerbatim(tree.cloneInto(RootSupplier.supplyDefault())),
+        "It should copy the source of clones");
+  }
+
+  @Test
+  void testModifiedRegion() {
+    var tree = p.parseSeparateTranslationUnit(INPUT);
+    tree.getRoot().identifierIndex.getOne("x").setName("y");
+    assertEquals("void main() {\n\tfloat a = 1.0 * y;\n\ta  +=  1;\n}\n",
+        ASTPrinter.printVerbatim(tree));
+  }
+
+  @Test
+  void testModifiedLiteral() {
+    var tree = p.parseSeparateTranslationUnit(INPUT);
+    tree.getRoot().nodeIndex.getStream(LiteralExpression.class)
+        .filter(LiteralExpression::isFloatingPoint)
+        .findAny().get().changeFloating(2.0);
+    assertEquals("void main() {\n\tfloat a = 2.0f * x;\n\ta  +=  1;\n}\n",
+        ASTPrinter.printVerbatim(tree));
+  }
+
+  @Test
+  void testModifiedData() {
+    var tree = p.parseSeparateTranslationUnit("in  vec4  color;\nvoid main()  {\n  x  =  1;\n}\n");
+    tree.getRoot().nodeIndex.getOne(StorageQualifier.class).setStorageType(StorageType.OUT);
+    assertEquals("out vec4 color;\nvoid main()  {\n  x  =  1;\n}\n", ASTPrinter.printVerbatim(tree),
+        "It should reprint nodes with changed data");
+  }
+
+  @Test
+  void testPrecedence() {
+    var tree = p.parseSeparateTranslationUnit("void main() { y = a  +  b; }");
+    var root = tree.getRoot();
+    var addition = root.nodeIndex.getOne(AdditionExpression.class);
+    var assignment = (AssignmentExpression) addition.getParent();
+    addition.detach();
+    assignment.setRight(root.indexNodes(
+        () -> new MultiplicationExpression(addition, new LiteralExpression(Type.INT32, 2))));
+    assertEquals("void main() {\n\ty = (a  +  b) * 2;\n}\n", ASTPrinter.printVerbatim(tree));
+  }
+
+  @Test
+  void testRemoval() {
+    var tree = p.parseSeparateTranslationUnit(
+        "int  x;\nvoid main() {\n  x  =  1;\n  x++;\n}\n");
+    var statement = tree.getRoot().nodeIndex.getOne(AssignmentExpression.class).getParent();
+    statement.detachAndDelete();
+    assertEquals("int  x;\nvoid main() {\n\tx++;\n}\n", ASTPrinter.printVerbatim(tree));
+  }
+
+  @Test
+  void testTokenFilter() {
+    var input = "const  float  a = 1.0;\nvoid main()  {\n  float b = a;\n}\n";
+    var expected = "float a = 1.0f;\nvoid main() {\n\tfloat b = a;\n}\n";
+    p.setTokenFilter(new StringFilter<>("const"));
+    assertEquals(expected, ASTPrinter.printVerbatim(p.parseSeparateTranslationUnit(input)),
+        "It should not copy the source text of filtered tokens");
+    p.setPrintType(PrintType.VERBATIM);
+    p.setTransformation(tree -> {
+    });
+    assertEquals(expected, p.transform(input));
+
+    p.setTokenFilter(null);
+    assertEquals(input, ASTPrinter.printVerbatim(p.parseSeparateTranslationUnit(input)));
+  }
+}
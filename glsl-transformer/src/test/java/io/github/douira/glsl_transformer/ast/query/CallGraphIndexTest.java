@@ -0,0 +1,134 @@
+package io.github.douira.glsl_transformer.ast.query;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.douira.glsl_transformer.ast.node.external_declaration.FunctionDefinition;
+import io.github.douira.glsl_transformer.ast.node.expression.unary.FunctionCallExpression;
+import io.github.douira.glsl_transformer.test_util.TestWithSingleASTTransformer;
+
+public class CallGraphIndexTest extends TestWithSingleASTTransformer {
+  private static FunctionDefinition getFunction(Root root, String name, int parameterCount) {
+    for (var function : root.getSymbolIndex().getFunctionDefinitions(name)) {
+      if (function.getFunctionPrototype().getParameters().size() == parameterCount) {
+        return function;
+      }
+    }
+    return null;
+  }
+
+  private static FunctionDefinition getFunction(Root root, String name) {
+    return root.getSymbolIndex().getFunctionDefinitions(name).get(0);
+  }
+
+  @Test
+  void testCallersAndCallees() {
+    p.setTransformation((tree, root) -> {
+      var index = root.getCallGraphIndex();
+      var main = getFunction(root, "main");
+      var a = getFunction(root, "a");
+      var b = getFunction(root, "b");
+      var unused = getFunction(root, "unused");
+      assertEquals(Set.of(a, b), index.getCallees(main));
+      assertEquals(Set.of(b), index.getCallees(a));
+      assertEquals(Set.of(), index.getCallees(b));
+      assertEquals(Set.of(main, a), index.getCallers(b));
+      assertEquals(Set.of(unused), index.getCallers(unused));
+      assertEquals(Set.of(main, a, b), index.getReachable("main"));
+      assertTrue(index.isReachable("main", b));
+      assertEquals(List.of(unused), index.getUnreachable("main"));
+      assertTrue(index.getUnreachable("missing").isEmpty());
+    });
+    p.transform(
+        "void b() { } void a() { b(); sin(1.0); } void unused() { unused(); } void main() { a(); b(); b(); }");
+  }
+
+  @Test
+  void testOverloads() {
+    p.setTransformation((tree, root) -> {
+      var index = root.getCallGraphIndex();
+      var main = getFunction(root, "main");
+      var f0 = getFunction(root, "f", 1);
+      var f2 = getFunction(root, "f", 2);
+      // f(void) has a single unnamed parameter
+      assertEquals(Set.of(main, f0), index.getReachable(main));
+      assertEquals(Set.of(main), index.getCallers(f0));
+      assertEquals(Set.of(), index.getCallers(f2));
+
+      // adding arguments changes the resolved overload
+      var call = root.nodeIndex.getOne(FunctionCallExpression.class);
+      call.getParameters().add(p.parseExpression(root, "1"));
+      call.getParameters().add(p.parseExpression(root, "2"));
+      assertEquals(Set.of(main, f2), index.getReachable(main));
+      assertSame(f2, index.getCallee(call));
+    });
+    p.transform("void f(void) { } void f(int x, int y) { } void main() { f(); }");
+  }
+
+  @Test
+  void testAmbiguousOverloads() {
+    p.setTransformation((tree, root) -> {
+      var index = root.getCallGraphIndex();
+      var main = getFunction(root, "main");
+      var functions = root.nodeIndex.get(FunctionDefinition.class).stream()
+          .filter(function -> function != main).toList();
+      var call = root.nodeIndex.getOne(FunctionCallExpression.class);
+      assertNull(index.getCallee(call));
+      assertEquals(Set.copyOf(functions), Set.copyOf(index.getPossibleCallees(call)));
+      assertEquals(Set.of(main, functions.get(0), functions.get(1)), index.getReachable(main),
+          "It should add an edge to each overload an ambiguous call may resolve to");
+      assertTrue(index.getUnreachable("main").isEmpty());
+    });
+    p.transform("float f(float x) { return x; } vec2 f(vec2 x) { return x; } void main() { f(1.0); }");
+  }
+
+  @Test
+  void testIncrementalUpdate() {
+    p.setTransformation((tree, root) -> {
+      var index = root.getCallGraphIndex();
+      var main = getFunction(root, "main");
+      var a = getFunction(root, "a");
+      var b = getFunction(root, "b");
+      var reachable = index.getReachable(main);
+      assertEquals(Set.of(main, a), reachable);
+
+      // unrelated edits keep the cached reachability
+      main.getBody().getStatements().add(p.parseStatement(root, "int x = 1;"));
+      assertSame(reachable, index.getReachable(main));
+
+      // adding a call
+      main.getBody().getStatements().add(p.parseStatement(root, "b();"));
+      assertEquals(Set.of(main, a, b), index.getReachable(main));
+      assertEquals(Set.of(main), index.getCallers(b));
+
+      // removing a call
+      main.getBody().getStatements().get(0).detachAndDelete();
+      assertEquals(Set.of(main, b), index.getReachable(main));
+      assertEquals(Set.of(), index.getCallers(a));
+
+      // renaming a function
+      b.getFunctionPrototype().getName().setName("c");
+      assertEquals(Set.of(main), index.getReachable(main));
+      a.getFunctionPrototype().getName().setName("b");
+      assertEquals(Set.of(main, a), index.getReachable(main));
+
+      // removing a function
+      a.detachAndDelete();
+      assertEquals(Set.of(main), index.getReachable(main));
+      assertEquals(Set.of(), index.getCallees(main));
+    });
+    p.transform("void a() { } void b() { } void main() { a(); }");
+  }
+
+  @Test
+  void testRequiresNodeIndex() {
+    p.setRootSupplier(RootSupplier.ONLY_IDENTIFIER_INDEX);
+    p.setTransformation((tree, root) -> {
+      assertThrows(IllegalStateException.class, root::getCallGraphIndex);
+    });
+    p.transform("void main() { }");
+  }
+}
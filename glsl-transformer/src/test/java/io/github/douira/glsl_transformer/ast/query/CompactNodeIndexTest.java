@@ -0,0 +1,136 @@
+package io.github.douira.glsl_transformer.ast.query;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.stream.*;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.douira.glsl_transformer.ast.node.Identifier;
+import io.github.douira.glsl_transformer.ast.node.abstract_node.*;
+import io.github.douira.glsl_transformer.ast.node.expression.*;
+import io.github.douira.glsl_transformer.ast.node.type.qualifier.*;
+import io.github.douira.glsl_transformer.ast.query.index.CompactNodeIndex;
+
+public class CompactNodeIndexTest {
+  CompactNodeIndex index = CompactNodeIndex.withExact();
+  ASTNode a = new Identifier("a");
+  ASTNode b = new Identifier("b");
+  ASTNode c = new Identifier("c");
+  ASTNode d = new Identifier("d");
+
+  @Test
+  void testAdd() {
+    index.add(a);
+    index.add(b);
+    index.add(c);
+    index.add(d);
+    index.add(d);
+    assertEquals(4, index.get(a).size());
+    assertEquals(4, index.get(Identifier.class).size());
+    assertEquals(Set.of(a, b, c, d), new HashSet<>(index.get(Identifier.class)));
+    assertEquals(0, index.get(LiteralExpression.class).size());
+    assertEquals(0, index.get(Expression.class).size());
+  }
+
+  @Test
+  void testGetOne() {
+    index.add(a);
+    index.add(b);
+    index.add(c);
+    assertTrue(Set.of(a, b, c).contains(index.getOne(Identifier.class)));
+    assertTrue(Set.of(a, b, c).contains(index.getOne(a)));
+    assertNull(index.getOne(LiteralExpression.class));
+  }
+
+  @Test
+  void testGetUnique() {
+    index.add(a);
+    index.add(b);
+    index.add(c);
+    assertThrows(IllegalStateException.class, () -> index.getUnique(LiteralExpression.class));
+    assertThrows(IllegalStateException.class, () -> index.getUnique(Identifier.class));
+    index.remove(a);
+    index.remove(b);
+    assertEquals(c, index.getUnique(Identifier.class));
+    index.remove(c);
+    assertThrows(IllegalStateException.class, () -> index.getUnique(Identifier.class));
+  }
+
+  @Test
+  void testGetStream() {
+    index.add(a);
+    index.add(b);
+    index.add(c);
+    index.add(d);
+    assertEquals(4, index.getStream(Identifier.class).count());
+    assertEquals(Set.of(a, b, c, d),
+        index.getStream(Identifier.class).collect(Collectors.toSet()));
+    assertEquals(0, index.getStream(Expression.class).count());
+  }
+
+  @Test
+  void testHasExact() {
+    index.add(a);
+    index.add(b);
+    assertTrue(index.hasExact(a));
+    assertTrue(index.hasExact(b));
+    assertFalse(index.hasExact(c));
+    assertTrue(index.get(Identifier.class).contains(a));
+    assertFalse(index.get(Identifier.class).contains(c));
+  }
+
+  @Test
+  void testRemove() {
+    index.add(a);
+    index.add(b);
+    index.add(c);
+    index.add(d);
+    index.remove(a);
+    index.remove(a);
+    index.remove(c);
+    assertEquals(Set.of(b, d), new HashSet<>(index.get(Identifier.class)));
+    assertTrue(index.has(a)); // class match
+    assertFalse(index.hasExact(a));
+    assertTrue(index.hasExact(b));
+    assertTrue(index.hasExact(d));
+    index.remove(b);
+    index.remove(d);
+    assertFalse(index.has(Identifier.class));
+    assertEquals(-1, d._getNodeIndexSlot());
+  }
+
+  @Test
+  void testConcurrentModification() {
+    index.add(a);
+    index.add(b);
+    assertThrows(ConcurrentModificationException.class, () -> {
+      for (var node : index.get(Identifier.class)) {
+        index.remove(node);
+      }
+    });
+  }
+
+  @Test
+  void testSuperclasses() {
+    var superIndex = CompactNodeIndex.withSuperclasses();
+    var u = new PreciseQualifier();
+    var v = new PreciseQualifier();
+    var w = new TypeQualifier(Stream.empty());
+    superIndex.add(u);
+    superIndex.add(v);
+    superIndex.add(w);
+    assertEquals(2, superIndex.get(PreciseQualifier.class).size());
+    assertEquals(2, superIndex.get(TypeQualifierPart.class).size());
+    assertEquals(1, superIndex.get(TypeQualifier.class).size());
+    assertEquals(0, superIndex.get(ASTNode.class).size());
+    assertEquals(0, superIndex.get(InnerASTNode.class).size());
+    assertEquals(0, superIndex.get(ListASTNode.class).size());
+    assertTrue(superIndex.get(TypeQualifierPart.class).contains(u));
+    assertFalse(superIndex.get(TypeQualifierPart.class).contains(w));
+    assertEquals(2, superIndex.getStream(TypeQualifierPart.class).count());
+    superIndex.remove(u);
+    assertEquals(v, superIndex.getUnique(TypeQualifierPart.class));
+  }
+}
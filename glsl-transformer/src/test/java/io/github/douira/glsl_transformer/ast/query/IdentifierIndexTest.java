@@ -4,6 +4,7 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import org.junit.jupiter.api.Test;
 
+import io.github.douira.glsl_transformer.ast.data.SymbolTable;
 import io.github.douira.glsl_transformer.test_util.TestWithSingleASTTransformer;
 
 public class IdentifierIndexTest extends TestWithSingleASTTransformer {
@@ -28,4 +29,43 @@ public class IdentifierIndexTest extends TestWithSingleASTTransformer {
     });
     p.transform("int a = 1, b, c, b;");
   }
+
+  @Test
+  void testInternedIndex() {
+    p.setRootSupplier(RootSupplier.INTERNED_UNORDERED_ED_INTERNED);
+    p.setTransformation((tree, root) -> {
+      var a = root.identifierIndex.getOneReferenceExpression("a").getIdentifier();
+      assertSame(SymbolTable.lookup("a"), a.getName());
+      assertTrue(root.identifierIndex.has(new String("a")));
+      assertEquals(2, root.identifierIndex.get("a").size());
+      assertFalse(root.identifierIndex.has("neverUsedName"));
+      assertNull(SymbolTable.lookup("neverUsedName"));
+      assertNull(root.identifierIndex.getOne("neverUsedName"));
+      assertTrue(root.externalDeclarationIndex.has("a"));
+
+      root.rename("a", "renamedName");
+      assertFalse(root.identifierIndex.has("a"));
+      assertEquals(2, root.identifierIndex.get("renamedName").size());
+      assertSame(SymbolTable.lookup("renamedName"), a.getName());
+      assertTrue(root.externalDeclarationIndex.has("renamedName"));
+
+      a.setName("b");
+      assertTrue(root.identifierIndex.has("b"));
+      assertEquals(1, root.identifierIndex.get("renamedName").size());
+    });
+    assertEquals("int renamedName = 1; int c = b; ", p.transform("int a = 1; int c = a;"));
+  }
+
+  @Test
+  void testSymbolTableEviction() throws InterruptedException {
+    var name = SymbolTable.intern(new String("temporaryName" + System.nanoTime()));
+    var copy = new String(name);
+    assertSame(name, SymbolTable.lookup(copy));
+    name = null;
+    for (var i = 0; i < 50 && SymbolTable.lookup(copy) != null; i++) {
+      System.gc();
+      Thread.sleep(10);
+    }
+    assertNull(SymbolTable.lookup(copy), "It should remove names that aren't used anymore");
+  }
 }
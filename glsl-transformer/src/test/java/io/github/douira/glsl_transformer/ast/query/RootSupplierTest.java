@@ -4,6 +4,8 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import org.junit.jupiter.api.Test;
 
+import io.github.douira.glsl_transformer.ast.query.index.CompactNodeIndex;
+
 public class RootSupplierTest {
   // test that the pre-made root suppliers do the right things
   @Test
@@ -42,5 +44,10 @@ public class RootSupplierTest {
     assertNotNull(root5.identifierIndex);
     assertNotNull(root5.nodeIndex);
     assertNotNull(root5.getPrefixExternalDeclarationIndex());
+
+    var root6 = RootSupplier.COMPACT_SUPERCLASS.get();
+    assertNull(root6.externalDeclarationIndex);
+    assertNotNull(root6.identifierIndex);
+    assertInstanceOf(CompactNodeIndex.class, root6.nodeIndex);
   }
 }
@@ -0,0 +1,260 @@
+package io.github.douira.glsl_transformer.ast.query;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.douira.glsl_transformer.ast.node.Identifier;
+import io.github.douira.glsl_transformer.ast.node.abstract_node.ASTNode;
+import io.github.douira.glsl_transformer.ast.node.declaration.*;
+import io.github.douira.glsl_transformer.ast.node.expression.ReferenceExpression;
+import io.github.douira.glsl_transformer.ast.node.expression.binary.AssignmentExpression;
+import io.github.douira.glsl_transformer.ast.node.expression.unary.FunctionCallExpression;
+import io.github.douira.glsl_transformer.ast.node.external_declaration.FunctionDefinition;
+import io.github.douira.glsl_transformer.ast.node.statement.*;
+import io.github.douira.glsl_transformer.ast.query.index.SymbolIndex;
+import io.github.douira.glsl_transformer.ast.traversal.NodeKindWalker;
+import io.github.douira.glsl_transformer.test_util.TestWithSingleASTTransformer;
+
+public class SymbolIndexTest extends TestWithSingleASTTransformer {
+  private static List<Identifier> getReferences(ASTNode tree, String name) {
+    var result = new ArrayList<Identifier>();
+    new NodeKindWalker()
+        .on(Identifier.class, identifier -> {
+          if (identifier.getName().equals(name) && SymbolIndex.isReference(identifier)) {
+            result.add(identifier);
+          }
+        })
+        .walk(tree);
+    return result;
+  }
+
+  private static List<Identifier> getNames(ASTNode tree, String name) {
+    var result = new ArrayList<Identifier>();
+    new NodeKindWalker()
+        .on(Identifier.class, identifier -> {
+          if (identifier.getName().equals(name)) {
+            result.add(identifier);
+          }
+        })
+        .walk(tree);
+    return result;
+  }
+
+  @Test
+  void testShadowing() {
+    p.setTransformation((tree, root) -> {
+      var index = root.getSymbolIndex();
+      var names = getNames(tree, "a");
+      var refs = getReferences(tree, "a");
+      assertEquals(4, refs.size());
+      var global = names.get(0).getParent();
+      var local = names.get(2).getParent();
+      var inner = names.get(3).getParent();
+      assertInstanceOf(DeclarationMember.class, global);
+      assertInstanceOf(DeclarationMember.class, local);
+      assertInstanceOf(DeclarationMember.class, inner);
+      assertSame(global, index.getDeclaration(refs.get(0)));
+      assertSame(inner, index.getDeclaration(refs.get(1)));
+      assertSame(local, index.getDeclaration(refs.get(2)));
+      assertSame(global, index.getDeclaration(refs.get(3)));
+      assertEquals(List.of(refs.get(0), refs.get(3)), sorted(refs, index.getReferences(global)));
+      assertEquals(List.of(refs.get(2)), index.getReferences(local));
+      assertEquals(2, index.getGlobalReferences("a").size());
+      assertTrue(index.getGlobalReferences("missing").isEmpty());
+    });
+    p.transform(
+        "int a; void main() { a = 1; int a = 2; { float a; a = 3; } a = 4; } void f() { a = 5; }");
+  }
+
+  private static List<Identifier> sorted(List<Identifier> order, List<Identifier> references) {
+    var result = new ArrayList<>(references);
+    result.sort(Comparator.comparingInt(order::indexOf));
+    return result;
+  }
+
+  @Test
+  void testDeclarationMembers() {
+    p.setTransformation((tree, root) -> {
+      var index = root.getSymbolIndex();
+      var names = getNames(tree, "a");
+      var refs = getReferences(tree, "a");
+      assertEquals(2, refs.size());
+      // int a = a refers to the outer a, b = a refers to the new a
+      assertSame(names.get(0).getParent(), index.getDeclaration(refs.get(0)));
+      assertSame(names.get(1).getParent(), index.getDeclaration(refs.get(1)));
+    });
+    p.transform("int a; void main() { int a = a, b = a; }");
+  }
+
+  @Test
+  void testParametersAndLoops() {
+    p.setTransformation((tree, root) -> {
+      var index = root.getSymbolIndex();
+      var refs = getReferences(tree, "i");
+      assertEquals(4, refs.size());
+      assertInstanceOf(FunctionParameter.class, index.getDeclaration(refs.get(0)));
+      var loopVar = index.getDeclaration(refs.get(1), DeclarationMember.class);
+      assertNotNull(loopVar);
+      assertSame(loopVar, index.getDeclaration(refs.get(2)));
+      assertSame(index.getDeclaration(refs.get(0)), index.getDeclaration(refs.get(3)));
+      assertNull(index.getDeclaration(refs.get(0), DeclarationMember.class));
+    });
+    p.transform("void f(int i) { i = 1; for (int i = 0; i < 3; i++) { } i = 2; }");
+  }
+
+  @Test
+  void testBuiltinsAndMembers() {
+    p.setTransformation((tree, root) -> {
+      var index = root.getSymbolIndex();
+      for (var ref : getReferences(tree, "gl_Position")) {
+        assertNull(index.getDeclaration(ref));
+      }
+      var block = getReferences(tree, "block");
+      assertInstanceOf(InterfaceBlockDeclaration.class, index.getDeclaration(block.get(0)));
+      var x = getNames(tree, "x");
+      assertEquals(1, getReferences(tree, "x").size());
+      assertSame(x.get(0).getParent(), index.getDeclaration(getReferences(tree, "x").get(0)));
+      // the member of the named block is not a reference
+      assertNull(index.getDeclaration(x.get(2)));
+    });
+    p.transform(
+        "uniform U { vec4 x; }; uniform V { vec4 y; } block; void main() { gl_Position = x + block.x; }");
+  }
+
+  @Test
+  void testFunctionOverloads() {
+    p.setTransformation((tree, root) -> {
+      var index = root.getSymbolIndex();
+      var calls = getReferences(tree, "f");
+      assertEquals(3, calls.size());
+      var noArgs = index.getDeclaration(calls.get(0), FunctionDefinition.class);
+      var oneArg = index.getDeclaration(calls.get(1), FunctionDefinition.class);
+      assertNotNull(noArgs);
+      assertNotNull(oneArg);
+      assertNotSame(noArgs, oneArg);
+      assertEquals(0, SymbolIndex.getParameterCount(noArgs.getFunctionPrototype()));
+      assertEquals(1, SymbolIndex.getParameterCount(oneArg.getFunctionPrototype()));
+      // two overloads with two parameters can't be disambiguated by count
+      assertNull(index.getDeclaration(calls.get(2)));
+      assertEquals(List.of(calls.get(1)), index.getReferences(oneArg));
+
+      // adding an argument changes the resolved overload
+      var call = (FunctionCallExpression) calls.get(0).getParent();
+      call.getParameters().add(root.indexNodes(() -> new ReferenceExpression(new Identifier("z"))));
+      assertSame(oneArg, index.getDeclaration(calls.get(0)));
+    });
+    p.transform(
+        "float f(void) { return 1.0; } float f(float a) { return a; } float f(float a, int b) { return a; } float f(int a, float b) { return b; } "
+            + "void main() { f(); f(1.0); f(1, 2); }");
+  }
+
+  @Test
+  void testIncrementalUpdate() {
+    p.setTransformation((tree, root) -> {
+      var index = root.getSymbolIndex();
+      var refs = getReferences(tree, "a");
+      var global = getNames(tree, "a").get(0).getParent();
+      assertSame(global, index.getDeclaration(refs.get(0)));
+
+      // inserting a local declaration shadows the global one
+      var body = root.nodeIndex.getOne(FunctionDefinition.class).getBody();
+      body.getStatements().add(0, p.parseStatement(root, "int a;"));
+      var local = getNames(tree, "a").get(1).getParent();
+      assertSame(local, index.getDeclaration(refs.get(0)));
+      assertTrue(index.getReferences(global).isEmpty());
+
+      // removing it makes the reference resolve to the global one again
+      body.getStatements().get(0).detachAndDelete();
+      assertSame(global, index.getDeclaration(refs.get(0)));
+
+      // renaming the reference makes it unresolved
+      refs.get(0).setName("c");
+      assertNull(index.getDeclaration(refs.get(0)));
+      assertTrue(index.getReferences(global).isEmpty());
+    });
+    p.transform("int a; void main() { a = 1; }");
+  }
+
+  @Test
+  void testMoveInvalidatesMovedNames() {
+    p.setTransformation((tree, root) -> {
+      var index = root.getSymbolIndex();
+      var refA = getReferences(tree, "a").get(0);
+      var refB = getReferences(tree, "b").get(0);
+      var global = getNames(tree, "a").get(0).getParent();
+      assertSame(global, index.getDeclaration(refA));
+      assertNotNull(index.getDeclaration(refB));
+
+      // moving the assignment into the inner block makes it use the inner a
+      var statement = refA.getAncestor(Statement.class);
+      var body = root.nodeIndex.getOne(FunctionDefinition.class).getBody();
+      var inner = (CompoundStatement) body.getStatements().get(2);
+      statement.detach();
+      inner.getStatements().add(statement);
+      assertTrue(index.isResolved("b"), "It should keep the resolution of names that weren't moved");
+      assertFalse(index.isResolved("a"));
+      assertSame(getNames(tree, "a").get(1).getParent(), index.getDeclaration(refA));
+    });
+    assertEquals(
+        "int a; int b; void main() { b = 2; { int a; a = 1; } } ",
+        p.transform("int a; int b; void main() { a = 1; b = 2; { int a; } }"));
+  }
+
+  @Test
+  void testReattachToSameParent() {
+    p.setTransformation((tree, root) -> {
+      var index = root.getSymbolIndex();
+      var ref = getReferences(tree, "a").get(0);
+      assertNotNull(index.getDeclaration(ref));
+      assertNotNull(index.getDeclaration(getReferences(tree, "c").get(0)));
+
+      // attaching a node to the parent it already has doesn't invalidate anything
+      var assignment = ref.getAncestor(AssignmentExpression.class);
+      assertFalse(assignment.setParent(assignment.getParent(), assignment.getParentSetter()));
+      assertTrue(index.isResolved("a"), "It should not invalidate nodes that keep their parent");
+      assertTrue(index.isResolved("c"));
+    });
+    p.transform("int a; int c; void main() { c = a; }");
+  }
+
+  @Test
+  void testRename() {
+    p.setTransformation((tree, root) -> {
+      var index = root.getSymbolIndex();
+      var local = getNames(tree, "a").get(1).getParent();
+      assertInstanceOf(DeclarationMember.class, local);
+      assertTrue(index.rename(local, "b"));
+      assertFalse(index.rename(local, "b"));
+      assertEquals(1, getNames(tree, "a").size());
+      assertSame(local, index.getDeclaration(getReferences(tree, "b").get(0)));
+
+      // renaming the global a to c would capture the reference to the earlier c
+      var global = getNames(tree, "a").get(0).getParent();
+      assertThrows(IllegalStateException.class, () -> index.rename(global, "c"));
+      assertEquals(1, getNames(tree, "a").size());
+      assertThrows(IllegalArgumentException.class, () -> index.rename(global, "0bad"));
+
+      // renaming the function renames the prototype and the calls
+      var function = getNames(tree, "g").get(2).getParent().getParent();
+      assertInstanceOf(FunctionDefinition.class, function);
+      assertTrue(index.rename(function, "h"));
+      assertTrue(getNames(tree, "g").isEmpty());
+    });
+    assertEquals(
+        "int c; int a; void h(); void main() { int b = 1; b = b; h(); } void h() { c = 1; } ",
+        p.transform(
+            "int c; int a; void g(); void main() { int a = 1; a = a; g(); } void g() { c = 1; }"));
+  }
+
+  @Test
+  void testRequiresIdentifierIndex() {
+    p.setRootSupplier(RootSupplier.EMPTY);
+    p.setTransformation((tree, root) -> {
+      assertThrows(IllegalStateException.class, root::getSymbolIndex);
+    });
+    p.transform("int a;");
+  }
+}
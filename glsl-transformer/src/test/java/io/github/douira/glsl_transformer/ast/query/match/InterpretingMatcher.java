@@ -0,0 +1,94 @@
+package io.github.douira.glsl_transformer.ast.query.match;
+
+import java.util.*;
+
+import io.github.douira.glsl_transformer.ast.node.abstract_node.ASTNode;
+import io.github.douira.glsl_transformer.ast.query.match.Matcher.NodeWildcard;
+import io.github.douira.glsl_transformer.ast.traversal.*;
+
+/**
+ * Matches trees against the pattern of a matcher by inspecting each pattern
+ * item while visiting the tree. This is how patterns were matched before they
+ * were compiled and is only used to compare the results and the performance of
+ * compiled matching with.
+ */
+public class InterpretingMatcher extends ASTVoidVisitor {
+  private final List<Object> patternItems;
+  private final int patternItemsSize;
+  private final String wildcardPrefix;
+  private int matchIndex;
+  private boolean matches;
+  private NodeWildcard activeListWildcard;
+
+  public InterpretingMatcher(Matcher<?> matcher) {
+    matcher.preparePatternItems();
+    patternItems = matcher.patternItems;
+    patternItemsSize = matcher.patternItemsSize;
+    wildcardPrefix = matcher.wildcardPrefix;
+  }
+
+  public boolean matches(ASTNode tree) {
+    if (tree == null) {
+      return false;
+    }
+    matchIndex = 0;
+    matches = true;
+    activeListWildcard = null;
+    startVisit(tree);
+    return matches;
+  }
+
+  @Override
+  public Void visit(ASTNode node) {
+    if (!matches || matchIndex >= patternItemsSize && activeListWildcard == null) {
+      matches = false;
+      return null;
+    }
+    var patternItem = matchIndex >= patternItemsSize ? null : patternItems.get(matchIndex++);
+
+    // regular wildcard match
+    if (patternItem instanceof NodeWildcard wildcard && wildcard.test(node)) {
+      // signal list matching
+      activeListWildcard = wildcard.name.endsWith("*") ? wildcard : null;
+      return null;
+    }
+    // list wildcard match
+    else if (activeListWildcard != null) {
+      if (activeListWildcard.test(node)) {
+        matchIndex--;
+        return null;
+      } else {
+        activeListWildcard = null;
+      }
+    }
+
+    // if the pattern item is null here, it failed to match a list at the end
+    if (patternItem == null || node.getClass() != patternItem.getClass()) {
+      matches = false;
+      return null;
+    }
+    return NodeKindDispatch.dispatch(this, node);
+  }
+
+  @Override
+  public void visitVoidData(Object data) {
+    if (!matches
+        || matchIndex >= patternItemsSize
+        || data instanceof ASTNode) {
+      matches = false;
+      return;
+    }
+    var patternItem = patternItems.get(matchIndex++);
+
+    // match either a wildcard or a data item exactly
+    if (wildcardPrefix != null
+        && patternItem instanceof String str
+        && str.startsWith(wildcardPrefix)) {
+      activeListWildcard = null;
+      return;
+    }
+    if (!Objects.equals(data, patternItem)) {
+      matches = false;
+    }
+  }
+}
@@ -0,0 +1,71 @@
+package io.github.douira.glsl_transformer.ast.transform;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.douira.glsl_transformer.test_util.TestWithSingleASTTransformer;
+
+public class ConstantFoldingTest extends TestWithSingleASTTransformer {
+  @Test
+  void testArithmetic() {
+    p.setTransformation(ConstantFolding::apply);
+    assertEquals(
+        "void main() { float a = 1.0f; int b = 7; int c = -3; uint d = 4294967295u; float e = 0.3f; a = a * 6; } ",
+        p.transform(
+            "void main() { float a = 2.0 * 0.5; int b = 1 + 2 * 3; int c = (1 - 4); uint d = 0u - 1u; float e = 0.1 * 3.0; a = a * (2 * 3); }"));
+  }
+
+  @Test
+  void testConversions() {
+    p.setTransformation(ConstantFolding::apply);
+    assertEquals(
+        "void main() { float a = 1.5f; uint b = 3u; double c = 0.5lf; int d = 1 + true; } ",
+        p.transform(
+            "void main() { float a = 3 / 2.0; uint b = 1 + 2u; double c = 1 / 2.0lf; int d = 1 + true; }"));
+  }
+
+  @Test
+  void testUnfoldable() {
+    p.setTransformation(ConstantFolding::apply);
+    assertEquals(
+        "void main() { int a = 1 / 0; int b = 1 << 32; int c = -5 % 3; float d = 1.0f / 0.0f; } ",
+        p.transform(
+            "void main() { int a = 1 / 0; int b = 1 << 32; int c = -5 % 3; float d = 1.0 / 0.0; }"));
+  }
+
+  @Test
+  void testBooleans() {
+    p.setTransformation(ConstantFolding::apply);
+    assertEquals(
+        "void main() { bool a = true; bool b = false; bool c = true; int d = -3; } ",
+        p.transform(
+            "void main() { bool a = 1 < 2.0 && !false; bool b = true ^^ (3u == 3u); bool c = -(-1) != 2; int d = ~2; }"));
+  }
+
+  @Test
+  void testPropagation() {
+    p.setTransformation(ConstantFolding::apply);
+    assertEquals(
+        "const float X = 3.0f; const int Y = 6; const float Z = 4; uniform float u; void main() { float a = 6.0f; float b = u * 12.0f; float c = 4.0f; } ",
+        p.transform(
+            "const float X = 3.0; const int Y = 2 * 3; const float Z = 4; uniform float u; void main() { float a = X * 2.0; float b = u * (Y * 2.0); float c = Z; }"));
+  }
+
+  @Test
+  void testSelectionPruning() {
+    p.setTransformation(ConstantFolding::apply);
+    assertEquals(
+        "const bool DEBUG = false; void main() { int a; a = 2; { a = 3; } if (a > 1) a = 4; else ; } ",
+        p.transform(
+            "const bool DEBUG = false; void main() { int a; if (DEBUG) { a = 1; } if (!DEBUG) a = 2; else a = 5; if (1 > 0) { a = 3; } if (a > 1) a = 4; else if (DEBUG) a = 5; }"));
+  }
+
+  @Test
+  void testWithoutPruning() {
+    p.setTransformation(new ConstantFolding(false, false));
+    assertEquals(
+        "const int X = 1; void main() { if (true) { X++; } } ",
+        p.transform("const int X = 1; void main() { if (2 > 1) { X++; } }"));
+  }
+}
@@ -0,0 +1,85 @@
+package io.github.douira.glsl_transformer.ast.transform;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.douira.glsl_transformer.test_util.TestWithSingleASTTransformer;
+
+public class DeadCodeEliminationTest extends TestWithSingleASTTransformer {
+  @Test
+  void testRemoveFunctions() {
+    p.setTransformation(DeadCodeElimination::apply);
+    assertEquals(
+        "void b(); void main() { b(); } void b() { } ",
+        p.transform(
+            "void a(); void b(); void a() { a(); } void main() { b(); } void b() { } void c() { a(); }"));
+  }
+
+  @Test
+  void testKeepAmbiguousOverloads() {
+    p.setTransformation(DeadCodeElimination::apply);
+    assertEquals(
+        "float f(float x) { return x; } vec2 f(vec2 x) { return x; } void main() { float a = f(1.0f); vec2 b = f(vec2(1.0f)); } ",
+        p.transform(
+            "float f(float x) { return x; } vec2 f(vec2 x) { return x; } float f(float x, float y) { return x; } void main() { float a = f(1.0); vec2 b = f(vec2(1.0)); }"),
+        "It should keep all overloads an ambiguous call may resolve to");
+    assertEquals(
+        "float g(float x) { return x; } vec2 g(vec2 x) { return x; } float y = g(1.0f); void main() { y++; } ",
+        p.transform(
+            "float g(float x) { return x; } vec2 g(vec2 x) { return x; } float y = g(1.0); void main() { y++; }"));
+  }
+
+  @Test
+  void testNoEntryPoint() {
+    p.setTransformation(DeadCodeElimination::apply);
+    assertEquals(
+        "void a() { } ",
+        p.transform("void a() { } int x;"));
+  }
+
+  @Test
+  void testRemoveGlobals() {
+    p.setTransformation(DeadCodeElimination::apply);
+    assertEquals(
+        "const int A = 1; int c = A; void main() { c++; } ",
+        p.transform(
+            "const int A = 1; const int B = A; int c = A, d = B; uniform vec4 u; void main() { c++; }"));
+  }
+
+  @Test
+  void testFixpoint() {
+    p.setTransformation(DeadCodeElimination::apply);
+    assertEquals(
+        "void main() { } ",
+        p.transform(
+            "struct S { float x; }; const float K = 1.0; S make() { return S(K); } float f() { return make().x; } void main() { }"));
+  }
+
+  @Test
+  void testGlobalInitializerCalls() {
+    p.setTransformation(DeadCodeElimination::apply);
+    assertEquals(
+        "float f() { return 1.0f; } float x = f(); void main() { x++; } ",
+        p.transform(
+            "float f() { return 1.0; } float g() { return 2.0; } float x = f(); float y = g(); void main() { x++; }"));
+  }
+
+  @Test
+  void testStructsAndBlocks() {
+    p.setTransformation(DeadCodeElimination::apply);
+    assertEquals(
+        "struct S { float x; }; uniform U { vec4 a; }; void main() { S s; a++; } ",
+        p.transform(
+            "struct S { float x; } unusedS; struct T { float y; }; uniform U { vec4 a; }; uniform V { vec4 b; }; uniform W { vec4 c; } w; void main() { S s; a++; }"));
+  }
+
+  @Test
+  void testKeepInterface() {
+    p.setTransformation(new DeadCodeElimination("main", DeadCodeElimination.KEEP_INTERFACE));
+    assertEquals(
+        "in vec4 a; out vec4 b; uniform U { vec4 c; }; void main() { } ",
+        p.transform(
+            "in vec4 a; out vec4 b; uniform U { vec4 c; }; const int d = 1; void unused() { } void main() { }"));
+  }
+}
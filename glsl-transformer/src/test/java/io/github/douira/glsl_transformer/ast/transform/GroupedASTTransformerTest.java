@@ -35,6 +35,19 @@ public class GroupedASTTransformerTest extends TestWithGroupedASTTransformer {
         "int foo = bar; int foo = zou;");
   }
 
+  @Test
+  void testGroupedSkipUnmodified() {
+    p.setSkipUnmodified(true);
+    p.setTransformation((a, b, c, rootA, rootB, rootC) -> {
+      b.getChildren().add(c.getChildren().remove(0));
+    });
+    var aInput = "int  a;";
+    var result = p.transform(mapOf(aInput, "int b;", "int c;"));
+    assertSame(aInput, result.get(Part.A));
+    assertEquals("int b; int c; ", result.get(Part.B));
+    assertEquals("", result.get(Part.C));
+  }
+
   @Test
   void testGroupedTransformWithNulls() {
     p.setTransformation((a, b, c, rootA, rootB, rootC) -> {
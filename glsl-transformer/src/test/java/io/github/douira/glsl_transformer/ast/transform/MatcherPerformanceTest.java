@@ -0,0 +1,125 @@
+package io.github.douira.glsl_transformer.ast.transform;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.*;
+
+import io.github.douira.glsl_transformer.ast.node.*;
+import io.github.douira.glsl_transformer.ast.node.abstract_node.ASTNode;
+import io.github.douira.glsl_transformer.ast.node.expression.*;
+import io.github.douira.glsl_transformer.ast.node.external_declaration.ExternalDeclaration;
+import io.github.douira.glsl_transformer.ast.query.match.*;
+import io.github.douira.glsl_transformer.parser.ParseShape;
+import io.github.douira.glsl_transformer.test_util.TestResourceManager;
+import io.github.douira.glsl_transformer.test_util.TestResourceManager.DirectoryLocation;
+
+/**
+ * Compares compiled matching with interpreted matching on the nodes that
+ * {@code Root.processMatches} matches: the ancestors of the pattern class of
+ * the identifiers. Only the matching itself is measured. Set
+ * {@link #benchmark} to true to repeat the measurement enough times for a
+ * meaningful comparison.
+ */
+public class MatcherPerformanceTest {
+  static final boolean benchmark = false;
+
+  private static List<TranslationUnit> trees;
+
+  @BeforeAll
+  static void parseTrees() {
+    var parser = new SingleASTTransformer<>();
+    trees = TestResourceManager
+        .getDirectoryResources(DirectoryLocation.GLSLANG_TESTS)
+        .map(resource -> {
+          try {
+            return parser.parseSeparateTranslationUnit(resource.content());
+          } catch (Exception e) {
+            return null;
+          }
+        })
+        .filter(Objects::nonNull)
+        .collect(Collectors.toList());
+  }
+
+  private List<Matcher<?>> createMatchers() {
+    var matchers = new ArrayList<Matcher<?>>();
+    matchers.add(new Matcher<Expression>("___a + ___b", ParseShape.EXPRESSION, "___"));
+    matchers.add(new Matcher<Expression>("texture(___sampler, ___coord)", ParseShape.EXPRESSION, "___"));
+    matchers.add(new Matcher<Expression>("gl_FragColor = a", ParseShape.EXPRESSION) {
+      {
+        markClassWildcard("value", pattern.getRoot().identifierIndex.getOne("a")
+            .getAncestor(ReferenceExpression.class), Expression.class);
+      }
+    });
+    matchers.add(new Matcher<ExternalDeclaration>("uniform vec4 ___name;", ParseShape.EXTERNAL_DECLARATION, "___"));
+    return matchers;
+  }
+
+  /**
+   * Collects the nodes that processMatches would match: the ancestors of the
+   * pattern class of all identifiers, without duplicates.
+   */
+  private static List<ASTNode> collectCandidates(Matcher<?> matcher) {
+    var matchClass = matcher.getPatternClass();
+    var candidates = new ArrayList<ASTNode>();
+    for (var tree : trees) {
+      tree.getRoot().nodeIndex.getStream(Identifier.class)
+          .map(node -> node.getAncestor(matchClass))
+          .filter(Objects::nonNull)
+          .distinct()
+          .forEach(candidates::add);
+    }
+    return candidates;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <N extends ASTNode> int countMatches(
+      Matcher<?> matcher, List<ASTNode> candidates, boolean compiled) {
+    var typedMatcher = (Matcher<N>) matcher;
+    var interpretingMatcher = compiled ? null : new InterpretingMatcher(matcher);
+    var count = 0;
+    for (var candidate : candidates) {
+      if (compiled ? typedMatcher.matches((N) candidate) : interpretingMatcher.matches(candidate)) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  private static int[] measure(List<Matcher<?>> matchers, List<List<ASTNode>> candidates, boolean compiled) {
+    var counts = new int[matchers.size()];
+    for (var i = 0; i < matchers.size(); i++) {
+      counts[i] = countMatches(matchers.get(i), candidates.get(i), compiled);
+    }
+    return counts;
+  }
+
+  private int[] run(List<Matcher<?>> matchers, List<List<ASTNode>> candidates, boolean compiled) {
+    // warmup the JVM and compile the patterns
+    var counts = measure(matchers, candidates, compiled);
+    var n = benchmark ? 100 : 1;
+    var start = System.nanoTime();
+    for (var i = 0; i < n; i++) {
+      measure(matchers, candidates, compiled);
+    }
+    var duration = Duration.ofNanos(System.nanoTime() - start);
+    System.out.println((compiled ? "compiled" : "interpreted") + " matching: "
+        + duration.dividedBy(n) + " (" + n + " times)");
+    return counts;
+  }
+
+  @Test
+  void testCompiledMatchingPerformance() {
+    var matchers = createMatchers();
+    var candidates = matchers.stream().map(MatcherPerformanceTest::collectCandidates).toList();
+    var interpreted = run(matchers, candidates, false);
+    var compiled = run(matchers, candidates, true);
+    assertArrayEquals(interpreted, compiled,
+        "It should find the same matches with compiled and interpreted matching");
+    assertTrue(Arrays.stream(compiled).anyMatch(count -> count > 0));
+  }
+}
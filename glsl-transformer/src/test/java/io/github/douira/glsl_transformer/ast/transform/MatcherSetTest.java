@@ -0,0 +1,82 @@
+package io.github.douira.glsl_transformer.ast.transform;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.douira.glsl_transformer.ast.node.abstract_node.ASTNode;
+import io.github.douira.glsl_transformer.ast.node.expression.Expression;
+import io.github.douira.glsl_transformer.ast.node.external_declaration.ExternalDeclaration;
+import io.github.douira.glsl_transformer.ast.node.statement.Statement;
+import io.github.douira.glsl_transformer.ast.query.match.*;
+import io.github.douira.glsl_transformer.parser.ParseShape;
+import io.github.douira.glsl_transformer.test_util.TestWithSingleASTTransformer;
+
+public class MatcherSetTest extends TestWithSingleASTTransformer {
+  private static final String INPUT = """
+      uniform vec4 color;
+      uniform vec4 other;
+      void main() {
+        gl_FragColor = color + other;
+        gl_FragColor = texture(tex, uv) + color;
+        gl_FragColor = color;
+        x = texture(tex, uv);
+      }
+      """;
+
+  private List<HintedMatcher<?>> createMatchers() {
+    return List.of(
+        new HintedMatcher<Expression>("gl_FragColor = ___a + ___b", ParseShape.EXPRESSION, "___", "gl_FragColor"),
+        new HintedMatcher<Expression>("gl_FragColor = ___a", ParseShape.EXPRESSION, "___", "gl_FragColor"),
+        new HintedMatcher<Statement>("gl_FragColor = color;", ParseShape.STATEMENT, "gl_FragColor"),
+        new HintedMatcher<Expression>("texture(tex, ___coord)", ParseShape.EXPRESSION, "___", "texture"),
+        new HintedMatcher<ExternalDeclaration>("uniform vec4 ___name;", ParseShape.EXTERNAL_DECLARATION, "___",
+            "color"));
+  }
+
+  @Test
+  void testSameMatches() {
+    var tree = p.parseSeparateTranslationUnit(INPUT);
+    var root = tree.getRoot();
+    var matchers = createMatchers();
+    var set = new MatcherSet();
+    for (var matcher : matchers) {
+      set.add(matcher, node -> {
+      });
+    }
+    assertEquals(matchers.size(), set.size());
+
+    var matches = set.findMatches(root);
+    for (var i = 0; i < matchers.size(); i++) {
+      @SuppressWarnings("unchecked")
+      var matcher = (HintedMatcher<ASTNode>) matchers.get(i);
+      var matchClass = matcher.getPatternClass();
+      var expected = root.identifierIndex.getStream(matcher.getHint())
+          .map(node -> node.getAncestor(matchClass))
+          .distinct()
+          .filter(matcher::matches)
+          .collect(Collectors.toSet());
+      assertEquals(expected, new HashSet<>(matches.get(i)),
+          "It should find the same matches as processing the matcher " + i + " alone");
+    }
+    assertEquals(List.of(1, 1, 1, 2, 1), matches.stream().map(List::size).toList());
+  }
+
+  @Test
+  void testProcess() {
+    var tree = p.parseSeparateTranslationUnit(INPUT);
+    var order = new ArrayList<String>();
+    var set = new MatcherSet()
+        .add(new HintedMatcher<Expression>("texture(tex, ___coord)", ParseShape.EXPRESSION, "___", "texture"),
+            node -> order.add("texture"))
+        .add(new HintedMatcher<Expression>("gl_FragColor = ___a", ParseShape.EXPRESSION, "___", "gl_FragColor"),
+            node -> order.add("assignment"));
+    assertTrue(set.process(tree.getRoot()));
+    assertEquals(List.of("texture", "texture", "assignment"), order,
+        "It should run the handlers in the order the matchers were added");
+    assertFalse(new MatcherSet().process(tree.getRoot()));
+  }
+}
@@ -2,6 +2,9 @@ package io.github.douira.glsl_transformer.ast.transform;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.ArrayList;
+import java.util.stream.IntStream;
+
 import org.junit.jupiter.api.Test;
 
 import io.github.douira.glsl_transformer.ast.node.*;
@@ -286,6 +289,32 @@ public class MatcherTest extends TestWithSingleASTTransformer {
     assertNoMatchEx(m, "gl_TextureMatrix[1.0]");
   }
 
+  @Test
+  void testAutoHintedMatcherPerRoot() {
+    var m = new AutoHintedMatcher<Expression>("foo(commonName, ___x)", ParseShape.EXPRESSION, "___");
+    var tree = p.parseSeparateTranslationUnit(
+        "void main() { commonName = commonName + commonName; foo(commonName, x); bar(commonName, y); }");
+    var root = tree.getRoot();
+    assertEquals("commonName", m.getHint());
+    assertEquals("foo", m.getHint(root), "It should select the least frequent identifier");
+    assertEquals(5, m.getCandidates(root).count());
+    m.setSelectHintPerRoot(true);
+    assertEquals(1, m.getCandidates(root).count());
+
+    var found = new ArrayList<Expression>();
+    assertTrue(root.processMatches(p, m, found::add));
+    assertEquals(1, found.size());
+
+    var literals = new AutoHintedMatcher<Expression>("1 + 2", ParseShape.EXPRESSION);
+    literals.setSelectHintPerRoot(true);
+    var literalTree = p.parseSeparateTranslationUnit("int a = 1 + 2; int b = 1 + 3; int c = d + e;");
+    assertNull(literals.getHint(literalTree.getRoot()));
+    assertEquals(3, literals.getCandidates(literalTree.getRoot()).count(),
+        "It should use the nodes of the pattern class without a usable identifier");
+    assertTrue(literalTree.getRoot().processMatches(p, literals, node -> {
+    }));
+  }
+
   @Test
   void testMatchOnlyUniform() {
     p.setTransformation((tree, root) -> {
@@ -316,4 +345,38 @@ public class MatcherTest extends TestWithSingleASTTransformer {
     assertMatchED(m, "int foo;");
     assertNoMatchED(m, "out int foo, bar;");
   }
+
+  @Test
+  void testMatchResult() {
+    var m = new Matcher<>("uniform vec4 ___a = foo + ___b;",
+        ParseShape.EXTERNAL_DECLARATION, "___");
+    var first = new MatchResult();
+    var second = new MatchResult();
+    assertTrue(m.matchesExtract(p.parseSeparateExternalDeclaration("uniform vec4 bar = foo + bam;"), first));
+    assertTrue(m.matchesExtract(p.parseSeparateExternalDeclaration("uniform vec4 baz = foo + bat;"), second));
+    assertEquals("bar", first.getStringDataMatch("a"));
+    assertEquals("baz", second.getStringDataMatch("a"));
+    assertTrue(m.getDataMatches().isEmpty(), "It should not store matches in the matcher");
+
+    assertFalse(m.matchesExtract(p.parseSeparateExternalDeclaration("uniform vec4 bar = foo;"), first));
+    assertTrue(first.getDataMatches().isEmpty(), "It should clear the result if the match fails");
+  }
+
+  @Test
+  void testConcurrentMatching() {
+    var m = new Matcher<>("uniform vec4 ___a = foo + ___b;",
+        ParseShape.EXTERNAL_DECLARATION, "___");
+    var trees = new ArrayList<ExternalDeclaration>();
+    for (var i = 0; i < 200; i++) {
+      trees.add(p.parseSeparateExternalDeclaration(
+          i % 2 == 0 ? "uniform vec4 a" + i + " = foo + b;" : "uniform vec4 a" + i + " = bar + b;"));
+    }
+    var results = IntStream.range(0, trees.size()).parallel().mapToObj(i -> {
+      var result = new MatchResult();
+      return m.matchesExtract(trees.get(i), result) ? result.getStringDataMatch("a") : null;
+    }).toList();
+    for (var i = 0; i < trees.size(); i++) {
+      assertEquals(i % 2 == 0 ? "a" + i : null, results.get(i));
+    }
+  }
 }
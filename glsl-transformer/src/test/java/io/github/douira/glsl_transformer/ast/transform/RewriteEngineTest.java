@@ -0,0 +1,101 @@
+package io.github.douira.glsl_transformer.ast.transform;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.douira.glsl_transformer.ast.node.expression.*;
+import io.github.douira.glsl_transformer.ast.node.expression.binary.AdditionExpression;
+import io.github.douira.glsl_transformer.ast.node.expression.unary.NegationExpression;
+import io.github.douira.glsl_transformer.ast.print.ASTPrinter;
+import io.github.douira.glsl_transformer.ast.query.match.*;
+import io.github.douira.glsl_transformer.parser.ParseShape;
+import io.github.douira.glsl_transformer.test_util.TestWithSingleASTTransformer;
+
+public class RewriteEngineTest extends TestWithSingleASTTransformer {
+  private static Matcher<Expression> createMatcher(String input, String... wildcards) {
+    return new Matcher<Expression>(input, ParseShape.EXPRESSION) {
+      {
+        for (var name : wildcards) {
+          markClassWildcard(name, pattern.getRoot().identifierIndex.getOne(name)
+              .getAncestor(ReferenceExpression.class), Expression.class);
+        }
+      }
+    };
+  }
+
+  private static Template<Expression> createTemplate(String input, String... replacements) {
+    var template = Template.withExpression(input);
+    for (var name : replacements) {
+      template.markLocalReplacement(name, ReferenceExpression.class);
+    }
+    return template;
+  }
+
+  private static RewriteEngine createEngine() {
+    return new RewriteEngine()
+        .addRule(createMatcher("a - b", "a", "b"), createTemplate("a + -b", "a", "b"), "a", "b")
+        .addRule(createMatcher("-0"), (node, match) -> ((NegationExpression) node).getOperand())
+        .addRule(createMatcher("a + 0", "a"), (node, match) -> match.getNodeMatch("a"))
+        .addRule(createMatcher("a * 1", "a"), (node, match) -> match.getNodeMatch("a"));
+  }
+
+  @Test
+  void testFixpoint() {
+    var engine = createEngine();
+    assertEquals(4, engine.size());
+    p.setTransformation((tree, root) -> assertEquals(9, engine.apply(tree)));
+    assertEquals(
+        "void main() { x = y; z = (y) * w; u = f((y)); } ",
+        p.transform("void main() { x = y - 0; z = (y * 1 + 0) * w; u = f((y - 0) * 1); }"),
+        "It should apply rules to the results of other rules until none matches");
+  }
+
+  @Test
+  void testHintedCandidates() {
+    var engine = new RewriteEngine()
+        .addRule(new HintedMatcher<Expression>("max(___a, ___b)", ParseShape.EXPRESSION, "___", "max"),
+            (node, match) -> null)
+        .addRule(createMatcher("a + 0", "a"), (node, match) -> match.getNodeMatch("a"));
+    p.setTransformation(engine);
+    assertEquals(
+        "void main() { x = max(a, b); } ",
+        p.transform("void main() { x = max(a + 0, b) + 0; }"),
+        "It should try the other rules if a rewrite returns null");
+  }
+
+  @Test
+  void testRuleOrder() {
+    var first = createTemplate("first");
+    var engine = new RewriteEngine()
+        .addRule(createMatcher("a", "a"), (node, match) -> node instanceof AdditionExpression
+            ? first.getInstanceFor(node.getRoot())
+            : null)
+        .addRule(createMatcher("a + 0", "a"), (node, match) -> match.getNodeMatch("a"));
+    p.setTransformation(engine);
+    assertEquals(
+        "void main() { x = first; } ",
+        p.transform("void main() { x = y + 0; }"),
+        "It should try wildcard rules and class rules in the order they were added");
+  }
+
+  @Test
+  void testTreeRoot() {
+    var engine = new RewriteEngine()
+        .addRule(createMatcher("a * 1", "a"), createTemplate("a", "a"), "a");
+    var tree = p.parseSeparateExpression("(y * 1) * 1");
+    assertEquals(1, engine.apply(tree));
+    assertEquals("(y) * 1", ASTPrinter.printSimple(tree).trim(),
+        "It should not apply template rules to the root of the rewritten tree");
+  }
+
+  @Test
+  void testRewriteLimit() {
+    var engine = new RewriteEngine()
+        .addRule(createMatcher("a * 1", "a"), createTemplate("a * 1", "a"), "a");
+    engine.setRewriteLimit(10);
+    var tree = p.parseSeparateTranslationUnit("void main() { x = y * 1; }");
+    assertThrows(TransformationException.class, () -> engine.apply(tree),
+        "It should abort rules that never reach a fixpoint");
+  }
+}
@@ -12,6 +12,8 @@ import io.github.douira.glsl_transformer.ast.node.abstract_node.ASTNode;
 import io.github.douira.glsl_transformer.ast.node.declaration.DeclarationMember;
 import io.github.douira.glsl_transformer.ast.node.expression.*;
 import io.github.douira.glsl_transformer.ast.node.external_declaration.ExternalDeclaration;
+import io.github.douira.glsl_transformer.ast.node.type.qualifier.StorageQualifier;
+import io.github.douira.glsl_transformer.ast.node.type.qualifier.StorageQualifier.StorageType;
 import io.github.douira.glsl_transformer.ast.print.PrintType;
 import io.github.douira.glsl_transformer.ast.query.*;
 import io.github.douira.glsl_transformer.parser.ParsingException;
@@ -233,6 +235,41 @@ public class SingleASTTransformerTest extends TestWithSingleASTTransformer {
         "int x = bar;");
   }
 
+  @Test
+  void testSkipUnmodified() {
+    var transformer = new SingleASTTransformer<>();
+    transformer.setSkipUnmodified(true);
+    var input = "int  a = 1;\n";
+
+    transformer.setTransformation(SingleASTTransformer.IDENTITY_TRANSFORMATION);
+    assertSame(input, transformer.transform(input));
+
+    transformer.setTransformation((tree, root) -> {
+      root.nodeIndex.getOne(LiteralExpression.class).changeInteger(2);
+    });
+    assertEquals("int a = 2; ", transformer.transform(input));
+
+    transformer.setTransformation((tree, root) -> {
+      root.identifierIndex.getOne("a").setName("a");
+    });
+    assertSame(input, transformer.transform(input), "It should ignore renaming to the same name");
+
+    transformer.setTransformation((tree, root) -> {
+      tree.outputOptions.setHeaderSuffix("foo");
+    });
+    assertNotSame(input, transformer.transform(input));
+
+    transformer.setTransformation((tree, root) -> {
+      root.nodeIndex.getOne(StorageQualifier.class).setStorageType(StorageType.OUT);
+    });
+    assertEquals("out int b; ", transformer.transform("in  int  b;\n"),
+        "It should detect changes to the data of qualifiers");
+
+    transformer.setSkipUnmodified(false);
+    transformer.setTransformation(SingleASTTransformer.IDENTITY_TRANSFORMATION);
+    assertEquals("int a = 1; ", transformer.transform(input));
+  }
+
   // move subtree within tree
   @Test
   void testSubtreeMoveSwap() {
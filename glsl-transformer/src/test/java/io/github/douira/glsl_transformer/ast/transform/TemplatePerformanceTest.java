@@ -0,0 +1,106 @@
+package io.github.douira.glsl_transformer.ast.transform;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.*;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.douira.glsl_transformer.ast.node.Identifier;
+import io.github.douira.glsl_transformer.ast.node.abstract_node.ASTNode;
+import io.github.douira.glsl_transformer.ast.node.expression.ReferenceExpression;
+import io.github.douira.glsl_transformer.ast.node.statement.Statement;
+import io.github.douira.glsl_transformer.ast.query.RootSupplier;
+import io.github.douira.glsl_transformer.ast.traversal.ASTKindVoidVisitor;
+
+/**
+ * Compares instantiating a template with and without bulk registration. Each
+ * root receives a number of instances like a shader that a template is
+ * injected into many times. Set {@link #benchmark} to true to repeat the
+ * measurement enough times for a meaningful comparison. The instances of each
+ * root are also created in a single batch.
+ */
+public class TemplatePerformanceTest {
+  static final boolean benchmark = false;
+  static final int instancesPerRoot = 50;
+
+  private static Template<Statement> createTemplate() {
+    var template = Template.withStatement(
+        "if (a.x > 0.5 && texture(tex, uv * 2.0 + vec2(1.0, 2.0)).r < b) { c = mix(d, e, f) * 3.0; }");
+    template.markLocalReplacement("uv", ReferenceExpression.class);
+    template.markIdentifierReplacement("tex", () -> new Identifier("replacedTex"));
+    return template;
+  }
+
+  private static void instantiate(
+      Template<Statement> template, boolean batch, int roots, List<Statement> instances) {
+    for (var i = 0; i < roots; i++) {
+      var root = RootSupplier.supplyDefault();
+      var localReplacements = new ArrayList<List<ASTNode>>(instancesPerRoot);
+      for (var j = 0; j < instancesPerRoot; j++) {
+        var name = "coord" + j;
+        localReplacements.add(List.of(root.indexNodes(() -> new ReferenceExpression(new Identifier(name)))));
+      }
+      List<Statement> rootInstances;
+      if (batch) {
+        rootInstances = template.instantiateAll(root, localReplacements);
+      } else {
+        rootInstances = new ArrayList<>(instancesPerRoot);
+        for (var replacements : localReplacements) {
+          rootInstances.add(template.getInstanceFor(root, replacements));
+        }
+      }
+      if (instances != null) {
+        instances.addAll(rootInstances);
+      }
+    }
+  }
+
+  private static List<Statement> run(Template<Statement> template, boolean batch) {
+    // warmup the JVM and keep the instances for comparison
+    var instances = new ArrayList<Statement>();
+    instantiate(template, batch, 100, instances);
+    var roots = benchmark ? 20000 : 10;
+    var start = System.nanoTime();
+    instantiate(template, batch, roots, null);
+    var duration = Duration.ofNanos(System.nanoTime() - start);
+    System.out.println((batch ? "batch" : template.isCompiled() ? "compiled" : "uncompiled") + " instantiation: "
+        + duration.dividedBy(roots * instancesPerRoot) + " per instance");
+    return instances;
+  }
+
+  @Test
+  void testCompiledInstantiationPerformance() {
+    var uncompiled = run(createTemplate(), false);
+    var compiled = run(createTemplate().compile(), false);
+    var batch = run(createTemplate(), true);
+    assertEquals(uncompiled.size(), compiled.size());
+    assertEquals(uncompiled.size(), batch.size());
+    for (var i = 0; i < compiled.size(); i++) {
+      assertTrue(uncompiled.get(i).equalsStructurally(compiled.get(i)),
+          "It should create the same instances with and without bulk registration");
+      assertTrue(uncompiled.get(i).equalsStructurally(batch.get(i)),
+          "It should create the same instances in a batch");
+    }
+
+    for (var instances : List.of(compiled, batch)) {
+      checkInstance(instances.get(0));
+    }
+  }
+
+  private static void checkInstance(Statement instance) {
+    var root = instance.getRoot();
+    assertEquals(1, root.identifierIndex.get("replacedTex").stream()
+        .filter(identifier -> identifier.hasAncestor(instance)).count());
+    assertTrue(root.identifierIndex.get("coord0").stream()
+        .anyMatch(identifier -> identifier.hasAncestor(instance)),
+        "It should insert the local replacement");
+    new ASTKindVoidVisitor() {
+      @Override
+      public void visitVoid(ASTNode node) {
+        assertTrue(root.nodeIndex.hasExact(node), "It should register the nodes of the instance");
+      }
+    }.visit(instance);
+  }
+}
@@ -0,0 +1,104 @@
+package io.github.douira.glsl_transformer.ast.transform;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.douira.glsl_transformer.ast.node.Identifier;
+import io.github.douira.glsl_transformer.ast.node.abstract_node.ASTNode;
+import io.github.douira.glsl_transformer.ast.node.expression.*;
+import io.github.douira.glsl_transformer.ast.node.statement.Statement;
+import io.github.douira.glsl_transformer.ast.print.ASTPrinter;
+import io.github.douira.glsl_transformer.ast.query.*;
+import io.github.douira.glsl_transformer.test_util.TestWithSingleASTTransformer;
+
+public class TemplateTest extends TestWithSingleASTTransformer {
+  private static Template<Statement> createTemplate() {
+    var template = Template.withStatement("x = a + b * c;");
+    template.markLocalReplacement("a", ReferenceExpression.class);
+    template.markLocalReplacement("b", ReferenceExpression.class);
+    template.markIdentifierReplacement("c", () -> new Identifier("supplied"));
+    return template;
+  }
+
+  private static Expression createReference(Root root, String name) {
+    return root.indexNodes(() -> new ReferenceExpression(new Identifier(name)));
+  }
+
+  @Test
+  void testPerCallReplacements() {
+    for (var template : List.of(createTemplate(), createTemplate().compile())) {
+      var root = RootSupplier.supplyDefault();
+      template.supplyLocalReplacements(createReference(root, "stored1"), createReference(root, "stored2"));
+      assertEquals("x = first + second * supplied;\n", ASTPrinter.printSimple(
+          template.getInstanceFor(root, createReference(root, "first"), createReference(root, "second"))));
+      assertEquals("x = stored1 + stored2 * supplied;\n", ASTPrinter.printSimple(template.getInstanceFor(root)),
+          "It should not replace the stored local replacements with the ones passed to a single call");
+      assertThrows(IllegalStateException.class,
+          () -> template.getInstanceFor(root, createReference(root, "first")));
+    }
+  }
+
+  @Test
+  void testConcurrentInstantiation() {
+    for (var template : List.of(createTemplate(), createTemplate().compile())) {
+      var results = IntStream.range(0, 200).parallel().mapToObj(i -> {
+        var root = RootSupplier.supplyDefault();
+        var instance = template.getInstanceFor(root,
+            createReference(root, "a" + i), createReference(root, "b" + i));
+        assertSame(root, instance.getRoot());
+        assertEquals(1, root.identifierIndex.get("a" + i).size());
+        return ASTPrinter.printSimple(instance);
+      }).toList();
+      for (var i = 0; i < results.size(); i++) {
+        assertEquals("x = a" + i + " + b" + i + " * supplied;\n", results.get(i),
+            "It should instantiate a shared template on multiple threads at the same time");
+      }
+    }
+  }
+
+  @Test
+  void testInstantiateAll() {
+    var template = Template.withExternalDeclaration("uniform float a;");
+    template.markIdentifierReplacement("a");
+    p.setTransformation((tree, root) -> {
+      var localReplacements = new ArrayList<List<ASTNode>>();
+      for (var i = 0; i < 3; i++) {
+        var name = "u" + i;
+        localReplacements.add(List.of(root.indexNodes(() -> new Identifier(name))));
+      }
+      var instances = tree.injectInstances(ASTInjectionPoint.BEFORE_FUNCTIONS, template, localReplacements);
+      assertEquals(3, instances.size());
+      assertTrue(template.isCompiled());
+      for (var i = 0; i < 3; i++) {
+        var instance = instances.get(i);
+        assertSame(tree, instance.getParent());
+        assertTrue(root.identifierIndex.getOne("u" + i).hasAncestor(instance),
+            "It should register the nodes of all instances");
+      }
+    });
+    assertEquals(
+        "uniform float u0; uniform float u1; uniform float u2; void main() { } ",
+        p.transform("void main() { }"),
+        "It should inject one instance for each list of local replacements");
+  }
+
+  @Test
+  void testFailedInstantiation() {
+    var template = Template.withStatement("x = a + b;");
+    template.markIdentifierReplacement("b", () -> {
+      throw new IllegalStateException("failed");
+    });
+    template.compile();
+    var root = RootSupplier.supplyDefault();
+    assertThrows(IllegalStateException.class, () -> template.getInstanceFor(root));
+    assertThrows(IllegalStateException.class,
+        () -> template.instantiateAll(root, List.of(List.of(), List.of())));
+    assertFalse(root.identifierIndex.has("x"),
+        "It should not register the nodes of an instance that failed to build");
+    assertFalse(root.identifierIndex.has("a"));
+  }
+}
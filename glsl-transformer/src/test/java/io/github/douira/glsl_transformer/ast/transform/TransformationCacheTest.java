@@ -0,0 +1,128 @@
+package io.github.douira.glsl_transformer.ast.transform;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.douira.glsl_transformer.ast.node.TranslationUnit;
+import io.github.douira.glsl_transformer.ast.node.expression.LiteralExpression;
+import io.github.douira.glsl_transformer.ast.print.PrintType;
+import io.github.douira.glsl_transformer.parser.EnhancedParser.ParsingStrategy;
+import io.github.douira.glsl_transformer.test_util.TestWithGroupedASTTransformer;
+
+public class TransformationCacheTest extends TestWithGroupedASTTransformer {
+  private record Parameters(int value) implements JobParameters {
+  }
+
+  @Test
+  void testSingleCache() {
+    var runs = new AtomicInteger();
+    var transformer = new SingleASTTransformer<Parameters>();
+    transformer.setTransformation((tree, root, parameters) -> {
+      runs.incrementAndGet();
+      root.nodeIndex.getOne(LiteralExpression.class).changeInteger(parameters.value());
+    });
+    var cache = new TransformationCache<String>();
+    transformer.setResultCache(cache);
+
+    assertEquals("int a = 1; ", transformer.transform("int a = 0;", new Parameters(1)));
+    assertEquals("int a = 1; ", transformer.transform("int a = 0;", new Parameters(1)));
+    assertEquals(1, runs.get(), "It should return the cached result");
+    assertEquals("int a = 2; ", transformer.transform("int a = 0;", new Parameters(2)));
+    assertEquals("int b = 2; ", transformer.transform("int b = 0;", new Parameters(2)));
+    assertEquals(3, runs.get());
+    assertEquals(1, cache.getHitCount());
+    assertEquals(3, cache.getMissCount());
+    assertEquals(0.25, cache.getHitRate());
+    assertEquals(3, cache.size());
+
+    transformer.setTransformation(SingleASTTransformer.IDENTITY_TRANSFORMATION);
+    assertEquals(0, cache.size(), "It should clear the cache when the transformation changes");
+    assertEquals("int a = 0; ", transformer.transform("int a = 0;", new Parameters(1)));
+  }
+
+  @Test
+  void testSettersClearCache() {
+    var transformer = new SingleASTTransformer<>(SingleASTTransformer.IDENTITY_TRANSFORMATION);
+    var cache = new TransformationCache<String>();
+    transformer.setResultCache(cache);
+    var setters = new Runnable[] {
+        () -> transformer.setPrintType(PrintType.INDENTED),
+        () -> transformer.setThrowParseErrors(false),
+        () -> transformer.setParsingStrategy(ParsingStrategy.SLL_ONLY),
+        () -> transformer.setLLOnly(),
+        () -> transformer.setRootSupplier(transformer.getRootSupplier()),
+        () -> transformer.setParsingCacheStrategy(ASTParser.ParsingCacheStrategy.NONE),
+        () -> transformer.setASTCacheStrategy(ASTParser.ASTCacheStrategy.NONE),
+        () -> transformer.setParseLineDirectives(true),
+        () -> transformer.setTokenFilter(null)
+    };
+    for (var setter : setters) {
+      transformer.transform("int a;");
+      assertEquals(1, cache.size());
+      setter.run();
+      assertEquals(0, cache.size(), "It should clear the cache when an output setting changes");
+    }
+  }
+
+  @Test
+  void testSharedCache() {
+    var first = new SingleASTTransformer<>(SingleASTTransformer.IDENTITY_TRANSFORMATION);
+    var second = new SingleASTTransformer<>(tree -> tree.getChildren().clear());
+    var cache = new TransformationCache<String>();
+    first.setResultCache(cache);
+    first.transform("int a;");
+    assertThrows(IllegalArgumentException.class, () -> second.setResultCache(cache),
+        "It should not share a cache between transformers");
+    assertEquals("", second.transform("int a;"));
+
+    first.setResultCache(null);
+    assertEquals(0, cache.size(), "It should clear a released cache");
+    second.setResultCache(cache);
+    assertEquals("", second.transform("int a;"));
+    assertEquals("int a; ", first.transform("int a;"));
+  }
+
+  @Test
+  void testBounds() {
+    var cache = new TransformationCache<String>(2, 10);
+    cache.put("a", null, "A", 2);
+    cache.put("b", null, "B", 2);
+    assertEquals("A", cache.get("a", null));
+    cache.put("c", null, "C", 2);
+    assertNull(cache.get("b", null), "It should evict the least recently used entry");
+    assertEquals(1, cache.getEvictionCount());
+
+    cache.put("d", null, "D", 9);
+    assertEquals(1, cache.size(), "It should evict entries to stay within the weight");
+    assertEquals(9, cache.getWeight());
+    cache.put("e", null, "E", 11);
+    assertNull(cache.get("e", null), "It should not store entries heavier than the maximum weight");
+    assertEquals("D", cache.get("d", null));
+
+    assertThrows(IllegalArgumentException.class, () -> new TransformationCache<String>(0));
+  }
+
+  @Test
+  void testGroupedCache() {
+    var runs = new AtomicInteger();
+    p.setTransformation((TranslationUnit a, TranslationUnit b, TranslationUnit c) -> {
+      runs.incrementAndGet();
+      a.getChildren().add(b.getChildren().remove(0));
+    });
+    p.setResultCache(new TransformationCache<>());
+    var input = mapOf("int a;", "int b;", "");
+    var expected = mapOf("int a; int b; ", "", "");
+
+    var first = p.transform(input);
+    assertEquals(expected, first);
+    first.clear();
+    input.put(Part.C, "int c;");
+    assertEquals(mapOf("int a; int b; ", "", "int c; "), p.transform(input));
+    input.put(Part.C, "");
+    assertEquals(expected, p.transform(input), "It should not be affected by changes to previous maps");
+    assertEquals(2, runs.get());
+  }
+}
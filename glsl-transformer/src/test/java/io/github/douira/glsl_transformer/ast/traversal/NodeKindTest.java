@@ -0,0 +1,107 @@
+package io.github.douira.glsl_transformer.ast.traversal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.douira.glsl_transformer.ast.node.Identifier;
+import io.github.douira.glsl_transformer.ast.node.abstract_node.*;
+import io.github.douira.glsl_transformer.ast.node.expression.Expression;
+import io.github.douira.glsl_transformer.ast.node.expression.binary.*;
+import io.github.douira.glsl_transformer.test_util.TestWithSingleASTTransformer;
+
+public class NodeKindTest extends TestWithSingleASTTransformer {
+  private static final String input = """
+      uniform vec4 u;
+      int *p;
+      float f(float a, float b) { return a + b * 2.0 - u.x; }
+      void main() { float x = f(1.0, 2.0); if (x > 0.0) { x += 1.0; } }
+      """;
+
+  @Test
+  void testKindsMatchClasses() {
+    var kinds = new HashSet<NodeKind>();
+    for (var kind : NodeKind.values()) {
+      assertEquals(kind, NodeKind.of(kind.nodeClass));
+      assertEquals(kind, NodeKind.fromOrdinal(kind.ordinal()));
+    }
+    assertNull(NodeKind.of(Expression.class));
+
+    var tree = p.parseSeparateTranslationUnit(input);
+    new ASTVoidVisitor() {
+      @Override
+      public void visitVoid(ASTNode node) {
+        assertEquals(node.getClass(), node.getNodeKind().nodeClass);
+        kinds.add(node.getNodeKind());
+      }
+    }.visit(tree);
+    assertTrue(kinds.contains(NodeKind.ADDITION_EXPRESSION));
+    assertTrue(kinds.contains(NodeKind.POINTER_SPECIFIER));
+  }
+
+  @Test
+  void testKindDispatchVisitsSameNodes() {
+    var tree = p.parseSeparateTranslationUnit(input);
+    var expected = new ArrayList<ASTNode>();
+    new ASTVoidVisitor() {
+      @Override
+      public void visitVoid(ASTNode node) {
+        expected.add(node);
+      }
+    }.visit(tree);
+
+    var actual = new ArrayList<ASTNode>();
+    new ASTKindVoidVisitor() {
+      @Override
+      public void visitVoid(ASTNode node) {
+        actual.add(node);
+      }
+    }.visit(tree);
+    assertEquals(expected, actual);
+  }
+
+  @Test
+  void testNodeKindWalker() {
+    var tree = p.parseSeparateTranslationUnit(input);
+    var identifiers = new ArrayList<Identifier>();
+    var binaryExpressions = new ArrayList<BinaryExpression>();
+    var walker = new NodeKindWalker()
+        .on(Identifier.class, identifiers::add)
+        .on(BinaryExpression.class, binaryExpressions::add);
+    assertTrue(walker.handles(NodeKind.MULTIPLICATION_EXPRESSION));
+    assertFalse(walker.handles(NodeKind.FUNCTION_DEFINITION));
+    walker.walk(tree);
+    assertEquals(tree.getRoot().nodeIndex.get(Identifier.class).size(), identifiers.size());
+    assertEquals(5, binaryExpressions.size());
+  }
+
+  @Test
+  void testWalkerSkipsOnlyUnhandledKinds() {
+    var tree = p.parseSeparateTranslationUnit(input);
+    var entered = new ArrayList<Expression>();
+    var exited = new ArrayList<AdditionExpression>();
+    ASTWalker.walk(new ASTListener() {
+      @Override
+      public void enterExpression(Expression node) {
+        entered.add(node);
+      }
+
+      @Override
+      public void exitAdditionExpression(AdditionExpression node) {
+        exited.add(node);
+      }
+    }, tree);
+    assertFalse(entered.isEmpty());
+    assertEquals(tree.getRoot().nodeIndex.get(AdditionExpression.class).size(), exited.size());
+    var table = ListenerDispatchTable.get(new ASTListener() {
+      @Override
+      public void enterAdditionExpression(AdditionExpression node) {
+      }
+    }.getClass());
+    assertTrue(table.entersKind(NodeKind.ADDITION_EXPRESSION));
+    assertFalse(table.exitsKind(NodeKind.ADDITION_EXPRESSION));
+    assertFalse(table.entersKind(NodeKind.SUBTRACTION_EXPRESSION));
+  }
+}